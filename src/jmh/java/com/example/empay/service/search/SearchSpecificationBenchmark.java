@@ -0,0 +1,99 @@
+package com.example.empay.service.search;
+
+import com.example.empay.EmpayApplication;
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.service.transaction.search.TransactionSearchPlanCompiler;
+import com.example.empay.service.transaction.search.TransactionSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the creation of the predicate of a transaction search by the reflective {@link SpecificationBuilder} with
+ * the compiled and cached {@link SearchPlanCompiler}. Both create the predicate of the same search criteria on a new
+ * criteria query, without executing it.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=SearchSpecificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private EntityManager entityManager;
+
+    private TransactionSearchPlanCompiler compiler;
+
+    private List<SearchCriteria> searchCriteria;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(EmpayApplication.class)
+                .properties("server.port=0", "spring.quartz.auto-startup=false", "logging.level.root=WARN")
+                .run();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        compiler = new TransactionSearchPlanCompiler();
+        searchCriteria = List.of(
+                criteria("merchantId", "eq", 4L, null),
+                criteria("status.id", "ne", "E", null),
+                criteria("amount", "bt", new BigDecimal("10.00"), new BigDecimal("100.00")),
+                criteria("customerEmail", "cn", "@test", null),
+                criteria("createdDate", "ge", "2024-01-01T00:00:00+02:00", null),
+                criteria("referenceId", "nn", null, null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate reflectiveSpecification() {
+        SpecificationBuilder<Transaction> builder = new SpecificationBuilder<>(TransactionSpecification::new,
+                entityManager);
+        searchCriteria.forEach(builder::with);
+        return toPredicate(builder.build());
+    }
+
+    @Benchmark
+    public Predicate compiledPlan() {
+        return toPredicate(compiler.toSpecification(entityManager, searchCriteria));
+    }
+
+    private Predicate toPredicate(final Specification<Transaction> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        return specification.toPredicate(root, query, cb);
+    }
+
+    private static SearchCriteria criteria(final String filterKey, final String operation, final Object value,
+                                           final Object value2) {
+        SearchCriteria criteria = new SearchCriteria(filterKey, operation, value, value2);
+        criteria.setDataOption("all");
+        return criteria;
+    }
+}
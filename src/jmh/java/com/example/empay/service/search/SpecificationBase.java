@@ -21,7 +21,9 @@ import java.util.Objects;
 import java.util.UUID;
 
 /**
- * Specification used to create search query for a JPA entity.
+ * Specification used to create search query for a JPA entity. The application searches with the compiled plans of
+ * the {@link SearchPlanCompiler}, this reflective specification is kept only as the baseline of the
+ * {@link SearchSpecificationBenchmark}.
  *
  * @param <T> The class of the JPA entity.
  */
@@ -72,14 +72,13 @@ public class TransactionSpecification extends SpecificationBase<Transaction> {
         if (PROPERTY_STATUS_TYPE_ID.equals(getSearchCriteria().getFilterKey())) {
             switch (searchOperation) {
                 case EQUAL:
-                    return cb.equal(root.get(PROPERTY_STATUS),
-                            getEntityManager().getReference(TransactionStatusType.class,
-                                    getSearchCriteria().getValue()));
+                    // A status that does not exist matches no transaction
+                    return TransactionStatusType.TYPE.findById(String.valueOf(getSearchCriteria().getValue()))
+                            .map(it -> cb.equal(root.get(PROPERTY_STATUS), it)).orElseGet(cb::disjunction);
 
                 case NOT_EQUAL:
-                    return cb.notEqual(root.get(PROPERTY_STATUS),
-                            getEntityManager().getReference(TransactionStatusType.class,
-                                    getSearchCriteria().getValue()));
+                    return TransactionStatusType.TYPE.findById(String.valueOf(getSearchCriteria().getValue()))
+                            .map(it -> cb.notEqual(root.get(PROPERTY_STATUS), it)).orElseGet(cb::conjunction);
 
                 default:
                     throw new SearchRequestException(
@@ -93,12 +92,13 @@ public class TransactionSpecification extends SpecificationBase<Transaction> {
         if (PROPERTY_TYPE_ID.equals(getSearchCriteria().getFilterKey())) {
             switch (searchOperation) {
                 case EQUAL:
-                    return cb.equal(root.get(PROPERTY_TYPE),
-                            getEntityManager().getReference(TransactionType.class, getSearchCriteria().getValue()));
+                    // A type that does not exist matches no transaction
+                    return TransactionType.TYPE.findById(String.valueOf(getSearchCriteria().getValue()))
+                            .map(it -> cb.equal(root.get(PROPERTY_TYPE), it)).orElseGet(cb::disjunction);
 
                 case NOT_EQUAL:
-                    return cb.notEqual(root.get(PROPERTY_TYPE),
-                            getEntityManager().getReference(TransactionType.class, getSearchCriteria().getValue()));
+                    return TransactionType.TYPE.findById(String.valueOf(getSearchCriteria().getValue()))
+                            .map(it -> cb.notEqual(root.get(PROPERTY_TYPE), it)).orElseGet(cb::conjunction);
 
                 default:
                     throw new SearchRequestException(
@@ -0,0 +1,111 @@
+package com.example.empay.config;
+
+import com.example.empay.util.Constants;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the in-process JCache (Caffeine) regions backing the Hibernate second-level cache. The size and
+ * time to live of each region are configured by {@code hibernateCache.regions.<name>.maxEntries} and
+ * {@code hibernateCache.regions.<name>.ttlSeconds}, a time to live of 0 disables expiry.
+ */
+@Configuration
+@Slf4j
+public class HibernateCacheConfiguration {
+
+    /**
+     * Default maximum number of entries of a region.
+     */
+    private static final long DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * Default time to live of the entries of a region, in seconds.
+     */
+    private static final long DEFAULT_TTL_SECONDS = 300;
+
+    /**
+     * Configurable cache regions by the name of their configuration properties.
+     */
+    private static final Map<String, String> REGIONS = Map.of(
+            "merchant", Constants.CACHE_REGION_MERCHANT,
+            "userLogin", Constants.CACHE_REGION_USER_LOGIN,
+            "userLoginNaturalId", Constants.CACHE_REGION_USER_LOGIN_NATURAL_ID,
+            "nomenclature", Constants.CACHE_REGION_NOMENCLATURE,
+            "query", Constants.CACHE_REGION_QUERY);
+
+    /**
+     * Create the cache manager with all cache regions.
+     *
+     * @param environment The environment providing the configuration of the regions.
+     * @return The cache manager, closed with the application context.
+     */
+    @Bean
+    public CacheManager hibernateCacheManager(final Environment environment) {
+        CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(),
+                getClass().getClassLoader());
+
+        boolean statistics = environment.getProperty("hibernateCache.statistics", Boolean.class, false);
+        REGIONS.forEach((key, region) -> {
+            String prefix = "hibernateCache.regions." + key + ".";
+            long maxEntries = environment.getProperty(prefix + "maxEntries", Long.class, DEFAULT_MAX_ENTRIES);
+            long ttlSeconds = environment.getProperty(prefix + "ttlSeconds", Long.class, DEFAULT_TTL_SECONDS);
+            createRegion(cacheManager, region, OptionalLong.of(maxEntries),
+                    ttlSeconds > 0 ? OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)) : OptionalLong.empty(),
+                    statistics);
+            log.info("Created cache region [{}], max entries {}, TTL {}s", region, maxEntries, ttlSeconds);
+        });
+        // Evicting an update timestamp could serve stale query results, therefore the region is never bounded
+        createRegion(cacheManager, Constants.CACHE_REGION_UPDATE_TIMESTAMPS, OptionalLong.empty(),
+                OptionalLong.empty(), statistics);
+        return cacheManager;
+    }
+
+    /**
+     * Pass the cache manager to Hibernate.
+     *
+     * @param hibernateCacheManager The cache manager.
+     * @return A customizer of the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(final CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Create a cache region, replacing a region with the same name left by a previous application context.
+     *
+     * @param cacheManager      The cache manager.
+     * @param region            The region name.
+     * @param maxEntries        The maximum number of entries, empty for unbounded.
+     * @param expireAfterWrite  The time to live of the entries in nanoseconds, empty for no expiry.
+     * @param statistics        Whether to collect the statistics of the region.
+     */
+    private static void createRegion(final CacheManager cacheManager, final String region,
+                                     final OptionalLong maxEntries, final OptionalLong expireAfterWrite,
+                                     final boolean statistics) {
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, copying it on every access is not needed
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(statistics);
+        configuration.setMaximumSize(maxEntries);
+        configuration.setExpireAfterWrite(expireAfterWrite);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.empay.config;
 
 import com.example.empay.job.DeleteOldTransactionsJob;
+import com.example.empay.job.SnapshotMerchantLedgerJob;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +26,12 @@ public class QuartzJobConfiguration {
     @Value("${jobs.deleteOldTransactions.cronTrigger:0 0 * * * ?}")
     private String deleteOldTransactionsJobCron;
 
+    /**
+     * Configuration of the cron trigger of the Snapshot Merchant Ledger job.
+     */
+    @Value("${jobs.snapshotMerchantLedger.cronTrigger:0 * * * * ?}")
+    private String snapshotMerchantLedgerJobCron;
+
     /**
      * Create job details for the Delete Old Transactions job.
      *
@@ -45,7 +53,7 @@ public class QuartzJobConfiguration {
      * @return The created trigger.
      */
     @Bean
-    public Trigger trigger(final JobDetail job) {
+    public Trigger trigger(@Qualifier("jobDetail") final JobDetail job) {
         log.info("Cron trigger for delete old transactions quartz job: {}", deleteOldTransactionsJobCron);
         return TriggerBuilder.newTrigger().forJob(job)
                 .withIdentity("delete_old_transactions_trigger")
@@ -53,4 +61,34 @@ public class QuartzJobConfiguration {
                 .withSchedule(CronScheduleBuilder.cronSchedule(deleteOldTransactionsJobCron))
                 .build();
     }
+
+    /**
+     * Create job details for the Snapshot Merchant Ledger job.
+     *
+     * @return A JobDetail instance.
+     */
+    @Bean
+    public JobDetail snapshotMerchantLedgerJobDetail() {
+        return JobBuilder.newJob().ofType(SnapshotMerchantLedgerJob.class)
+                .storeDurably()
+                .withIdentity("Snapshot_merchant_ledger")
+                .withDescription("Create snapshots of the merchant ledger")
+                .build();
+    }
+
+    /**
+     * Create a trigger for the Snapshot Merchant Ledger job.
+     *
+     * @param job The job detail.
+     * @return The created trigger.
+     */
+    @Bean
+    public Trigger snapshotMerchantLedgerTrigger(@Qualifier("snapshotMerchantLedgerJobDetail") final JobDetail job) {
+        log.info("Cron trigger for snapshot merchant ledger quartz job: {}", snapshotMerchantLedgerJobCron);
+        return TriggerBuilder.newTrigger().forJob(job)
+                .withIdentity("snapshot_merchant_ledger_trigger")
+                .withDescription("Snapshot merchant ledger job trigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(snapshotMerchantLedgerJobCron))
+                .build();
+    }
 }
@@ -3,6 +3,7 @@ package com.example.empay.config;
 import com.example.empay.security.AuthenticationHandler;
 import com.example.empay.security.DefaultLogoutHandler;
 import com.example.empay.security.EmpayAuthenticationEntryPoint;
+import com.example.empay.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -56,6 +57,7 @@ public class SecurityConfiguration {
                                                 antMatcher("/error"),
                                                 antMatcher("/api-docs/**"),
                                                 antMatcher("/swagger-ui/**")).permitAll()
+                                        .requestMatchers(antMatcher("/actuator/**")).hasAuthority(Constants.ROLE_ADMIN)
                                         .requestMatchers(antMatcher("/**")).authenticated()
                 )
                 .headers(headers -> headers.frameOptions(customizer -> customizer.disable())) // Needed for H2 console
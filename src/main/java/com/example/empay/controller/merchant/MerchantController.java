@@ -1,14 +1,18 @@
 package com.example.empay.controller.merchant;
 
+import com.example.empay.controller.search.SearchExportFormat;
 import com.example.empay.controller.search.SearchRequest;
 import com.example.empay.controller.search.SearchResponse;
 import com.example.empay.dto.error.ConstraintValidationErrorInfo;
 import com.example.empay.dto.error.ErrorInfo;
 import com.example.empay.dto.merchant.MerchantDto;
 import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.exception.MerchantValidationException;
 import com.example.empay.security.EmpayUserDetails;
 import com.example.empay.service.merchant.MerchantService;
+import com.example.empay.service.search.SearchExport;
 import com.example.empay.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,7 +26,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +43,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -59,13 +63,6 @@ public class MerchantController {
     public static final String ERROR_NON_EXISTING_IDENTIFIER_TYPE =
             "Non-existing identifier type specified in property [identifierTypeId].";
 
-    /**
-     * Constant with the error message displayed when a merchant is attempted to be created using a non-existing
-     * MerchantStatusType.
-     */
-    public static final String ERROR_NON_EXISTING_STATUS =
-            "Non-existing MerchantStatusType specified in property [statusId].";
-
     /**
      * Constant with the error message displayed when a merchant is attempted to be created using an already existing
      * combination of identifier type + value.
@@ -85,6 +82,12 @@ public class MerchantController {
     @Autowired
     private MerchantService merchantService;
 
+    /**
+     * Object mapper used to write exported merchants.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Load a merchant by ID.
      *
@@ -204,9 +207,10 @@ public class MerchantController {
     /**
      * Search for merchants using a combination of search criteria.
      *
-     * @param pageNum       Return page identifier starting from 0 (zero).
+     * @param pageNum       Return page identifier starting from 0 (zero), ignored if a cursor is provided.
      * @param pageSize      Size of the results page.
-     * @param searchRequest Object containing the search criteria.
+     * @param searchRequest Object containing the search criteria and optionally the fields to return, the cursor of
+     *                      keyset pagination or how to count the results.
      * @param userDetails   Authentication object of the currently logged user.
      * @return A paged result.
      */
@@ -219,7 +223,7 @@ public class MerchantController {
             @ApiResponse(responseCode = "500",
                     description = "Internal Server Error. Contact support team for resolution.",
                     content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
-    public ResponseEntity<SearchResponse<MerchantDto>> search(
+    public ResponseEntity<SearchResponse<?>> search(
             @RequestParam(name = "pageNum", defaultValue = "0")
             @Parameter(name = "pageNum", description = "Request page number starting from zero.") final Integer pageNum,
             @RequestParam(name = "pageSize", defaultValue = "10")
@@ -229,16 +233,55 @@ public class MerchantController {
             final SearchRequest searchRequest,
             @AuthenticationPrincipal final EmpayUserDetails userDetails) {
 
-        Page<MerchantDto> page =
-                merchantService.findBySearchCriteria(searchRequest, pageSize, pageNum, userDetails.getMerchantId());
-
-        SearchResponse<MerchantDto> apiResponse = new SearchResponse<>();
-        apiResponse.setData(page.toList());
-        apiResponse.setTotalElements(page.getTotalElements());
-        apiResponse.setTotalPages(page.getTotalPages());
+        SearchResponse<?> apiResponse;
+        if (searchRequest != null && searchRequest.hasCursor()) {
+            apiResponse = SearchResponse.of(merchantService.scrollBySearchCriteria(searchRequest, pageSize,
+                    userDetails.getMerchantId()));
+        } else if (searchRequest != null && searchRequest.hasFields()) {
+            apiResponse = SearchResponse.of(merchantService.findFieldsBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        } else if (searchRequest != null && !searchRequest.hasExactCount()) {
+            apiResponse = SearchResponse.of(merchantService.findSliceBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        } else {
+            apiResponse = SearchResponse.of(merchantService.findBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        }
+        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
+    }
 
+    /**
+     * Export all merchants matching a combination of search criteria. The results are streamed from the database to
+     * the response as they are read, without counting them.
+     *
+     * @param format        The format of the export.
+     * @param searchRequest Object containing the search criteria and optionally the fields to export. A cursor is not
+     *                      supported.
+     * @param userDetails   Authentication object of the currently logged user.
+     * @return Response streaming the exported results.
+     */
+    @PostMapping(path = "/export", produces = {"application/x-ndjson", "text/csv", "application/json"})
+    @Operation(summary = "Export merchants as NDJSON or CSV.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Bad request. Invalid request body provided.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal Server Error. Contact support team for resolution.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "NDJSON")
+            @Parameter(name = "format", description = "Format of the export, NDJSON or CSV.")
+            final SearchExportFormat format,
+            @RequestBody(required = false)
+            @Parameter(name = "searchApiRequest", description = "Search request containing search criteria.")
+            final SearchRequest searchRequest,
+            @AuthenticationPrincipal final EmpayUserDetails userDetails) {
 
-        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
+        SearchExport export = merchantService.exportBySearchCriteria(
+                searchRequest != null ? searchRequest : new SearchRequest(), userDetails.getMerchantId());
+        return format.toResponse(export, "merchants", objectMapper);
     }
 
     /**
@@ -269,6 +312,21 @@ public class MerchantController {
         return new ResponseEntity(errorInfo, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Exception handler method.
+     *
+     * @param request the request.
+     * @param e       The thrown exception.
+     * @return Response with error information.
+     */
+    @ExceptionHandler(MerchantValidationException.class)
+    public ResponseEntity<ErrorInfo> handleMerchantValidation(final HttpServletRequest request,
+                                                              final MerchantValidationException e) {
+        log.debug("Invalid merchant: {}", e.getMessage());
+        ErrorInfo errorInfo = new ErrorInfo(HttpStatus.BAD_REQUEST, e.getMessage(), request.getRequestURI());
+        return new ResponseEntity(errorInfo, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Exception handler method.
      *
@@ -281,12 +339,6 @@ public class MerchantController {
                                                                   final DataIntegrityViolationException e) {
         if (e.getCause() instanceof ConstraintViolationException) {
             ConstraintViolationException cve = (ConstraintViolationException) e.getCause();
-            if (Constants.FK_MERCHANT_STATUS_ID.equals(cve.getConstraintName())) {
-                ErrorInfo errorInfo =
-                        new ErrorInfo(HttpStatus.BAD_REQUEST, ERROR_NON_EXISTING_STATUS, request.getRequestURI());
-                return new ResponseEntity(errorInfo, HttpStatus.BAD_REQUEST);
-            }
-
             if (Constants.FK_MERCHANT_IDENT_TYPE_ID.equals(cve.getConstraintName())) {
                 ErrorInfo errorInfo = new ErrorInfo(HttpStatus.BAD_REQUEST, ERROR_NON_EXISTING_IDENTIFIER_TYPE,
                         request.getRequestURI());
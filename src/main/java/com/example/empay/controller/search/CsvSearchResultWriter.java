@@ -0,0 +1,112 @@
+package com.example.empay.controller.search;
+
+import com.example.empay.service.search.SearchResultWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes search results as comma-separated values, with a header record of the field names. Strings, numbers,
+ * booleans and UUIDs are written as is, dates as formatted in JSON and other values, like nomenclatures, as JSON.
+ */
+class CsvSearchResultWriter implements SearchResultWriter {
+
+    /**
+     * Prints the records.
+     */
+    private final CSVPrinter printer;
+
+    /**
+     * Serializes the values that are not written as is.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reused record of the values of a result.
+     */
+    private final List<String> record = new ArrayList<>();
+
+    /**
+     * Sole constructor.
+     *
+     * @param out          The output stream.
+     * @param objectMapper Serializes the values that are not written as is.
+     */
+    CsvSearchResultWriter(final OutputStream out, final ObjectMapper objectMapper) {
+        try {
+            this.printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                    CSVFormat.DEFAULT);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the header record.
+     *
+     * @param fields The names of the exported fields.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void start(final List<String> fields) throws IOException {
+        printer.printRecord(fields);
+    }
+
+    /**
+     * Write a result as a record.
+     *
+     * @param result The result.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(final Map<String, Object> result) throws IOException {
+        record.clear();
+        for (Object value : result.values()) {
+            record.add(format(value));
+        }
+        printer.printRecord(record);
+    }
+
+    /**
+     * Flush the output.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void finish() throws IOException {
+        printer.flush();
+    }
+
+    /**
+     * Format a value of a result.
+     *
+     * @param value The value.
+     * @return The formatted value, {@literal null} for a {@literal null} value.
+     */
+    private String format(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof UUID) {
+            return value.toString();
+        }
+        JsonNode node = objectMapper.valueToTree(value);
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+}
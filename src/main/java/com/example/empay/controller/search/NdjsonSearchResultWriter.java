@@ -0,0 +1,85 @@
+package com.example.empay.controller.search;
+
+import com.example.empay.service.search.SearchResultWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes search results as newline-delimited JSON, one JSON object per line. The output is flushed only when the
+ * buffer of the output stream is full and at the end, not after each result.
+ */
+class NdjsonSearchResultWriter implements SearchResultWriter {
+
+    /**
+     * The output stream.
+     */
+    private final OutputStream out;
+
+    /**
+     * Object mapper creating the JSON generator.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Serializes each result without flushing.
+     */
+    private final ObjectWriter objectWriter;
+
+    /**
+     * The JSON generator writing all results, created at the start.
+     */
+    private JsonGenerator generator;
+
+    /**
+     * Sole constructor.
+     *
+     * @param out          The output stream.
+     * @param objectMapper Serializes the results to JSON.
+     */
+    NdjsonSearchResultWriter(final OutputStream out, final ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Create the JSON generator. NDJSON has no header.
+     *
+     * @param fields The names of the exported fields.
+     * @throws IOException If the generator cannot be created.
+     */
+    @Override
+    public void start(final List<String> fields) throws IOException {
+        generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Write a result as a line.
+     *
+     * @param result The result.
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void write(final Map<String, Object> result) throws IOException {
+        objectWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Flush the output.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.empay.controller.search;
+
+/**
+ * Contains the ways of counting the total number of search results.
+ */
+public enum SearchCountMode {
+
+    /**
+     * Count the results with a second query after the page is fetched, the total is always returned.
+     */
+    EXACT,
+    /**
+     * Do not count the results, only whether there is a next page is returned. The total is returned only on the
+     * last page, where it is known without counting.
+     */
+    NONE,
+    /**
+     * Count the results concurrently with fetching the page, on a separate connection. The total is returned only if
+     * the count completes within the configured time budget.
+     */
+    PARALLEL
+}
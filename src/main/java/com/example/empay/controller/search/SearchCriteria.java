@@ -17,7 +17,7 @@ public class SearchCriteria {
      */
     private String filterKey;
     /**
-     * The search value.
+     * The search value, a list of values for IN and NOT IN.
      */
     private Object value;
     /**
@@ -0,0 +1,30 @@
+package com.example.empay.controller.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A group of search criteria and nested groups, combined by AND or by OR.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCriteriaGroup {
+
+    /**
+     * Data option describing how to combine the search criteria and the nested groups, "all" (AND, the default) or
+     * "any" (OR).
+     */
+    private String dataOption;
+    /**
+     * List of search criteria. The data option of a search criterion in a group is ignored.
+     */
+    private List<SearchCriteria> searchCriteriaList;
+    /**
+     * List of nested groups.
+     */
+    private List<SearchCriteriaGroup> groups;
+}
@@ -0,0 +1,79 @@
+package com.example.empay.controller.search;
+
+import com.example.empay.service.search.SearchExport;
+import com.example.empay.service.search.SearchResultWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+
+/**
+ * Contains the formats of exported search results.
+ */
+public enum SearchExportFormat {
+
+    /**
+     * Newline-delimited JSON, one JSON object per result.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    /**
+     * Comma-separated values with a header record of the field names. Values other than strings, numbers and
+     * booleans are written as JSON.
+     */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    /**
+     * Media type of the format.
+     */
+    private final MediaType mediaType;
+
+    /**
+     * File extension of the format.
+     */
+    private final String fileExtension;
+
+    /**
+     * Create the export format.
+     *
+     * @param mediaType     Media type of the format.
+     * @param fileExtension File extension of the format.
+     */
+    SearchExportFormat(final MediaType mediaType, final String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Create a writer of search results in this format.
+     *
+     * @param out          The output stream.
+     * @param objectMapper Serializes the values of the results to JSON.
+     * @return The writer.
+     */
+    public SearchResultWriter createWriter(final OutputStream out, final ObjectMapper objectMapper) {
+        return this == NDJSON ? new NdjsonSearchResultWriter(out, objectMapper)
+                : new CsvSearchResultWriter(out, objectMapper);
+    }
+
+    /**
+     * Create the response streaming an export in this format. The export is executed while the response is written,
+     * after the request has been handled.
+     *
+     * @param export       The export.
+     * @param fileName     Name of the exported file without the extension.
+     * @param objectMapper Serializes the values of the results to JSON.
+     * @return The response.
+     */
+    public ResponseEntity<StreamingResponseBody> toResponse(final SearchExport export, final String fileName,
+                                                            final ObjectMapper objectMapper) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName + "." + fileExtension).build().toString())
+                .body(out -> export.writeTo(createWriter(out, objectMapper)));
+    }
+}
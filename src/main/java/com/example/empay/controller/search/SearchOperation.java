@@ -69,6 +69,14 @@ public enum SearchOperation {
      * Between. Applies to numbers and dates.
      */
     BETWEEN,
+    /**
+     * In a list of values.
+     */
+    IN,
+    /**
+     * Not in a list of values.
+     */
+    NOT_IN,
     /**
      * Data option ANY.
      */
@@ -97,6 +105,8 @@ public enum SearchOperation {
         put("lt", LESS_THAN);
         put("le", LESS_THAN_EQUAL);
         put("bt", BETWEEN);
+        put("in", IN);
+        put("nin", NOT_IN);
     }};
 
 
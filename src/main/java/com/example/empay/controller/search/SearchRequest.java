@@ -19,6 +19,11 @@ public class SearchRequest {
      * Data option.
      */
     private String dataOption;
+    /**
+     * Group of search criteria and nested groups, combined by AND with the list of search criteria. Unlike the list,
+     * a group can combine some criteria by AND and others by OR.
+     */
+    private SearchCriteriaGroup criteriaGroup;
     /**
      * Name of a property (field key) to sort the results by.
      */
@@ -27,5 +32,44 @@ public class SearchRequest {
      * Denotes the direction of sort.
      */
     private boolean ascending;
+    /**
+     * Names of the properties to return for each result. If empty, all properties are returned.
+     */
+    private List<String> fields;
+    /**
+     * Continuation token of keyset pagination, returned as {@code nextCursor} with the previous page. An empty value
+     * requests the first page. If not provided, the pages are selected by the page number.
+     */
+    private String cursor;
+    /**
+     * How to count the total number of results, {@link SearchCountMode#EXACT} if not provided.
+     */
+    private SearchCountMode countMode;
 
+    /**
+     * Check whether only some of the properties of the results are requested.
+     *
+     * @return {@literal true} if fields are requested.
+     */
+    public boolean hasFields() {
+        return fields != null && !fields.isEmpty();
+    }
+
+    /**
+     * Check whether keyset pagination is requested.
+     *
+     * @return {@literal true} if a cursor is provided, including an empty one.
+     */
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    /**
+     * Check whether the total number of results must always be counted.
+     *
+     * @return {@literal true} if no count mode or {@link SearchCountMode#EXACT} is requested.
+     */
+    public boolean hasExactCount() {
+        return countMode == null || countMode == SearchCountMode.EXACT;
+    }
 }
@@ -1,8 +1,12 @@
 package com.example.empay.controller.search;
 
+import com.example.empay.service.search.ApproximatePage;
+import com.example.empay.service.search.KeysetWindow;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -16,11 +20,59 @@ public class SearchResponse<T> {
      */
     private List<T> data;
     /**
-     * Number of total elements returned by the query.
+     * Number of total elements returned by the query. Not provided with keyset pagination, and only if known when
+     * not counted exactly.
      */
     private Long totalElements;
     /**
-     * Number of pages.
+     * Number of pages, provided together with the number of total elements.
      */
     private Integer totalPages;
+    /**
+     * Whether the number of total elements and the number of pages are estimated instead of counted, provided
+     * together with them.
+     */
+    private Boolean approximateTotal;
+    /**
+     * Whether there is a next page. Not provided with keyset pagination.
+     */
+    private Boolean hasNext;
+    /**
+     * Continuation token of the next page when using keyset pagination, {@literal null} if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Create a search response containing a page of results. The totals are provided only if the page is a
+     * {@link Page}, flagged as approximate if it is an {@link ApproximatePage}.
+     *
+     * @param slice The page of results.
+     * @param <T>   The type of the results.
+     * @return A new search response.
+     */
+    public static <T> SearchResponse<T> of(final Slice<T> slice) {
+        SearchResponse<T> searchResponse = new SearchResponse<>();
+        searchResponse.setData(slice.toList());
+        searchResponse.setHasNext(slice.hasNext());
+        if (slice instanceof Page<T> page) {
+            searchResponse.setTotalElements(page.getTotalElements());
+            searchResponse.setTotalPages(page.getTotalPages());
+            searchResponse.setApproximateTotal(page instanceof ApproximatePage);
+        }
+        return searchResponse;
+    }
+
+    /**
+     * Create a search response containing a window of results fetched by keyset pagination.
+     *
+     * @param window The window of results.
+     * @param <T>    The type of the results.
+     * @return A new search response.
+     */
+    public static <T> SearchResponse<T> of(final KeysetWindow<T> window) {
+        SearchResponse<T> searchResponse = new SearchResponse<>();
+        searchResponse.setData(window.content());
+        searchResponse.setNextCursor(window.nextCursor());
+        return searchResponse;
+    }
 }
@@ -1,28 +1,41 @@
 package com.example.empay.controller.transaction;
 
+import com.example.empay.controller.search.SearchExportFormat;
 import com.example.empay.controller.search.SearchRequest;
 import com.example.empay.controller.search.SearchResponse;
 import com.example.empay.dto.error.ErrorInfo;
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
 import com.example.empay.dto.transaction.TransactionCreateRequest;
 import com.example.empay.dto.transaction.TransactionDto;
 import com.example.empay.entity.transaction.Transaction;
 import com.example.empay.exception.SearchException;
+import com.example.empay.exception.TransactionOverloadException;
 import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.security.EmpayUserDetails;
 import com.example.empay.service.transaction.TransactionService;
+import com.example.empay.service.search.SearchExport;
 import com.example.empay.util.Constants;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,10 +51,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -54,6 +73,24 @@ public class TransactionController {
     @Autowired
     private TransactionService service;
 
+    /**
+     * Object mapper used to read batches of transactions.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Validator of transactions in a batch.
+     */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Number of transactions of a batch created in a single database transaction.
+     */
+    @Value("${transactions.batch.chunkSize:500}")
+    private int batchChunkSize;
+
     /**
      * Load a transaction by ID.
      *
@@ -81,17 +118,68 @@ public class TransactionController {
                 new EntityNotFoundException(String.format("%s with ID [%s] does not exist.",
                         Transaction.class.getSimpleName(), id)));
 
+        checkAccess(transactionDto, userDetails);
+        return new ResponseEntity<>(transactionDto, HttpStatus.OK);
+    }
+
+    /**
+     * Load the whole lineage of a transaction, such as a charge with its refunds or an authorization with its
+     * reversal, in a single request.
+     *
+     * @param id          ID of any transaction of the lineage.
+     * @param userDetails Authentication details of the currently logged user.
+     * @return Response with the transactions of the lineage ordered from the root, each level after its parent level.
+     */
+    @PreAuthorize("hasRole('ROLE_MERCHANT') or hasRole('ROLE_ADMIN')")
+    @GetMapping("/{id}/lineage")
+    @Operation(summary = "Get the lineage of a transaction: the root transaction and all of its descendants.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = {@Content(array = @ArraySchema(
+                            schema = @Schema(implementation = TransactionDto.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad request or failed validation.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "404", description = "Transaction not found.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal Server Error. Contact support team for resolution.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
+    public ResponseEntity<List<TransactionDto>> getLineage(
+            @PathVariable(name = "id")
+            @Parameter(name = "id", description = "Transaction ID") final UUID id,
+            @AuthenticationPrincipal final EmpayUserDetails userDetails) {
+
+        List<TransactionDto> lineage = service.getLineage(id);
+        TransactionDto transactionDto = lineage.stream().filter(it -> it.getId().equals(id)).findFirst()
+                .orElseThrow(() -> new EntityNotFoundException(String.format("%s with ID [%s] does not exist.",
+                        Transaction.class.getSimpleName(), id)));
+        checkAccess(transactionDto, userDetails);
+        // Transactions of a lineage belong to one merchant, others are never exposed through the lineage
+        return new ResponseEntity<>(lineage.stream()
+                .filter(it -> it.getMerchantId().equals(transactionDto.getMerchantId())).toList(), HttpStatus.OK);
+    }
+
+    /**
+     * Check that the currently logged user may access a transaction: an admin may access all transactions, a
+     * merchant only its own. Access to a transaction of another merchant is reported as if the transaction did not
+     * exist.
+     *
+     * @param transactionDto The transaction.
+     * @param userDetails    Authentication details of the currently logged user.
+     * @throws EntityNotFoundException If the user may not access the transaction.
+     */
+    private void checkAccess(final TransactionDto transactionDto, final EmpayUserDetails userDetails) {
         Optional<GrantedAuthority> adminAuthority =
                 userDetails.getAuthorities().stream().filter(it -> it.getAuthority().equals(Constants.ROLE_ADMIN))
                         .findFirst();
 
         if (adminAuthority.isEmpty() && !transactionDto.getMerchantId().equals(userDetails.getMerchantId())) {
-            log.info("Access denied to transaction [{}] for user [{}]", id, userDetails.getUserLoginId());
+            log.info("Access denied to transaction [{}] for user [{}]", transactionDto.getId(),
+                    userDetails.getUserLoginId());
 
             throw new EntityNotFoundException(String.format("%s with ID [%s] does not exist.",
-                    Transaction.class.getSimpleName(), id));
+                    Transaction.class.getSimpleName(), transactionDto.getId()));
         }
-        return new ResponseEntity<>(transactionDto, HttpStatus.OK);
     }
 
     /**
@@ -114,6 +202,8 @@ public class TransactionController {
                     content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
             @ApiResponse(responseCode = "500",
                     description = "Internal Server Error. Contact support team for resolution.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "503", description = "Too many pending transactions, try again later.",
                     content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
     public ResponseEntity<TransactionDto> create(
             @Valid
@@ -129,12 +219,132 @@ public class TransactionController {
         return new ResponseEntity<>(createdTransactionDto, HttpStatus.CREATED);
     }
 
+    /**
+     * Create a batch of new transactions. The request body is a JSON array of transactions which is read in a
+     * streaming way and processed in chunks. Each item gets its own result, so an invalid item does not fail the
+     * other items of the batch.
+     *
+     * @param request     The request containing the JSON array of transactions.
+     * @param userDetails Authentication details of the currently logged user.
+     * @return Response with the result of each transaction in the order of the request.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(path = "/batch", consumes = {"application/json"})
+    @PreAuthorize("hasRole('ROLE_MERCHANT')")
+    @Operation(summary = "Create a batch of new transactions for the merchant of the currently logged in user with "
+            + "role MERCHANT.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Array of transaction data.",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransactionCreateRequest.class))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation. Contains a result per item.",
+                    content = {@Content(array = @ArraySchema(
+                            schema = @Schema(implementation = TransactionBatchItemResult.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad request. The request body is not a JSON array.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal Server Error. Contact support team for resolution.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
+    public ResponseEntity<List<TransactionBatchItemResult>> createBatch(
+            final HttpServletRequest request,
+            @AuthenticationPrincipal final EmpayUserDetails userDetails) throws IOException {
+
+        Long merchantId = Objects.requireNonNull(userDetails.getMerchantId(),
+                "Current user is not assigned to a merchant");
+
+        List<TransactionBatchItemResult> results = new ArrayList<>();
+        List<TransactionCreateRequest> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            if (nextToken(parser) != JsonToken.START_ARRAY) {
+                throw new TransactionValidationException("Request body must be a JSON array of transactions.");
+            }
+            try {
+                JsonToken token = parser.nextToken();
+                while (token != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of the JSON array");
+                    }
+                    int index = results.size();
+                    results.add(null);
+                    JsonNode item = parser.readValueAsTree();
+                    TransactionCreateRequest transactionCreateRequest = null;
+                    String error;
+                    try {
+                        transactionCreateRequest = objectMapper.treeToValue(item, TransactionCreateRequest.class);
+                        error = validateBatchItem(transactionCreateRequest);
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        error = "Invalid transaction data: " + e.getMessage();
+                    }
+
+                    if (error != null) {
+                        results.set(index, TransactionBatchItemResult.failed(error).setIndex(index));
+                    } else {
+                        chunk.add(transactionCreateRequest);
+                        chunkIndexes.add(index);
+                        if (chunk.size() >= batchChunkSize) {
+                            processBatchChunk(merchantId, chunk, chunkIndexes, results);
+                        }
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                processBatchChunk(merchantId, chunk, chunkIndexes, results);
+                results.add(TransactionBatchItemResult.failed("Malformed JSON, the remaining transactions were not "
+                        + "processed: " + e.getOriginalMessage()).setIndex(results.size()));
+                return new ResponseEntity<>(results, HttpStatus.OK);
+            }
+        }
+        processBatchChunk(merchantId, chunk, chunkIndexes, results);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    private JsonToken nextToken(final JsonParser parser) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new TransactionValidationException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String validateBatchItem(final TransactionCreateRequest transactionCreateRequest) {
+        Set<ConstraintViolation<TransactionCreateRequest>> violations = validator.validate(transactionCreateRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(it -> it.getPropertyPath().toString().isEmpty() ? it.getMessage()
+                        : String.format("Property [%s]: %s", it.getPropertyPath(), it.getMessage()))
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void processBatchChunk(final Long merchantId, final List<TransactionCreateRequest> chunk,
+                                   final List<Integer> chunkIndexes,
+                                   final List<TransactionBatchItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<TransactionBatchItemResult> chunkResults;
+        try {
+            chunkResults = service.addBatch(new ArrayList<>(chunk), merchantId);
+        } catch (TransactionOverloadException e) {
+            chunkResults = chunk.stream().map(it -> TransactionBatchItemResult.failed(e.getMessage())).toList();
+        }
+        for (int i = 0; i < chunkResults.size(); i++) {
+            int index = chunkIndexes.get(i);
+            results.set(index, chunkResults.get(i).setIndex(index));
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
     /**
      * Search for transactions using a combination of search criteria.
      *
-     * @param pageNum       Return page identifier starting from 0 (zero).
+     * @param pageNum       Return page identifier starting from 0 (zero), ignored if a cursor is provided.
      * @param pageSize      Size of the results page.
-     * @param searchRequest Object containing the search criteria.
+     * @param searchRequest Object containing the search criteria and optionally the fields to return, the cursor of
+     *                      keyset pagination or how to count the results.
      * @param userDetails   Authentication object of the currently logged user.
      * @return A paged result.
      */
@@ -149,7 +359,7 @@ public class TransactionController {
             @ApiResponse(responseCode = "500",
                     description = "Internal Server Error. Contact support team for resolution.",
                     content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
-    public ResponseEntity<SearchResponse<TransactionDto>> search(
+    public ResponseEntity<SearchResponse<?>> search(
             @RequestParam(name = "pageNum", defaultValue = "0")
             @Parameter(name = "pageNum", description = "Request page number starting from zero.") final Integer pageNum,
             @RequestParam(name = "pageSize", defaultValue = "10")
@@ -160,16 +370,56 @@ public class TransactionController {
             @AuthenticationPrincipal final EmpayUserDetails userDetails) {
 
 
-        Page<TransactionDto> page =
-                service.findBySearchCriteria(searchRequest, pageSize, pageNum, userDetails.getMerchantId());
-
-        SearchResponse<TransactionDto> apiResponse = new SearchResponse<>();
-        apiResponse.setData(page.toList());
-        apiResponse.setTotalElements(page.getTotalElements());
-        apiResponse.setTotalPages(page.getTotalPages());
+        SearchResponse<?> apiResponse;
+        if (searchRequest != null && searchRequest.hasCursor()) {
+            apiResponse = SearchResponse.of(service.scrollBySearchCriteria(searchRequest, pageSize,
+                    userDetails.getMerchantId()));
+        } else if (searchRequest != null && searchRequest.hasFields()) {
+            apiResponse = SearchResponse.of(service.findFieldsBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        } else if (searchRequest != null && !searchRequest.hasExactCount()) {
+            apiResponse = SearchResponse.of(service.findSliceBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        } else {
+            apiResponse = SearchResponse.of(service.findBySearchCriteria(searchRequest, pageSize, pageNum,
+                    userDetails.getMerchantId()));
+        }
+        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
+    }
 
+    /**
+     * Export all transactions matching a combination of search criteria. The results are streamed from the database to
+     * the response as they are read, without counting them.
+     *
+     * @param format        The format of the export.
+     * @param searchRequest Object containing the search criteria and optionally the fields to export. A cursor is not
+     *                      supported.
+     * @param userDetails   Authentication object of the currently logged user.
+     * @return Response streaming the exported results.
+     */
+    @PreAuthorize("hasRole('ROLE_MERCHANT') or hasRole('ROLE_ADMIN')")
+    @PostMapping(path = "/export", produces = {"application/x-ndjson", "text/csv", "application/json"})
+    @Operation(summary = "Export transactions as NDJSON or CSV.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Bad request. Invalid request body provided.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class))),
+            @ApiResponse(responseCode = "500",
+                    description = "Internal Server Error. Contact support team for resolution.",
+                    content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "NDJSON")
+            @Parameter(name = "format", description = "Format of the export, NDJSON or CSV.")
+            final SearchExportFormat format,
+            @RequestBody(required = false)
+            @Parameter(name = "searchApiRequest", description = "Search request containing search criteria.")
+            final SearchRequest searchRequest,
+            @AuthenticationPrincipal final EmpayUserDetails userDetails) {
 
-        return new ResponseEntity<>(apiResponse, HttpStatus.OK);
+        SearchExport export = service.exportBySearchCriteria(
+                searchRequest != null ? searchRequest : new SearchRequest(), userDetails.getMerchantId());
+        return format.toResponse(export, "transactions", objectMapper);
     }
 
     /**
@@ -229,4 +479,19 @@ public class TransactionController {
         ErrorInfo errorInfo = new ErrorInfo(HttpStatus.BAD_REQUEST, e.getMessage(), request.getRequestURI());
         return new ResponseEntity(errorInfo, HttpStatus.BAD_REQUEST);
     }
+
+    /**
+     * Exception handler method.
+     *
+     * @param request the request.
+     * @param e       The thrown exception.
+     * @return Response with error information.
+     */
+    @ExceptionHandler({TransactionOverloadException.class})
+    public ResponseEntity<ErrorInfo> handleTransactionOverload(final HttpServletRequest request,
+                                                               final TransactionOverloadException e) {
+        log.warn("Transaction rejected: {}", e.getMessage());
+        ErrorInfo errorInfo = new ErrorInfo(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), request.getRequestURI());
+        return new ResponseEntity(errorInfo, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -2,6 +2,7 @@ package com.example.empay.controller.transaction;
 
 import com.example.empay.dto.error.ErrorInfo;
 import com.example.empay.dto.transaction.TransactionStatusTypeDto;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.service.transaction.TransactionStatusTypeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -10,7 +11,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,10 +29,17 @@ public class TransactionStatusTypeController {
     @Autowired
     private TransactionStatusTypeService service;
 
+    /**
+     * Nomenclature registry.
+     */
+    @Autowired
+    private NomenclatureRegistry nomenclatureRegistry;
+
     /**
      * List all TransactionStatusType values.
      *
-     * @return A response with a list of TransactionStatusType values.
+     * @return A response with a list of TransactionStatusType values. The response can be cached by the client for
+     * the configured max age and revalidated by entity tag, responding with 304 Not Modified if unchanged.
      */
     @GetMapping
     @Operation(summary = "List all transaction status types.")
@@ -39,10 +47,15 @@ public class TransactionStatusTypeController {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(array = @ArraySchema(
                             schema = @Schema(implementation = TransactionStatusTypeDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The cached response is still valid.",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description =
                     "Internal Server Error. Contact support team for resolution.",
                     content = @Content(schema = @Schema(implementation = ErrorInfo.class)))})
     public ResponseEntity<Collection<TransactionStatusTypeDto>> listAll() {
-        return new ResponseEntity<>(service.findAll(), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(nomenclatureRegistry.getCacheMaxAge()).cachePrivate())
+                .eTag(nomenclatureRegistry.getETag())
+                .body(service.findAll());
     }
 }
@@ -4,6 +4,8 @@ import com.example.empay.dto.merchant.MerchantDto;
 import com.example.empay.entity.merchant.Merchant;
 import com.example.empay.entity.merchant.MerchantIdentifierType;
 import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.exception.MerchantValidationException;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import jakarta.persistence.EntityManager;
 
 /**
@@ -19,17 +21,19 @@ public final class MerchantDtoMapper {
     /**
      * Create a new {@link MerchantDto} using a {@link Merchant} instance.
      *
-     * @param merchant A Merchant entity instance to copy the values from.
+     * @param merchant             A Merchant entity instance to copy the values from.
+     * @param nomenclatureRegistry The registry naming the status and identifier type.
      * @return A new MerchantDto instance containing relevant values from the entity.
      */
-    public static MerchantDto toDto(final Merchant merchant) {
+    public static MerchantDto toDto(final Merchant merchant, final NomenclatureRegistry nomenclatureRegistry) {
         return new MerchantDto()
                 .setId(merchant.getId())
                 .setName(merchant.getName())
                 .setEmail(merchant.getEmail())
-                .setStatus(MerchantStatusTypeDtoMapper.toDto(merchant.getStatus()))
+                .setStatus(MerchantStatusTypeDtoMapper.toDto(merchant.getStatus(), nomenclatureRegistry))
                 .setIdentifierType(merchant.getIdentifierType() != null
-                        ? MerchantIdentifierTypeDtoMapper.toDto(merchant.getIdentifierType()) : null)
+                        ? MerchantIdentifierTypeDtoMapper.toDto(merchant.getIdentifierType().getId(),
+                        nomenclatureRegistry) : null)
                 .setIdentifierValue(merchant.getIdentifierValue())
                 .setTotalTransactionSum(merchant.getTotalTransactionSum())
                 .setCreatedDate(merchant.getCreatedDate())
@@ -42,6 +46,7 @@ public final class MerchantDtoMapper {
      * @param dto The DTO instance to copy values from.
      * @param model The entity instance to copy values to.
      * @param entityManager EntityManager to use during copy.
+     * @throws MerchantValidationException If the status does not exist.
      */
     public static void applyValuesToModel(final MerchantDto dto, final Merchant model,
                                           final EntityManager entityManager) {
@@ -63,7 +68,9 @@ public final class MerchantDtoMapper {
         }
 
         if (dto.getStatus() != null && dto.getStatus().getId() != null) {
-            model.setStatus(entityManager.getReference(MerchantStatusType.class, dto.getStatus().getId()));
+            String statusId = dto.getStatus().getId();
+            model.setStatus(MerchantStatusType.STATUS.findById(statusId).orElseThrow(() ->
+                    new MerchantValidationException(String.format("Merchant status [%s] does not exist.", statusId))));
         }
     }
 }
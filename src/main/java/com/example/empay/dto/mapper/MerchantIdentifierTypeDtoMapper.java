@@ -2,6 +2,7 @@ package com.example.empay.dto.mapper;
 
 import com.example.empay.dto.merchant.MerchantIdentifierTypeDto;
 import com.example.empay.entity.merchant.MerchantIdentifierType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 
 /**
  * A mapper between {@link MerchantIdentifierTypeDto} and {@link MerchantIdentifierType} entity.
@@ -24,4 +25,15 @@ public final class MerchantIdentifierTypeDtoMapper {
                 .setId(identifierType.getId())
                 .setName(identifierType.getName());
     }
+
+    /**
+     * Get the {@link MerchantIdentifierTypeDto} of a merchant identifier type referenced by ID from an entity.
+     *
+     * @param id                   The merchant identifier type ID.
+     * @param nomenclatureRegistry The registry naming the nomenclature.
+     * @return The shared read-only MerchantIdentifierTypeDto instance of the {@link NomenclatureRegistry}.
+     */
+    public static MerchantIdentifierTypeDto toDto(final String id, final NomenclatureRegistry nomenclatureRegistry) {
+        return nomenclatureRegistry.getMerchantIdentifierType(id);
+    }
 }
@@ -2,6 +2,7 @@ package com.example.empay.dto.mapper;
 
 import com.example.empay.dto.merchant.MerchantStatusTypeDto;
 import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 
 /**
  * A mapper between {@link MerchantStatusTypeDto} and {@link MerchantStatusType} entity.
@@ -24,4 +25,16 @@ public final class MerchantStatusTypeDtoMapper {
                 .setId(statusType.getId())
                 .setName(statusType.getName());
     }
+
+    /**
+     * Get the {@link MerchantStatusTypeDto} of a merchant status stored by code in an entity.
+     *
+     * @param status               The merchant status ID.
+     * @param nomenclatureRegistry The registry naming the nomenclature.
+     * @return The shared read-only MerchantStatusTypeDto instance of the {@link NomenclatureRegistry}.
+     */
+    public static MerchantStatusTypeDto toDto(final MerchantStatusType.STATUS status,
+                                              final NomenclatureRegistry nomenclatureRegistry) {
+        return nomenclatureRegistry.getMerchantStatusType(status);
+    }
 }
@@ -1,8 +1,8 @@
 package com.example.empay.dto.mapper;
 
 import com.example.empay.dto.transaction.TransactionDto;
-import com.example.empay.dto.transaction.TransactionStatusTypeDto;
 import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 
 /**
  * A mapper between {@link TransactionDto} and {@link Transaction} entity.
@@ -16,33 +16,45 @@ public final class TransactionDtoMapper {
     }
 
     /**
-     * Create a new {@link TransactionDto} using a {@link Transaction} instance.
+     * Create a new {@link TransactionDto} using a {@link Transaction} instance. The parent transaction is mapped
+     * without its own parent, so that mapping a transaction never loads more than one level of its lineage.
      *
-     * @param transaction A Transaction entity instance to copy the values from.
+     * @param transaction          A Transaction entity instance to copy the values from.
+     * @param nomenclatureRegistry The registry naming the type and status.
      * @return A new TransactionDto instance containing relevant values from the entity.
      */
-    public static TransactionDto toDto(final Transaction transaction) {
-        TransactionDto dto = new TransactionDto()
+    public static TransactionDto toDto(final Transaction transaction, final NomenclatureRegistry nomenclatureRegistry) {
+        TransactionDto dto = toDtoWithoutParent(transaction, nomenclatureRegistry);
+        if (transaction.getBelongsToTransaction() != null) {
+            dto.setBelongsToTransaction(
+                    toDtoWithoutParent(transaction.getBelongsToTransaction(), nomenclatureRegistry));
+        }
+        return dto;
+    }
+
+    /**
+     * Create a new {@link TransactionDto} using a {@link Transaction} instance, not including the parent transaction.
+     *
+     * @param transaction          A Transaction entity instance to copy the values from.
+     * @param nomenclatureRegistry The registry naming the type and status.
+     * @return A new TransactionDto instance containing relevant values from the entity.
+     */
+    private static TransactionDto toDtoWithoutParent(final Transaction transaction,
+                                                     final NomenclatureRegistry nomenclatureRegistry) {
+        return new TransactionDto()
                 .setId(transaction.getId())
-                .setTypeId(transaction.getType().getId())
-                .setType(TransactionTypeDtoMapper.toDto(transaction.getType()))
+                .setTypeId(transaction.getType().name())
+                .setType(TransactionTypeDtoMapper.toDto(transaction.getType(), nomenclatureRegistry))
                 .setMerchantId(transaction.getMerchant().getId())
                 .setMerchantName(transaction.getMerchant().getName())
                 .setAmount(transaction.getAmount())
                 .setCustomerEmail(transaction.getCustomerEmail())
                 .setCustomerPhone(transaction.getCustomerPhone())
-                .setStatus(new TransactionStatusTypeDto().setId(transaction.getStatus().getId())
-                        .setName(transaction.getStatus().getName()))
+                .setStatus(TransactionStatusTypeDtoMapper.toDto(transaction.getStatus(), nomenclatureRegistry))
                 .setErrorReason(transaction.getErrorReason())
                 .setReferenceId(transaction.getReferenceId())
                 .setCreatedDate(transaction.getCreatedDate())
                 .setLastModifiedDate(transaction.getLastModifiedDate())
                 .setVersion(transaction.getVersion());
-
-        if (transaction.getBelongsToTransaction() != null) {
-            dto.setBelongsToTransaction(TransactionDtoMapper.toDto(transaction.getBelongsToTransaction()));
-        }
-
-        return dto;
     }
 }
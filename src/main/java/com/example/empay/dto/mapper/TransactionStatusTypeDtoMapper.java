@@ -2,6 +2,7 @@ package com.example.empay.dto.mapper;
 
 import com.example.empay.dto.transaction.TransactionStatusTypeDto;
 import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 
 /**
  * A mapper between {@link TransactionStatusTypeDto} and {@link TransactionStatusType} entity.
@@ -25,4 +26,16 @@ public final class TransactionStatusTypeDtoMapper {
                 .setId(transactionStatusType.getId())
                 .setName(transactionStatusType.getName());
     }
+
+    /**
+     * Get the {@link TransactionStatusTypeDto} of a transaction status stored by code in an entity.
+     *
+     * @param status               The transaction status ID.
+     * @param nomenclatureRegistry The registry naming the nomenclature.
+     * @return The shared read-only TransactionStatusTypeDto instance of the {@link NomenclatureRegistry}.
+     */
+    public static TransactionStatusTypeDto toDto(final TransactionStatusType.TYPE status,
+                                                 final NomenclatureRegistry nomenclatureRegistry) {
+        return nomenclatureRegistry.getTransactionStatusType(status);
+    }
 }
@@ -2,6 +2,7 @@ package com.example.empay.dto.mapper;
 
 import com.example.empay.dto.transaction.TransactionTypeDto;
 import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 
 /**
  * A mapper between {@link TransactionTypeDto} and {@link TransactionType} entity.
@@ -25,4 +26,16 @@ public final class TransactionTypeDtoMapper {
                 .setId(transactionType.getId())
                 .setName(transactionType.getName());
     }
+
+    /**
+     * Get the {@link TransactionTypeDto} of a transaction type stored by code in an entity.
+     *
+     * @param type                 The transaction type ID.
+     * @param nomenclatureRegistry The registry naming the nomenclature.
+     * @return The shared read-only TransactionTypeDto instance of the {@link NomenclatureRegistry}.
+     */
+    public static TransactionTypeDto toDto(final TransactionType.TYPE type,
+                                           final NomenclatureRegistry nomenclatureRegistry) {
+        return nomenclatureRegistry.getTransactionType(type);
+    }
 }
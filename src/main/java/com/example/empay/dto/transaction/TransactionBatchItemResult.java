@@ -0,0 +1,51 @@
+package com.example.empay.dto.transaction;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Result of a single transaction of a batch.
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@NoArgsConstructor
+public class TransactionBatchItemResult {
+
+    /**
+     * Zero-based position of the transaction in the batch.
+     */
+    private Integer index;
+
+    /**
+     * The created transaction, empty if the transaction could not be created.
+     */
+    private TransactionDto transaction;
+
+    /**
+     * The reason the transaction could not be created, empty if it was created.
+     */
+    private String error;
+
+    /**
+     * Create a result of a created transaction.
+     *
+     * @param transaction The created transaction.
+     * @return A new result instance.
+     */
+    public static TransactionBatchItemResult created(final TransactionDto transaction) {
+        return new TransactionBatchItemResult().setTransaction(transaction);
+    }
+
+    /**
+     * Create a result of a transaction that could not be created.
+     *
+     * @param error The reason the transaction could not be created.
+     * @return A new result instance.
+     */
+    public static TransactionBatchItemResult failed(final String error) {
+        return new TransactionBatchItemResult().setError(error);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.empay.entity;
+
+import jakarta.persistence.AttributeConverter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base class of converters persisting an enum of nomenclature IDs as the compact codes of the enum constants.
+ *
+ * @param <E> The enum of nomenclature IDs.
+ */
+public abstract class AbstractNomenclatureCodeConverter<E extends Enum<E> & NomenclatureCode>
+        implements AttributeConverter<E, String> {
+
+    /**
+     * The enum of nomenclature IDs.
+     */
+    private final Class<E> enumClass;
+
+    /**
+     * Enum constants by code.
+     */
+    private final Map<String, E> constantsByCode;
+
+    /**
+     * Create the converter.
+     *
+     * @param enumClass The enum of nomenclature IDs.
+     */
+    protected AbstractNomenclatureCodeConverter(final Class<E> enumClass) {
+        this.enumClass = enumClass;
+        this.constantsByCode = Arrays.stream(enumClass.getEnumConstants())
+                .collect(Collectors.toUnmodifiableMap(NomenclatureCode::getCode, Function.identity()));
+    }
+
+    /**
+     * Convert an enum constant to the code stored in the database.
+     *
+     * @param attribute The enum constant.
+     * @return The code of the enum constant.
+     */
+    @Override
+    public String convertToDatabaseColumn(final E attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    /**
+     * Convert a code stored in the database to the enum constant.
+     *
+     * @param dbData The code.
+     * @return The enum constant.
+     * @throws IllegalArgumentException If the code is not valid.
+     */
+    @Override
+    public E convertToEntityAttribute(final String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        E constant = constantsByCode.get(dbData);
+        if (constant == null) {
+            throw new IllegalArgumentException(
+                    String.format("Code [%s] of %s does not exist.", dbData, enumClass.getName()));
+        }
+        return constant;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.empay.entity;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * An enum of nomenclature IDs with a compact code used to persist the ID in the columns referencing the
+ * nomenclature.
+ */
+public interface NomenclatureCode {
+
+    /**
+     * Get the code persisted in place of the nomenclature ID. The codes of an enum follow the alphabetical order of
+     * the IDs, so that sorting by the persisted code orders the rows the same as sorting by the ID.
+     *
+     * @return The code, unique within the enum.
+     */
+    String getCode();
+
+    /**
+     * Find the enum constant of a nomenclature ID.
+     *
+     * @param enumClass The enum of nomenclature IDs.
+     * @param id        (optional) The nomenclature ID.
+     * @param <E>       The enum of nomenclature IDs.
+     * @return The enum constant, empty if the ID is not valid.
+     */
+    static <E extends Enum<E>> Optional<E> findById(final Class<E> enumClass, final String id) {
+        return Arrays.stream(enumClass.getEnumConstants()).filter(it -> it.name().equals(id)).findFirst();
+    }
+}
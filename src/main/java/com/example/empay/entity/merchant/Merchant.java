@@ -4,8 +4,11 @@ import com.example.empay.entity.AbstractAuditableEntity;
 import com.example.empay.entity.security.UserLogin;
 import com.example.empay.entity.transaction.Transaction;
 import com.example.empay.util.Constants;
+import com.example.empay.util.SearchText;
+import jakarta.persistence.Basic;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
@@ -17,6 +20,8 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -26,12 +31,17 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Formula;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
@@ -42,10 +52,16 @@ import java.util.Collection;
 @Accessors(chain = true)
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_MERCHANT, includeLazy = false)
 @Table(indexes = {@Index(name = "IDX_MERCHANT_NAME", columnList = "NAME"),
+        @Index(name = "IDX_MERCHANT_NAME_LOWER", columnList = "NAME_LOWER"),
+        @Index(name = "IDX_MERCHANT_NAME_REVERSED", columnList = "NAME_REVERSED"),
         @Index(name = Constants.IDX_MERCHANT_EMAIL, columnList = "EMAIL", unique = true),
+        @Index(name = "IDX_MERCHANT_EMAIL_LOWER", columnList = "EMAIL_LOWER"),
+        @Index(name = "IDX_MERCHANT_EMAIL_REVERSED", columnList = "EMAIL_REVERSED"),
         @Index(name = Constants.IDX_MERCHANT_IDENT, columnList = "IDENTIFIER_TYPE_ID,IDENTIFIER_VALUE", unique = true)})
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate
 @ToString(of = {"id", "name"})
 @EqualsAndHashCode(of = {"id"}, callSuper = false)
 public class Merchant extends AbstractAuditableEntity {
@@ -79,27 +95,73 @@ public class Merchant extends AbstractAuditableEntity {
     private String email;
 
     /**
-     * Current status.
+     * Lower-cased name, maintained for index-friendly case-insensitive searches.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_NAME)
+    private String nameLower;
+
+    /**
+     * Reversed lower-cased name, maintained for index-friendly searches by suffix.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_NAME)
+    private String nameReversed;
+
+    /**
+     * Lower-cased email, maintained for index-friendly case-insensitive searches.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_EMAIL)
+    private String emailLower;
+
+    /**
+     * Reversed lower-cased email, maintained for index-friendly searches by suffix.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_EMAIL)
+    private String emailReversed;
+
+    /**
+     * Current status, stored as the code of the status. The display name is served by the
+     * {@link com.example.empay.service.nomenclature.NomenclatureRegistry}.
      */
     @NotNull
-    @ManyToOne(optional = false, fetch = FetchType.EAGER)
-    @JoinColumn(name = "STATUS_ID", nullable = false, foreignKey = @ForeignKey(name = Constants.FK_MERCHANT_STATUS_ID))
-    private MerchantStatusType status;
+    @Convert(converter = MerchantStatusTypeCodeConverter.class)
+    @Column(name = "STATUS_ID", length = Constants.LENGTH_NOMENCLATURE_CODE, nullable = false)
+    private MerchantStatusType.STATUS status;
 
     /**
-     * Total sum of transactions of type CHARGE minus REFUND for this merchant.
+     * Total sum of transactions of type CHARGE minus REFUND for this merchant before the first snapshot of its
+     * ledger, e.g. the balance of an imported merchant. Never updated, the changes of the balance are appended to the
+     * ledger as {@link MerchantLedgerEntry} records.
      */
     @NotNull
     @Min(0)
     @Digits(integer = Constants.MAX_DECIMAL_INTEGER_DIGITS, fraction = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS)
-    @Column(precision = Constants.MAX_DECIMAL_INTEGER_DIGITS, scale = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS,
-            nullable = false)
+    @Column(name = "TOTAL_TRANSACTION_SUM", precision = Constants.MAX_DECIMAL_INTEGER_DIGITS,
+            scale = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS, nullable = false, updatable = false)
+    private BigDecimal openingTransactionSum = BigDecimal.ZERO;
+
+    /**
+     * Total sum of transactions of type CHARGE minus REFUND for this merchant: the balance of the latest
+     * {@link MerchantLedgerSnapshot}, or {@link #openingTransactionSum} if there is none, plus the ledger entries not
+     * included in a snapshot yet, zero for a new merchant. Loaded lazily, so that it is kept out of the second-level
+     * cache and every read of the balance goes to the database.
+     */
+    @Setter(AccessLevel.NONE)
+    @Basic(fetch = FetchType.LAZY)
+    @Formula("(coalesce((select s.BALANCE from MERCHANT_LEDGER_SNAPSHOT s where s.ID = "
+            + "(select max(s2.ID) from MERCHANT_LEDGER_SNAPSHOT s2 where s2.MERCHANT_ID = ID)), TOTAL_TRANSACTION_SUM) "
+            + "+ (select coalesce(sum(e.AMOUNT), 0) from MERCHANT_LEDGER_ENTRY e "
+            + "where e.MERCHANT_ID = ID and e.SNAPSHOT_ID is null))")
     private BigDecimal totalTransactionSum = BigDecimal.ZERO;
 
     /**
-     * Business identifier type of this merchant.
+     * Business identifier type of this merchant. Loaded lazily, its name is served by the
+     * {@link com.example.empay.service.nomenclature.NomenclatureRegistry}.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "IDENTIFIER_TYPE_ID", foreignKey = @ForeignKey(name = Constants.FK_MERCHANT_IDENT_TYPE_ID))
     private MerchantIdentifierType identifierType;
 
@@ -128,4 +190,16 @@ public class Merchant extends AbstractAuditableEntity {
      */
     @OneToMany(mappedBy = "merchant")
     private Collection<Transaction> transactions;
+
+    /**
+     * Update the normalized search columns from the name and the email before the merchant is written.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        nameLower = SearchText.normalize(name);
+        nameReversed = SearchText.reverse(name);
+        emailLower = SearchText.normalize(email);
+        emailReversed = SearchText.reverse(email);
+    }
 }
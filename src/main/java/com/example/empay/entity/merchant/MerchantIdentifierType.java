@@ -14,6 +14,8 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Collection;
 
@@ -23,6 +25,7 @@ import java.util.Collection;
 @Getter
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Constants.CACHE_REGION_NOMENCLATURE)
 @ToString(of = {"id", "name"})
 @EqualsAndHashCode(of = {"id"})
 @Accessors(chain = true)
@@ -0,0 +1,82 @@
+package com.example.empay.entity.merchant;
+
+import com.example.empay.entity.AbstractAuditableEntity;
+import com.example.empay.util.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * An append-only entry of the merchant ledger holding the change of a merchant's total transaction sum caused by a
+ * single approved CHARGE (positive amount) or REFUND (negative amount) transaction. Entries are never updated
+ * except for assigning them to the {@link MerchantLedgerSnapshot} that includes them. The merchant and the
+ * transaction are referenced by ID only, so that the ledger outlives deleted transactions.
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@NoArgsConstructor
+@Entity
+@Table(indexes = {@Index(name = Constants.IDX_MERCHANT_LEDGER_ENTRY_MERCHANT_SNAPSHOT,
+        columnList = "MERCHANT_ID,SNAPSHOT_ID")})
+@EntityListeners(AuditingEntityListener.class)
+@ToString(of = {"id", "merchantId", "transactionId", "amount"})
+@EqualsAndHashCode(of = {"id"}, callSuper = false)
+public class MerchantLedgerEntry extends AbstractAuditableEntity {
+
+    /**
+     * Auto-generated ID of the ledger entry. Entries are summed in any order, so the IDs are allocated in blocks and
+     * a batch of transactions does not query the sequence for every entry.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "merchantLedgerEntrySeq")
+    @SequenceGenerator(name = "merchantLedgerEntrySeq", sequenceName = "MERCHANT_LEDGER_ENTRY_SEQ",
+            allocationSize = 50, initialValue = Constants.ENTITY_SEQUENCE_INITIAL_VALUE)
+    private Long id;
+
+    /**
+     * ID of the merchant whose total transaction sum has changed.
+     */
+    @NotNull
+    @Column(nullable = false, updatable = false)
+    private Long merchantId;
+
+    /**
+     * ID of the transaction that caused the change.
+     */
+    @NotNull
+    @Column(nullable = false, updatable = false)
+    private UUID transactionId;
+
+    /**
+     * The change of the merchant's total transaction sum.
+     */
+    @NotNull
+    @Digits(integer = Constants.MAX_DECIMAL_INTEGER_DIGITS, fraction = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS)
+    @Column(precision = Constants.MAX_DECIMAL_INTEGER_DIGITS, scale = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS,
+            nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    /**
+     * ID of the snapshot that includes this entry, {@literal null} if the entry is not included in a snapshot yet.
+     */
+    private Long snapshotId;
+}
@@ -0,0 +1,68 @@
+package com.example.empay.entity.merchant;
+
+import com.example.empay.entity.AbstractAuditableEntity;
+import com.example.empay.util.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+
+/**
+ * A snapshot of a merchant's ledger balance. The balance of a snapshot is the balance of the previous snapshot, or
+ * {@link Merchant#getOpeningTransactionSum()} for the first snapshot of a merchant, plus the amounts of all
+ * {@link MerchantLedgerEntry} records assigned to it. The latest snapshot of a merchant is the one with the highest
+ * ID.
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@NoArgsConstructor
+@Entity
+@Table(indexes = {@Index(name = Constants.IDX_MERCHANT_LEDGER_SNAPSHOT_MERCHANT, columnList = "MERCHANT_ID")})
+@EntityListeners(AuditingEntityListener.class)
+@ToString(of = {"id", "merchantId", "balance"})
+@EqualsAndHashCode(of = {"id"}, callSuper = false)
+public class MerchantLedgerSnapshot extends AbstractAuditableEntity {
+
+    /**
+     * Auto-generated ID of the snapshot. Allocated one at a time while the merchant is locked, so that a later
+     * snapshot of a merchant always has a higher ID, even if it is created by another instance.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "merchantLedgerSnapshotSeq")
+    @SequenceGenerator(name = "merchantLedgerSnapshotSeq", sequenceName = "MERCHANT_LEDGER_SNAPSHOT_SEQ",
+            allocationSize = 1, initialValue = Constants.ENTITY_SEQUENCE_INITIAL_VALUE)
+    private Long id;
+
+    /**
+     * ID of the merchant.
+     */
+    @NotNull
+    @Column(nullable = false, updatable = false)
+    private Long merchantId;
+
+    /**
+     * The merchant's ledger balance at the time of the snapshot.
+     */
+    @NotNull
+    @Digits(integer = Constants.MAX_DECIMAL_INTEGER_DIGITS, fraction = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS)
+    @Column(precision = Constants.MAX_DECIMAL_INTEGER_DIGITS, scale = Constants.MAX_DECIMAL_FRACTIONAL_DIGITS,
+            nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+}
@@ -1,10 +1,10 @@
 package com.example.empay.entity.merchant;
 
+import com.example.empay.entity.NomenclatureCode;
 import com.example.empay.util.Constants;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToMany;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,8 +14,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.Collection;
+import java.util.Optional;
 
 /**
  * Reference (nomenclature) entity for status types of a merchant.
@@ -23,6 +25,7 @@ import java.util.Collection;
 @Getter
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Constants.CACHE_REGION_NOMENCLATURE)
 @ToString(of = {"id", "name"})
 @EqualsAndHashCode(of = {"id"})
 @Accessors(chain = true)
@@ -31,15 +34,49 @@ public class MerchantStatusType {
     /**
      * Possible status IDs.
      */
-    public enum STATUS {
+    public enum STATUS implements NomenclatureCode {
         /**
          * Active status.
          */
-        ACTIVE,
+        ACTIVE("A"),
         /**
          * Inactive status.
          */
-        INACTIVE
+        INACTIVE("I");
+
+        /**
+         * Code persisted in place of the ID.
+         */
+        private final String code;
+
+        /**
+         * Create the merchant status.
+         *
+         * @param code Code persisted in place of the ID.
+         */
+        STATUS(final String code) {
+            this.code = code;
+        }
+
+        /**
+         * Get the code persisted in place of the ID.
+         *
+         * @return The code.
+         */
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Find the merchant status with an ID.
+         *
+         * @param id (optional) The ID.
+         * @return The merchant status, empty if the ID is not valid.
+         */
+        public static Optional<STATUS> findById(final String id) {
+            return NomenclatureCode.findById(STATUS.class, id);
+        }
     }
 
     /**
@@ -61,12 +98,6 @@ public class MerchantStatusType {
     @Column(length = Constants.LENGTH_NOMENCLATURE_NAME)
     private String name;
 
-    /**
-     * Merchants in this status.
-     */
-    @OneToMany(mappedBy = "status")
-    private Collection<Merchant> merchants;
-
     /**
      * Version number used for optimistic lock.
      */
@@ -0,0 +1,18 @@
+package com.example.empay.entity.merchant;
+
+import com.example.empay.entity.AbstractNomenclatureCodeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Converter persisting {@link MerchantStatusType.STATUS} as the code of the merchant status.
+ */
+@Converter
+public class MerchantStatusTypeCodeConverter extends AbstractNomenclatureCodeConverter<MerchantStatusType.STATUS> {
+
+    /**
+     * Create the converter.
+     */
+    public MerchantStatusTypeCodeConverter() {
+        super(MerchantStatusType.STATUS.class);
+    }
+}
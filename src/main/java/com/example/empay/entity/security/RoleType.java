@@ -13,6 +13,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Collection;
 
@@ -20,6 +22,7 @@ import java.util.Collection;
  * Reference (nomenclature) entity representing user role types.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Constants.CACHE_REGION_NOMENCLATURE)
 @Getter
 @Setter
 @ToString(of = {"id", "name"})
@@ -22,12 +22,18 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Entity representing a single user that is capable to login.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Constants.CACHE_REGION_USER_LOGIN)
+@NaturalIdCache(region = Constants.CACHE_REGION_USER_LOGIN_NATURAL_ID)
 @Table(indexes = {@Index(name = Constants.IDX_USERLOGIN_USERNAME, columnList = "USERNAME", unique = true)})
 @Getter
 @Setter
@@ -45,8 +51,10 @@ public class UserLogin extends AbstractAuditableEntity {
     private Long id;
 
     /**
-     * Username of the user login used as credential.
+     * Username of the user login used as credential. Immutable natural ID, resolved to the entity ID through the
+     * natural ID cache.
      */
+    @NaturalId
     @NotNull
     @NotBlank
     @Size(max = Constants.LENGTH_NAME)
@@ -3,7 +3,9 @@ package com.example.empay.entity.transaction;
 import com.example.empay.entity.AbstractAuditableEntity;
 import com.example.empay.entity.merchant.Merchant;
 import com.example.empay.util.Constants;
+import com.example.empay.util.SearchText;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
@@ -13,6 +15,8 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.Digits;
@@ -21,6 +25,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -38,7 +43,11 @@ import java.util.UUID;
 @Getter
 @Setter
 @Accessors(chain = true)
-@Table(indexes = {@Index(name = Constants.FK_IDX_TRANS_REF_ID, columnList = "REFERENCE_ID", unique = true)})
+@Table(indexes = {@Index(name = Constants.FK_IDX_TRANS_REF_ID, columnList = "REFERENCE_ID", unique = true),
+        @Index(name = "IDX_TRANS_CUST_EMAIL_LOWER", columnList = "CUSTOMER_EMAIL_LOWER"),
+        @Index(name = "IDX_TRANS_CUST_EMAIL_REVERSED", columnList = "CUSTOMER_EMAIL_REVERSED"),
+        @Index(name = "IDX_TRANS_CUST_PHONE_LOWER", columnList = "CUSTOMER_PHONE_LOWER"),
+        @Index(name = "IDX_TRANS_CUST_PHONE_REVERSED", columnList = "CUSTOMER_PHONE_REVERSED")})
 @ToString(of = {"id", "type", "referenceId", "merchant"})
 @EqualsAndHashCode(of = {"id"}, callSuper = false)
 public class Transaction extends AbstractAuditableEntity {
@@ -52,13 +61,13 @@ public class Transaction extends AbstractAuditableEntity {
     private UUID id;
 
     /**
-     * Type of the transaction.
+     * Type of the transaction, stored as the code of the type. The display name is served by the
+     * {@link com.example.empay.service.nomenclature.NomenclatureRegistry}.
      */
     @NotNull
-    @ManyToOne(optional = false, fetch = FetchType.EAGER)
-    @JoinColumn(name = "TYPE_ID", updatable = false, nullable = false,
-            foreignKey = @ForeignKey(name = Constants.FK_TRANSACTION_TYPE_ID))
-    private TransactionType type;
+    @Convert(converter = TransactionTypeCodeConverter.class)
+    @Column(name = "TYPE_ID", length = Constants.LENGTH_NOMENCLATURE_CODE, updatable = false, nullable = false)
+    private TransactionType.TYPE type;
 
     /**
      * Amount of the transaction. Amount is immutable and cannot be changed after created.
@@ -87,13 +96,41 @@ public class Transaction extends AbstractAuditableEntity {
     private String customerPhone;
 
     /**
-     * Status of this transaction.
+     * Lower-cased customer email, maintained for index-friendly case-insensitive searches.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_EMAIL)
+    private String customerEmailLower;
+
+    /**
+     * Reversed lower-cased customer email, maintained for index-friendly searches by suffix.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_EMAIL)
+    private String customerEmailReversed;
+
+    /**
+     * Lower-cased customer phone, maintained for index-friendly searches by prefix.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_PHONE)
+    private String customerPhoneLower;
+
+    /**
+     * Reversed customer phone, maintained for index-friendly searches by suffix.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = Constants.LENGTH_PHONE)
+    private String customerPhoneReversed;
+
+    /**
+     * Status of this transaction, stored as the code of the status. The display name is served by the
+     * {@link com.example.empay.service.nomenclature.NomenclatureRegistry}.
      */
     @NotNull
-    @ManyToOne(optional = false, fetch = FetchType.EAGER)
-    @JoinColumn(name = "STATUS_ID", nullable = false, foreignKey = @ForeignKey(name =
-            Constants.FK_TRANSACTION_STATUS_ID))
-    private TransactionStatusType status;
+    @Convert(converter = TransactionStatusTypeCodeConverter.class)
+    @Column(name = "STATUS_ID", length = Constants.LENGTH_NOMENCLATURE_CODE, nullable = false)
+    private TransactionStatusType.TYPE status;
 
     /**
      * Error message describing the reason the transaction is in status ERROR.
@@ -119,21 +156,30 @@ public class Transaction extends AbstractAuditableEntity {
     private Merchant merchant;
 
     /**
-     * Parent transaction of this transaction.
+     * Parent transaction of this transaction: the CHARGE transaction of a REFUND or the AUTHORIZE transaction of a
+     * REVERSAL. Loaded lazily, the transaction searches fetch it together with the transaction. The child side is
+     * not mapped, as an inverse one-to-one cannot be loaded lazily and would cost a query per loaded transaction.
      */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "BELONGS_TO_TRANSACTION_ID")
     private Transaction belongsToTransaction;
 
-    /**
-     * Child transaction for this transaction. Used for one-to-one mapping only.
-     */
-    @OneToOne(mappedBy = "belongsToTransaction")
-    private Transaction belongingTransaction;
-
     /**
      * Version number used for optimistic lock.
      */
     @Version
     @Column(nullable = false)
     private Integer version;
+
+    /**
+     * Update the normalized search columns from the customer email and phone before the transaction is written.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        customerEmailLower = SearchText.normalize(customerEmail);
+        customerEmailReversed = SearchText.reverse(customerEmail);
+        customerPhoneLower = SearchText.normalize(customerPhone);
+        customerPhoneReversed = SearchText.reverse(customerPhone);
+    }
 }
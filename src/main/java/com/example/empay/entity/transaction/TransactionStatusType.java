@@ -1,10 +1,10 @@
 package com.example.empay.entity.transaction;
 
+import com.example.empay.entity.NomenclatureCode;
 import com.example.empay.util.Constants;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToMany;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,8 +14,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.Collection;
+import java.util.Optional;
 
 /**
  * Reference (nomenclature) entity for status types of a transaction.
@@ -23,6 +25,7 @@ import java.util.Collection;
 @Getter
 @Setter
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Constants.CACHE_REGION_NOMENCLATURE)
 @ToString(of = {"id", "name"})
 @EqualsAndHashCode(of = {"id"})
 @Accessors(chain = true)
@@ -31,23 +34,57 @@ public class TransactionStatusType {
     /**
      * Possible status IDs.
      */
-    public enum TYPE {
+    public enum TYPE implements NomenclatureCode {
         /**
          * Approved status.
          */
-        APPROVED,
+        APPROVED("A"),
         /**
          * Reversed status.
          */
-        REVERSED,
+        REVERSED("V"),
         /**
          * Refunded status.
          */
-        REFUNDED,
+        REFUNDED("R"),
         /**
          * Error status.
          */
-        ERROR
+        ERROR("E");
+
+        /**
+         * Code persisted in place of the ID.
+         */
+        private final String code;
+
+        /**
+         * Create the transaction status.
+         *
+         * @param code Code persisted in place of the ID.
+         */
+        TYPE(final String code) {
+            this.code = code;
+        }
+
+        /**
+         * Get the code persisted in place of the ID.
+         *
+         * @return The code.
+         */
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Find the transaction status with an ID.
+         *
+         * @param id (optional) The ID.
+         * @return The transaction status, empty if the ID is not valid.
+         */
+        public static Optional<TYPE> findById(final String id) {
+            return NomenclatureCode.findById(TYPE.class, id);
+        }
     }
 
     /**
@@ -75,10 +112,4 @@ public class TransactionStatusType {
     @Version
     @Column(nullable = false)
     private Integer version = 1;
-
-    /**
-     * Transactions in this status.
-     */
-    @OneToMany(mappedBy = "status")
-    private Collection<Transaction> transactions;
 }
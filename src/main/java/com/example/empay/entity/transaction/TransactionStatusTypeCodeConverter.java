@@ -0,0 +1,19 @@
+package com.example.empay.entity.transaction;
+
+import com.example.empay.entity.AbstractNomenclatureCodeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Converter persisting {@link TransactionStatusType.TYPE} as the code of the transaction status.
+ */
+@Converter
+public class TransactionStatusTypeCodeConverter
+        extends AbstractNomenclatureCodeConverter<TransactionStatusType.TYPE> {
+
+    /**
+     * Create the converter.
+     */
+    public TransactionStatusTypeCodeConverter() {
+        super(TransactionStatusType.TYPE.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.empay.entity.transaction;
 
+import com.example.empay.entity.NomenclatureCode;
 import com.example.empay.util.Constants;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,11 +14,16 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Optional;
 
 /**
  * Reference (nomenclature) entity for types of a transaction.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Constants.CACHE_REGION_NOMENCLATURE)
 @Getter
 @Setter
 @ToString(of = {"id", "name"})
@@ -28,23 +34,57 @@ public class TransactionType {
     /**
      * Possible transaction type IDs.
      */
-    public enum TYPE {
+    public enum TYPE implements NomenclatureCode {
         /**
          * Authorize transaction type.
          */
-        AUTHORIZE,
+        AUTHORIZE("A"),
         /**
          * Charge transaction type.
          */
-        CHARGE,
+        CHARGE("C"),
         /**
          * Refund transcation type.
          */
-        REFUND,
+        REFUND("R"),
         /**
          * Reversal transaction type.
          */
-        REVERSAL
+        REVERSAL("V");
+
+        /**
+         * Code persisted in place of the ID.
+         */
+        private final String code;
+
+        /**
+         * Create the transaction type.
+         *
+         * @param code Code persisted in place of the ID.
+         */
+        TYPE(final String code) {
+            this.code = code;
+        }
+
+        /**
+         * Get the code persisted in place of the ID.
+         *
+         * @return The code.
+         */
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Find the transaction type with an ID.
+         *
+         * @param id (optional) The ID.
+         * @return The transaction type, empty if the ID is not valid.
+         */
+        public static Optional<TYPE> findById(final String id) {
+            return NomenclatureCode.findById(TYPE.class, id);
+        }
     }
 
     /**
@@ -0,0 +1,18 @@
+package com.example.empay.entity.transaction;
+
+import com.example.empay.entity.AbstractNomenclatureCodeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Converter persisting {@link TransactionType.TYPE} as the code of the transaction type.
+ */
+@Converter
+public class TransactionTypeCodeConverter extends AbstractNomenclatureCodeConverter<TransactionType.TYPE> {
+
+    /**
+     * Create the converter.
+     */
+    public TransactionTypeCodeConverter() {
+        super(TransactionType.TYPE.class);
+    }
+}
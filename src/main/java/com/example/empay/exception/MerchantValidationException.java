@@ -0,0 +1,17 @@
+package com.example.empay.exception;
+
+/**
+ * Exception indicating that a merchant cannot be created or updated because
+ * of invalid data, such as a non-existing status.
+ */
+public class MerchantValidationException extends RuntimeException {
+
+    /**
+     * Constructor with a message.
+     *
+     * @param message Exception message.
+     */
+    public MerchantValidationException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.empay.exception;
+
+/**
+ * Exception indicating that a financial transaction cannot be accepted at the moment because the application is
+ * overloaded. The client may retry the request later.
+ */
+public class TransactionOverloadException extends RuntimeException {
+
+    /**
+     * Constructor with a message and a cause.
+     *
+     * @param message Exception message.
+     * @param cause   The cause of this exception.
+     */
+    public TransactionOverloadException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.empay.job;
+
+import com.example.empay.service.merchant.MerchantBalanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * This Quartz job creates a new ledger snapshot for every merchant having ledger entries appended since its previous
+ * snapshot, so that the total transaction sum is always read from a short tail of entries. Each merchant is
+ * snapshotted in a separate transaction, so that merchant rows are not locked for the whole run.
+ */
+@Component
+@Slf4j
+@DisallowConcurrentExecution
+public class SnapshotMerchantLedgerJob implements Job {
+
+    /**
+     * Merchant balance service.
+     */
+    @Autowired
+    private MerchantBalanceService merchantBalanceService;
+
+    /**
+     * Called by a {@link org.quartz.Scheduler}.
+     *
+     * @param context The job context.
+     * @throws JobExecutionException If an exception during job execution occurs.
+     */
+    public void execute(final JobExecutionContext context) throws JobExecutionException {
+        try {
+            List<Long> merchantIds = merchantBalanceService.findMerchantIdsToSnapshot();
+            merchantIds.forEach(merchantBalanceService::snapshot);
+            log.debug("Created ledger snapshots of {} merchants", merchantIds.size());
+        } catch (Exception e) {
+            log.error("Error while creating merchant ledger snapshots", e);
+            throw new JobExecutionException("Error while creating merchant ledger snapshots", e);
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.empay.repository.merchant;
 
 import com.example.empay.entity.merchant.MerchantIdentifierType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MerchantIdentifierTypeRepository extends CrudRepository<MerchantIdentifierType, String> {
+
+    /**
+     * Find all merchant identifier types. The result is kept in the query cache, as the table changes only through the
+     * nomenclature data scripts.
+     *
+     * @return All merchant identifier types.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Iterable<MerchantIdentifierType> findAll();
 }
@@ -0,0 +1,47 @@
+package com.example.empay.repository.merchant;
+
+import com.example.empay.entity.merchant.MerchantLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MerchantLedgerEntryRepository extends JpaRepository<MerchantLedgerEntry, Long> {
+
+    /**
+     * Assign all ledger entries of a merchant not included in a snapshot yet to a snapshot. Entries of transactions
+     * not committed yet are not visible and are left for the next snapshot.
+     *
+     * @param merchantId Merchant ID.
+     * @param snapshotId Snapshot ID.
+     * @return The number of assigned entries.
+     */
+    @Modifying
+    @Query("update MerchantLedgerEntry e set e.snapshotId = :snapshotId "
+            + "where e.merchantId = :merchantId and e.snapshotId is null")
+    int assignToSnapshot(@Param("merchantId") Long merchantId, @Param("snapshotId") Long snapshotId);
+
+    /**
+     * Sum the amounts of all ledger entries of a merchant assigned to a snapshot.
+     *
+     * @param merchantId Merchant ID.
+     * @param snapshotId Snapshot ID.
+     * @return The sum of the amounts, zero if there are no such entries.
+     */
+    @Query("select coalesce(sum(e.amount), 0) from MerchantLedgerEntry e "
+            + "where e.merchantId = :merchantId and e.snapshotId = :snapshotId")
+    BigDecimal sumBySnapshotId(@Param("merchantId") Long merchantId, @Param("snapshotId") Long snapshotId);
+
+    /**
+     * Find the IDs of all merchants having ledger entries not included in a snapshot yet.
+     *
+     * @return A list of merchant IDs.
+     */
+    @Query("select distinct e.merchantId from MerchantLedgerEntry e where e.snapshotId is null")
+    List<Long> findMerchantIdsWithPendingEntries();
+}
@@ -0,0 +1,19 @@
+package com.example.empay.repository.merchant;
+
+import com.example.empay.entity.merchant.MerchantLedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MerchantLedgerSnapshotRepository extends JpaRepository<MerchantLedgerSnapshot, Long> {
+
+    /**
+     * Find the latest snapshot of a merchant.
+     *
+     * @param merchantId Merchant ID.
+     * @return The latest snapshot, empty if the merchant has no snapshots.
+     */
+    Optional<MerchantLedgerSnapshot> findFirstByMerchantIdOrderByIdDesc(Long merchantId);
+}
@@ -1,26 +1,27 @@
 package com.example.empay.repository.merchant;
 
 import com.example.empay.entity.merchant.Merchant;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
-public interface MerchantRepository extends JpaRepository<Merchant, Long>, JpaSpecificationExecutor<Merchant> {
+public interface MerchantRepository extends JpaRepository<Merchant, Long>, JpaSpecificationExecutor<Merchant>,
+        MerchantRepositoryCustom {
 
     /**
-     * Select and lock a {@link Merchant} by ID using @{link LockModeType.PESSIMISTIC_WRITE} mode.
+     * Find the total transaction sum of a {@link Merchant} derived from its ledger, without loading the merchant.
+     * Pending ledger entries are not flushed automatically before this query, as the total transaction sum is a
+     * formula not known to read the ledger tables.
      *
-     * @param id Merchant ID to be locked.
-     * @return A {@link Merchant} instance.
+     * @param id Merchant ID.
+     * @return The total transaction sum, empty if the merchant does not exist.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select m from Merchant m where m.id = :id")
-    Optional<Merchant> lockById(@Param("id") Long id);
+    @Query("select m.totalTransactionSum from Merchant m where m.id = :id")
+    Optional<BigDecimal> findTotalTransactionSumById(@Param("id") Long id);
 }
@@ -0,0 +1,24 @@
+package com.example.empay.repository.merchant;
+
+import com.example.empay.entity.merchant.Merchant;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Custom operations of the {@link MerchantRepository}.
+ */
+public interface MerchantRepositoryCustom {
+
+    /**
+     * Select and lock a {@link Merchant} by ID using {@link jakarta.persistence.LockModeType#PESSIMISTIC_WRITE} mode,
+     * waiting at most the provided time for the lock. The timeout is passed as a query hint and is honored by the
+     * databases supporting a lock timeout per statement.
+     *
+     * @param id      Merchant ID to be locked.
+     * @param timeout Maximum time to wait for the lock.
+     * @return A {@link Merchant} instance.
+     * @throws org.springframework.dao.PessimisticLockingFailureException If the lock cannot be acquired in time.
+     */
+    Optional<Merchant> lockById(Long id, Duration timeout);
+}
@@ -0,0 +1,37 @@
+package com.example.empay.repository.merchant;
+
+import com.example.empay.entity.merchant.Merchant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the custom operations of the {@link MerchantRepository}.
+ */
+public class MerchantRepositoryCustomImpl implements MerchantRepositoryCustom {
+
+    /**
+     * The persistence context.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Select and lock a {@link Merchant} by ID using {@link LockModeType#PESSIMISTIC_WRITE} mode, waiting at most the
+     * provided time for the lock.
+     *
+     * @param id      Merchant ID to be locked.
+     * @param timeout Maximum time to wait for the lock.
+     * @return A {@link Merchant} instance.
+     */
+    @Override
+    public Optional<Merchant> lockById(final Long id, final Duration timeout) {
+        return Optional.ofNullable(entityManager.find(Merchant.class, id, LockModeType.PESSIMISTIC_WRITE,
+                Map.of(AvailableHints.HINT_SPEC_LOCK_TIMEOUT, timeout.toMillis())));
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.empay.repository.merchant;
 
 import com.example.empay.entity.merchant.MerchantStatusType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MerchantStatusTypeRepository extends CrudRepository<MerchantStatusType, String> {
+
+    /**
+     * Find all merchant status types. The result is kept in the query cache, as the table changes only through the
+     * nomenclature data scripts.
+     *
+     * @return All merchant status types.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Iterable<MerchantStatusType> findAll();
 }
@@ -1,9 +1,22 @@
 package com.example.empay.repository.security;
 
 import com.example.empay.entity.security.RoleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RoleTypeRepository extends CrudRepository<RoleType, String> {
+
+    /**
+     * Find all role types. The result is kept in the query cache, as the table changes only through the
+     * nomenclature data scripts.
+     *
+     * @return All role types.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Iterable<RoleType> findAll();
 }
@@ -0,0 +1,20 @@
+package com.example.empay.repository.security;
+
+import com.example.empay.entity.security.UserLogin;
+
+import java.util.Optional;
+
+/**
+ * Custom operations of the {@link UserLoginRepository}.
+ */
+public interface UserLoginRepositoryCustom {
+
+    /**
+     * Find a {@link UserLogin} by username. The username is resolved to the user login ID through the natural ID
+     * cache and the user login is read from the entity cache, so repeated logins do not query the database.
+     *
+     * @param username The username value to search on.
+     * @return An optional value of {@link UserLogin} instance with the specified username.
+     */
+    Optional<UserLogin> findByUsername(String username);
+}
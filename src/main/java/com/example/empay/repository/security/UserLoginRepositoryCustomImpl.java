@@ -0,0 +1,34 @@
+package com.example.empay.repository.security;
+
+import com.example.empay.entity.security.UserLogin;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the custom operations of the {@link UserLoginRepository}.
+ */
+public class UserLoginRepositoryCustomImpl implements UserLoginRepositoryCustom {
+
+    /**
+     * The persistence context.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Find a {@link UserLogin} by its natural ID, the username. Runs in a read-only transaction, as it is also
+     * called during authentication, outside any transaction.
+     *
+     * @param username The username value to search on.
+     * @return An optional value of {@link UserLogin} instance with the specified username.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserLogin> findByUsername(final String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(UserLogin.class).loadOptional(username);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.empay.repository.transaction;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the customer contact details of a transaction, searched by substring.
+ */
+public interface TransactionCustomerText {
+
+    /**
+     * Get the ID of the transaction.
+     *
+     * @return The ID.
+     */
+    UUID getId();
+
+    /**
+     * Get the creation date of the transaction.
+     *
+     * @return The creation date.
+     */
+    ZonedDateTime getCreatedDate();
+
+    /**
+     * Get the customer email of the transaction.
+     *
+     * @return The customer email, {@literal null} if not set.
+     */
+    String getCustomerEmail();
+
+    /**
+     * Get the customer phone of the transaction.
+     *
+     * @return The customer phone, {@literal null} if not set.
+     */
+    String getCustomerPhone();
+}
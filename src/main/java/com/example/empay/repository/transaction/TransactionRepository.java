@@ -1,31 +1,113 @@
 package com.example.empay.repository.transaction;
 
 import com.example.empay.entity.transaction.Transaction;
-import jakarta.persistence.LockModeType;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction>,
+        TransactionRepositoryCustom {
 
+    /**
+     * Find a page of transactions matching a specification. The merchant and the parent transaction with its merchant
+     * are fetched in the same query, so that mapping the page does not cost a query per transaction.
+     *
+     * @param spec     The specification to match.
+     * @param pageable The requested page.
+     * @return A page of transactions.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"merchant", "belongsToTransaction", "belongsToTransaction.merchant"})
+    Page<Transaction> findAll(Specification<Transaction> spec, Pageable pageable);
+
+    /**
+     * Find transactions by IDs, fetching the merchant and the parent transaction with its merchant in the same query.
+     *
+     * @param ids The transaction IDs.
+     * @return The transactions found, in no particular order.
+     */
+    @EntityGraph(attributePaths = {"merchant", "belongsToTransaction", "belongsToTransaction.merchant"})
+    @Query("select t from Transaction t where t.id in :ids")
+    List<Transaction> findAllFetchedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Change the status of a {@link Transaction} provided it belongs to the merchant and has the expected type and
+     * status. Pending changes are flushed first, so that a transaction created in the same database transaction is
+     * updated as well.
+     *
+     * @param id           Transaction ID.
+     * @param merchantId   The merchant the transaction must belong to.
+     * @param type         The type the transaction must have.
+     * @param fromStatus   The status the transaction must have.
+     * @param status       The new status.
+     * @param modifiedDate The modification date.
+     * @return The number of updated records, 0 if a condition is not met.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Transaction t set t.status = :status, t.version = t.version + 1, t.lastModifiedDate = :modifiedDate"
+            + " where t.id = :id and t.merchant.id = :merchantId and t.type = :type and t.status = :fromStatus")
+    int updateStatus(@Param("id") UUID id, @Param("merchantId") Long merchantId,
+                     @Param("type") TransactionType.TYPE type,
+                     @Param("fromStatus") TransactionStatusType.TYPE fromStatus,
+                     @Param("status") TransactionStatusType.TYPE status,
+                     @Param("modifiedDate") ZonedDateTime modifiedDate);
+
+    /**
+     * Change the status of a {@link Transaction} provided it belongs to the merchant, has the expected type and
+     * status and its amount is not less than the provided amount. Pending changes are flushed first, so that a
+     * transaction created in the same database transaction is updated as well.
+     *
+     * @param id           Transaction ID.
+     * @param merchantId   The merchant the transaction must belong to.
+     * @param type         The type the transaction must have.
+     * @param fromStatus   The status the transaction must have.
+     * @param minAmount    The minimal amount the transaction must have.
+     * @param status       The new status.
+     * @param modifiedDate The modification date.
+     * @return The number of updated records, 0 if a condition is not met.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Transaction t set t.status = :status, t.version = t.version + 1, t.lastModifiedDate = :modifiedDate"
+            + " where t.id = :id and t.merchant.id = :merchantId and t.type = :type and t.status = :fromStatus"
+            + " and t.amount >= :minAmount")
+    int updateStatusIfAmountAtLeast(@Param("id") UUID id, @Param("merchantId") Long merchantId,
+                                    @Param("type") TransactionType.TYPE type,
+                                    @Param("fromStatus") TransactionStatusType.TYPE fromStatus,
+                                    @Param("minAmount") BigDecimal minAmount,
+                                    @Param("status") TransactionStatusType.TYPE status,
+                                    @Param("modifiedDate") ZonedDateTime modifiedDate);
 
     /**
-     * Select and lock a {@link Transaction} by ID using @{link LockModeType.PESSIMISTIC_WRITE} mode.
+     * Find a {@link Transaction} of a merchant by reference ID.
      *
-     * @param id Transaction ID to be locked.
+     * @param merchantId  The merchant ID.
+     * @param referenceId The reference ID of the transaction.
      * @return A {@link Transaction} instance.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select t from Transaction t where t.id = :id")
-    Optional<Transaction> lockById(@Param("id") UUID id);
+    @Query("select t from Transaction t where t.merchant.id = :merchantId and t.referenceId = :referenceId")
+    Optional<Transaction> findByMerchantIdAndReferenceId(@Param("merchantId") Long merchantId,
+                                                         @Param("referenceId") String referenceId);
 
     /**
      * Bulk delete transactions having created date before a specified value.
@@ -34,4 +116,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
      * @return The number of deleted records.
      */
     int deleteAllByCreatedDateBefore(ZonedDateTime before);
+
+    /**
+     * Find which of the provided reference IDs are already used by existing transactions.
+     *
+     * @param referenceIds The reference IDs to check.
+     * @return The reference IDs already in use.
+     */
+    @Query("select t.referenceId from Transaction t where t.referenceId in :referenceIds")
+    List<String> findExistingReferenceIds(@Param("referenceIds") Collection<String> referenceIds);
+
+    /**
+     * Check whether a transaction with the provided reference ID exists.
+     *
+     * @param referenceId The reference ID.
+     * @return {@literal true} if a transaction with the reference ID exists.
+     */
+    boolean existsByReferenceId(String referenceId);
+
+    /**
+     * Stream the reference IDs of all transactions. Must be called within a database transaction and the stream must
+     * be closed after use.
+     *
+     * @return Stream of reference IDs.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.referenceId from Transaction t where t.referenceId is not null")
+    Stream<String> streamAllReferenceIds();
+
+    /**
+     * Stream the customer contact details of all transactions having any. Must be called within a database
+     * transaction and the stream must be closed after use.
+     *
+     * @return Stream of customer contact details.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.id as id, t.createdDate as createdDate, t.customerEmail as customerEmail,"
+            + " t.customerPhone as customerPhone from Transaction t"
+            + " where t.customerEmail is not null or t.customerPhone is not null")
+    Stream<TransactionCustomerText> streamAllCustomerText();
 }
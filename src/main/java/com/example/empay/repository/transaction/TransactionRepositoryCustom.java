@@ -0,0 +1,23 @@
+package com.example.empay.repository.transaction;
+
+import com.example.empay.entity.transaction.Transaction;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom operations of the {@link TransactionRepository}.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Find the IDs of the whole lineage of a {@link Transaction}: the root of the chain of parent transactions
+     * referenced by {@code belongsToTransaction} and all of its descendants. On PostgreSQL the lineage is resolved by
+     * a single recursive query, on other databases by a query per level of the lineage.
+     *
+     * @param id Transaction ID.
+     * @return The IDs of the lineage ordered from the root, each level after its parent level, or an empty list if
+     * no transaction with the specified ID exists.
+     */
+    List<UUID> findLineageIds(UUID id);
+}
@@ -0,0 +1,131 @@
+package com.example.empay.repository.transaction;
+
+import com.example.empay.entity.transaction.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of the custom operations of the {@link TransactionRepository}.
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    /**
+     * Maximum number of levels of a lineage, guarding against a cycle of parent transactions.
+     */
+    private static final int MAX_LINEAGE_DEPTH = 16;
+
+    /**
+     * Recursive query of a lineage: the first part walks up to the root, the second walks down from the root.
+     */
+    private static final String LINEAGE_SQL = "with recursive ANCESTOR (ID, PARENT_ID, DEPTH) as ("
+            + "select ID, BELONGS_TO_TRANSACTION_ID, 0 from TRANSACTION where ID = :id "
+            + "union all "
+            + "select t.ID, t.BELONGS_TO_TRANSACTION_ID, a.DEPTH + 1 from TRANSACTION t "
+            + "join ANCESTOR a on t.ID = a.PARENT_ID where a.DEPTH < :maxDepth), "
+            + "LINEAGE (ID, DEPTH) as ("
+            + "select ID, 0 from ANCESTOR where PARENT_ID is null "
+            + "union all "
+            + "select t.ID, l.DEPTH + 1 from TRANSACTION t "
+            + "join LINEAGE l on t.BELONGS_TO_TRANSACTION_ID = l.ID where l.DEPTH < :maxDepth) "
+            + "select ID from LINEAGE order by DEPTH";
+
+    /**
+     * The persistence context.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Find the IDs of the whole lineage of a {@link Transaction}.
+     *
+     * @param id Transaction ID.
+     * @return The IDs of the lineage ordered from the root, or an empty list if no transaction with the specified
+     * ID exists.
+     */
+    @Override
+    public List<UUID> findLineageIds(final UUID id) {
+        return isRecursiveQuerySupported() ? findLineageIdsRecursive(id) : findLineageIdsIterative(id);
+    }
+
+    /**
+     * Find the IDs of a lineage with a single recursive query.
+     *
+     * @param id Transaction ID.
+     * @return The IDs of the lineage ordered from the root.
+     */
+    private List<UUID> findLineageIdsRecursive(final UUID id) {
+        List<?> rows = entityManager.createNativeQuery(LINEAGE_SQL)
+                .setParameter("id", id)
+                .setParameter("maxDepth", MAX_LINEAGE_DEPTH)
+                .getResultList();
+        List<UUID> ids = new ArrayList<>(rows.size());
+        rows.forEach(it -> ids.add(it instanceof UUID uuid ? uuid : UUID.fromString(it.toString())));
+        return ids;
+    }
+
+    /**
+     * Find the IDs of a lineage with a query per parent up to the root and a query per level down from the root.
+     *
+     * @param id Transaction ID.
+     * @return The IDs of the lineage ordered from the root.
+     */
+    private List<UUID> findLineageIdsIterative(final UUID id) {
+        List<UUID> parentId = findParentId(id);
+        if (parentId.isEmpty()) {
+            return List.of();
+        }
+
+        UUID rootId = id;
+        for (int depth = 0; !parentId.isEmpty() && parentId.get(0) != null && depth < MAX_LINEAGE_DEPTH; depth++) {
+            rootId = parentId.get(0);
+            parentId = findParentId(rootId);
+        }
+
+        Set<UUID> ids = new LinkedHashSet<>();
+        ids.add(rootId);
+        List<UUID> level = List.of(rootId);
+        for (int depth = 0; !level.isEmpty() && depth < MAX_LINEAGE_DEPTH; depth++) {
+            level = entityManager.createQuery(
+                            "select t.id from Transaction t where t.belongsToTransaction.id in :ids", UUID.class)
+                    .setParameter("ids", level)
+                    .getResultList()
+                    .stream()
+                    .filter(ids::add)
+                    .toList();
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Find the parent transaction ID of a transaction.
+     *
+     * @param id Transaction ID.
+     * @return A list with the parent transaction ID, a list with {@literal null} if the transaction has no parent or
+     * an empty list if no transaction with the specified ID exists.
+     */
+    private List<UUID> findParentId(final UUID id) {
+        return entityManager.createQuery(
+                        "select t.belongsToTransaction.id from Transaction t where t.id = :id", UUID.class)
+                .setParameter("id", id)
+                .getResultList();
+    }
+
+    /**
+     * Check whether the lineage can be resolved by the recursive query. Other databases fall back to the iterative
+     * resolution.
+     *
+     * @return {@literal true} if the database is PostgreSQL.
+     */
+    private boolean isRecursiveQuerySupported() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.empay.repository.transaction;
 
 import com.example.empay.entity.transaction.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TransactionTypeRepository extends JpaRepository<TransactionType, String> {
+
+    /**
+     * Find all transaction types. The result is kept in the query cache, as the table changes only through the
+     * nomenclature data scripts.
+     *
+     * @return All transaction types.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<TransactionType> findAll();
 }
@@ -0,0 +1,61 @@
+package com.example.empay.service.merchant;
+
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.transaction.Transaction;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Handles the total transaction sum of merchants, kept as an append-only ledger. Every approved CHARGE and REFUND
+ * transaction appends a {@link com.example.empay.entity.merchant.MerchantLedgerEntry} and the entries are
+ * periodically included into a {@link com.example.empay.entity.merchant.MerchantLedgerSnapshot}. The total
+ * transaction sum is the balance of the latest snapshot plus the entries appended after it.
+ */
+public interface MerchantBalanceService {
+
+    /**
+     * Get the total transaction sum of a merchant, including the ledger entries appended in the current database
+     * transaction.
+     *
+     * @param merchantId The merchant ID.
+     * @return The total transaction sum, empty if the merchant does not exist.
+     */
+    Optional<BigDecimal> getTotalTransactionSum(@NotNull Long merchantId);
+
+    /**
+     * Lock a merchant and check that its total transaction sum is not less than an amount to be refunded. The lock
+     * is held until the end of the database transaction, so that concurrent refunds of the merchant cannot both
+     * pass the check.
+     *
+     * @param merchant The merchant.
+     * @param amount   The amount to be refunded.
+     * @return {@literal true} if the total transaction sum is not less than the amount, {@literal false} if it is
+     * less or the merchant does not exist.
+     */
+    boolean lockIfSufficient(@NotNull Merchant merchant, @NotNull BigDecimal amount);
+
+    /**
+     * Append the change of the total transaction sum caused by a saved transaction to the ledger of its merchant.
+     * Only approved CHARGE and REFUND transactions change the total transaction sum.
+     *
+     * @param transaction The saved transaction.
+     */
+    void append(@NotNull Transaction transaction);
+
+    /**
+     * Create a new ledger snapshot of a merchant including all ledger entries appended since its previous snapshot.
+     *
+     * @param merchantId The merchant ID.
+     */
+    void snapshot(@NotNull Long merchantId);
+
+    /**
+     * Find the IDs of all merchants having ledger entries not included in a snapshot yet.
+     *
+     * @return A list of merchant IDs.
+     */
+    List<Long> findMerchantIdsToSnapshot();
+}
@@ -2,11 +2,15 @@ package com.example.empay.service.merchant;
 
 import com.example.empay.controller.search.SearchRequest;
 import com.example.empay.dto.merchant.MerchantDto;
+import com.example.empay.service.search.KeysetWindow;
+import com.example.empay.service.search.SearchExport;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -61,4 +65,69 @@ public interface MerchantService {
                                            @NotNull Integer pageSize,
                                            @NotNull Integer pageNum,
                                            @Nullable Long filterByMerchantId);
+
+    /**
+     * Find merchants by a combination of search criteria, counting the total number of results as requested by the
+     * count mode of the search request.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the count mode.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A {@link Page} of merchants if the total number of results is known, otherwise a {@link Slice}.
+     */
+    Slice<MerchantDto> findSliceBySearchCriteria(@NotNull SearchRequest searchRequest,
+                                                 @NotNull Integer pageSize,
+                                                 @NotNull Integer pageNum,
+                                                 @Nullable Long filterByMerchantId);
+
+    /**
+     * Find the requested fields of merchants by a combination of search criteria, selecting only the columns the
+     * requested fields need.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the requested fields.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result, each result a map of the requested fields in the requested order, with the totals only
+     * if counted as requested by the count mode of the search request.
+     * @throws com.example.empay.controller.search.SearchRequestException If a requested field is not supported.
+     */
+    Slice<Map<String, Object>> findFieldsBySearchCriteria(@NotNull SearchRequest searchRequest,
+                                                          @NotNull Integer pageSize,
+                                                          @NotNull Integer pageNum,
+                                                          @Nullable Long filterByMerchantId);
+
+    /**
+     * Find merchants by a combination of search criteria using keyset pagination: the window after the position
+     * encoded in the cursor of the search request is selected by a predicate on the sort property and the ID instead
+     * of skipping an offset, therefore deep windows are as fast as the first one.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the cursor, empty for the first
+     *                           window.
+     * @param pageSize           Maximum number of results in a window.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A window of merchants with the cursor of the next window.
+     * @throws com.example.empay.controller.search.SearchRequestException If the cursor is invalid or was created for
+     *                                                                    another sort, or fields are requested.
+     */
+    KeysetWindow<MerchantDto> scrollBySearchCriteria(@NotNull SearchRequest searchRequest, @NotNull Integer pageSize,
+                                                     @Nullable Long filterByMerchantId);
+
+    /**
+     * Export merchants by a combination of search criteria. The requested fields, all fields if none are requested, are
+     * streamed from a database cursor when the export is written, so the memory used does not depend on the number
+     * of results.
+     *
+     * @param searchRequest      Contains the combination of search criteria, the sort and the requested fields.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return The export, validated but not executed.
+     * @throws com.example.empay.controller.search.SearchRequestException If the search criteria or the requested
+     *                                                                    fields are invalid, or a cursor is provided.
+     */
+    SearchExport exportBySearchCriteria(@NotNull SearchRequest searchRequest, @Nullable Long filterByMerchantId);
 }
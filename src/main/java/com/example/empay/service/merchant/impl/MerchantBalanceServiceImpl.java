@@ -0,0 +1,163 @@
+package com.example.empay.service.merchant.impl;
+
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.merchant.MerchantLedgerEntry;
+import com.example.empay.entity.merchant.MerchantLedgerSnapshot;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.repository.merchant.MerchantLedgerEntryRepository;
+import com.example.empay.repository.merchant.MerchantLedgerSnapshotRepository;
+import com.example.empay.repository.merchant.MerchantRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Validated
+@Slf4j
+public class MerchantBalanceServiceImpl implements MerchantBalanceService {
+
+    /**
+     * Merchant repository.
+     */
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    /**
+     * MerchantLedgerEntry repository.
+     */
+    @Autowired
+    private MerchantLedgerEntryRepository merchantLedgerEntryRepository;
+
+    /**
+     * MerchantLedgerSnapshot repository.
+     */
+    @Autowired
+    private MerchantLedgerSnapshotRepository merchantLedgerSnapshotRepository;
+
+    /**
+     * Maximum time in milliseconds to wait for the merchant lock when checking the total transaction sum for a
+     * refund.
+     */
+    @Value("${locks.merchant.refundTimeoutMillis:2000}")
+    private long refundLockTimeoutMillis;
+
+    /**
+     * Maximum time in milliseconds to wait for the merchant lock when creating a ledger snapshot.
+     */
+    @Value("${locks.merchant.ledgerSnapshotTimeoutMillis:5000}")
+    private long ledgerSnapshotLockTimeoutMillis;
+
+    /**
+     * Get the total transaction sum of a merchant, including the ledger entries appended in the current database
+     * transaction. The pending ledger entries are flushed first, the sum is then read from the database by a single
+     * query, as the merchant entity may come from the second-level cache.
+     *
+     * @param merchantId The merchant ID.
+     * @return The total transaction sum, empty if the merchant does not exist.
+     */
+    @Override
+    @Transactional
+    public Optional<BigDecimal> getTotalTransactionSum(@NotNull final Long merchantId) {
+        merchantLedgerEntryRepository.flush();
+        return merchantRepository.findTotalTransactionSumById(merchantId);
+    }
+
+    /**
+     * Lock a merchant and check that its total transaction sum is not less than an amount to be refunded. Ledger
+     * entries of CHARGE transactions not committed yet are not visible and do not count, which can only make the
+     * check stricter.
+     *
+     * @param merchant The merchant.
+     * @param amount   The amount to be refunded.
+     * @return {@literal true} if the total transaction sum is not less than the amount, {@literal false} if it is
+     * less or the merchant does not exist.
+     */
+    @Override
+    @Transactional
+    public boolean lockIfSufficient(@NotNull final Merchant merchant, @NotNull final BigDecimal amount) {
+        if (merchantRepository.lockById(merchant.getId(), Duration.ofMillis(refundLockTimeoutMillis)).isEmpty()) {
+            return false;
+        }
+        return getTotalTransactionSum(merchant.getId())
+                .map(totalTransactionSum -> totalTransactionSum.compareTo(amount) >= 0)
+                .orElse(false);
+    }
+
+    /**
+     * Append the change of the total transaction sum caused by a saved transaction to the ledger of its merchant.
+     * The entry is not flushed, so that the entries of a batch are inserted together with its transactions.
+     *
+     * @param transaction The saved transaction.
+     */
+    @Override
+    @Transactional
+    public void append(@NotNull final Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatusType.TYPE.APPROVED || transaction.getAmount() == null) {
+            return;
+        }
+        BigDecimal amount;
+        if (transaction.getType() == TransactionType.TYPE.CHARGE) {
+            amount = transaction.getAmount();
+        } else if (transaction.getType() == TransactionType.TYPE.REFUND) {
+            amount = transaction.getAmount().negate();
+        } else {
+            return;
+        }
+        merchantLedgerEntryRepository.save(new MerchantLedgerEntry()
+                .setMerchantId(transaction.getMerchant().getId())
+                .setTransactionId(transaction.getId())
+                .setAmount(amount));
+    }
+
+    /**
+     * Create a new ledger snapshot of a merchant including all ledger entries appended since its previous snapshot.
+     * The merchant is locked for the duration of the transaction, so that snapshots of the same merchant are
+     * serialized and do not run concurrently with its refunds. The entries are assigned to the snapshot by a single
+     * UPDATE statement, entries of transactions not committed yet are not visible to it and are left for the next
+     * snapshot.
+     *
+     * @param merchantId The merchant ID.
+     */
+    @Override
+    @Transactional
+    public void snapshot(@NotNull final Long merchantId) {
+        Optional<Merchant> lockedMerchant = merchantRepository.lockById(merchantId,
+                Duration.ofMillis(ledgerSnapshotLockTimeoutMillis));
+        if (lockedMerchant.isEmpty()) {
+            return;
+        }
+        BigDecimal previousBalance = merchantLedgerSnapshotRepository.findFirstByMerchantIdOrderByIdDesc(merchantId)
+                .map(MerchantLedgerSnapshot::getBalance)
+                .orElseGet(() -> lockedMerchant.get().getOpeningTransactionSum());
+
+        MerchantLedgerSnapshot snapshot = merchantLedgerSnapshotRepository.saveAndFlush(
+                new MerchantLedgerSnapshot().setMerchantId(merchantId).setBalance(previousBalance));
+        int assigned = merchantLedgerEntryRepository.assignToSnapshot(merchantId, snapshot.getId());
+        BigDecimal sum = merchantLedgerEntryRepository.sumBySnapshotId(merchantId, snapshot.getId());
+        snapshot.setBalance(previousBalance.add(sum));
+        log.debug("Created ledger snapshot [{}] of merchant [{}] including {} entries, balance {}",
+                snapshot.getId(), merchantId, assigned, snapshot.getBalance());
+    }
+
+    /**
+     * Find the IDs of all merchants having ledger entries not included in a snapshot yet.
+     *
+     * @return A list of merchant IDs.
+     */
+    @Override
+    public List<Long> findMerchantIdsToSnapshot() {
+        return merchantLedgerEntryRepository.findMerchantIdsWithPendingEntries();
+    }
+}
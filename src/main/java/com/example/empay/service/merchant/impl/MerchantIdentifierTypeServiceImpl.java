@@ -1,35 +1,30 @@
 package com.example.empay.service.merchant.impl;
 
-import com.example.empay.dto.mapper.MerchantIdentifierTypeDtoMapper;
 import com.example.empay.dto.merchant.MerchantIdentifierTypeDto;
-import com.example.empay.repository.merchant.MerchantIdentifierTypeRepository;
 import com.example.empay.service.merchant.MerchantIdentifierTypeService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
 
 @Service
 public class MerchantIdentifierTypeServiceImpl implements MerchantIdentifierTypeService {
 
     /**
-     * MerchantIdentifierType repository.
+     * Nomenclature registry.
      */
     @Autowired
-    private MerchantIdentifierTypeRepository repository;
+    private NomenclatureRegistry nomenclatureRegistry;
 
     /**
      * Return a list of all existing {@code MerchantIdentifierType} records wrapped as {@code
-     * MerchantIdentifierTypeDto}.
+     * MerchantIdentifierTypeDto}. The records are served from the {@link NomenclatureRegistry}.
      *
-     * @return A list of all existing merchant identifier types.
+     * @return An immutable list of all existing merchant identifier types.
      */
     public Collection<MerchantIdentifierTypeDto> findAll() {
-        List<MerchantIdentifierTypeDto> list = new LinkedList<>();
-        repository.findAll().forEach(it -> list.add(MerchantIdentifierTypeDtoMapper.toDto(it)));
-        return list;
+        return nomenclatureRegistry.getMerchantIdentifierTypes();
     }
 
 }
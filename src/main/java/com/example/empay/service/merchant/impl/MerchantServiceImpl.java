@@ -2,29 +2,42 @@ package com.example.empay.service.merchant.impl;
 
 import com.example.empay.controller.search.SearchCriteria;
 import com.example.empay.controller.search.SearchRequest;
+import com.example.empay.controller.search.SearchRequestException;
 import com.example.empay.dto.mapper.MerchantDtoMapper;
 import com.example.empay.dto.merchant.MerchantDto;
 import com.example.empay.entity.merchant.Merchant;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.service.merchant.MerchantService;
-import com.example.empay.service.merchant.search.MerchantSpecification;
-import com.example.empay.service.search.SpecificationBuilder;
+import com.example.empay.service.merchant.search.MerchantProjection;
+import com.example.empay.service.merchant.search.MerchantSearchPlanCompiler;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.service.search.EntitySearchQuery;
+import com.example.empay.service.search.KeysetPagination;
+import com.example.empay.service.search.KeysetWindow;
+import com.example.empay.service.search.SearchCountEstimator;
+import com.example.empay.service.search.SearchExport;
+import com.example.empay.service.search.SearchExporter;
+import com.example.empay.service.search.SearchPager;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,12 +48,58 @@ public class MerchantServiceImpl implements MerchantService {
      * Constant for ID property.
      */
     private static final String DTO_PROPERTY_ID = "id";
+    /**
+     * Keyset pagination of the search results.
+     */
+    private static final KeysetPagination<Merchant> KEYSET_PAGINATION = new KeysetPagination<>(Merchant.class, "id");
+    /**
+     * Query of the search results without counting them.
+     */
+    private static final EntitySearchQuery<Merchant> SEARCH_QUERY = new EntitySearchQuery<>(Merchant.class);
+    /**
+     * Compiled plans of the search criteria, resolved against the metamodel of the persistence context of this
+     * service.
+     */
+    private final MerchantSearchPlanCompiler searchPlans = new MerchantSearchPlanCompiler();
+    /**
+     * Projection of the search results to the requested fields, named by the {@link NomenclatureRegistry}.
+     */
+    private final MerchantProjection searchProjection = new MerchantProjection(() -> nomenclatureRegistry);
     /**
      * Merchant repository.
      */
     @Autowired
     private MerchantRepository repository;
 
+    /**
+     * Fetches the search results and counts them as requested.
+     */
+    @Autowired
+    private SearchPager searchPager;
+
+    /**
+     * Estimates the totals of unfiltered searches.
+     */
+    @Autowired
+    private SearchCountEstimator searchCountEstimator;
+
+    /**
+     * Creates the exports of search results.
+     */
+    @Autowired
+    private SearchExporter searchExporter;
+
+    /**
+     * Names the merchant statuses and identifier types of the returned DTOs.
+     */
+    @Autowired
+    private NomenclatureRegistry nomenclatureRegistry;
+    /**
+     * Maximum number of values of a list in the search criteria, like for IN.
+     */
+    @Value("${search.criteria.maxListSize:100}")
+    private int maxListSize;
+
     /**
      * The persistence context.
      */
@@ -56,7 +115,7 @@ public class MerchantServiceImpl implements MerchantService {
     @Transactional
     public Optional<MerchantDto> getById(@NotNull final Long id) {
         Optional<Merchant> merchant = repository.findById(id);
-        return merchant.map(MerchantDtoMapper::toDto);
+        return merchant.map(this::toDto);
     }
 
 
@@ -72,7 +131,7 @@ public class MerchantServiceImpl implements MerchantService {
         MerchantDtoMapper.applyValuesToModel(merchantDto, merchant, entityManager);
         merchantDto.setVersion(1); // Just in case if submitted by the user
 
-        return MerchantDtoMapper.toDto(repository.saveAndFlush(merchant));
+        return toDto(repository.saveAndFlush(merchant));
     }
 
     /**
@@ -90,7 +149,7 @@ public class MerchantServiceImpl implements MerchantService {
                         Merchant.class.getSimpleName(), id)));
 
         MerchantDtoMapper.applyValuesToModel(merchantDto, merchant, entityManager);
-        return MerchantDtoMapper.toDto(repository.saveAndFlush(merchant));
+        return toDto(repository.saveAndFlush(merchant));
     }
 
     /**
@@ -117,59 +176,218 @@ public class MerchantServiceImpl implements MerchantService {
      * @param pageNum            The number of the page to return, starting from 0 (zero).
      * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
      *                           user-provided filters by merchant ID.
-     * @return A paged result of merchants.
+     * @return A paged result of merchants, with an estimated total if the search is not filtered and the estimate
+     * exceeds the threshold of exact counting.
      */
     public Page<MerchantDto> findBySearchCriteria(@Nullable final SearchRequest searchRequest,
                                                   @NotNull final Integer pageSize,
                                                   @NotNull final Integer pageNum,
                                                   @Nullable final Long filterByMerchantId) {
+        PageRequest pageRequest = toPageRequest(searchRequest, pageSize, pageNum);
+        Specification<Merchant> specification = toSpecification(searchRequest, filterByMerchantId);
+        OptionalLong estimatedTotal = estimateTotal(specification);
+        Page<Merchant> searchResult = estimatedTotal.isPresent()
+                ? SearchPager.estimated(pageRequest, SEARCH_QUERY.find(entityManager, null, pageRequest, pageSize),
+                estimatedTotal.getAsLong())
+                : repository.findAll(specification, pageRequest);
+        return searchResult.map(this::toDto);
+    }
+
+    /**
+     * Find merchants by a combination of search criteria, counting the total number of results as requested by the
+     * count mode of the search request. Without an exact count, one more merchant than the page size is fetched to
+     * find out whether there is a next page.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the count mode.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A page of merchants if the total number of results is known, otherwise a slice.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MerchantDto> findSliceBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                        @NotNull final Integer pageSize,
+                                                        @NotNull final Integer pageNum,
+                                                        @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasExactCount()) {
+            return findBySearchCriteria(searchRequest, pageSize, pageNum, filterByMerchantId);
+        }
+        PageRequest pageRequest = toPageRequest(searchRequest, pageSize, pageNum);
+        Specification<Merchant> specification = toSpecification(searchRequest, filterByMerchantId);
+        return searchPager.find(pageRequest, searchRequest.getCountMode(),
+                        maxResults -> SEARCH_QUERY.find(entityManager, specification, pageRequest, maxResults),
+                        () -> repository.count(specification), estimateTotal(specification))
+                .map(this::toDto);
+    }
+
+    /**
+     * Find the requested fields of merchants by a combination of search criteria. Only the columns of the requested
+     * fields are selected and the ledger is read only if the total transaction sum is requested.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the requested fields.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result of the requested fields of merchants.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> findFieldsBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                                 @NotNull final Integer pageSize,
+                                                                 @NotNull final Integer pageNum,
+                                                                 @Nullable final Long filterByMerchantId) {
+        Specification<Merchant> specification = toSpecification(searchRequest, filterByMerchantId);
+        return searchProjection.find(entityManager, searchRequest.getFields(), specification,
+                toPageRequest(searchRequest, pageSize, pageNum), searchPager, searchRequest.getCountMode(),
+                estimateTotal(specification));
+    }
+
+    /**
+     * Find merchants by a combination of search criteria using keyset pagination. The window after the position encoded
+     * in the cursor of the search request is selected by a predicate on the sort property and the ID, instead of
+     * skipping an offset, and no count query is executed.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the cursor, empty for the first
+     *                           window.
+     * @param pageSize           Maximum number of results in a window.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A window of merchants with the cursor of the next window.
+     */
+    @Transactional(readOnly = true)
+    public KeysetWindow<MerchantDto> scrollBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                            @NotNull final Integer pageSize,
+                                                            @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasFields()) {
+            throw new SearchRequestException("Fields cannot be combined with a cursor.", null);
+        }
+        return KEYSET_PAGINATION.find(entityManager, toSpecification(searchRequest, filterByMerchantId),
+                toSortProperty(searchRequest), searchRequest.isAscending(), searchRequest.getCursor(), pageSize)
+                .map(this::toDto);
+    }
 
-        PageRequest pageRequest = PageRequest.of(pageNum, pageSize);
-        SpecificationBuilder<Merchant> specificationBuilder =
-                new SpecificationBuilder<>(MerchantSpecification::new, entityManager);
+    /**
+     * Export merchants by a combination of search criteria. The requested fields, all fields if none are requested, are
+     * streamed from a database cursor when the export is written, without counting the results.
+     *
+     * @param searchRequest      Contains the combination of search criteria, the sort and the requested fields.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return The export of the requested fields of the merchants.
+     */
+    public SearchExport exportBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                               @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasCursor()) {
+            throw new SearchRequestException("A cursor cannot be combined with an export.", null);
+        }
+        return searchExporter.export(searchProjection, searchRequest.getFields(),
+                toSpecification(searchRequest, filterByMerchantId), toSort(searchRequest));
+    }
 
+    /**
+     * Create the specification of a merchant search. The list of search criteria, the group of search criteria and
+     * the mandatory filter by merchant ID are combined by AND.
+     *
+     * @param searchRequest      (optional) Contains the combination of search criteria.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID.
+     * @return The specification, or {@literal null} if there are no search criteria.
+     */
+    private Specification<Merchant> toSpecification(@Nullable final SearchRequest searchRequest,
+                                                    @Nullable final Long filterByMerchantId) {
+        Specification<Merchant> specification = null;
         if (searchRequest != null) {
             List<SearchCriteria> criteriaList = searchRequest.getSearchCriteriaList();
-            if (filterByMerchantId != null) {
-                if (criteriaList == null) {
-                    criteriaList = new ArrayList<>(1);
-                } else {
+            if (criteriaList != null) {
+                if (filterByMerchantId != null) {
                     // Remove search criteria by merchantId if filterByMerchantId is provided
                     criteriaList = criteriaList.stream()
-                            .filter(it -> !it.getFilterKey().equals(DTO_PROPERTY_ID))
+                            .filter(it -> !DTO_PROPERTY_ID.equals(it.getFilterKey()))
                             .collect(Collectors.toList());
                 }
-
-                SearchCriteria merchantSearchCriteria = new SearchCriteria();
-                merchantSearchCriteria.setFilterKey(DTO_PROPERTY_ID);
-                merchantSearchCriteria.setOperation("eq");
-                merchantSearchCriteria.setValue(filterByMerchantId);
-                criteriaList.add(merchantSearchCriteria);
-
+                criteriaList.forEach(it -> it.setDataOption(searchRequest.getDataOption()));
+                specification = searchPlans.toSpecification(entityManager, criteriaList, maxListSize);
             }
 
-            if (criteriaList != null) {
-                criteriaList.forEach(it -> {
-                    it.setDataOption(searchRequest.getDataOption());
-                    specificationBuilder.with(it);
-                });
+            Specification<Merchant> groupSpecification =
+                    searchPlans.toGroupSpecification(entityManager, searchRequest.getCriteriaGroup(), maxListSize);
+            if (groupSpecification != null) {
+                specification = specification == null ? groupSpecification : specification.and(groupSpecification);
             }
+        }
 
-            if (searchRequest.getSort() != null && !searchRequest.getSort().isBlank()) {
-                String sortProperty = searchRequest.getSort();
-                if (sortProperty.equals("statusTypeId")) {
-                    sortProperty = "status";
-                }
-                Sort sort = Sort.by(sortProperty);
-                if (searchRequest.isAscending()) {
-                    sort = sort.ascending();
-                } else {
-                    sort = sort.descending();
-                }
-                pageRequest = pageRequest.withSort(sort);
-            }
+        if (filterByMerchantId == null) {
+            return specification;
+        }
+        // The mandatory filter is combined by AND at the root, whatever the data options of the search criteria
+        SearchCriteria merchantSearchCriteria = new SearchCriteria();
+        merchantSearchCriteria.setFilterKey(DTO_PROPERTY_ID);
+        merchantSearchCriteria.setOperation("eq");
+        merchantSearchCriteria.setValue(filterByMerchantId);
+        Specification<Merchant> merchantSpecification =
+                searchPlans.toSpecification(entityManager, List.of(merchantSearchCriteria), maxListSize);
+        return specification == null ? merchantSpecification : merchantSpecification.and(specification);
+    }
+
+    /**
+     * Create the page request of a merchant search.
+     *
+     * @param searchRequest (optional) Contains the sort property and direction.
+     * @param pageSize      Maximum number of results in a page.
+     * @param pageNum       The number of the page to return, starting from 0 (zero).
+     * @return The page request.
+     */
+    private PageRequest toPageRequest(@Nullable final SearchRequest searchRequest, @NotNull final Integer pageSize,
+                                      @NotNull final Integer pageNum) {
+        return PageRequest.of(pageNum, pageSize, toSort(searchRequest));
+    }
+
+    /**
+     * Create the sort of a merchant search.
+     *
+     * @param searchRequest (optional) Contains the sort property and direction.
+     * @return The sort, unsorted if no sort property is requested.
+     */
+    private static Sort toSort(@Nullable final SearchRequest searchRequest) {
+        String sortProperty = toSortProperty(searchRequest);
+        if (sortProperty == null) {
+            return Sort.unsorted();
+        }
+        Sort sort = Sort.by(sortProperty);
+        return searchRequest.isAscending() ? sort.ascending() : sort.descending();
+    }
+
+    /**
+     * Estimate the total of a merchant search. Only the total of an unfiltered search is estimated.
+     *
+     * @param specification (optional) The specification of the search.
+     * @return The estimated total, empty if the results must be counted.
+     */
+    private OptionalLong estimateTotal(@Nullable final Specification<Merchant> specification) {
+        return specification == null ? searchCountEstimator.estimate(Merchant.class) : OptionalLong.empty();
+    }
+
+    /**
+     * Convert a merchant to a DTO named by the {@link NomenclatureRegistry}.
+     *
+     * @param merchant The merchant.
+     * @return A new MerchantDto instance.
+     */
+    private MerchantDto toDto(final Merchant merchant) {
+        return MerchantDtoMapper.toDto(merchant, nomenclatureRegistry);
+    }
+
+    /**
+     * Get the entity property to sort the results of a merchant search by. The status is sorted by its persisted code,
+     * which follows the alphabetical order of the status IDs.
+     *
+     * @param searchRequest (optional) Contains the sort property.
+     * @return The entity property, or {@literal null} if no sort property is requested.
+     */
+    private static String toSortProperty(@Nullable final SearchRequest searchRequest) {
+        if (searchRequest == null || searchRequest.getSort() == null || searchRequest.getSort().isBlank()) {
+            return null;
         }
-        Page<Merchant> searchResult = repository.findAll(specificationBuilder.build(), pageRequest);
-        return searchResult.map(MerchantDtoMapper::toDto);
+        return searchRequest.getSort().equals("statusTypeId") ? "status" : searchRequest.getSort();
     }
 }
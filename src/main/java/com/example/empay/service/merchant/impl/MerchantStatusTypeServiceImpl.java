@@ -1,34 +1,29 @@
 package com.example.empay.service.merchant.impl;
 
-import com.example.empay.dto.mapper.MerchantStatusTypeDtoMapper;
 import com.example.empay.dto.merchant.MerchantStatusTypeDto;
-import com.example.empay.repository.merchant.MerchantStatusTypeRepository;
 import com.example.empay.service.merchant.MerchantStatusTypeService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
 
 @Service
 public class MerchantStatusTypeServiceImpl implements MerchantStatusTypeService {
 
     /**
-     * MerchantStatusType repository.
+     * Nomenclature registry.
      */
     @Autowired
-    private MerchantStatusTypeRepository repository;
+    private NomenclatureRegistry nomenclatureRegistry;
 
     /**
      * Return a list of all existing {@code MerchantStatusType} records wrapped as {@code
-     * MerchantStatusTypeDto}.
+     * MerchantStatusTypeDto}. The records are served from the {@link NomenclatureRegistry}.
      *
-     * @return A list of all existing merchant status types.
+     * @return An immutable list of all existing merchant status types.
      */
     public Collection<MerchantStatusTypeDto> findAll() {
-        List<MerchantStatusTypeDto> list = new LinkedList<>();
-        repository.findAll().forEach(it -> list.add(MerchantStatusTypeDtoMapper.toDto(it)));
-        return list;
+        return nomenclatureRegistry.getMerchantStatusTypes();
     }
 }
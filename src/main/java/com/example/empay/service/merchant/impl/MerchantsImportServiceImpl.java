@@ -1,6 +1,7 @@
 package com.example.empay.service.merchant.impl;
 
 import com.example.empay.dto.merchant.MerchantDto;
+import com.example.empay.exception.MerchantValidationException;
 import com.example.empay.service.merchant.MerchantsImportService;
 import com.example.empay.service.merchant.MerchantService;
 import jakarta.validation.ConstraintViolationException;
@@ -42,7 +43,8 @@ public class MerchantsImportServiceImpl implements MerchantsImportService {
                 MerchantDto nextMerchantDto = merchantDtoIterator.next();
                 try {
                     merchantService.add(nextMerchantDto);
-                } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+                } catch (DataIntegrityViolationException | ConstraintViolationException
+                         | MerchantValidationException e) {
                     throw new MerchantImportException(String.format("Error while importing CSV line [%d]", count + 1),
                             count, nextMerchantDto, e);
                 }
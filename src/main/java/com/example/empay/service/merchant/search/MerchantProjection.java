@@ -0,0 +1,39 @@
+package com.example.empay.service.merchant.search;
+
+import com.example.empay.dto.mapper.MerchantIdentifierTypeDtoMapper;
+import com.example.empay.dto.mapper.MerchantStatusTypeDtoMapper;
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.service.search.SearchProjection;
+
+import java.util.function.Supplier;
+
+/**
+ * Projection of the merchant search results to a subset of the properties of
+ * {@link com.example.empay.dto.merchant.MerchantDto}. The identifier type is read from the foreign key column and
+ * named by the {@link NomenclatureRegistry}, the ledger is read only when the total transaction sum is requested.
+ */
+public class MerchantProjection extends SearchProjection<Merchant> {
+
+    /**
+     * Sole constructor.
+     *
+     * @param nomenclatureRegistry Supplies the registry naming the status and identifier type when a result is read.
+     */
+    public MerchantProjection(final Supplier<NomenclatureRegistry> nomenclatureRegistry) {
+        super(Merchant.class);
+        property("id", (root, cb) -> root.get("id"));
+        property("name", (root, cb) -> root.get("name"));
+        property("email", (root, cb) -> root.get("email"));
+        property("status", (root, cb) -> root.get("status"),
+                it -> MerchantStatusTypeDtoMapper.toDto((MerchantStatusType.STATUS) it, nomenclatureRegistry.get()));
+        property("identifierType", (root, cb) -> root.get("identifierType").get("id"),
+                it -> MerchantIdentifierTypeDtoMapper.toDto((String) it, nomenclatureRegistry.get()));
+        property("identifierValue", (root, cb) -> root.get("identifierValue"));
+        property("totalTransactionSum", (root, cb) -> root.get("totalTransactionSum"));
+        property("createdDate", (root, cb) -> root.get("createdDate"));
+        property("lastModifiedDate", (root, cb) -> root.get("lastModifiedDate"));
+        property("version", (root, cb) -> root.get("version"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.empay.service.merchant.search;
+
+import com.example.empay.controller.search.SearchOperation;
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.service.search.SearchPlanCompiler;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Compiles the search criteria of merchant searches, including the properties of the associations of a merchant.
+ */
+public class MerchantSearchPlanCompiler extends SearchPlanCompiler<Merchant> {
+    /**
+     * Constant for the identifier type ID property.
+     */
+    private static final String PROPERTY_IDENTIFIER_TYPE_ID = "identifierType.id";
+    /**
+     * Constant for the identifier type property.
+     */
+    private static final String PROPERTY_IDENTIFIER_TYPE = "identifierType";
+    /**
+     * Constant for the ID property of an association.
+     */
+    private static final String PROPERTY_ID = "id";
+    /**
+     * Constant for the status type ID property.
+     */
+    private static final String PROPERTY_STATUS_TYPE_ID = "status.id";
+    /**
+     * Constant for the status property.
+     */
+    private static final String PROPERTY_STATUS = "status";
+
+    /**
+     * Sole constructor.
+     */
+    public MerchantSearchPlanCompiler() {
+        super(Merchant.class);
+
+        // The identifier type is compared by its foreign key, without a join
+        Function<Object, String> identifierTypeId = String::valueOf;
+        property(PROPERTY_IDENTIFIER_TYPE_ID, SearchOperation.EQUAL, identifierTypeId,
+                (root, cb, value, value2) -> cb.equal(root.get(PROPERTY_IDENTIFIER_TYPE).get(PROPERTY_ID), value));
+        property(PROPERTY_IDENTIFIER_TYPE_ID, SearchOperation.NOT_EQUAL, identifierTypeId,
+                (root, cb, value, value2) -> cb.notEqual(root.get(PROPERTY_IDENTIFIER_TYPE).get(PROPERTY_ID), value));
+        listProperty(PROPERTY_IDENTIFIER_TYPE_ID, SearchOperation.IN, identifierTypeId,
+                (root, cb, value, value2) -> root.get(PROPERTY_IDENTIFIER_TYPE).get(PROPERTY_ID).in(value));
+        listProperty(PROPERTY_IDENTIFIER_TYPE_ID, SearchOperation.NOT_IN, identifierTypeId,
+                (root, cb, value, value2) -> cb.not(root.get(PROPERTY_IDENTIFIER_TYPE).get(PROPERTY_ID).in(value)));
+
+        // A status that does not exist matches no merchant
+        Function<Object, Optional<MerchantStatusType.STATUS>> status =
+                value -> MerchantStatusType.STATUS.findById(value.toString());
+        property(PROPERTY_STATUS_TYPE_ID, SearchOperation.EQUAL, status, (root, cb, value, value2) ->
+                value.map(it -> cb.equal(root.get(PROPERTY_STATUS), it)).orElseGet(cb::disjunction));
+        property(PROPERTY_STATUS_TYPE_ID, SearchOperation.NOT_EQUAL, status, (root, cb, value, value2) ->
+                value.map(it -> cb.notEqual(root.get(PROPERTY_STATUS), it)).orElseGet(cb::conjunction));
+        listProperty(PROPERTY_STATUS_TYPE_ID, SearchOperation.IN, status, (root, cb, value, value2) -> {
+            List<MerchantStatusType.STATUS> statuses = present(value);
+            return statuses.isEmpty() ? cb.disjunction() : root.get(PROPERTY_STATUS).in(statuses);
+        });
+        listProperty(PROPERTY_STATUS_TYPE_ID, SearchOperation.NOT_IN, status, (root, cb, value, value2) -> {
+            List<MerchantStatusType.STATUS> statuses = present(value);
+            return statuses.isEmpty() ? cb.conjunction() : cb.not(root.get(PROPERTY_STATUS).in(statuses));
+        });
+    }
+}
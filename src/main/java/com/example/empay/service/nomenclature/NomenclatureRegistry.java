@@ -0,0 +1,402 @@
+package com.example.empay.service.nomenclature;
+
+import com.example.empay.dto.merchant.MerchantIdentifierTypeDto;
+import com.example.empay.dto.merchant.MerchantStatusTypeDto;
+import com.example.empay.dto.transaction.TransactionStatusTypeDto;
+import com.example.empay.dto.transaction.TransactionTypeDto;
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.repository.merchant.MerchantIdentifierTypeRepository;
+import com.example.empay.repository.merchant.MerchantStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionTypeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of all nomenclature. The nomenclature is loaded once at startup, as it changes only through
+ * the nomenclature data scripts, and kept as immutable lists of DTOs. The DTOs are shared: the nomenclature
+ * services return them as they are and the DTO mappers reference them from every mapped transaction and merchant
+ * instead of allocating a copy per row. They are instances of read-only subclasses whose setters throw
+ * {@link UnsupportedOperationException}, so a caller cannot change the nomenclature seen by the others.
+ */
+@Component
+@Slf4j
+public class NomenclatureRegistry {
+
+    /**
+     * The loaded nomenclature. Empty until the registry is loaded.
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * TransactionType repository.
+     */
+    private final TransactionTypeRepository transactionTypeRepository;
+
+    /**
+     * TransactionStatusType repository.
+     */
+    private final TransactionStatusTypeRepository transactionStatusTypeRepository;
+
+    /**
+     * MerchantStatusType repository.
+     */
+    private final MerchantStatusTypeRepository merchantStatusTypeRepository;
+
+    /**
+     * MerchantIdentifierType repository.
+     */
+    private final MerchantIdentifierTypeRepository merchantIdentifierTypeRepository;
+
+    /**
+     * How long clients may cache the nomenclature responses.
+     */
+    private final Duration cacheMaxAge;
+
+    /**
+     * Create the registry.
+     *
+     * @param transactionTypeRepository        TransactionType repository.
+     * @param transactionStatusTypeRepository  TransactionStatusType repository.
+     * @param merchantStatusTypeRepository     MerchantStatusType repository.
+     * @param merchantIdentifierTypeRepository MerchantIdentifierType repository.
+     * @param cacheMaxAgeSeconds               How long clients may cache the nomenclature responses, in seconds.
+     */
+    public NomenclatureRegistry(
+            final TransactionTypeRepository transactionTypeRepository,
+            final TransactionStatusTypeRepository transactionStatusTypeRepository,
+            final MerchantStatusTypeRepository merchantStatusTypeRepository,
+            final MerchantIdentifierTypeRepository merchantIdentifierTypeRepository,
+            @Value("${nomenclature.cacheMaxAgeSeconds:3600}") final long cacheMaxAgeSeconds) {
+        this.transactionTypeRepository = transactionTypeRepository;
+        this.transactionStatusTypeRepository = transactionStatusTypeRepository;
+        this.merchantStatusTypeRepository = merchantStatusTypeRepository;
+        this.merchantIdentifierTypeRepository = merchantIdentifierTypeRepository;
+        this.cacheMaxAge = Duration.ofSeconds(cacheMaxAgeSeconds);
+    }
+
+    /**
+     * Get the shared DTO of a transaction type.
+     *
+     * @param type The transaction type ID.
+     * @return The shared DTO, or a new DTO named by the ID if the registry is not loaded or the nomenclature table
+     * does not contain the ID.
+     */
+    public TransactionTypeDto getTransactionType(final TransactionType.TYPE type) {
+        TransactionTypeDto dto = snapshot.transactionTypesById().get(type.name());
+        return dto != null ? dto : new SharedTransactionTypeDto(type.name(), type.name());
+    }
+
+    /**
+     * Get the shared DTO of a transaction status type.
+     *
+     * @param status The transaction status type ID.
+     * @return The shared DTO, or a new DTO named by the ID if the registry is not loaded or the nomenclature table
+     * does not contain the ID.
+     */
+    public TransactionStatusTypeDto getTransactionStatusType(final TransactionStatusType.TYPE status) {
+        TransactionStatusTypeDto dto = snapshot.transactionStatusTypesById().get(status.name());
+        return dto != null ? dto : new SharedTransactionStatusTypeDto(status.name(), status.name());
+    }
+
+    /**
+     * Get the shared DTO of a merchant status type.
+     *
+     * @param status The merchant status type ID.
+     * @return The shared DTO, or a new DTO named by the ID if the registry is not loaded or the nomenclature table
+     * does not contain the ID.
+     */
+    public MerchantStatusTypeDto getMerchantStatusType(final MerchantStatusType.STATUS status) {
+        MerchantStatusTypeDto dto = snapshot.merchantStatusTypesById().get(status.name());
+        return dto != null ? dto : new SharedMerchantStatusTypeDto(status.name(), status.name());
+    }
+
+    /**
+     * Get the shared DTO of a merchant identifier type.
+     *
+     * @param id The merchant identifier type ID.
+     * @return The shared DTO, or a new DTO named by the ID if the registry is not loaded or the nomenclature table
+     * does not contain the ID.
+     */
+    public MerchantIdentifierTypeDto getMerchantIdentifierType(final String id) {
+        MerchantIdentifierTypeDto dto = snapshot.merchantIdentifierTypesById().get(id);
+        return dto != null ? dto : new SharedMerchantIdentifierTypeDto(id, id);
+    }
+
+    /**
+     * Get all transaction types.
+     *
+     * @return An immutable list of the shared transaction type DTOs.
+     */
+    public List<TransactionTypeDto> getTransactionTypes() {
+        return snapshot.transactionTypes();
+    }
+
+    /**
+     * Get all transaction status types.
+     *
+     * @return An immutable list of the shared transaction status type DTOs.
+     */
+    public List<TransactionStatusTypeDto> getTransactionStatusTypes() {
+        return snapshot.transactionStatusTypes();
+    }
+
+    /**
+     * Get all merchant status types.
+     *
+     * @return An immutable list of the shared merchant status type DTOs.
+     */
+    public List<MerchantStatusTypeDto> getMerchantStatusTypes() {
+        return snapshot.merchantStatusTypes();
+    }
+
+    /**
+     * Get all merchant identifier types.
+     *
+     * @return An immutable list of the shared merchant identifier type DTOs.
+     */
+    public List<MerchantIdentifierTypeDto> getMerchantIdentifierTypes() {
+        return snapshot.merchantIdentifierTypes();
+    }
+
+    /**
+     * Get the entity tag of the loaded nomenclature, changing only when the nomenclature changes.
+     *
+     * @return A digest of the IDs and names of all nomenclature.
+     */
+    public String getETag() {
+        return snapshot.eTag();
+    }
+
+    /**
+     * Get how long clients may cache the nomenclature responses.
+     *
+     * @return The max age of the nomenclature responses.
+     */
+    public Duration getCacheMaxAge() {
+        return cacheMaxAge;
+    }
+
+    /**
+     * Load the nomenclature from the database.
+     */
+    @PostConstruct
+    public void load() {
+        List<TransactionTypeDto> transactionTypes = new ArrayList<>();
+        transactionTypeRepository.findAll()
+                .forEach(it -> transactionTypes.add(new SharedTransactionTypeDto(it.getId(), it.getName())));
+        List<TransactionStatusTypeDto> transactionStatusTypes = new ArrayList<>();
+        transactionStatusTypeRepository.findAll().forEach(
+                it -> transactionStatusTypes.add(new SharedTransactionStatusTypeDto(it.getId(), it.getName())));
+        List<MerchantStatusTypeDto> merchantStatusTypes = new ArrayList<>();
+        merchantStatusTypeRepository.findAll()
+                .forEach(it -> merchantStatusTypes.add(new SharedMerchantStatusTypeDto(it.getId(), it.getName())));
+        List<MerchantIdentifierTypeDto> merchantIdentifierTypes = new ArrayList<>();
+        merchantIdentifierTypeRepository.findAll().forEach(
+                it -> merchantIdentifierTypes.add(new SharedMerchantIdentifierTypeDto(it.getId(), it.getName())));
+
+        StringBuilder content = new StringBuilder();
+        transactionTypes.forEach(it -> appendContent(content, "TT:", it.getId(), it.getName()));
+        transactionStatusTypes.forEach(it -> appendContent(content, "TS:", it.getId(), it.getName()));
+        merchantStatusTypes.forEach(it -> appendContent(content, "MS:", it.getId(), it.getName()));
+        merchantIdentifierTypes.forEach(it -> appendContent(content, "MI:", it.getId(), it.getName()));
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        snapshot = new Snapshot(
+                List.copyOf(transactionTypes), byId(transactionTypes, TransactionTypeDto::getId),
+                List.copyOf(transactionStatusTypes), byId(transactionStatusTypes, TransactionStatusTypeDto::getId),
+                List.copyOf(merchantStatusTypes), byId(merchantStatusTypes, MerchantStatusTypeDto::getId),
+                List.copyOf(merchantIdentifierTypes), byId(merchantIdentifierTypes, MerchantIdentifierTypeDto::getId),
+                eTag);
+        log.info("Loaded nomenclature: {} transaction types, {} transaction status types, {} merchant status types, "
+                        + "{} merchant identifier types", transactionTypes.size(), transactionStatusTypes.size(),
+                merchantStatusTypes.size(), merchantIdentifierTypes.size());
+    }
+
+    /**
+     * Append the ID and name of a nomenclature to the content digested into the entity tag.
+     *
+     * @param content The digested content.
+     * @param prefix  Prefix distinguishing the nomenclature.
+     * @param id      The ID.
+     * @param name    The name.
+     */
+    private static void appendContent(final StringBuilder content, final String prefix, final String id,
+                                      final String name) {
+        content.append(prefix).append(id).append('=').append(name).append('\n');
+    }
+
+    /**
+     * Index a list of DTOs by ID.
+     *
+     * @param dtos  The DTOs.
+     * @param getId Function returning the ID of a DTO.
+     * @param <T>   The DTO type.
+     * @return An immutable map of the DTOs by ID.
+     */
+    private static <T> Map<String, T> byId(final List<T> dtos, final Function<T, String> getId) {
+        Map<String, T> map = new LinkedHashMap<>();
+        dtos.forEach(it -> map.put(getId.apply(it), it));
+        return Map.copyOf(map);
+    }
+
+    /**
+     * Create the exception thrown when modifying a shared DTO.
+     *
+     * @return A new exception.
+     */
+    private static UnsupportedOperationException sharedDtoModified() {
+        return new UnsupportedOperationException("Shared nomenclature DTOs cannot be modified");
+    }
+
+    /**
+     * The loaded nomenclature, replaced as a whole on load.
+     *
+     * @param transactionTypes            All transaction types.
+     * @param transactionTypesById        Transaction types by ID.
+     * @param transactionStatusTypes      All transaction status types.
+     * @param transactionStatusTypesById  Transaction status types by ID.
+     * @param merchantStatusTypes         All merchant status types.
+     * @param merchantStatusTypesById     Merchant status types by ID.
+     * @param merchantIdentifierTypes     All merchant identifier types.
+     * @param merchantIdentifierTypesById Merchant identifier types by ID.
+     * @param eTag                        Entity tag of the nomenclature.
+     */
+    private record Snapshot(List<TransactionTypeDto> transactionTypes,
+                            Map<String, TransactionTypeDto> transactionTypesById,
+                            List<TransactionStatusTypeDto> transactionStatusTypes,
+                            Map<String, TransactionStatusTypeDto> transactionStatusTypesById,
+                            List<MerchantStatusTypeDto> merchantStatusTypes,
+                            Map<String, MerchantStatusTypeDto> merchantStatusTypesById,
+                            List<MerchantIdentifierTypeDto> merchantIdentifierTypes,
+                            Map<String, MerchantIdentifierTypeDto> merchantIdentifierTypesById,
+                            String eTag) {
+
+        /**
+         * The nomenclature before the registry is loaded.
+         */
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), List.of(), Map.of(), List.of(), Map.of(),
+                List.of(), Map.of(), "\"0\"");
+    }
+
+    /**
+     * Transaction type DTO shared by all callers, its setters throw {@link UnsupportedOperationException}.
+     */
+    private static final class SharedTransactionTypeDto extends TransactionTypeDto {
+
+        /**
+         * Create the DTO.
+         *
+         * @param id   Transaction type ID.
+         * @param name Transaction type name.
+         */
+        SharedTransactionTypeDto(final String id, final String name) {
+            super.setId(id);
+            super.setName(name);
+        }
+
+        @Override
+        public TransactionTypeDto setId(final String id) {
+            throw sharedDtoModified();
+        }
+
+        @Override
+        public TransactionTypeDto setName(final String name) {
+            throw sharedDtoModified();
+        }
+    }
+
+    /**
+     * Transaction status type DTO shared by all callers, its setters throw {@link UnsupportedOperationException}.
+     */
+    private static final class SharedTransactionStatusTypeDto extends TransactionStatusTypeDto {
+
+        /**
+         * Create the DTO.
+         *
+         * @param id   Transaction status type ID.
+         * @param name Transaction status type name.
+         */
+        SharedTransactionStatusTypeDto(final String id, final String name) {
+            super.setId(id);
+            super.setName(name);
+        }
+
+        @Override
+        public TransactionStatusTypeDto setId(final String id) {
+            throw sharedDtoModified();
+        }
+
+        @Override
+        public TransactionStatusTypeDto setName(final String name) {
+            throw sharedDtoModified();
+        }
+    }
+
+    /**
+     * Merchant status type DTO shared by all callers, its setters throw {@link UnsupportedOperationException}.
+     */
+    private static final class SharedMerchantStatusTypeDto extends MerchantStatusTypeDto {
+
+        /**
+         * Create the DTO.
+         *
+         * @param id   Merchant status type ID.
+         * @param name Merchant status type name.
+         */
+        SharedMerchantStatusTypeDto(final String id, final String name) {
+            super.setId(id);
+            super.setName(name);
+        }
+
+        @Override
+        public MerchantStatusTypeDto setId(final String id) {
+            throw sharedDtoModified();
+        }
+
+        @Override
+        public MerchantStatusTypeDto setName(final String name) {
+            throw sharedDtoModified();
+        }
+    }
+
+    /**
+     * Merchant identifier type DTO shared by all callers, its setters throw {@link UnsupportedOperationException}.
+     */
+    private static final class SharedMerchantIdentifierTypeDto extends MerchantIdentifierTypeDto {
+
+        /**
+         * Create the DTO.
+         *
+         * @param id   Merchant identifier type ID.
+         * @param name Merchant identifier type name.
+         */
+        SharedMerchantIdentifierTypeDto(final String id, final String name) {
+            super.setId(id);
+            super.setName(name);
+        }
+
+        @Override
+        public MerchantIdentifierTypeDto setId(final String id) {
+            throw sharedDtoModified();
+        }
+
+        @Override
+        public MerchantIdentifierTypeDto setName(final String name) {
+            throw sharedDtoModified();
+        }
+    }
+}
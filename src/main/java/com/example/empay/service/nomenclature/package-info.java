@@ -0,0 +1,4 @@
+/**
+ * This module contains services providing nomenclature data.
+ */
+package com.example.empay.service.nomenclature;
@@ -0,0 +1,38 @@
+package com.example.empay.service.search;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of search results whose total number of results is estimated instead of counted.
+ *
+ * @param <T> The type of the results.
+ */
+public class ApproximatePage<T> extends PageImpl<T> {
+
+    /**
+     * Sole constructor.
+     *
+     * @param content        The results of the page.
+     * @param pageable       The requested page and sort.
+     * @param estimatedTotal The estimated total number of results.
+     */
+    public ApproximatePage(final List<T> content, final Pageable pageable, final long estimatedTotal) {
+        super(content, pageable, estimatedTotal);
+    }
+
+    /**
+     * Map the results of this page, keeping the estimated total.
+     *
+     * @param converter The function mapping a result.
+     * @param <U>       The type of the mapped results.
+     * @return A new approximate page with the mapped results.
+     */
+    @Override
+    public <U> ApproximatePage<U> map(final Function<? super T, ? extends U> converter) {
+        return new ApproximatePage<>(getConvertedContent(converter), getPageable(), getTotalElements());
+    }
+}
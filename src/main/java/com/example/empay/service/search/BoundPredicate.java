@@ -0,0 +1,23 @@
+package com.example.empay.service.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Creates the predicate of a compiled search criterion or group with its values already parsed.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+@FunctionalInterface
+interface BoundPredicate<T> {
+
+    /**
+     * Create the predicate.
+     *
+     * @param root The root of the query.
+     * @param cb   The criteria builder.
+     * @return The predicate.
+     */
+    Predicate toPredicate(Root<T> root, CriteriaBuilder cb);
+}
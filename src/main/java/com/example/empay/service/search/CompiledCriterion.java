@@ -0,0 +1,107 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.controller.search.SearchRequestException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * A search criterion compiled for a property and an operation, with the parser of its values bound to the predicate
+ * of the operation.
+ *
+ * @param filterKey  The filter key of the criterion.
+ * @param valueCount The number of values of the operation: 0, 1, or 2 for BETWEEN.
+ * @param list       Whether the value is a list of values, like for IN. The parser parses the whole list.
+ * @param parser     Parser of the search values.
+ * @param predicate  Creates the predicate from the parsed values.
+ * @param <T>        The class of the JPA entity.
+ * @param <V>        The type of the parsed values.
+ */
+record CompiledCriterion<T, V>(String filterKey, int valueCount, boolean list, Function<Object, ? extends V> parser,
+                               CriterionPredicate<T, V> predicate) {
+
+    /**
+     * Create a criterion of single values.
+     *
+     * @param filterKey  The filter key of the criterion.
+     * @param valueCount The number of values of the operation: 0, 1, or 2 for BETWEEN.
+     * @param parser     Parser of the search values.
+     * @param predicate  Creates the predicate from the parsed values.
+     */
+    CompiledCriterion(final String filterKey, final int valueCount, final Function<Object, ? extends V> parser,
+                      final CriterionPredicate<T, V> predicate) {
+        this(filterKey, valueCount, false, parser, predicate);
+    }
+
+    /**
+     * Bind the values of a search criterion. The values are parsed immediately, so that an invalid value fails
+     * before the query is executed.
+     *
+     * @param searchCriteria The search criterion, of the filter key and operation this criterion was compiled for.
+     * @param maxListSize    Maximum number of values of a list.
+     * @return The specification of the criterion.
+     * @throws SearchRequestException If a value is missing or cannot be parsed, or a list is empty or too long.
+     */
+    Specification<T> bind(final SearchCriteria searchCriteria, final int maxListSize) {
+        BoundPredicate<T> bound = bindPredicate(searchCriteria, maxListSize);
+        return (root, query, cb) -> bound.toPredicate(root, cb);
+    }
+
+    /**
+     * Bind the values of a search criterion to the predicate of this criterion. The values are parsed immediately.
+     *
+     * @param searchCriteria The search criterion, of the filter key and operation this criterion was compiled for.
+     * @param maxListSize    Maximum number of values of a list.
+     * @return The predicate of the criterion.
+     * @throws SearchRequestException If a value is missing or cannot be parsed, or a list is empty or too long.
+     */
+    BoundPredicate<T> bindPredicate(final SearchCriteria searchCriteria, final int maxListSize) {
+        if (list) {
+            checkList(searchCriteria, maxListSize);
+        }
+        V value = valueCount > 0 ? parse(searchCriteria, searchCriteria.getValue()) : null;
+        V value2 = valueCount > 1 ? parse(searchCriteria, searchCriteria.getValue2()) : null;
+        return (root, cb) -> predicate.toPredicate(root, cb, value, value2);
+    }
+
+    /**
+     * Check that the value of a search criterion is a list of at least one and at most the maximum number of values.
+     *
+     * @param searchCriteria The search criterion.
+     * @param maxListSize    Maximum number of values of a list.
+     * @throws SearchRequestException If the value is not a list, or the list is empty or too long.
+     */
+    private void checkList(final SearchCriteria searchCriteria, final int maxListSize) {
+        if (!(searchCriteria.getValue() instanceof Collection<?> values) || values.isEmpty()) {
+            throw new SearchRequestException(String.format("Search operation [%s] on property [%s] requires a "
+                    + "non-empty list of values.", searchCriteria.getOperation(), filterKey), searchCriteria);
+        }
+        if (values.size() > maxListSize) {
+            throw new SearchRequestException(String.format("Search operation [%s] on property [%s] supports at most "
+                    + "%d values.", searchCriteria.getOperation(), filterKey, maxListSize), searchCriteria);
+        }
+    }
+
+    /**
+     * Parse a search value.
+     *
+     * @param searchCriteria The search criterion.
+     * @param value          The search value.
+     * @return The parsed value.
+     * @throws SearchRequestException If the value is missing or cannot be parsed.
+     */
+    private V parse(final SearchCriteria searchCriteria, final Object value) {
+        if (value == null) {
+            throw new SearchRequestException(String.format("Search operation [%s] on property [%s] requires a value.",
+                    searchCriteria.getOperation(), filterKey), searchCriteria);
+        }
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new SearchRequestException(String.format("Invalid value [%s] of property [%s].", value, filterKey),
+                    searchCriteria);
+        }
+    }
+}
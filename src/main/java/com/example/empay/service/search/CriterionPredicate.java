@@ -0,0 +1,26 @@
+package com.example.empay.service.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Creates the predicate of a search criterion from its parsed values.
+ *
+ * @param <T> The class of the JPA entity.
+ * @param <V> The type of the parsed values.
+ */
+@FunctionalInterface
+public interface CriterionPredicate<T, V> {
+
+    /**
+     * Create the predicate of a search criterion.
+     *
+     * @param root   The root of the query.
+     * @param cb     The criteria builder.
+     * @param value  The parsed search value, {@literal null} if the operation has no value.
+     * @param value2 The parsed search value 2, {@literal null} unless the operation is BETWEEN.
+     * @return The predicate.
+     */
+    Predicate toPredicate(Root<T> root, CriteriaBuilder cb, V value, V value2);
+}
@@ -0,0 +1,102 @@
+package com.example.empay.service.search;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Query of the search results of a JPA entity with an explicit maximum number of results, used to fetch one result
+ * more than the page size without counting the results. The associations of the entity graph of the repository
+ * search must be passed as fetch paths, so that both queries load the same associations.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public class EntitySearchQuery<T> {
+
+    /**
+     * The class of the JPA entity.
+     */
+    private final Class<T> entityClass;
+
+    /**
+     * Associations fetched with the results, as attribute names or {@code association.attribute} paths.
+     */
+    private final List<String> fetchPaths;
+
+    /**
+     * Sole constructor.
+     *
+     * @param entityClass The class of the JPA entity.
+     * @param fetchPaths  Associations fetched with the results, as attribute names or {@code association.attribute}
+     *                    paths.
+     */
+    public EntitySearchQuery(final Class<T> entityClass, final String... fetchPaths) {
+        this.entityClass = entityClass;
+        this.fetchPaths = List.of(fetchPaths);
+    }
+
+    /**
+     * Find the entities matching a specification, starting from the offset of a page.
+     *
+     * @param entityManager The persistence context.
+     * @param specification (optional) The specification the entities must match.
+     * @param pageable      The requested page and sort.
+     * @param maxResults    Maximum number of results.
+     * @return The entities.
+     */
+    public List<T> find(final EntityManager entityManager, @Nullable final Specification<T> specification,
+                        final Pageable pageable, final int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults);
+        if (!fetchPaths.isEmpty()) {
+            typedQuery.setHint(AvailableHints.HINT_SPEC_FETCH_GRAPH,
+                    createFetchGraph(entityManager, entityClass, fetchPaths));
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Create the graph of the associations fetched with the results.
+     *
+     * @param entityManager The persistence context.
+     * @param entityClass   The class of the JPA entity.
+     * @param fetchPaths    Associations fetched with the results, as attribute names or
+     *                      {@code association.attribute} paths.
+     * @param <T>           The class of the JPA entity.
+     * @return The entity graph.
+     */
+    static <T> EntityGraph<T> createFetchGraph(final EntityManager entityManager, final Class<T> entityClass,
+                                               final List<String> fetchPaths) {
+        EntityGraph<T> graph = entityManager.createEntityGraph(entityClass);
+        fetchPaths.forEach(it -> {
+            int dot = it.indexOf('.');
+            if (dot < 0) {
+                graph.addAttributeNodes(it);
+            } else {
+                graph.addSubgraph(it.substring(0, dot)).addAttributeNodes(it.substring(dot + 1));
+            }
+        });
+        return graph;
+    }
+}
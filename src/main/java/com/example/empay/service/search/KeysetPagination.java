@@ -0,0 +1,283 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchRequestException;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination of the search results of a JPA entity. Instead of skipping an offset, the next window is
+ * selected by a predicate on the sort property and the ID of the last result of the previous window, which the
+ * database can answer from an index on the sort property regardless of how deep the window is.
+ * <p>
+ * The results are ordered by the sort property with {@literal null} values last and then by ID. The position is
+ * passed to the client as an opaque continuation token encoding the sort property, the direction and the values of
+ * the last result.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public class KeysetPagination<T> {
+
+    /**
+     * The class of the JPA entity.
+     */
+    private final Class<T> entityClass;
+
+    /**
+     * The name of the ID property of the entity.
+     */
+    private final String idProperty;
+
+    /**
+     * Associations fetched with the results, as attribute names or {@code association.attribute} paths.
+     */
+    private final List<String> fetchPaths;
+
+    /**
+     * Sole constructor.
+     *
+     * @param entityClass The class of the JPA entity.
+     * @param idProperty  The name of the ID property of the entity.
+     * @param fetchPaths  Associations fetched with the results, as attribute names or {@code association.attribute}
+     *                    paths.
+     */
+    public KeysetPagination(final Class<T> entityClass, final String idProperty, final String... fetchPaths) {
+        this.entityClass = entityClass;
+        this.idProperty = idProperty;
+        this.fetchPaths = List.of(fetchPaths);
+    }
+
+    /**
+     * Find a window of entities matching a specification.
+     *
+     * @param entityManager The persistence context.
+     * @param specification (optional) The specification the entities must match.
+     * @param sortProperty  (optional) The property to sort by, the ID property if not provided.
+     * @param ascending     The direction of the sort.
+     * @param cursor        The continuation token returned with the previous window, empty for the first window.
+     * @param pageSize      Maximum number of results in the window.
+     * @return A window of entities.
+     * @throws SearchRequestException If the sort property is not supported or the cursor is invalid or was created
+     *                                for another sort.
+     */
+    public KeysetWindow<T> find(final EntityManager entityManager, @Nullable final Specification<T> specification,
+                                @Nullable final String sortProperty, final boolean ascending, final String cursor,
+                                final int pageSize) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        SingularAttribute<? super T, ?> sortAttribute = getSortAttribute(entityType,
+                sortProperty == null || sortProperty.isBlank() ? idProperty : sortProperty);
+        SingularAttribute<? super T, ?> idAttribute = entityType.getSingularAttribute(idProperty);
+        boolean sortById = sortAttribute.getName().equals(idProperty);
+
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<Comparable<Object>> sortPath = root.get(sortAttribute.getName());
+        Path<Comparable<Object>> idPath = root.get(idProperty);
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (!cursor.isEmpty()) {
+            Position position = Position.decode(cursor);
+            if (!position.sortProperty().equals(sortAttribute.getName()) || position.ascending() != ascending) {
+                throw new SearchRequestException("The cursor was created for another sort.", null);
+            }
+            Comparable<Object> id = parse(idAttribute, position.id());
+            Predicate afterId = ascending || !sortById ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if (sortById) {
+                predicates.add(afterId);
+            } else if (position.value() == null) {
+                predicates.add(cb.and(cb.isNull(sortPath), afterId));
+            } else {
+                Comparable<Object> value = parse(sortAttribute, position.value());
+                Predicate seek = cb.or(ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value),
+                        cb.and(cb.equal(sortPath, value), afterId));
+                predicates.add(sortAttribute.isOptional() ? cb.or(seek, cb.isNull(sortPath)) : seek);
+            }
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(ascending ? cb.asc(sortPath, false) : cb.desc(sortPath, false));
+        if (!sortById) {
+            orders.add(cb.asc(idPath));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query).setMaxResults(pageSize + 1);
+        if (!fetchPaths.isEmpty()) {
+            typedQuery.setHint(AvailableHints.HINT_SPEC_FETCH_GRAPH,
+                    EntitySearchQuery.createFetchGraph(entityManager, entityClass, fetchPaths));
+        }
+        List<T> results = new ArrayList<>(typedQuery.getResultList());
+        String nextCursor = null;
+        if (results.size() > pageSize) {
+            results = results.subList(0, pageSize);
+            T last = results.get(pageSize - 1);
+            BeanWrapper lastResult = PropertyAccessorFactory.forBeanPropertyAccess(last);
+            nextCursor = new Position(sortAttribute.getName(), ascending,
+                    format(lastResult.getPropertyValue(sortAttribute.getName())),
+                    format(lastResult.getPropertyValue(idProperty))).encode();
+        }
+        return new KeysetWindow<>(results, nextCursor);
+    }
+
+    /**
+     * Get the attribute to sort by. Only basic attributes of the entity are supported.
+     *
+     * @param entityType   The entity type.
+     * @param sortProperty The property to sort by.
+     * @return The attribute.
+     * @throws SearchRequestException If the property is not a basic attribute of the entity.
+     */
+    private SingularAttribute<? super T, ?> getSortAttribute(final EntityType<T> entityType,
+                                                              final String sortProperty) {
+        SingularAttribute<? super T, ?> attribute = entityType.getSingularAttributes().stream()
+                .filter(it -> it.getName().equals(sortProperty))
+                .findFirst().orElse(null);
+        if (attribute == null || attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            throw new SearchRequestException(String.format("Sorting by property [%s] is not supported with a cursor.",
+                    sortProperty), null);
+        }
+        return attribute;
+    }
+
+    /**
+     * Format a sort key value for a continuation token.
+     *
+     * @param value The value.
+     * @return The formatted value, {@literal null} for a {@literal null} value.
+     */
+    private static String format(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> enumValue ? enumValue.name() : value.toString();
+    }
+
+    /**
+     * Parse a sort key value of a continuation token.
+     *
+     * @param attribute The attribute of the value.
+     * @param value     The formatted value.
+     * @return The value.
+     * @throws SearchRequestException If the value cannot be parsed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> parse(final SingularAttribute<?, ?> attribute, final String value) {
+        Class<?> type = attribute.getJavaType();
+        try {
+            Object parsed;
+            if (type == String.class) {
+                parsed = value;
+            } else if (type == UUID.class) {
+                parsed = UUID.fromString(value);
+            } else if (type == BigDecimal.class) {
+                parsed = new BigDecimal(value);
+            } else if (type == Long.class || type == long.class) {
+                parsed = Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                parsed = Integer.valueOf(value);
+            } else if (type == Boolean.class || type == boolean.class) {
+                parsed = Boolean.valueOf(value);
+            } else if (type == ZonedDateTime.class) {
+                parsed = ZonedDateTime.parse(value);
+            } else if (type.isEnum()) {
+                parsed = Enum.valueOf((Class<? extends Enum>) type, value);
+            } else {
+                throw new SearchRequestException(String.format("Sorting by property [%s] is not supported with a "
+                        + "cursor.", attribute.getName()), null);
+            }
+            return (Comparable<Object>) parsed;
+        } catch (RuntimeException e) {
+            if (e instanceof SearchRequestException searchRequestException) {
+                throw searchRequestException;
+            }
+            throw new SearchRequestException("Invalid cursor.", null);
+        }
+    }
+
+    /**
+     * The position after the last result of a window.
+     *
+     * @param sortProperty The property the results are sorted by.
+     * @param ascending    The direction of the sort.
+     * @param value        The formatted value of the sort property of the last result, {@literal null} if none.
+     * @param id           The formatted ID of the last result.
+     */
+    private record Position(String sortProperty, boolean ascending, String value, String id) {
+
+        /**
+         * Encode this position as a continuation token.
+         *
+         * @return The URL-safe continuation token.
+         */
+        String encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeUTF(sortProperty);
+                out.writeBoolean(ascending);
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value);
+                }
+                out.writeUTF(id);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        }
+
+        /**
+         * Decode a continuation token.
+         *
+         * @param cursor The continuation token.
+         * @return The position.
+         * @throws SearchRequestException If the continuation token is invalid.
+         */
+        static Position decode(final String cursor) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII))))) {
+                String sortProperty = in.readUTF();
+                boolean ascending = in.readBoolean();
+                String value = in.readBoolean() ? in.readUTF() : null;
+                String id = in.readUTF();
+                return new Position(sortProperty, ascending, value, id);
+            } catch (IOException | IllegalArgumentException e) {
+                throw new SearchRequestException("Invalid cursor.", null);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.empay.service.search;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A window of search results fetched by keyset pagination.
+ *
+ * @param content    The results.
+ * @param nextCursor The continuation token of the next window, {@literal null} if this is the last window.
+ * @param <T>        The type of the results.
+ */
+public record KeysetWindow<T>(List<T> content, String nextCursor) {
+
+    /**
+     * Map the results of this window.
+     *
+     * @param mapper The function mapping a result.
+     * @param <R>    The type of the mapped results.
+     * @return A new window with the mapped results and the same continuation token.
+     */
+    public <R> KeysetWindow<R> map(final Function<? super T, ? extends R> mapper) {
+        return new KeysetWindow<>(content.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
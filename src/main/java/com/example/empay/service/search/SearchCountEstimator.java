@@ -0,0 +1,135 @@
+package com.example.empay.service.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the number of rows of the table of a JPA entity, used as the total of an unfiltered search instead of
+ * counting the rows. On PostgreSQL the estimate is read from the planner statistics of the table, on other databases
+ * the rows are counted. Either way the estimate is kept for a configurable time, so that the rows are counted at most
+ * once per that time.
+ * <p>
+ * Only estimates of at least {@code search.estimate.threshold} rows are returned, smaller tables are cheap to count
+ * exactly.
+ */
+@Component
+@Slf4j
+public class SearchCountEstimator {
+
+    /**
+     * Query of the planner estimate of the number of rows of a table. The estimate is -1 for a table that was never
+     * analyzed.
+     */
+    private static final String POSTGRESQL_ESTIMATE_SQL =
+            "select cast(reltuples as bigint) from pg_class where oid = to_regclass(:table)";
+
+    /**
+     * Whether the totals of unfiltered searches are estimated.
+     */
+    private final boolean enabled;
+
+    /**
+     * Minimum estimated number of rows for which the estimate is used instead of an exact count.
+     */
+    private final long threshold;
+
+    /**
+     * Time an estimate is kept, in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Current estimates by entity class.
+     */
+    private final Map<Class<?>, Estimate> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * The persistence context.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sole constructor.
+     *
+     * @param enabled    Whether the totals of unfiltered searches are estimated.
+     * @param threshold  Minimum estimated number of rows for which the estimate is used instead of an exact count.
+     * @param ttlSeconds Time an estimate is kept, in seconds.
+     */
+    public SearchCountEstimator(@Value("${search.estimate.enabled:true}") final boolean enabled,
+                                @Value("${search.estimate.threshold:100000}") final long threshold,
+                                @Value("${search.estimate.ttlSeconds:60}") final long ttlSeconds) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    /**
+     * Estimate the number of rows of the table of an entity.
+     *
+     * @param entityClass The class of the JPA entity.
+     * @return The estimated number of rows, empty if estimates are disabled or the estimate is below the threshold.
+     */
+    public OptionalLong estimate(final Class<?> entityClass) {
+        if (!enabled) {
+            return OptionalLong.empty();
+        }
+        long now = System.currentTimeMillis();
+        Estimate estimate = estimates.get(entityClass);
+        if (estimate == null || estimate.expiresAt() <= now) {
+            estimate = new Estimate(queryRowCount(entityClass), now + ttlMillis);
+            estimates.put(entityClass, estimate);
+        }
+        return estimate.rowCount() >= threshold ? OptionalLong.of(estimate.rowCount()) : OptionalLong.empty();
+    }
+
+    /**
+     * Query the number of rows of the table of an entity, from the planner statistics if available.
+     *
+     * @param entityClass The class of the JPA entity.
+     * @return The number of rows.
+     */
+    private long queryRowCount(final Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory =
+                entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect) {
+            String table = ((AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(entityClass)).getTableName();
+            List<?> rows = entityManager.createNativeQuery(POSTGRESQL_ESTIMATE_SQL)
+                    .setParameter("table", table)
+                    .getResultList();
+            if (!rows.isEmpty() && rows.get(0) instanceof Number rowCount && rowCount.longValue() >= 0) {
+                return rowCount.longValue();
+            }
+            log.debug("No planner statistics of table [{}], counting the rows", table);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(entityClass)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * An estimated number of rows.
+     *
+     * @param rowCount  The estimated number of rows.
+     * @param expiresAt The time the estimate expires, in milliseconds since the epoch.
+     */
+    private record Estimate(long rowCount, long expiresAt) {
+    }
+}
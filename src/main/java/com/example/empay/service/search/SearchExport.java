@@ -0,0 +1,26 @@
+package com.example.empay.service.search;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A validated export of search results, executed when the results are written. Creating an export executes no query,
+ * so that an invalid search request fails before the response is started.
+ */
+public interface SearchExport {
+
+    /**
+     * Get the names of the exported fields.
+     *
+     * @return The names of the exported fields, in the order of the results.
+     */
+    List<String> getFields();
+
+    /**
+     * Execute the export, writing the results as they are read from the database.
+     *
+     * @param writer Writes the results in the export format.
+     * @throws IOException If writing fails.
+     */
+    void writeTo(SearchResultWriter writer) throws IOException;
+}
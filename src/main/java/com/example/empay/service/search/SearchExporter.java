@@ -0,0 +1,93 @@
+package com.example.empay.service.search;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Creates exports of search results. An export streams the requested properties of the results from a database cursor
+ * to a {@link SearchResultWriter} in its own read-only transaction, so it can be executed after the request has been
+ * handled, while the response is written.
+ */
+@Component
+public class SearchExporter {
+
+    /**
+     * Number of results fetched from the database at once.
+     */
+    private final int fetchSize;
+
+    /**
+     * Executes each export in a new read-only transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The persistence context.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sole constructor.
+     *
+     * @param fetchSize          Number of results fetched from the database at once.
+     * @param transactionManager The transaction manager.
+     */
+    public SearchExporter(@Value("${search.export.fetchSize:1000}") final int fetchSize,
+                          final PlatformTransactionManager transactionManager) {
+        this.fetchSize = fetchSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Create an export of search results. The requested properties are validated immediately, the query is executed
+     * when the export is written.
+     *
+     * @param projection    Projection of the search results of the entity.
+     * @param fields        (optional) The names of the requested DTO properties, all properties if empty.
+     * @param specification (optional) The specification the entities must match.
+     * @param sort          The sort of the results.
+     * @param <T>           The class of the JPA entity.
+     * @return The export.
+     * @throws com.example.empay.controller.search.SearchRequestException If a requested property is not supported.
+     */
+    public <T> SearchExport export(final SearchProjection<T> projection, @Nullable final List<String> fields,
+                                   @Nullable final Specification<T> specification, final Sort sort) {
+        List<String> names = projection.resolveFields(fields);
+        return new SearchExport() {
+            @Override
+            public List<String> getFields() {
+                return names;
+            }
+
+            @Override
+            public void writeTo(final SearchResultWriter writer) throws IOException {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        try {
+                            projection.stream(entityManager, names, specification, sort, fetchSize, writer);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.controller.search.SearchCriteriaGroup;
+import com.example.empay.controller.search.SearchRequestException;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compiled group of search criteria: the criteria and nested groups of a {@link SearchCriteriaGroup}, validated
+ * and resolved to their predicates. The predicates of a group are combined by a single AND or OR, so a tree of groups
+ * creates one predicate per group. Like a {@link SearchPlan}, a group plan depends only on the shape of the group, not
+ * on its values.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public final class SearchGroupPlan<T> {
+
+    /**
+     * Whether the criteria and nested groups are combined by AND, otherwise by OR.
+     */
+    private final boolean all;
+
+    /**
+     * The compiled criteria, in the order of the group.
+     */
+    private final List<CompiledCriterion<T, ?>> criteria;
+
+    /**
+     * The compiled nested groups, in the order of the group.
+     */
+    private final List<SearchGroupPlan<T>> groups;
+
+    /**
+     * Sole constructor.
+     *
+     * @param all      Whether the criteria and nested groups are combined by AND, otherwise by OR.
+     * @param criteria The compiled criteria, in the order of the group.
+     * @param groups   The compiled nested groups, in the order of the group.
+     */
+    SearchGroupPlan(final boolean all, final List<CompiledCriterion<T, ?>> criteria,
+                    final List<SearchGroupPlan<T>> groups) {
+        this.all = all;
+        this.criteria = List.copyOf(criteria);
+        this.groups = List.copyOf(groups);
+    }
+
+    /**
+     * Bind the values of a group of search criteria to this plan.
+     *
+     * @param group       The group, of the shape this plan was compiled for.
+     * @param maxListSize Maximum number of values of a list, like for IN.
+     * @return The specification of the group.
+     * @throws SearchRequestException If a value is missing or cannot be parsed, or a list is empty or too long.
+     */
+    public Specification<T> bind(final SearchCriteriaGroup group, final int maxListSize) {
+        BoundPredicate<T> bound = bindPredicate(group, maxListSize);
+        return (root, query, cb) -> bound.toPredicate(root, cb);
+    }
+
+    /**
+     * Bind the values of a group of search criteria to the predicates of this plan.
+     *
+     * @param group       The group, of the shape this plan was compiled for.
+     * @param maxListSize Maximum number of values of a list.
+     * @return The predicate of the group.
+     */
+    private BoundPredicate<T> bindPredicate(final SearchCriteriaGroup group, final int maxListSize) {
+        List<SearchCriteria> searchCriteria = Objects.requireNonNullElse(group.getSearchCriteriaList(), List.of());
+        List<SearchCriteriaGroup> nestedGroups = Objects.requireNonNullElse(group.getGroups(), List.of());
+        List<BoundPredicate<T>> parts = new ArrayList<>(criteria.size() + groups.size());
+        for (int idx = 0; idx < criteria.size(); idx++) {
+            parts.add(criteria.get(idx).bindPredicate(searchCriteria.get(idx), maxListSize));
+        }
+        for (int idx = 0; idx < groups.size(); idx++) {
+            parts.add(groups.get(idx).bindPredicate(nestedGroups.get(idx), maxListSize));
+        }
+        return (root, cb) -> {
+            Predicate[] predicates = new Predicate[parts.size()];
+            for (int idx = 0; idx < predicates.length; idx++) {
+                predicates[idx] = parts.get(idx).toPredicate(root, cb);
+            }
+            return all ? cb.and(predicates) : cb.or(predicates);
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCountMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Fetches a page of search results and counts the total number of results as requested by a
+ * {@link SearchCountMode}. Without an exact count, one more result than the page size is fetched to find out whether
+ * there is a next page. A parallel count is executed on a thread of a bounded pool in its own read-only database
+ * transaction, therefore on a separate connection, and is waited for only until the time budget runs out.
+ */
+@Component
+@Slf4j
+public class SearchPager {
+
+    /**
+     * Name of the counter of parallel counts that did not complete within the time budget or were rejected.
+     */
+    public static final String METRIC_PARALLEL_COUNT_MISSED = "empay.search.count.parallel.missed";
+
+    /**
+     * Maximum time to wait for a parallel count, in milliseconds, starting when the count is submitted.
+     */
+    private final long parallelBudgetMillis;
+
+    /**
+     * Executor of the parallel counts.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Executes each parallel count in a new read-only transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Counter of parallel counts that did not complete within the time budget or were rejected.
+     */
+    private final Counter missedCounter;
+
+    /**
+     * Create the executor of the parallel counts.
+     *
+     * @param parallelBudgetMillis Maximum time to wait for a parallel count, in milliseconds.
+     * @param parallelThreads      Number of threads executing parallel counts.
+     * @param queueCapacity        Maximum number of parallel counts waiting for a thread.
+     * @param transactionManager   The transaction manager.
+     * @param meterRegistry        Registry of the metrics.
+     */
+    public SearchPager(@Value("${search.count.parallelBudgetMillis:200}") final long parallelBudgetMillis,
+                       @Value("${search.count.parallelThreads:4}") final int parallelThreads,
+                       @Value("${search.count.queueCapacity:100}") final int queueCapacity,
+                       final PlatformTransactionManager transactionManager, final MeterRegistry meterRegistry) {
+        this.parallelBudgetMillis = parallelBudgetMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelThreads, parallelThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "search-count-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        // A count that is no longer waited for is not interrupted, the transaction timeout stops it in the database
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(parallelBudgetMillis) + 1));
+        this.missedCounter = meterRegistry.counter(METRIC_PARALLEL_COUNT_MISSED);
+    }
+
+    /**
+     * Fetch a page of search results. If an estimated total is provided, it is returned instead of counting the
+     * results, unless no total is requested.
+     *
+     * @param pageable       The requested page and sort.
+     * @param countMode      (optional) How to count the total number of results, {@link SearchCountMode#EXACT} if
+     *                       not provided.
+     * @param contentQuery   Query of the results of the page, limited to the maximum number of results passed as
+     *                       argument.
+     * @param countQuery     Query of the total number of results.
+     * @param estimatedTotal The estimated total number of results, empty if the results must be counted.
+     * @param <T>            The type of the results.
+     * @return A {@link org.springframework.data.domain.Page} if the total number of results is known, an
+     * {@link ApproximatePage} if it is estimated, otherwise a {@link Slice}.
+     */
+    public <T> Slice<T> find(final Pageable pageable, @Nullable final SearchCountMode countMode,
+                             final IntFunction<List<T>> contentQuery, final LongSupplier countQuery,
+                             final OptionalLong estimatedTotal) {
+        if (estimatedTotal.isPresent() && countMode != SearchCountMode.NONE) {
+            return estimated(pageable, contentQuery.apply(pageable.getPageSize()), estimatedTotal.getAsLong());
+        }
+        if (countMode == null || countMode == SearchCountMode.EXACT) {
+            return PageableExecutionUtils.getPage(contentQuery.apply(pageable.getPageSize()), pageable, countQuery);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parallelBudgetMillis);
+        Future<Long> count = countMode == SearchCountMode.PARALLEL ? submit(countQuery) : null;
+        List<T> content = contentQuery.apply(pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        } else if (pageable.getOffset() == 0 || !content.isEmpty()) {
+            // The last page, the total is known without counting
+            if (count != null) {
+                count.cancel(false);
+            }
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+
+        Long total = count != null ? await(count, deadline) : null;
+        return total != null ? new PageImpl<>(content, pageable, total) : new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Create a page with an estimated total, unless the total is known from the results.
+     *
+     * @param pageable       The requested page and sort.
+     * @param content        The results of the page.
+     * @param estimatedTotal The estimated total number of results.
+     * @param <T>            The type of the results.
+     * @return An {@link ApproximatePage}, or a {@link PageImpl} if this is the last page.
+     */
+    public static <T> PageImpl<T> estimated(final Pageable pageable, final List<T> content,
+                                            final long estimatedTotal) {
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+        return new ApproximatePage<>(content, pageable, estimatedTotal);
+    }
+
+    /**
+     * Submit a parallel count.
+     *
+     * @param countQuery Query of the total number of results.
+     * @return The future total number of results, {@literal null} if the count was rejected.
+     */
+    private Future<Long> submit(final LongSupplier countQuery) {
+        try {
+            return executor.submit(() -> transactionTemplate.execute(status -> countQuery.getAsLong()));
+        } catch (RejectedExecutionException e) {
+            missedCounter.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Wait for a parallel count until the deadline.
+     *
+     * @param count    The future total number of results.
+     * @param deadline The deadline as a {@link System#nanoTime()} value.
+     * @return The total number of results, {@literal null} if the count did not complete in time or failed.
+     */
+    private Long await(final Future<Long> count, final long deadline) {
+        try {
+            return count.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            count.cancel(false);
+            missedCounter.increment();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Parallel count of search results failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            count.cancel(false);
+            return null;
+        }
+    }
+
+    /**
+     * Stop the executor of the parallel counts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.controller.search.SearchRequestException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * A compiled search request: the criteria of a search request, validated and resolved to their predicates. A plan
+ * depends only on the filter keys, operations and data options of the criteria, not on their values, so it is shared
+ * by all search requests of the same shape.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public final class SearchPlan<T> {
+
+    /**
+     * The compiled criteria, in the order of the search request.
+     */
+    private final List<Step<T>> steps;
+
+    /**
+     * Sole constructor.
+     *
+     * @param steps The compiled criteria, in the order of the search request.
+     */
+    SearchPlan(final List<Step<T>> steps) {
+        this.steps = List.copyOf(steps);
+    }
+
+    /**
+     * Bind the values of search criteria to this plan. A criterion is combined with the criteria before it by AND if
+     * its data option is ALL, otherwise by OR.
+     *
+     * @param searchCriteria The search criteria, of the shape this plan was compiled for.
+     * @param maxListSize    Maximum number of values of a list, like for IN.
+     * @return The specification of the search criteria.
+     * @throws SearchRequestException If a value is missing or cannot be parsed, or a list is empty or too long.
+     */
+    public Specification<T> bind(final List<SearchCriteria> searchCriteria, final int maxListSize) {
+        Specification<T> result = null;
+        for (int idx = 0; idx < steps.size(); idx++) {
+            Step<T> step = steps.get(idx);
+            Specification<T> specification = step.criterion().bind(searchCriteria.get(idx), maxListSize);
+            if (result == null) {
+                result = specification;
+            } else {
+                result = step.all()
+                        ? Specification.where(result).and(specification)
+                        : Specification.where(result).or(specification);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A compiled criterion of a plan.
+     *
+     * @param criterion The compiled criterion.
+     * @param all       Whether the criterion is combined with the criteria before it by AND.
+     * @param <T>       The class of the JPA entity.
+     */
+    record Step<T>(CompiledCriterion<T, ?> criterion, boolean all) {
+    }
+}
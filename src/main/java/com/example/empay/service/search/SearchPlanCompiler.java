@@ -0,0 +1,618 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.controller.search.SearchCriteriaGroup;
+import com.example.empay.controller.search.SearchOperation;
+import com.example.empay.controller.search.SearchRequestException;
+import com.example.empay.util.Constants;
+import com.example.empay.util.SearchText;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiles the search criteria of a search request into a {@link SearchPlan}. The basic attributes of the entity are
+ * resolved once from the JPA metamodel, and each criterion is resolved to a predicate with the parser of its values
+ * bound to it, so an unknown property, an unsupported operation or an invalid value fails before any query is
+ * executed. Compiled plans are cached by the shape of the search criteria, up to a maximum number of plans. Groups
+ * of search criteria are compiled into a {@link SearchGroupPlan} the same way.
+ * <p>
+ * Properties that are not basic attributes of the entity, like the ID of an association, are registered by
+ * subclasses with {@link #property(String, SearchOperation, Function, CriterionPredicate)}, or with
+ * {@link #listProperty(String, SearchOperation, Function, CriterionPredicate)} for IN and NOT IN.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public class SearchPlanCompiler<T> {
+
+    /**
+     * Default maximum number of cached plans.
+     */
+    public static final int DEFAULT_MAX_CACHED_PLANS = 1000;
+
+    /**
+     * Default maximum number of values of a list, like for IN.
+     */
+    public static final int DEFAULT_MAX_LIST_SIZE = 100;
+
+    /**
+     * Maximum nesting depth of groups of search criteria.
+     */
+    public static final int MAX_GROUP_DEPTH = 5;
+
+    /**
+     * Parsers of the search values by the Java type of the attribute. Attributes of other types are not searchable.
+     */
+    private static final Map<Class<?>, Function<Object, ?>> PARSERS = Map.of(
+            String.class, String::valueOf,
+            ZonedDateTime.class, value -> ZonedDateTime.parse(value.toString(), DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                    .withZoneSameInstant(Constants.ZONE_ID_UTC),
+            Integer.class, value -> Integer.valueOf(value.toString()),
+            Long.class, value -> Long.valueOf(value.toString()),
+            Short.class, value -> Short.valueOf(value.toString()),
+            BigDecimal.class, value -> new BigDecimal(value.toString()),
+            Boolean.class, value -> Boolean.valueOf(value.toString()),
+            UUID.class, value -> UUID.fromString(value.toString()));
+
+    /**
+     * Java types of the attributes supporting the comparison operations.
+     */
+    private static final Set<Class<?>> COMPARABLE_TYPES =
+            Set.of(ZonedDateTime.class, Integer.class, Long.class, Short.class, BigDecimal.class);
+
+    /**
+     * The class of the JPA entity.
+     */
+    private final Class<T> entityClass;
+
+    /**
+     * Maximum number of cached plans. Plans of other shapes are compiled for every search request.
+     */
+    private final int maxCachedPlans;
+
+    /**
+     * Criteria of the properties registered by subclasses, by filter key and operation.
+     */
+    private final Map<String, Map<SearchOperation, CompiledCriterion<T, ?>>> properties = new HashMap<>();
+
+    /**
+     * Cached plans by the shape of the search criteria.
+     */
+    private final Map<List<CriterionShape>, SearchPlan<T>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Cached group plans by the shape of the group.
+     */
+    private final Map<GroupShape, SearchGroupPlan<T>> groupPlans = new ConcurrentHashMap<>();
+
+    /**
+     * The searchable basic attributes of the entity, resolved on the first compilation.
+     */
+    private volatile Attributes attributes;
+
+    /**
+     * Create a compiler caching up to {@link #DEFAULT_MAX_CACHED_PLANS} plans.
+     *
+     * @param entityClass The class of the JPA entity.
+     */
+    public SearchPlanCompiler(final Class<T> entityClass) {
+        this(entityClass, DEFAULT_MAX_CACHED_PLANS);
+    }
+
+    /**
+     * Create a compiler.
+     *
+     * @param entityClass    The class of the JPA entity.
+     * @param maxCachedPlans Maximum number of cached plans.
+     */
+    public SearchPlanCompiler(final Class<T> entityClass, final int maxCachedPlans) {
+        this.entityClass = entityClass;
+        this.maxCachedPlans = maxCachedPlans;
+    }
+
+    /**
+     * Create the specification of search criteria, with lists of up to {@link #DEFAULT_MAX_LIST_SIZE} values.
+     *
+     * @param entityManager  The persistence context.
+     * @param searchCriteria (optional) The search criteria.
+     * @return The specification, or {@literal null} if there are no search criteria.
+     * @throws SearchRequestException If the search criteria are invalid.
+     */
+    public Specification<T> toSpecification(final EntityManager entityManager,
+                                            @Nullable final List<SearchCriteria> searchCriteria) {
+        return toSpecification(entityManager, searchCriteria, DEFAULT_MAX_LIST_SIZE);
+    }
+
+    /**
+     * Create the specification of search criteria.
+     *
+     * @param entityManager  The persistence context.
+     * @param searchCriteria (optional) The search criteria.
+     * @param maxListSize    Maximum number of values of a list, like for IN.
+     * @return The specification, or {@literal null} if there are no search criteria.
+     * @throws SearchRequestException If the search criteria are invalid.
+     */
+    public Specification<T> toSpecification(final EntityManager entityManager,
+                                            @Nullable final List<SearchCriteria> searchCriteria,
+                                            final int maxListSize) {
+        if (searchCriteria == null || searchCriteria.isEmpty()) {
+            return null;
+        }
+        return compile(entityManager, searchCriteria).bind(searchCriteria, maxListSize);
+    }
+
+    /**
+     * Create the specification of a group of search criteria.
+     *
+     * @param entityManager The persistence context.
+     * @param group         (optional) The group of search criteria.
+     * @param maxListSize   Maximum number of values of a list, like for IN.
+     * @return The specification, or {@literal null} if there is no group.
+     * @throws SearchRequestException If the group is invalid.
+     */
+    public Specification<T> toGroupSpecification(final EntityManager entityManager,
+                                                 @Nullable final SearchCriteriaGroup group, final int maxListSize) {
+        if (group == null) {
+            return null;
+        }
+        return compile(entityManager, group).bind(group, maxListSize);
+    }
+
+    /**
+     * Get the plan of search criteria, compiling it if it is not cached.
+     *
+     * @param entityManager  The persistence context.
+     * @param searchCriteria The search criteria.
+     * @return The plan.
+     * @throws SearchRequestException If a property or an operation of the search criteria is not supported.
+     */
+    public SearchPlan<T> compile(final EntityManager entityManager, final List<SearchCriteria> searchCriteria) {
+        List<CriterionShape> shape = new ArrayList<>(searchCriteria.size());
+        for (int idx = 0; idx < searchCriteria.size(); idx++) {
+            SearchCriteria criteria = searchCriteria.get(idx);
+            // The data option of the first criterion has no effect
+            shape.add(shape(criteria,
+                    idx > 0 && SearchOperation.getDataOption(criteria.getDataOption()) == SearchOperation.ALL));
+        }
+
+        SearchPlan<T> plan = plans.get(shape);
+        if (plan == null) {
+            List<SearchPlan.Step<T>> steps = new ArrayList<>(shape.size());
+            for (int idx = 0; idx < shape.size(); idx++) {
+                steps.add(new SearchPlan.Step<>(compile(entityManager, shape.get(idx), searchCriteria.get(idx)),
+                        shape.get(idx).all()));
+            }
+            plan = new SearchPlan<>(steps);
+            if (plans.size() < maxCachedPlans) {
+                plans.putIfAbsent(shape, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Get the plan of a group of search criteria, compiling it if it is not cached.
+     *
+     * @param entityManager The persistence context.
+     * @param group         The group of search criteria.
+     * @return The plan.
+     * @throws SearchRequestException If the group is empty or nested too deep, or a property or an operation of its
+     *                                search criteria is not supported.
+     */
+    public SearchGroupPlan<T> compile(final EntityManager entityManager, final SearchCriteriaGroup group) {
+        GroupShape shape = shape(group, 1);
+        SearchGroupPlan<T> plan = groupPlans.get(shape);
+        if (plan == null) {
+            plan = compile(entityManager, shape, group);
+            if (groupPlans.size() < maxCachedPlans) {
+                groupPlans.putIfAbsent(shape, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Register an operation of a property that is not a basic attribute of the entity, or override an operation of a
+     * basic attribute. A registered operation takes precedence over the operation of an attribute of the same name; a
+     * property that is not an attribute supports only the registered operations.
+     *
+     * @param filterKey The filter key of the property.
+     * @param operation The operation.
+     * @param parser    Parser of the search value.
+     * @param predicate Creates the predicate from the parsed value.
+     * @param <V>       The type of the parsed value.
+     */
+    protected final <V> void property(final String filterKey, final SearchOperation operation,
+                                      final Function<Object, ? extends V> parser,
+                                      final CriterionPredicate<T, V> predicate) {
+        properties.computeIfAbsent(filterKey, it -> new EnumMap<>(SearchOperation.class))
+                .put(operation, new CompiledCriterion<>(filterKey, 1, parser, predicate));
+    }
+
+    /**
+     * Register a list operation, like IN, of a property that is not a basic attribute of the entity.
+     *
+     * @param filterKey     The filter key of the property.
+     * @param operation     The list operation.
+     * @param elementParser Parser of each value of the list.
+     * @param predicate     Creates the predicate from the parsed values.
+     * @param <V>           The type of the parsed values.
+     */
+    protected final <V> void listProperty(final String filterKey, final SearchOperation operation,
+                                          final Function<Object, ? extends V> elementParser,
+                                          final CriterionPredicate<T, List<V>> predicate) {
+        properties.computeIfAbsent(filterKey, it -> new EnumMap<>(SearchOperation.class))
+                .put(operation, new CompiledCriterion<>(filterKey, 1, true, listParser(elementParser), predicate));
+    }
+
+    /**
+     * Compile a search criterion.
+     *
+     * @param entityManager The persistence context.
+     * @param shape         The shape of the criterion.
+     * @param criteria      The criterion, used in error messages.
+     * @return The compiled criterion.
+     * @throws SearchRequestException If the property or the operation is not supported.
+     */
+    private CompiledCriterion<T, ?> compile(final EntityManager entityManager, final CriterionShape shape,
+                                            final SearchCriteria criteria) {
+        Map<SearchOperation, CompiledCriterion<T, ?>> registered = properties.get(shape.filterKey());
+        CompiledCriterion<T, ?> compiled = registered == null ? null : registered.get(shape.operation());
+        if (compiled != null) {
+            return compiled;
+        }
+
+        Attributes resolved = getAttributes(entityManager);
+        Class<?> type = resolved.types().get(shape.filterKey());
+        if (registered != null && type == null) {
+            throw unsupported(criteria);
+        }
+        if (type == null) {
+            throw new SearchRequestException(String.format("Entity class [%s] does not have a searchable property "
+                    + "[%s].", entityClass.getSimpleName(), shape.filterKey()), criteria);
+        }
+        String name = shape.filterKey();
+        Function<Object, ?> parser = PARSERS.get(type);
+        switch (shape.operation()) {
+            case EQUAL:
+                return new CompiledCriterion<T, Object>(name, 1, parser,
+                        (root, cb, value, value2) -> cb.equal(root.get(name), value));
+            case NOT_EQUAL:
+                return new CompiledCriterion<T, Object>(name, 1, parser,
+                        (root, cb, value, value2) -> cb.notEqual(root.get(name), value));
+            case NUL:
+                return new CompiledCriterion<T, Object>(name, 0, parser,
+                        (root, cb, value, value2) -> cb.isNull(root.get(name)));
+            case NOT_NULL:
+                return new CompiledCriterion<T, Object>(name, 0, parser,
+                        (root, cb, value, value2) -> cb.isNotNull(root.get(name)));
+            case CONTAINS:
+            case DOES_NOT_CONTAIN:
+            case BEGINS_WITH:
+            case DOES_NOT_BEGIN_WITH:
+            case ENDS_WITH:
+            case DOES_NOT_END_WITH:
+                if (type != String.class) {
+                    throw unsupported(criteria);
+                }
+                return like(name, shape.operation(), resolved.shadowed().contains(name));
+            case GREATER_THAN:
+            case GREATER_THAN_EQUAL:
+            case LESS_THAN:
+            case LESS_THAN_EQUAL:
+            case BETWEEN:
+                if (!COMPARABLE_TYPES.contains(type)) {
+                    throw unsupported(criteria);
+                }
+                return comparison(name, shape.operation(), parser);
+            case IN:
+                return new CompiledCriterion<T, List<Object>>(name, 1, true, listParser(parser),
+                        (root, cb, value, value2) -> root.get(name).in(value));
+            case NOT_IN:
+                return new CompiledCriterion<T, List<Object>>(name, 1, true, listParser(parser),
+                        (root, cb, value, value2) -> cb.not(root.get(name).in(value)));
+            default:
+                throw unsupported(criteria);
+        }
+    }
+
+    /**
+     * Compile a group of search criteria and its nested groups.
+     *
+     * @param entityManager The persistence context.
+     * @param shape         The shape of the group.
+     * @param group         The group, used in error messages.
+     * @return The compiled group.
+     * @throws SearchRequestException If a property or an operation is not supported.
+     */
+    private SearchGroupPlan<T> compile(final EntityManager entityManager, final GroupShape shape,
+                                       final SearchCriteriaGroup group) {
+        List<CompiledCriterion<T, ?>> criteria = new ArrayList<>(shape.criteria().size());
+        for (int idx = 0; idx < shape.criteria().size(); idx++) {
+            criteria.add(compile(entityManager, shape.criteria().get(idx), group.getSearchCriteriaList().get(idx)));
+        }
+        List<SearchGroupPlan<T>> groups = new ArrayList<>(shape.groups().size());
+        for (int idx = 0; idx < shape.groups().size(); idx++) {
+            groups.add(compile(entityManager, shape.groups().get(idx), group.getGroups().get(idx)));
+        }
+        return new SearchGroupPlan<>(shape.all(), criteria, groups);
+    }
+
+    /**
+     * Get the shape of a search criterion.
+     *
+     * @param criteria The search criterion.
+     * @param all      Whether the criterion is combined with the criteria before it by AND.
+     * @return The shape.
+     * @throws SearchRequestException If the filter key or the operation is missing, or the operation does not exist.
+     */
+    private static CriterionShape shape(final SearchCriteria criteria, final boolean all) {
+        if (criteria == null || criteria.getFilterKey() == null || criteria.getOperation() == null) {
+            throw new SearchRequestException("Search criteria must have a filter key and an operation.", criteria);
+        }
+        SearchOperation operation = SearchOperation.getSimpleOperation(criteria.getOperation());
+        if (operation == null) {
+            throw new SearchRequestException(String.format("Search operation [%s] does not exist.",
+                    criteria.getOperation()), criteria);
+        }
+        return new CriterionShape(criteria.getFilterKey(), operation, all);
+    }
+
+    /**
+     * Get the shape of a group of search criteria and its nested groups.
+     *
+     * @param group The group.
+     * @param depth The nesting depth of the group, 1 for the root group.
+     * @return The shape.
+     * @throws SearchRequestException If the group is empty, nested too deep or has an invalid data option or search
+     *                                criterion.
+     */
+    private static GroupShape shape(final SearchCriteriaGroup group, final int depth) {
+        if (group == null) {
+            throw new SearchRequestException("A group of search criteria cannot be null.", null);
+        }
+        if (depth > MAX_GROUP_DEPTH) {
+            throw new SearchRequestException(String.format("Groups of search criteria can be nested at most %d "
+                    + "levels deep.", MAX_GROUP_DEPTH), null);
+        }
+        SearchOperation dataOption = group.getDataOption() == null ? SearchOperation.ALL
+                : SearchOperation.getDataOption(group.getDataOption());
+        if (dataOption == null) {
+            throw new SearchRequestException(String.format("Data option [%s] does not exist.",
+                    group.getDataOption()), null);
+        }
+        List<SearchCriteria> searchCriteria = Objects.requireNonNullElse(group.getSearchCriteriaList(), List.of());
+        List<SearchCriteriaGroup> groups = Objects.requireNonNullElse(group.getGroups(), List.of());
+        if (searchCriteria.isEmpty() && groups.isEmpty()) {
+            throw new SearchRequestException("A group of search criteria must have search criteria or groups.", null);
+        }
+        List<CriterionShape> criteriaShapes = new ArrayList<>(searchCriteria.size());
+        for (SearchCriteria criteria : searchCriteria) {
+            criteriaShapes.add(shape(criteria, false));
+        }
+        List<GroupShape> groupShapes = new ArrayList<>(groups.size());
+        for (SearchCriteriaGroup nested : groups) {
+            groupShapes.add(shape(nested, depth + 1));
+        }
+        return new GroupShape(dataOption == SearchOperation.ALL, criteriaShapes, groupShapes);
+    }
+
+    /**
+     * Compile a pattern operation on a string attribute. The pattern is created from the normalized search value. If
+     * the attribute is shadowed by normalized columns (see {@link SearchText}), the pattern is compared with them, and
+     * a search by suffix is compiled into a search by prefix of the reversed column, so both can use an index.
+     * Otherwise the attribute is converted to lower case.
+     *
+     * @param name      The name of the attribute.
+     * @param operation The pattern operation.
+     * @param shadowed  Whether the attribute is shadowed by normalized columns.
+     * @return The compiled criterion.
+     */
+    private CompiledCriterion<T, String> like(final String name, final SearchOperation operation,
+                                              final boolean shadowed) {
+        String lowerName = name + SearchText.SUFFIX_LOWER;
+        String reversedName = name + SearchText.SUFFIX_REVERSED;
+        BiFunction<Root<T>, CriteriaBuilder, Expression<String>> expression = shadowed
+                ? (root, cb) -> root.get(lowerName)
+                : (root, cb) -> cb.lower(root.get(name));
+        Function<Object, String> pattern;
+        switch (operation) {
+            case CONTAINS:
+            case DOES_NOT_CONTAIN:
+                pattern = value -> "%" + SearchText.normalize(value.toString()) + "%";
+                break;
+            case BEGINS_WITH:
+            case DOES_NOT_BEGIN_WITH:
+                pattern = value -> SearchText.normalize(value.toString()) + "%";
+                break;
+            default:
+                if (shadowed) {
+                    pattern = value -> SearchText.reverse(value.toString()) + "%";
+                    expression = (root, cb) -> root.get(reversedName);
+                } else {
+                    pattern = value -> "%" + SearchText.normalize(value.toString());
+                }
+        }
+        BiFunction<Root<T>, CriteriaBuilder, Expression<String>> column = expression;
+        boolean negated = operation == SearchOperation.DOES_NOT_CONTAIN
+                || operation == SearchOperation.DOES_NOT_BEGIN_WITH || operation == SearchOperation.DOES_NOT_END_WITH;
+        CriterionPredicate<T, String> predicate = negated
+                ? (root, cb, value, value2) -> cb.notLike(column.apply(root, cb), value)
+                : (root, cb, value, value2) -> cb.like(column.apply(root, cb), value);
+        return new CompiledCriterion<>(name, 1, pattern, predicate);
+    }
+
+    /**
+     * Compile a comparison operation on an attribute of one of the {@link #COMPARABLE_TYPES}.
+     *
+     * @param name      The name of the attribute.
+     * @param operation The comparison operation.
+     * @param parser    Parser of the search values.
+     * @return The compiled criterion.
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledCriterion<T, Comparable<Object>> comparison(final String name, final SearchOperation operation,
+                                                                final Function<Object, ?> parser) {
+        Function<Object, Comparable<Object>> comparableParser = value -> (Comparable<Object>) parser.apply(value);
+        CriterionPredicate<T, Comparable<Object>> predicate;
+        switch (operation) {
+            case GREATER_THAN:
+                predicate = (root, cb, value, value2) -> cb.greaterThan(comparablePath(root, name), value);
+                break;
+            case GREATER_THAN_EQUAL:
+                predicate = (root, cb, value, value2) -> cb.greaterThanOrEqualTo(comparablePath(root, name), value);
+                break;
+            case LESS_THAN:
+                predicate = (root, cb, value, value2) -> cb.lessThan(comparablePath(root, name), value);
+                break;
+            case LESS_THAN_EQUAL:
+                predicate = (root, cb, value, value2) -> cb.lessThanOrEqualTo(comparablePath(root, name), value);
+                break;
+            default:
+                predicate = (root, cb, value, value2) -> cb.between(comparablePath(root, name), value, value2);
+        }
+        return new CompiledCriterion<>(name, operation == SearchOperation.BETWEEN ? 2 : 1, comparableParser,
+                predicate);
+    }
+
+    /**
+     * Create the parser of a list of values, bound to the query as a single list parameter.
+     *
+     * @param elementParser Parser of each value of the list.
+     * @param <V>           The type of the parsed values.
+     * @return The parser of the list, which requires a collection.
+     */
+    private static <V> Function<Object, List<V>> listParser(final Function<Object, ? extends V> elementParser) {
+        return value -> {
+            Collection<?> values = (Collection<?>) value;
+            List<V> result = new ArrayList<>(values.size());
+            for (Object element : values) {
+                result.add(elementParser.apply(Objects.requireNonNull(element)));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Get the values of a list that are present, like the nomenclature values found by the IDs of a list.
+     *
+     * @param values The optional values.
+     * @param <V>    The type of the values.
+     * @return The present values.
+     */
+    protected static <V> List<V> present(final List<Optional<V>> values) {
+        return values.stream().flatMap(Optional::stream).toList();
+    }
+
+    /**
+     * Get the path of a comparable attribute.
+     *
+     * @param root The root of the query.
+     * @param name The name of the attribute.
+     * @param <T>  The class of the JPA entity.
+     * @return The path.
+     */
+    private static <T> Path<Comparable<Object>> comparablePath(final Root<T> root, final String name) {
+        return root.get(name);
+    }
+
+    /**
+     * Get the searchable basic attributes of the entity, resolving them on the first call. The normalized columns
+     * shadowing a string attribute are not searchable by themselves.
+     *
+     * @param entityManager The persistence context.
+     * @return The searchable attributes.
+     */
+    private Attributes getAttributes(final EntityManager entityManager) {
+        Attributes result = attributes;
+        if (result == null) {
+            Map<String, Class<?>> types = new HashMap<>();
+            for (SingularAttribute<? super T, ?> attribute
+                    : entityManager.getMetamodel().entity(entityClass).getSingularAttributes()) {
+                if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                        && PARSERS.containsKey(attribute.getJavaType())) {
+                    types.put(attribute.getName(), attribute.getJavaType());
+                }
+            }
+            Set<String> shadowed = new HashSet<>();
+            for (Map.Entry<String, Class<?>> entry : types.entrySet()) {
+                if (entry.getValue() == String.class
+                        && types.get(entry.getKey() + SearchText.SUFFIX_LOWER) == String.class
+                        && types.get(entry.getKey() + SearchText.SUFFIX_REVERSED) == String.class) {
+                    shadowed.add(entry.getKey());
+                }
+            }
+            for (String name : shadowed) {
+                types.remove(name + SearchText.SUFFIX_LOWER);
+                types.remove(name + SearchText.SUFFIX_REVERSED);
+            }
+            result = new Attributes(Map.copyOf(types), Set.copyOf(shadowed));
+            attributes = result;
+        }
+        return result;
+    }
+
+    /**
+     * Create the exception of an unsupported operation.
+     *
+     * @param criteria The search criterion.
+     * @return The exception.
+     */
+    private static SearchRequestException unsupported(final SearchCriteria criteria) {
+        return new SearchRequestException(String.format("Search operation [%s] on property [%s] is not supported.",
+                criteria.getOperation(), criteria.getFilterKey()), criteria);
+    }
+
+    /**
+     * The shape of a search criterion, which determines its compiled criterion.
+     *
+     * @param filterKey The filter key.
+     * @param operation The operation.
+     * @param all       Whether the criterion is combined with the criteria before it by AND.
+     */
+    private record CriterionShape(String filterKey, SearchOperation operation, boolean all) {
+    }
+
+    /**
+     * The searchable basic attributes of the entity.
+     *
+     * @param types    The Java types of the attributes by name.
+     * @param shadowed The names of the string attributes shadowed by normalized columns.
+     */
+    private record Attributes(Map<String, Class<?>> types, Set<String> shadowed) {
+    }
+
+    /**
+     * The shape of a group of search criteria, which determines its compiled group.
+     *
+     * @param all      Whether the criteria and nested groups are combined by AND, otherwise by OR.
+     * @param criteria The shapes of the search criteria. The data option of a criterion in a group is ignored.
+     * @param groups   The shapes of the nested groups.
+     */
+    private record GroupShape(boolean all, List<CriterionShape> criteria, List<GroupShape> groups) {
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCountMode;
+import com.example.empay.controller.search.SearchRequestException;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Projection of the search results of a JPA entity to a subset of the properties of its DTO. Each property that may
+ * be requested is mapped to a criteria expression, the search query selects only the expressions of the requested
+ * properties, so that no entity is loaded and no association is joined unless a requested property needs it.
+ *
+ * @param <T> The class of the JPA entity.
+ */
+public class SearchProjection<T> {
+
+    /**
+     * The class of the JPA entity.
+     */
+    private final Class<T> entityClass;
+
+    /**
+     * The properties that may be requested, by name.
+     */
+    private final Map<String, Property<T>> properties = new LinkedHashMap<>();
+
+    /**
+     * Sole constructor.
+     *
+     * @param entityClass The class of the JPA entity.
+     */
+    public SearchProjection(final Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Add a property selected as the value of an expression.
+     *
+     * @param name       The name of the DTO property.
+     * @param expression Function creating the selected expression for the root of the query.
+     * @return {@literal this} object.
+     */
+    protected final SearchProjection<T> property(final String name,
+                                                 final BiFunction<Root<T>, CriteriaBuilder, Expression<?>> expression) {
+        return property(name, expression, Function.identity());
+    }
+
+    /**
+     * Add a property selected as the converted value of an expression.
+     *
+     * @param name       The name of the DTO property.
+     * @param expression Function creating the selected expression for the root of the query.
+     * @param converter  Function converting a selected value other than {@literal null} to the property value.
+     * @return {@literal this} object.
+     */
+    protected final SearchProjection<T> property(final String name,
+                                                 final BiFunction<Root<T>, CriteriaBuilder, Expression<?>> expression,
+                                                 final Function<Object, Object> converter) {
+        properties.put(name, new Property<>(expression, converter));
+        return this;
+    }
+
+    /**
+     * Find a page of entities matching a specification, returning only the requested properties.
+     *
+     * @param entityManager  The persistence context.
+     * @param propertyNames  The names of the requested DTO properties.
+     * @param specification  (optional) The specification the entities must match.
+     * @param pageable       The requested page and sort.
+     * @param searchPager    Fetches the page and counts the results.
+     * @param countMode      (optional) How to count the total number of results.
+     * @param estimatedTotal The estimated total number of results, empty if the results must be counted.
+     * @return A page of results, each one a map of the requested properties in the requested order.
+     * @throws SearchRequestException If a requested property is not supported.
+     */
+    public Slice<Map<String, Object>> find(final EntityManager entityManager, final List<String> propertyNames,
+                                           final Specification<T> specification, final Pageable pageable,
+                                           final SearchPager searchPager, final SearchCountMode countMode,
+                                           final OptionalLong estimatedTotal) {
+        List<String> names = resolveFields(propertyNames);
+        return searchPager.find(pageable, countMode,
+                maxResults -> findContent(entityManager, names, specification, pageable, maxResults),
+                () -> count(entityManager, specification), estimatedTotal);
+    }
+
+    /**
+     * Stream the requested properties of all entities matching a specification to a writer. The results are read
+     * from a forward-only cursor in batches of the fetch size, and no entity is loaded into the persistence context,
+     * so the memory used does not depend on the number of results. Must be called in a transaction.
+     *
+     * @param entityManager The persistence context.
+     * @param names         The names of the requested DTO properties, as returned by {@link #resolveFields(List)}.
+     * @param specification (optional) The specification the entities must match.
+     * @param sort          The sort of the results.
+     * @param fetchSize     Number of results fetched from the database at once.
+     * @param writer        Writes the results.
+     * @throws IOException If writing fails.
+     */
+    public void stream(final EntityManager entityManager, final List<String> names,
+                       @Nullable final Specification<T> specification, final Sort sort, final int fetchSize,
+                       final SearchResultWriter writer) throws IOException {
+        TypedQuery<Tuple> query = createQuery(entityManager, names, specification, sort)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true);
+        writer.start(names);
+        try (Stream<Tuple> results = query.getResultStream()) {
+            Iterator<Tuple> iterator = results.iterator();
+            while (iterator.hasNext()) {
+                writer.write(toResult(names, iterator.next()));
+            }
+        }
+        writer.finish();
+    }
+
+    /**
+     * Validate the requested DTO properties.
+     *
+     * @param propertyNames (optional) The names of the requested DTO properties, all properties if empty.
+     * @return The names of the requested DTO properties without duplicates, in the requested order.
+     * @throws SearchRequestException If a requested property is not supported.
+     */
+    public List<String> resolveFields(@Nullable final List<String> propertyNames) {
+        if (propertyNames == null || propertyNames.isEmpty()) {
+            return List.copyOf(properties.keySet());
+        }
+        Set<String> names = new LinkedHashSet<>(propertyNames);
+        names.forEach(it -> {
+            if (!properties.containsKey(it)) {
+                throw new SearchRequestException(String.format("Field [%s] is not supported, the supported fields "
+                        + "are %s.", it, properties.keySet()), null);
+            }
+        });
+        return List.copyOf(names);
+    }
+
+    /**
+     * Find the requested properties of the entities matching a specification, starting from the offset of a page.
+     *
+     * @param entityManager The persistence context.
+     * @param names         The names of the requested DTO properties.
+     * @param specification (optional) The specification the entities must match.
+     * @param pageable      The requested page and sort.
+     * @param maxResults    Maximum number of results.
+     * @return The results, each one a map of the requested properties in the requested order.
+     */
+    private List<Map<String, Object>> findContent(final EntityManager entityManager, final List<String> names,
+                                                  final Specification<T> specification, final Pageable pageable,
+                                                  final int maxResults) {
+        TypedQuery<Tuple> typedQuery = createQuery(entityManager, names, specification, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults);
+        List<Map<String, Object>> content = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            content.add(toResult(names, tuple));
+        }
+        return content;
+    }
+
+    /**
+     * Create the query of the requested properties of the entities matching a specification.
+     *
+     * @param entityManager The persistence context.
+     * @param names         The names of the requested DTO properties.
+     * @param specification (optional) The specification the entities must match.
+     * @param sort          The sort of the results.
+     * @return The query.
+     */
+    private TypedQuery<Tuple> createQuery(final EntityManager entityManager, final List<String> names,
+                                          final Specification<T> specification, final Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>(names.size());
+        names.forEach(it -> selections.add(properties.get(it).expression().apply(root, cb)));
+        query.multiselect(selections);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Convert a selected tuple to a result.
+     *
+     * @param names The names of the requested DTO properties, in the order of the selections.
+     * @param tuple The selected tuple.
+     * @return The result, a map of the requested properties in the requested order.
+     */
+    private Map<String, Object> toResult(final List<String> names, final Tuple tuple) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        int index = 0;
+        for (String name : names) {
+            Object value = tuple.get(index);
+            result.put(name, value != null ? properties.get(name).converter().apply(value) : null);
+            index++;
+        }
+        return result;
+    }
+
+    /**
+     * Count the entities matching a specification.
+     *
+     * @param entityManager The persistence context.
+     * @param specification (optional) The specification the entities must match.
+     * @return The number of matching entities.
+     */
+    private long count(final EntityManager entityManager, final Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        query.select(cb.count(root));
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        return Objects.requireNonNullElse(entityManager.createQuery(query).getSingleResult(), 0L);
+    }
+
+    /**
+     * A property that may be requested.
+     *
+     * @param expression Function creating the selected expression for the root of the query.
+     * @param converter  Function converting a selected value other than {@literal null} to the property value.
+     * @param <T>        The class of the JPA entity.
+     */
+    private record Property<T>(BiFunction<Root<T>, CriteriaBuilder, Expression<?>> expression,
+                               Function<Object, Object> converter) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.empay.service.search;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes exported search results, one result at a time, in an export format.
+ */
+public interface SearchResultWriter {
+
+    /**
+     * Start the export, before the first result.
+     *
+     * @param fields The names of the exported fields, in the order of the results.
+     * @throws IOException If writing fails.
+     */
+    void start(List<String> fields) throws IOException;
+
+    /**
+     * Write a result.
+     *
+     * @param result The result, a map of the exported fields in the order passed to {@link #start(List)}.
+     * @throws IOException If writing fails.
+     */
+    void write(Map<String, Object> result) throws IOException;
+
+    /**
+     * Finish the export, after the last result, and flush the output.
+     *
+     * @throws IOException If writing fails.
+     */
+    void finish() throws IOException;
+}
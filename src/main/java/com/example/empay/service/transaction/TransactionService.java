@@ -1,13 +1,19 @@
 package com.example.empay.service.transaction;
 
 import com.example.empay.controller.search.SearchRequest;
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
 import com.example.empay.dto.transaction.TransactionCreateRequest;
 import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.service.search.KeysetWindow;
+import com.example.empay.service.search.SearchExport;
 import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +30,25 @@ public interface TransactionService {
      */
     Optional<TransactionDto> getById(@NotNull UUID id);
 
+    /**
+     * Get the whole lineage of a transaction: the root of the chain of its parent transactions and all of the root's
+     * descendants, such as a charge with its refunds or an authorization with its reversal.
+     *
+     * @param id The ID of any transaction of the lineage.
+     * @return The transactions of the lineage ordered from the root, each level after its parent level, or an empty
+     * list if the transaction does not exist.
+     */
+    List<TransactionDto> getLineage(@NotNull UUID id);
+
+    /**
+     * Get a transaction of a merchant by reference ID.
+     *
+     * @param merchantId  The merchant ID.
+     * @param referenceId The reference ID of the transaction.
+     * @return Optional value of a {@code TransactionDto}.
+     */
+    Optional<TransactionDto> getByReferenceId(@NotNull Long merchantId, @NotNull String referenceId);
+
     /**
      * Delete transactions older than a specified date.
      *
@@ -46,6 +71,69 @@ public interface TransactionService {
                                               @NotNull Integer pageSize, @NotNull Integer pageNum,
                                               @Nullable Long filterByMerchantId);
 
+    /**
+     * Find transactions by a combination of search criteria, counting the total number of results as requested by
+     * the count mode of the search request.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the count mode.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A {@link Page} of transactions if the total number of results is known, otherwise a {@link Slice}.
+     */
+    Slice<TransactionDto> findSliceBySearchCriteria(@NotNull SearchRequest searchRequest,
+                                                    @NotNull Integer pageSize, @NotNull Integer pageNum,
+                                                    @Nullable Long filterByMerchantId);
+
+    /**
+     * Find the requested fields of transactions by a combination of search criteria, selecting only the columns the
+     * requested fields need.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the requested fields.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result, each result a map of the requested fields in the requested order, with the totals only
+     * if counted as requested by the count mode of the search request.
+     * @throws com.example.empay.controller.search.SearchRequestException If a requested field is not supported.
+     */
+    Slice<Map<String, Object>> findFieldsBySearchCriteria(@NotNull SearchRequest searchRequest,
+                                                         @NotNull Integer pageSize, @NotNull Integer pageNum,
+                                                         @Nullable Long filterByMerchantId);
+
+    /**
+     * Find transactions by a combination of search criteria using keyset pagination: the window after the position
+     * encoded in the cursor of the search request is selected by a predicate on the sort property and the ID instead
+     * of skipping an offset, therefore deep windows are as fast as the first one.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the cursor, empty for the first
+     *                           window.
+     * @param pageSize           Maximum number of results in a window.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A window of transactions with the cursor of the next window.
+     * @throws com.example.empay.controller.search.SearchRequestException If the cursor is invalid or was created for
+     *                                                                    another sort, or fields are requested.
+     */
+    KeysetWindow<TransactionDto> scrollBySearchCriteria(@NotNull SearchRequest searchRequest, @NotNull Integer pageSize,
+                                                        @Nullable Long filterByMerchantId);
+
+    /**
+     * Export transactions by a combination of search criteria. The requested fields, all fields if none are
+     * requested, are streamed from a database cursor when the export is written, so the memory used does not depend
+     * on the number of results.
+     *
+     * @param searchRequest      Contains the combination of search criteria, the sort and the requested fields.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return The export, validated but not executed.
+     * @throws com.example.empay.controller.search.SearchRequestException If the search criteria or the requested
+     *                                                                    fields are invalid, or a cursor is provided.
+     */
+    SearchExport exportBySearchCriteria(@NotNull SearchRequest searchRequest, @Nullable Long filterByMerchantId);
+
     /**
      * Create a new transaction.
      *
@@ -54,4 +142,15 @@ public interface TransactionService {
      * @return The created transaction.
      */
     TransactionDto add(@NotNull TransactionCreateRequest transactionCreateRequest, @NotNull Long merchantId);
+
+    /**
+     * Create a batch of new transactions of a single merchant. A transaction failing validation does not affect the
+     * other transactions of the batch.
+     *
+     * @param transactionCreateRequests The data of the transactions in the order of creation.
+     * @param merchantId                The merchant to which to associate the created transactions.
+     * @return The result of each transaction in the order of the requests.
+     */
+    List<TransactionBatchItemResult> addBatch(@NotNull List<TransactionCreateRequest> transactionCreateRequests,
+                                              @NotNull Long merchantId);
 }
@@ -0,0 +1,302 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.repository.transaction.TransactionCustomerText;
+import com.example.empay.repository.transaction.TransactionRepository;
+import com.example.empay.util.SearchText;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index of the customer email and phone of the retained transactions, resolving a search by
+ * substring to the IDs of the matching transactions instead of scanning the TRANSACTION table. The index is built
+ * from the TRANSACTION table on startup, transactions are added when their creation commits and removed when old
+ * transactions are deleted. Until the index is built, and for search values shorter than a trigram or matching too
+ * many transactions, no IDs are resolved and the search falls back to SQL. Transactions created by other instances of
+ * the application are not indexed, and searches resolved by the index would miss them, therefore the index is
+ * disabled by default, and the application fails to start if it is enabled with more than one configured instance.
+ */
+@Component
+@Slf4j
+public class CustomerTextIndex {
+
+    /**
+     * Constant for the customer email property.
+     */
+    public static final String PROPERTY_CUSTOMER_EMAIL = "customerEmail";
+
+    /**
+     * Constant for the customer phone property.
+     */
+    public static final String PROPERTY_CUSTOMER_PHONE = "customerPhone";
+
+    /**
+     * Number of characters of a gram.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Shift of the first character of a gram in its key.
+     */
+    private static final int FIRST_CHAR_SHIFT = 2 * Character.SIZE;
+
+    /**
+     * Whether the index is used.
+     */
+    private final boolean enabled;
+
+    /**
+     * Maximum number of transaction IDs resolved by a search, otherwise the search falls back to SQL.
+     */
+    private final int maxCandidates;
+
+    /**
+     * Maximum number of transactions sharing the rarest gram of a searched value, otherwise the search falls back to
+     * SQL without intersecting the grams.
+     */
+    private final int maxScanned;
+
+    /**
+     * Transaction repository used to build the index.
+     */
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Read-only database transaction used to build the index.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The indexed transactions by ID.
+     */
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The IDs of the transactions by gram of the customer email.
+     */
+    private final Map<Long, Set<UUID>> emailGrams = new ConcurrentHashMap<>();
+
+    /**
+     * The IDs of the transactions by gram of the customer phone.
+     */
+    private final Map<Long, Set<UUID>> phoneGrams = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the index was built. Until then no search is resolved.
+     */
+    private volatile boolean ready;
+
+    /**
+     * Create the index.
+     *
+     * @param enabled               Whether the index is used.
+     * @param maxCandidates         Maximum number of transaction IDs resolved by a search.
+     * @param maxScanned            Maximum number of transactions sharing the rarest gram of a searched value.
+     * @param instances             Number of running instances of the application.
+     * @param transactionRepository Transaction repository used to build the index.
+     * @param transactionManager    Transaction manager used to build the index.
+     * @throws IllegalStateException If the index is enabled and more than one instance of the application runs.
+     */
+    public CustomerTextIndex(@Value("${transactions.customerTextIndex.enabled:false}") final boolean enabled,
+                             @Value("${transactions.customerTextIndex.maxCandidates:500}") final int maxCandidates,
+                             @Value("${transactions.customerTextIndex.maxScanned:10000}") final int maxScanned,
+                             @Value("${transactions.customerTextIndex.instances:1}") final int instances,
+                             final TransactionRepository transactionRepository,
+                             final PlatformTransactionManager transactionManager) {
+        if (enabled && instances > 1) {
+            throw new IllegalStateException("The customer text index misses the transactions created by other "
+                    + "instances and cannot be enabled with [" + instances + "] instances of the application");
+        }
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.maxScanned = maxScanned;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Build the index when the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationStarted() {
+        build();
+    }
+
+    /**
+     * Build the index from the existing transactions. Transactions created meanwhile are added as well.
+     */
+    public synchronized void build() {
+        if (!enabled || ready) {
+            return;
+        }
+        try {
+            AtomicLong count = new AtomicLong();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionCustomerText> transactions = transactionRepository.streamAllCustomerText()) {
+                    transactions.forEach(it -> {
+                        put(it.getId(), it.getCreatedDate(), it.getCustomerEmail(), it.getCustomerPhone());
+                        count.incrementAndGet();
+                    });
+                }
+            });
+            ready = true;
+            log.info("Customer text index built from {} transactions", count.get());
+        } catch (RuntimeException e) {
+            log.error("Error while building the customer text index", e);
+        }
+    }
+
+    /**
+     * Add a created transaction.
+     *
+     * @param id            The ID of the transaction.
+     * @param createdDate   The creation date of the transaction.
+     * @param customerEmail (optional) The customer email.
+     * @param customerPhone (optional) The customer phone.
+     */
+    public void put(final UUID id, final ZonedDateTime createdDate, @Nullable final String customerEmail,
+                    @Nullable final String customerPhone) {
+        if (!enabled || (customerEmail == null && customerPhone == null)) {
+            return;
+        }
+        Entry entry = new Entry(createdDate, SearchText.normalize(customerEmail),
+                SearchText.normalize(customerPhone));
+        if (entries.putIfAbsent(id, entry) == null) {
+            addGrams(emailGrams, entry.customerEmail(), id);
+            addGrams(phoneGrams, entry.customerPhone(), id);
+        }
+    }
+
+    /**
+     * Remove the transactions created before a date, after they are deleted.
+     *
+     * @param dateBefore The date before which the transactions were deleted.
+     * @return Number of removed transactions.
+     */
+    public int removeCreatedBefore(final ZonedDateTime dateBefore) {
+        int removed = 0;
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Entry> next = iterator.next();
+            Entry entry = next.getValue();
+            if (entry.createdDate() != null && entry.createdDate().isBefore(dateBefore)) {
+                iterator.remove();
+                removeGrams(emailGrams, entry.customerEmail(), next.getKey());
+                removeGrams(phoneGrams, entry.customerPhone(), next.getKey());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Find the IDs of the transactions whose property contains a value, ignoring case. The IDs of the transactions
+     * sharing all grams of the value are checked against the indexed values, so the result is exact for the indexed
+     * transactions. An error of the index is logged and the search falls back to SQL, as the search is resolved
+     * while its values are parsed and the error would otherwise be reported as an invalid search value.
+     *
+     * @param property The property, {@link #PROPERTY_CUSTOMER_EMAIL} or {@link #PROPERTY_CUSTOMER_PHONE}.
+     * @param value    The searched value.
+     * @return The IDs of the matching transactions, empty if the search must fall back to SQL.
+     */
+    public Optional<Set<UUID>> findContaining(final String property, final String value) {
+        try {
+            return resolve(property, value);
+        } catch (RuntimeException e) {
+            log.error("Error while searching the customer text index, falling back to SQL", e);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Set<UUID>> resolve(final String property, final String value) {
+        Map<Long, Set<UUID>> grams = PROPERTY_CUSTOMER_EMAIL.equals(property) ? emailGrams
+                : PROPERTY_CUSTOMER_PHONE.equals(property) ? phoneGrams : null;
+        String normalized = SearchText.normalize(value);
+        if (!enabled || !ready || grams == null || normalized == null || normalized.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        List<Set<UUID>> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            Set<UUID> ids = grams.get(gram(normalized, i));
+            if (ids == null) {
+                return Optional.of(Set.of());
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        if (postings.get(0).size() > maxScanned) {
+            return Optional.empty();
+        }
+        Set<UUID> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        candidates.removeIf(id -> {
+            Entry entry = entries.get(id);
+            String indexed = entry == null ? null
+                    : PROPERTY_CUSTOMER_EMAIL.equals(property) ? entry.customerEmail() : entry.customerPhone();
+            return indexed == null || !indexed.contains(normalized);
+        });
+        return candidates.size() > maxCandidates ? Optional.empty() : Optional.of(candidates);
+    }
+
+    private static void addGrams(final Map<Long, Set<UUID>> grams, @Nullable final String value, final UUID id) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.compute(gram(value, i), (key, ids) -> {
+                Set<UUID> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                result.add(id);
+                return result;
+            });
+        }
+    }
+
+    private static void removeGrams(final Map<Long, Set<UUID>> grams, @Nullable final String value, final UUID id) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.computeIfPresent(gram(value, i), (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static long gram(final String value, final int index) {
+        return ((long) value.charAt(index) << FIRST_CHAR_SHIFT) | ((long) value.charAt(index + 1) << Character.SIZE)
+                | value.charAt(index + 2);
+    }
+
+    /**
+     * An indexed transaction.
+     *
+     * @param createdDate   The creation date of the transaction.
+     * @param customerEmail The normalized customer email, {@literal null} if not set.
+     * @param customerPhone The normalized customer phone, {@literal null} if not set.
+     */
+    private record Entry(ZonedDateTime createdDate, String customerEmail, String customerPhone) {
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.controller.search.SearchRequest;
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.service.search.KeysetWindow;
+import com.example.empay.service.transaction.TransactionService;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Entry point of the transaction business logic. Transactions are created in batches per merchant on the lane of
+ * their merchant (see {@link TransactionLaneExecutor}) if the lanes are enabled, otherwise in groups sharing a
+ * database transaction (see {@link TransactionGroupCommitter}) if enabled. All other operations are delegated to
+ * {@link TransactionServiceImpl} directly.
+ */
+@Primary
+@Service
+@Slf4j
+public class DispatchingTransactionServiceImpl implements TransactionService {
+
+    /**
+     * The transaction service doing the actual work.
+     */
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    /**
+     * Executor of the transaction lanes.
+     */
+    @Autowired
+    private TransactionLaneExecutor transactionLaneExecutor;
+
+    /**
+     * Group committer of created transactions.
+     */
+    @Autowired
+    private TransactionGroupCommitter transactionGroupCommitter;
+
+    /**
+     * Registry replaying repeated transactions.
+     */
+    @Autowired
+    private TransactionIdempotencyRegistry transactionIdempotencyRegistry;
+
+    /**
+     * Filter of used reference IDs.
+     */
+    @Autowired
+    private ReferenceIdFilter referenceIdFilter;
+
+    /**
+     * Index of the customer contact details of the transactions.
+     */
+    @Autowired
+    private CustomerTextIndex customerTextIndex;
+
+    /**
+     * Retry policy of transactions failed due to lock contention.
+     */
+    @Autowired
+    private TransactionRetryPolicy transactionRetryPolicy;
+
+    /**
+     * Get a transaction by ID.
+     *
+     * @param id The ID of the transaction.
+     * @return Optional value of a {@code TransactionDto}.
+     */
+    @Override
+    public Optional<TransactionDto> getById(@NotNull final UUID id) {
+        return transactionService.getById(id);
+    }
+
+    /**
+     * Get the whole lineage of a transaction.
+     *
+     * @param id The ID of any transaction of the lineage.
+     * @return The transactions of the lineage ordered from the root, or an empty list if the transaction does not
+     * exist.
+     */
+    @Override
+    public List<TransactionDto> getLineage(@NotNull final UUID id) {
+        return transactionService.getLineage(id);
+    }
+
+    /**
+     * Get a transaction of a merchant by reference ID.
+     *
+     * @param merchantId  The merchant ID.
+     * @param referenceId The reference ID of the transaction.
+     * @return Optional value of a {@code TransactionDto}.
+     */
+    @Override
+    public Optional<TransactionDto> getByReferenceId(@NotNull final Long merchantId,
+                                                     @NotNull final String referenceId) {
+        return transactionService.getByReferenceId(merchantId, referenceId);
+    }
+
+    /**
+     * Delete transactions older than a specified date. Afterwards the cache of created transactions is cleared, the
+     * filter of used reference IDs is rebuilt and the deleted transactions are removed from the index of the customer
+     * contact details.
+     *
+     * @param dateBefore The date before which all transactions will be deleted.
+     * @return Number of transactions deleted.
+     */
+    @Override
+    public int deleteOldTransactions(@NotNull final ZonedDateTime dateBefore) {
+        int deleted = transactionService.deleteOldTransactions(dateBefore);
+        if (deleted > 0) {
+            transactionIdempotencyRegistry.clear();
+            referenceIdFilter.rebuild();
+            customerTextIndex.removeCreatedBefore(dateBefore);
+        }
+        return deleted;
+    }
+
+    /**
+     * Find transactions by a combination of search criteria.
+     *
+     * @param searchRequest      (optional) Contains the combination of search criteria.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result of merchants.
+     */
+    @Override
+    public Page<TransactionDto> findBySearchCriteria(@Nullable final SearchRequest searchRequest,
+                                                     @NotNull final Integer pageSize, @NotNull final Integer pageNum,
+                                                     @Nullable final Long filterByMerchantId) {
+        return transactionService.findBySearchCriteria(searchRequest, pageSize, pageNum, filterByMerchantId);
+    }
+
+    /**
+     * Find transactions by a combination of search criteria, counting the total number of results as requested by
+     * the count mode of the search request.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the count mode.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A page of transactions if the total number of results is known, otherwise a slice.
+     */
+    @Override
+    public Slice<TransactionDto> findSliceBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                           @NotNull final Integer pageSize,
+                                                           @NotNull final Integer pageNum,
+                                                           @Nullable final Long filterByMerchantId) {
+        return transactionService.findSliceBySearchCriteria(searchRequest, pageSize, pageNum, filterByMerchantId);
+    }
+
+    /**
+     * Find the requested fields of transactions by a combination of search criteria.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the requested fields.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result of the requested fields of transactions.
+     */
+    @Override
+    public Slice<Map<String, Object>> findFieldsBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                                 @NotNull final Integer pageSize,
+                                                                 @NotNull final Integer pageNum,
+                                                                 @Nullable final Long filterByMerchantId) {
+        return transactionService.findFieldsBySearchCriteria(searchRequest, pageSize, pageNum, filterByMerchantId);
+    }
+
+    /**
+     * Find transactions by a combination of search criteria using keyset pagination.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the cursor, empty for the first
+     *                           window.
+     * @param pageSize           Maximum number of results in a window.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A window of transactions with the cursor of the next window.
+     */
+    @Override
+    public KeysetWindow<TransactionDto> scrollBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                               @NotNull final Integer pageSize,
+                                                               @Nullable final Long filterByMerchantId) {
+        return transactionService.scrollBySearchCriteria(searchRequest, pageSize, filterByMerchantId);
+    }
+
+    /**
+     * Create a new transaction, together with the other queued transactions of the merchant on the lane of the
+     * merchant if the lanes are enabled, otherwise as part of a group of transactions. If a transaction with the same
+     * reference ID was already created for the merchant, it is returned instead. Attempts failed due to lock
+     * contention are retried.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param merchantId               The merchant to which to associate the created transaction.
+     * @return The created transaction.
+     * @throws com.example.empay.exception.TransactionOverloadException If the lane of the merchant or the queue of
+     *                                                                  the group committer is full, or if all
+     *                                                                  attempts failed due to lock contention.
+     */
+    @Override
+    public TransactionDto add(@NotNull final TransactionCreateRequest transactionCreateRequest,
+                              @NotNull final Long merchantId) {
+        return transactionIdempotencyRegistry.execute(merchantId, transactionCreateRequest.getReferenceId(),
+                () -> transactionRetryPolicy.execute(() -> transactionLaneExecutor.isEnabled()
+                        ? transactionLaneExecutor.add(transactionCreateRequest, merchantId)
+                        : transactionGroupCommitter.add(transactionCreateRequest, merchantId)));
+    }
+
+    /**
+     * Create a batch of new transactions of a single merchant on the lane of the merchant. If the batch cannot be
+     * created as a whole, for example because of a concurrently inserted duplicate reference ID, each transaction
+     * is created separately.
+     *
+     * @param transactionCreateRequests The data of the transactions in the order of creation.
+     * @param merchantId                The merchant to which to associate the created transactions.
+     * @return The result of each transaction in the order of the requests.
+     */
+    @Override
+    public List<TransactionBatchItemResult> addBatch(
+            @NotNull final List<TransactionCreateRequest> transactionCreateRequests, @NotNull final Long merchantId) {
+        return transactionLaneExecutor.execute(merchantId, () -> {
+            try {
+                return transactionRetryPolicy.execute(
+                        () -> transactionService.addBatch(transactionCreateRequests, merchantId));
+            } catch (RuntimeException e) {
+                log.debug("Batch of {} transactions failed, creating them one by one: {}",
+                        transactionCreateRequests.size(), e.getMessage());
+            }
+            List<TransactionBatchItemResult> results = new ArrayList<>(transactionCreateRequests.size());
+            for (TransactionCreateRequest transactionCreateRequest : transactionCreateRequests) {
+                try {
+                    results.add(TransactionBatchItemResult.created(transactionRetryPolicy.execute(
+                            () -> transactionService.add(transactionCreateRequest, merchantId))));
+                } catch (DataIntegrityViolationException e) {
+                    results.add(TransactionBatchItemResult.failed("Unique constraint violated."));
+                } catch (RuntimeException e) {
+                    results.add(TransactionBatchItemResult.failed(e.getMessage()));
+                }
+            }
+            return results;
+        });
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.repository.transaction.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of the reference IDs of existing transactions. A reference ID not contained in the filter is
+ * certainly not used, so only possible duplicates need to be looked up in the database. The filter is built from the
+ * TRANSACTION table on startup and rebuilt after old transactions are deleted. Reference IDs of created transactions
+ * are added when their database transaction commits. Reference IDs of transactions created while the filter is being
+ * rebuilt may be missed; such duplicates are still rejected by the unique index.
+ */
+@Component
+@Slf4j
+public class ReferenceIdFilter {
+
+    /**
+     * Number of bits in a word of the bit array.
+     */
+    private static final int BITS_PER_WORD = 64;
+
+    /**
+     * Shift converting a bit index to a word index.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * Offset basis of the FNV-1a hash.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Prime of the FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * First multiplier of the final mix of the hash.
+     */
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+    /**
+     * Second multiplier of the final mix of the hash.
+     */
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    /**
+     * Shift of the final mix of the hash.
+     */
+    private static final int MIX_SHIFT = 33;
+
+    /**
+     * Whether the filter is used.
+     */
+    private final boolean enabled;
+
+    /**
+     * Number of words of the bit array.
+     */
+    private final int wordCount;
+
+    /**
+     * Number of hash functions.
+     */
+    private final int hashCount;
+
+    /**
+     * Transaction repository used to build the filter.
+     */
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Read-only database transaction used to build the filter.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The bits of the filter in use.
+     */
+    private volatile AtomicLongArray bits;
+
+    /**
+     * The bits of the filter being built, empty if the filter is not being built.
+     */
+    private volatile AtomicLongArray nextBits;
+
+    /**
+     * Whether the filter was built. Until then every reference ID is considered possibly used.
+     */
+    private volatile boolean ready;
+
+    /**
+     * Create the filter.
+     *
+     * @param enabled               Whether the filter is used.
+     * @param expectedInsertions    Expected number of reference IDs.
+     * @param falsePositiveRate     Wanted rate of unused reference IDs considered possibly used.
+     * @param transactionRepository Transaction repository used to build the filter.
+     * @param transactionManager    Transaction manager used to build the filter.
+     */
+    public ReferenceIdFilter(@Value("${transactions.referenceIdFilter.enabled:true}") final boolean enabled,
+                             @Value("${transactions.referenceIdFilter.expectedInsertions:1000000}")
+                             final long expectedInsertions,
+                             @Value("${transactions.referenceIdFilter.falsePositiveRate:0.01}")
+                             final double falsePositiveRate,
+                             final TransactionRepository transactionRepository,
+                             final PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        long insertions = Math.max(1, expectedInsertions);
+        long bitCount = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.wordCount = (int) Math.max(1, (bitCount + BITS_PER_WORD - 1) / BITS_PER_WORD);
+        this.hashCount = Math.max(1, (int) Math.round((double) wordCount * BITS_PER_WORD / insertions * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? wordCount : 0);
+    }
+
+    /**
+     * Build the filter when the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationStarted() {
+        rebuild();
+    }
+
+    /**
+     * Check whether a reference ID is possibly used by an existing transaction.
+     *
+     * @param referenceId The reference ID.
+     * @return {@literal false} if the reference ID is certainly not used, {@literal true} otherwise.
+     */
+    public boolean mightContain(final String referenceId) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        AtomicLongArray current = bits;
+        long hash = hash(referenceId);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            if ((current.get((int) (bit >>> WORD_SHIFT)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add the reference ID of a created transaction.
+     *
+     * @param referenceId The reference ID.
+     */
+    public void put(final String referenceId) {
+        if (!enabled) {
+            return;
+        }
+        long hash = hash(referenceId);
+        put(bits, hash);
+        AtomicLongArray next = nextBits;
+        if (next != null) {
+            put(next, hash);
+        }
+    }
+
+    /**
+     * Rebuild the filter from the reference IDs of the existing transactions.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        AtomicLongArray next = new AtomicLongArray(wordCount);
+        nextBits = next;
+        try {
+            AtomicLong count = new AtomicLong();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> referenceIds = transactionRepository.streamAllReferenceIds()) {
+                    referenceIds.forEach(it -> {
+                        put(next, hash(it));
+                        count.incrementAndGet();
+                    });
+                }
+            });
+            bits = next;
+            ready = true;
+            log.info("Reference ID filter built from {} transactions", count.get());
+        } catch (RuntimeException e) {
+            log.error("Error while building the reference ID filter", e);
+        } finally {
+            nextBits = null;
+        }
+    }
+
+    private void put(final AtomicLongArray target, final long hash) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            long mask = 1L << bit;
+            target.getAndAccumulate((int) (bit >>> WORD_SHIFT), mask, (word, it) -> word | it);
+        }
+    }
+
+    private long bitIndex(final long hash, final int i) {
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> Integer.SIZE);
+        return Math.floorMod(hash1 + (long) i * hash2, (long) wordCount * BITS_PER_WORD);
+    }
+
+    private static long hash(final String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.exception.TransactionOverloadException;
+import com.example.empay.exception.TransactionValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates concurrently submitted transactions in groups sharing a single database transaction. Requests arriving
+ * within a short window, up to a maximum batch size, are created in one database transaction and their inserts are
+ * sent using JDBC batching. A transaction failing validation fails only its own request, as it makes no changes to the
+ * database. If any other error occurs, such as a constraint violation or a deadlock, the whole batch is rolled back
+ * and each transaction is created again in its own database transaction, so failures are isolated per request.
+ * <p>
+ * Each batch is created in the order of the merchant IDs, keeping the order of the transactions of a merchant, so that
+ * concurrent workers update the merchants in the same order. Workers may still deadlock on the parent transactions
+ * updated by REFUND and REVERSAL transactions; the database then aborts one of the batches, which falls back to
+ * creating its transactions one by one.
+ */
+@Component
+@Slf4j
+public class TransactionGroupCommitter {
+
+    /**
+     * Name of the batch size distribution summary.
+     */
+    public static final String METRIC_BATCH_SIZE = "empay.transaction.batch.size";
+
+    /**
+     * Name of the counter of batches created again one transaction at a time.
+     */
+    public static final String METRIC_BATCH_FALLBACK = "empay.transaction.batch.fallback";
+
+    /**
+     * Marks the threads creating a batch of transactions.
+     */
+    private static final ThreadLocal<Boolean> IN_BATCH = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Whether transactions are created in groups.
+     */
+    @Value("${transactions.groupCommit.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Maximum time in milliseconds to wait for more transactions after the first transaction of a batch arrives.
+     */
+    @Value("${transactions.groupCommit.windowMillis:2}")
+    private long windowMillis;
+
+    /**
+     * Maximum number of transactions in a batch.
+     */
+    @Value("${transactions.groupCommit.maxBatchSize:50}")
+    private int maxBatchSize;
+
+    /**
+     * Maximum number of transactions waiting for a batch.
+     */
+    @Value("${transactions.groupCommit.queueCapacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * Number of threads creating batches concurrently.
+     */
+    @Value("${transactions.groupCommit.workers:1}")
+    private int workerCount;
+
+    /**
+     * Maximum time in milliseconds to wait for the result of a transaction.
+     */
+    @Value("${transactions.groupCommit.timeoutMillis:30000}")
+    private long timeoutMillis;
+
+    /**
+     * The transaction service doing the actual work.
+     */
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    /**
+     * Transaction manager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Registry of the metrics.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Template of the database transaction of a batch.
+     */
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Transactions waiting for a batch.
+     */
+    private BlockingQueue<PendingTransaction> queue;
+
+    /**
+     * Threads creating the batches.
+     */
+    private final List<Thread> workers = new ArrayList<>();
+
+    /**
+     * Whether the worker threads are stopped.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Distribution of the achieved batch sizes.
+     */
+    private DistributionSummary batchSizeSummary;
+
+    /**
+     * Counter of batches created again one transaction at a time.
+     */
+    private Counter fallbackCounter;
+
+    /**
+     * A transaction waiting for a batch.
+     *
+     * @param request    The transaction data.
+     * @param merchantId The merchant ID.
+     * @param future     Completed with the created transaction.
+     */
+    private record PendingTransaction(TransactionCreateRequest request, Long merchantId,
+                                      CompletableFuture<TransactionDto> future) {
+    }
+
+    /**
+     * Start the worker threads if transactions are created in groups.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizeSummary = DistributionSummary.builder(METRIC_BATCH_SIZE)
+                .description("Number of transactions created in a single database transaction")
+                .register(meterRegistry);
+        fallbackCounter = meterRegistry.counter(METRIC_BATCH_FALLBACK);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "transaction-group-commit-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Creating transactions in groups of up to {} within {} ms", maxBatchSize, windowMillis);
+    }
+
+    /**
+     * Stop the worker threads and fail the transactions still waiting for a batch. A batch already being created is
+     * completed by its worker.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        workers.forEach(Thread::interrupt);
+        if (queue != null) {
+            List<PendingTransaction> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            reject(pending);
+        }
+    }
+
+    /**
+     * Check whether the current thread is creating a batch of transactions.
+     *
+     * @return {@literal true} if the current thread is creating a batch.
+     */
+    public static boolean isInBatch() {
+        return IN_BATCH.get();
+    }
+
+    /**
+     * Create a new transaction as part of the next batch and wait for the result. If transactions are not created
+     * in groups, the transaction is created directly.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param merchantId               The merchant to which to associate the created transaction.
+     * @return The created transaction.
+     * @throws TransactionOverloadException If too many transactions are waiting for a batch, the worker threads are
+     *                                      stopped, or the result is not available within the timeout. In the latter
+     *                                      case the transaction may still be created, a retry with the same reference
+     *                                      ID returns it.
+     */
+    public TransactionDto add(final TransactionCreateRequest transactionCreateRequest, final Long merchantId) {
+        if (!enabled) {
+            return transactionService.add(transactionCreateRequest, merchantId);
+        }
+        PendingTransaction pending =
+                new PendingTransaction(transactionCreateRequest, merchantId, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new TransactionOverloadException("Too many pending transactions, try again later.", null);
+        }
+        // The queue may have been drained by stop() before the transaction was added
+        if (stopped && queue.remove(pending)) {
+            reject(List.of(pending));
+        }
+
+        try {
+            return pending.future().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw new TransactionOverloadException(
+                    "Transaction not created within " + timeoutMillis + " ms, try again later.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionOverloadException("Interrupted while waiting for the transaction.", e);
+        }
+    }
+
+    private void runWorker() {
+        List<PendingTransaction> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                while (batch.size() < maxBatchSize) {
+                    PendingTransaction next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject(batch);
+            } catch (Throwable e) {
+                log.error("Error while creating a batch of transactions", e);
+                batch.forEach(it -> it.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Fail the transactions waiting for a batch because the worker threads are stopped.
+     *
+     * @param pending The transactions to fail.
+     */
+    private static void reject(final List<PendingTransaction> pending) {
+        pending.forEach(it -> it.future().completeExceptionally(
+                new TransactionOverloadException("Shutting down, try again later.", null)));
+    }
+
+    /**
+     * Create a batch of transactions in a single database transaction, failing the transactions which fail
+     * validation. If any other error occurs, create each transaction in its own database transaction.
+     *
+     * @param batch The transactions to create.
+     */
+    private void processBatch(final List<PendingTransaction> batch) {
+        batchSizeSummary.record(batch.size());
+        if (batch.size() == 1) {
+            processIndividually(batch.get(0));
+            return;
+        }
+
+        // Stable sort, the transactions of a merchant keep their order
+        batch.sort(Comparator.comparing(PendingTransaction::merchantId));
+        List<TransactionDto> results = new ArrayList<>(batch.size());
+        List<TransactionValidationException> rejections = new ArrayList<>(batch.size());
+        IN_BATCH.set(Boolean.TRUE);
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(it -> {
+                try {
+                    results.add(transactionService.addToBatch(it.request(), it.merchantId()));
+                    rejections.add(null);
+                } catch (TransactionValidationException e) {
+                    results.add(null);
+                    rejections.add(e);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} transactions failed, creating them one by one: {}", batch.size(), e.getMessage());
+            fallbackCounter.increment();
+            IN_BATCH.set(Boolean.FALSE);
+            batch.forEach(this::processIndividually);
+            return;
+        } finally {
+            IN_BATCH.set(Boolean.FALSE);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections.get(i) != null) {
+                batch.get(i).future().completeExceptionally(rejections.get(i));
+            } else {
+                batch.get(i).future().complete(results.get(i));
+            }
+        }
+    }
+
+    private void processIndividually(final PendingTransaction pending) {
+        try {
+            pending.future().complete(transactionService.add(pending.request(), pending.merchantId()));
+        } catch (RuntimeException e) {
+            pending.future().completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes the creation of transactions idempotent by merchant ID and reference ID. A repeated request with the same
+ * reference ID returns the originally created transaction, looked up in a bounded in-memory cache of recently created
+ * transactions and then in the database. The {@link ReferenceIdFilter} is not consulted, as it knows only the reference
+ * IDs committed on this instance, and a retry reaching another instance must still find the original transaction.
+ * Concurrent requests with the same reference ID wait for the result of the first one.
+ */
+@Component
+@Slf4j
+public class TransactionIdempotencyRegistry {
+
+    /**
+     * Name of the replayed transactions counter.
+     */
+    public static final String METRIC_REPLAYED = "empay.transaction.idempotent.replayed";
+
+    /**
+     * Initial capacity of the cache.
+     */
+    private static final int CACHE_INITIAL_CAPACITY = 256;
+
+    /**
+     * Load factor of the cache.
+     */
+    private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Whether repeated transactions are replayed.
+     */
+    private final boolean enabled;
+
+    /**
+     * Recently created transactions by key, least recently used first.
+     */
+    private final Map<String, TransactionDto> cache;
+
+    /**
+     * Results of the transactions being created by key.
+     */
+    private final Map<String, CompletableFuture<TransactionDto>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Used to look up created transactions in the database.
+     */
+    private final TransactionServiceImpl transactionService;
+
+    /**
+     * Counter of transactions replayed from the cache.
+     */
+    private final Counter cacheCounter;
+
+    /**
+     * Counter of transactions replayed from the database.
+     */
+    private final Counter databaseCounter;
+
+    /**
+     * Counter of transactions replayed from a concurrent request.
+     */
+    private final Counter inFlightCounter;
+
+    /**
+     * Create the registry.
+     *
+     * @param enabled            Whether repeated transactions are replayed.
+     * @param cacheSize          Maximum number of cached transactions.
+     * @param transactionService Used to look up created transactions in the database.
+     * @param meterRegistry      Registry of the idempotency metrics.
+     */
+    public TransactionIdempotencyRegistry(@Value("${transactions.idempotency.enabled:true}") final boolean enabled,
+                                          @Value("${transactions.idempotency.cacheSize:10000}") final int cacheSize,
+                                          final TransactionServiceImpl transactionService,
+                                          final MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.transactionService = transactionService;
+        this.cache = new LinkedHashMap<>(CACHE_INITIAL_CAPACITY, CACHE_LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, TransactionDto> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.cacheCounter = meterRegistry.counter(METRIC_REPLAYED, "source", "cache");
+        this.databaseCounter = meterRegistry.counter(METRIC_REPLAYED, "source", "database");
+        this.inFlightCounter = meterRegistry.counter(METRIC_REPLAYED, "source", "inFlight");
+    }
+
+    /**
+     * Create a transaction unless a transaction with the same reference ID was already created for the merchant.
+     *
+     * @param merchantId  The merchant ID.
+     * @param referenceId (optional) The reference ID of the transaction. Transactions without a reference ID are
+     *                    always created.
+     * @param creator     Creates the transaction.
+     * @return The created transaction or the transaction created before with the same reference ID.
+     */
+    public TransactionDto execute(final Long merchantId, final String referenceId,
+                                  final Supplier<TransactionDto> creator) {
+        if (!enabled || referenceId == null) {
+            return creator.get();
+        }
+        String key = merchantId + ":" + referenceId;
+        Optional<TransactionDto> cached = getCached(key);
+        if (cached.isPresent()) {
+            cacheCounter.increment();
+            return cached.get();
+        }
+
+        CompletableFuture<TransactionDto> future = new CompletableFuture<>();
+        CompletableFuture<TransactionDto> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            inFlightCounter.increment();
+            return join(existing);
+        }
+        try {
+            TransactionDto result = getCached(key).orElse(null);
+            if (result == null) {
+                result = transactionService.getByReferenceId(merchantId, referenceId).orElse(null);
+                if (result != null) {
+                    databaseCounter.increment();
+                    log.debug("Replaying transaction [{}] with reference ID [{}]", result.getId(), referenceId);
+                } else {
+                    result = creator.get();
+                }
+                synchronized (cache) {
+                    cache.put(key, result);
+                }
+            }
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Remove all cached transactions, for example after transactions were deleted.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Optional<TransactionDto> getCached(final String key) {
+        synchronized (cache) {
+            return Optional.ofNullable(cache.get(key));
+        }
+    }
+
+    private static TransactionDto join(final CompletableFuture<TransactionDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
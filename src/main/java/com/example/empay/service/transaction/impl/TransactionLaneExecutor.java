@@ -0,0 +1,373 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.exception.TransactionOverloadException;
+import com.example.empay.exception.TransactionValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Executes tasks on a fixed set of single-threaded lanes. Tasks are assigned to a lane by hashing the merchant ID,
+ * so all tasks of a merchant are executed sequentially in submission order while different merchants are processed
+ * in parallel. Each lane has a bounded queue, a task submitted to a full lane is rejected.
+ * <p>
+ * Transactions submitted with {@link #add(TransactionCreateRequest, Long)} are not created one at a time. Whenever a
+ * lane thread takes the next transaction, it also takes the transactions queued behind it, up to a maximum batch
+ * size, and creates the transactions of each merchant by a single {@link TransactionServiceImpl#addBatch} call. The
+ * lane then owns the balance of the merchant for the duration of the batch: the merchant is locked once, the balance
+ * is tracked in memory, the parent transactions are updated within the same database transaction, and the ledger
+ * entries of the batch are inserted together with its transactions. The state is not kept between batches, the
+ * database remains the source of truth for other instances of the application. If a batch fails as a whole, its
+ * transactions are created one by one.
+ */
+@Component
+@Slf4j
+public class TransactionLaneExecutor {
+
+    /**
+     * Name of the lane queue depth gauge.
+     */
+    public static final String METRIC_QUEUE_DEPTH = "empay.transaction.lane.queue.depth";
+
+    /**
+     * Name of the rejected tasks counter.
+     */
+    public static final String METRIC_REJECTED = "empay.transaction.lane.rejected";
+
+    /**
+     * Name of the distribution summary of the number of transactions of a merchant created in a single batch.
+     */
+    public static final String METRIC_BATCH_SIZE = "empay.transaction.lane.batch.size";
+
+    /**
+     * Marks the threads of the lanes.
+     */
+    private static final ThreadLocal<Boolean> LANE_THREAD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Whether transactions are processed on lanes.
+     */
+    private final boolean enabled;
+
+    /**
+     * Maximum number of queued tasks taken by a lane thread at once.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The transaction service doing the actual work.
+     */
+    private final TransactionServiceImpl transactionService;
+
+    /**
+     * The queues of the lanes.
+     */
+    private final List<BlockingQueue<LaneItem>> queues = new ArrayList<>();
+
+    /**
+     * The threads of the lanes.
+     */
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * Counter of rejected tasks.
+     */
+    private final Counter rejectedCounter;
+
+    /**
+     * Distribution of the number of transactions of a merchant created in a single batch.
+     */
+    private final DistributionSummary batchSizeSummary;
+
+    /**
+     * Whether the lanes are stopped.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Create and start the lanes.
+     *
+     * @param enabled            Whether transactions are processed on lanes.
+     * @param laneCount          Number of lanes, defaults to the number of available processors if less than 1.
+     * @param queueCapacity      Maximum number of queued tasks per lane.
+     * @param maxBatchSize       Maximum number of queued tasks taken by a lane thread at once.
+     * @param meterRegistry      Registry of the lane metrics.
+     * @param transactionService The transaction service creating the transactions.
+     */
+    public TransactionLaneExecutor(@Value("${transactions.lanes.enabled:false}") final boolean enabled,
+                                   @Value("${transactions.lanes.count:0}") final int laneCount,
+                                   @Value("${transactions.lanes.queueCapacity:1000}") final int queueCapacity,
+                                   @Value("${transactions.lanes.maxBatchSize:50}") final int maxBatchSize,
+                                   final MeterRegistry meterRegistry,
+                                   final TransactionServiceImpl transactionService) {
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.transactionService = transactionService;
+        this.rejectedCounter = meterRegistry.counter(METRIC_REJECTED);
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_BATCH_SIZE)
+                .description("Number of transactions of a merchant created in a single batch of a lane")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < count; i++) {
+            BlockingQueue<LaneItem> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread thread = new Thread(() -> runLane(queue), "transaction-lane-" + i);
+            thread.setDaemon(true);
+            queues.add(queue);
+            threads.add(thread);
+            Gauge.builder(METRIC_QUEUE_DEPTH, queue, BlockingQueue::size)
+                    .tag("lane", String.valueOf(i))
+                    .description("Number of transactions waiting in the lane")
+                    .register(meterRegistry);
+            thread.start();
+        }
+        log.info("Processing transactions on {} lanes with queue capacity {} in batches of up to {}", count,
+                queueCapacity, this.maxBatchSize);
+    }
+
+    /**
+     * Check whether the current thread is a thread of a lane.
+     *
+     * @return {@literal true} if the current thread is a lane thread.
+     */
+    public static boolean isLaneThread() {
+        return LANE_THREAD.get();
+    }
+
+    /**
+     * Check whether transactions are processed on lanes.
+     *
+     * @return {@literal true} if the lanes are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Execute a task on the lane of a merchant and wait for its result.
+     *
+     * @param merchantId The merchant ID used to select the lane.
+     * @param task       The task to execute.
+     * @param <T>        Type of the task result.
+     * @return The result of the task.
+     * @throws TransactionOverloadException If the queue of the lane is full or the lanes are stopped.
+     */
+    public <T> T execute(final Long merchantId, final Supplier<T> task) {
+        if (!enabled || isLaneThread()) {
+            return task.get();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submit(merchantId, new LaneTask(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, future));
+        return await(future);
+    }
+
+    /**
+     * Create a new transaction on the lane of its merchant, together with the other transactions of the merchant
+     * queued on the lane, and wait for the result.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param merchantId               The merchant to which to associate the created transaction.
+     * @return The created transaction.
+     * @throws TransactionValidationException If the transaction cannot be created using the provided data.
+     * @throws TransactionOverloadException   If the queue of the lane is full or the lanes are stopped.
+     */
+    public TransactionDto add(final TransactionCreateRequest transactionCreateRequest, final Long merchantId) {
+        if (!enabled || isLaneThread()) {
+            return transactionService.add(transactionCreateRequest, merchantId);
+        }
+        PendingTransaction pending =
+                new PendingTransaction(transactionCreateRequest, merchantId, new CompletableFuture<>());
+        submit(merchantId, pending);
+        return await(pending.future());
+    }
+
+    /**
+     * Stop the lanes and fail the tasks still waiting in their queues. A batch already being processed is completed
+     * by its lane.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        threads.forEach(Thread::interrupt);
+        for (BlockingQueue<LaneItem> queue : queues) {
+            List<LaneItem> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            pending.forEach(TransactionLaneExecutor::reject);
+        }
+    }
+
+    private void submit(final Long merchantId, final LaneItem item) {
+        BlockingQueue<LaneItem> queue = queues.get(Math.floorMod(merchantId.hashCode(), queues.size()));
+        if (!queue.offer(item)) {
+            rejectedCounter.increment();
+            throw new TransactionOverloadException("Too many pending transactions, try again later.", null);
+        }
+        // The queue may have been drained by shutdown() before the task was added
+        if (stopped && queue.remove(item)) {
+            reject(item);
+        }
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionOverloadException("Interrupted while waiting for the transaction.", e);
+        }
+    }
+
+    /**
+     * Fail a task waiting in a queue because the lanes are stopped.
+     *
+     * @param item The task to fail.
+     */
+    private static void reject(final LaneItem item) {
+        item.future().completeExceptionally(new TransactionOverloadException("Shutting down, try again later.", null));
+    }
+
+    private void runLane(final BlockingQueue<LaneItem> queue) {
+        LANE_THREAD.set(Boolean.TRUE);
+        List<LaneItem> items = new ArrayList<>(maxBatchSize);
+        // A task may clear the interrupt of shutdown(), so the stopped flag is checked as well
+        while (!stopped && !Thread.currentThread().isInterrupted()) {
+            try {
+                items.add(queue.take());
+                queue.drainTo(items, maxBatchSize - 1);
+                process(items);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                log.error("Error while processing the tasks of a lane", e);
+                items.forEach(it -> it.future().completeExceptionally(e));
+            } finally {
+                items.clear();
+            }
+        }
+    }
+
+    /**
+     * Process the tasks taken from the queue of a lane. The transactions are grouped by merchant and each group is
+     * created before the next other task, so the tasks of a merchant keep their submission order.
+     *
+     * @param items The tasks in submission order.
+     */
+    private void process(final List<LaneItem> items) {
+        Map<Long, List<PendingTransaction>> batches = new LinkedHashMap<>();
+        for (LaneItem item : items) {
+            if (item instanceof PendingTransaction pending) {
+                batches.computeIfAbsent(pending.merchantId(), key -> new ArrayList<>()).add(pending);
+            } else if (item instanceof LaneTask task) {
+                batches.forEach(this::createBatch);
+                batches.clear();
+                task.runnable().run();
+            }
+        }
+        batches.forEach(this::createBatch);
+    }
+
+    /**
+     * Create the transactions of a merchant in a single database transaction, failing the transactions which fail
+     * validation. If the batch fails as a whole, create each transaction in its own database transaction.
+     *
+     * @param merchantId The merchant ID.
+     * @param batch      The transactions to create in submission order.
+     */
+    private void createBatch(final Long merchantId, final List<PendingTransaction> batch) {
+        batchSizeSummary.record(batch.size());
+        if (batch.size() > 1) {
+            try {
+                List<TransactionBatchItemResult> results = transactionService.addBatch(
+                        batch.stream().map(PendingTransaction::request).toList(), merchantId);
+                for (int i = 0; i < batch.size(); i++) {
+                    TransactionBatchItemResult result = results.get(i);
+                    if (result.getTransaction() != null) {
+                        batch.get(i).future().complete(result.getTransaction());
+                    } else {
+                        batch.get(i).future().completeExceptionally(
+                                new TransactionValidationException(result.getError()));
+                    }
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Batch of {} transactions of merchant [{}] failed, creating them one by one: {}",
+                        batch.size(), merchantId, e.getMessage());
+            }
+        }
+        for (PendingTransaction pending : batch) {
+            try {
+                pending.future().complete(transactionService.add(pending.request(), merchantId));
+            } catch (RuntimeException e) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A task waiting in the queue of a lane.
+     */
+    private sealed interface LaneItem permits LaneTask, PendingTransaction {
+
+        /**
+         * Get the future completed with the result of the task.
+         *
+         * @return The future.
+         */
+        CompletableFuture<?> future();
+    }
+
+    /**
+     * A task executed on its own.
+     *
+     * @param runnable Executes the task and completes the future.
+     * @param future   Completed with the result of the task.
+     */
+    private record LaneTask(Runnable runnable, CompletableFuture<?> future) implements LaneItem {
+    }
+
+    /**
+     * A transaction waiting to be created together with the other queued transactions of its merchant.
+     *
+     * @param request    The transaction data.
+     * @param merchantId The merchant ID.
+     * @param future     Completed with the created transaction.
+     */
+    private record PendingTransaction(TransactionCreateRequest request, Long merchantId,
+                                      CompletableFuture<TransactionDto> future) implements LaneItem {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.exception.TransactionOverloadException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries the creation of transactions failed due to lock contention, i.e. lock timeouts and deadlocks. Each attempt
+ * must run in its own database transaction. Attempts are separated by an exponential backoff with full jitter, so
+ * that the contending requests do not collide again. When the attempts are exhausted, the request is rejected with a
+ * {@link TransactionOverloadException}. All other exceptions are propagated immediately.
+ */
+@Component
+@Slf4j
+public class TransactionRetryPolicy {
+
+    /**
+     * Name of the retries counter.
+     */
+    public static final String METRIC_RETRIES = "empay.transaction.retry";
+
+    /**
+     * Name of the exhausted retries counter.
+     */
+    public static final String METRIC_EXHAUSTED = "empay.transaction.retry.exhausted";
+
+    /**
+     * SQL states of lock timeouts and deadlocks: serialization failure, PostgreSQL deadlock, PostgreSQL lock not
+     * available and H2 lock timeout.
+     */
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01", "55P03", "HYT00");
+
+    /**
+     * Maximum number of attempts, including the first one.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Backoff before the first retry in milliseconds, doubled for every further retry.
+     */
+    private final long initialBackoffMillis;
+
+    /**
+     * Maximum backoff in milliseconds.
+     */
+    private final long maxBackoffMillis;
+
+    /**
+     * Counter of retries.
+     */
+    private final Counter retryCounter;
+
+    /**
+     * Counter of requests rejected after all attempts failed.
+     */
+    private final Counter exhaustedCounter;
+
+    /**
+     * Create the retry policy.
+     *
+     * @param maxAttempts          Maximum number of attempts, including the first one.
+     * @param initialBackoffMillis Backoff before the first retry in milliseconds.
+     * @param maxBackoffMillis     Maximum backoff in milliseconds.
+     * @param meterRegistry        Registry of the retry metrics.
+     */
+    public TransactionRetryPolicy(
+            @Value("${transactions.retry.maxAttempts:3}") final int maxAttempts,
+            @Value("${transactions.retry.initialBackoffMillis:20}") final long initialBackoffMillis,
+            @Value("${transactions.retry.maxBackoffMillis:500}") final long maxBackoffMillis,
+            final MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.retryCounter = meterRegistry.counter(METRIC_RETRIES);
+        this.exhaustedCounter = meterRegistry.counter(METRIC_EXHAUSTED);
+    }
+
+    /**
+     * Check whether an exception is caused by a lock timeout or a deadlock.
+     *
+     * @param exception The exception.
+     * @return {@literal true} if the operation failed due to lock contention and may be retried.
+     */
+    public static boolean isRetryable(final Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransactionOverloadException) {
+                // Already rejected, e.g. by an inner retry policy
+                return false;
+            }
+            if (cause instanceof PessimisticLockingFailureException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException
+                    || cause instanceof LockAcquisitionException
+                    || cause instanceof SQLException && RETRYABLE_SQL_STATES.contains(((SQLException) cause)
+                    .getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Execute a task, retrying it if it fails due to lock contention.
+     *
+     * @param task The task to execute, running in its own database transaction.
+     * @param <T>  Type of the task result.
+     * @return The result of the task.
+     * @throws TransactionOverloadException If all attempts failed due to lock contention.
+     */
+    public <T> T execute(final Supplier<T> task) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    log.warn("Transaction failed due to lock contention after {} attempts: {}", attempt,
+                            e.getMessage());
+                    throw new TransactionOverloadException(
+                            "Transaction could not be processed due to contention, try again later.", e);
+                }
+                retryCounter.increment();
+                log.debug("Retrying transaction failed due to lock contention (attempt {}): {}", attempt,
+                        e.getMessage());
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void backoff(final int attempt, final RuntimeException cause) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, Integer.SIZE));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.empay.service.transaction.impl;
 
 import com.example.empay.controller.search.SearchCriteria;
 import com.example.empay.controller.search.SearchRequest;
+import com.example.empay.controller.search.SearchRequestException;
 import com.example.empay.dto.mapper.TransactionDtoMapper;
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
 import com.example.empay.dto.transaction.TransactionCreateRequest;
 import com.example.empay.dto.transaction.TransactionDto;
 import com.example.empay.entity.merchant.Merchant;
@@ -12,28 +14,48 @@ import com.example.empay.entity.transaction.TransactionType;
 import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
-import com.example.empay.service.search.SpecificationBuilder;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.service.search.EntitySearchQuery;
+import com.example.empay.service.search.KeysetPagination;
+import com.example.empay.service.search.KeysetWindow;
+import com.example.empay.service.search.SearchCountEstimator;
+import com.example.empay.service.search.SearchExport;
+import com.example.empay.service.search.SearchExporter;
+import com.example.empay.service.search.SearchPager;
 import com.example.empay.service.transaction.TransactionService;
-import com.example.empay.service.transaction.search.TransactionSpecification;
+import com.example.empay.service.transaction.search.TransactionProjection;
+import com.example.empay.service.transaction.search.TransactionSearchPlanCompiler;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -98,26 +120,92 @@ public class TransactionServiceImpl implements TransactionService {
      */
     private static final String DTO_PROPERTY_MERCHANT_ID = "merchantId";
 
+    /**
+     * Key of the transactions saved in the current database transaction, which are added to the
+     * {@link ReferenceIdFilter} and the {@link CustomerTextIndex} only when the database transaction commits.
+     */
+    private static final String PENDING_COMMIT = TransactionServiceImpl.class.getName() + ".pendingCommit";
+
+    /**
+     * Keyset pagination of the search results.
+     */
+    private static final KeysetPagination<Transaction> KEYSET_PAGINATION =
+            new KeysetPagination<>(Transaction.class, "id", "merchant", "belongsToTransaction.merchant");
+
+    /**
+     * Query of the search results without counting them, fetching the associations of the repository search.
+     */
+    private static final EntitySearchQuery<Transaction> SEARCH_QUERY =
+            new EntitySearchQuery<>(Transaction.class, "merchant", "belongsToTransaction.merchant");
+
+    /**
+     * Compiled plans of the search criteria, resolved against the metamodel of the persistence context of this
+     * service. Searches of the customer contact details by substring are resolved by the {@link CustomerTextIndex}.
+     */
+    private final TransactionSearchPlanCompiler searchPlans = new TransactionSearchPlanCompiler(this::findContaining);
+
+    /**
+     * Projection of the search results to the requested fields, named by the {@link NomenclatureRegistry}.
+     */
+    private final TransactionProjection searchProjection = new TransactionProjection(() -> nomenclatureRegistry);
+
     /**
      * Merchant repository.
      */
     @Autowired
     private MerchantRepository merchantRepository;
+    /**
+     * Merchant balance service.
+     */
+    @Autowired
+    private MerchantBalanceService merchantBalanceService;
     /**
      * Transaction repository.
      */
     @Autowired
     private TransactionRepository transactionRepository;
     /**
-     * TransactionType repository.
+     * Filter of used reference IDs.
+     */
+    @Autowired
+    private ReferenceIdFilter referenceIdFilter;
+
+    /**
+     * Index of the customer contact details of the transactions.
+     */
+    @Autowired
+    private CustomerTextIndex customerTextIndex;
+    /**
+     * Names the transaction types and statuses of the returned DTOs.
      */
     @Autowired
-    private TransactionTypeRepository transactionTypeRepository;
+    private NomenclatureRegistry nomenclatureRegistry;
     /**
-     * TransactionStatusType repository.
+     * Fetches the search results and counts them as requested.
      */
     @Autowired
-    private TransactionStatusTypeRepository transactionStatusTypeRepository;
+    private SearchPager searchPager;
+    /**
+     * Estimates the totals of unfiltered searches.
+     */
+    @Autowired
+    private SearchCountEstimator searchCountEstimator;
+
+    /**
+     * Creates the exports of search results.
+     */
+    @Autowired
+    private SearchExporter searchExporter;
+    /**
+     * Maximum time in milliseconds to wait for the merchant lock when creating a batch of transactions.
+     */
+    @Value("${locks.merchant.transactionBatchTimeoutMillis:2000}")
+    private long batchLockTimeoutMillis;
+    /**
+     * Maximum number of values of a list in the search criteria, like for IN.
+     */
+    @Value("${search.criteria.maxListSize:100}")
+    private int maxListSize;
     /**
      * The persistence context.
      */
@@ -135,7 +223,43 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public Optional<TransactionDto> getById(@NotNull final UUID id) {
         Optional<Transaction> transaction = transactionRepository.findById(id);
-        return transaction.map(TransactionDtoMapper::toDto);
+        return transaction.map(this::toDto);
+    }
+
+    /**
+     * Get the whole lineage of a transaction. The lineage IDs are resolved first, then all transactions are loaded
+     * with their merchants by a single query.
+     *
+     * @param id The ID of any transaction of the lineage.
+     * @return The transactions of the lineage ordered from the root, or an empty list if the transaction does not
+     * exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionDto> getLineage(@NotNull final UUID id) {
+        List<UUID> lineageIds = transactionRepository.findLineageIds(id);
+        if (lineageIds.isEmpty()) {
+            return List.of();
+        }
+        return transactionRepository.findAllFetchedByIdIn(lineageIds).stream()
+                .sorted(Comparator.comparingInt(it -> lineageIds.indexOf(it.getId())))
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Get a transaction of a merchant by reference ID.
+     *
+     * @param merchantId  The merchant ID.
+     * @param referenceId The reference ID of the transaction.
+     * @return Optional value of a {@code TransactionDto}.
+     */
+    @Override
+    @Transactional
+    public Optional<TransactionDto> getByReferenceId(@NotNull final Long merchantId,
+                                                     @NotNull final String referenceId) {
+        return transactionRepository.findByMerchantIdAndReferenceId(merchantId, referenceId)
+                .map(this::toDto);
     }
 
     /**
@@ -156,58 +280,212 @@ public class TransactionServiceImpl implements TransactionService {
      * @param pageNum            The number of the page to return, starting from 0 (zero).
      * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
      *                           user-provided filters by merchant ID.
-     * @return A paged result of merchants.
+     * @return A paged result of merchants, with an estimated total if the search is not filtered and the estimate
+     * exceeds the threshold of exact counting.
      */
     public Page<TransactionDto> findBySearchCriteria(@Nullable final SearchRequest searchRequest,
                                                      @NotNull final Integer pageSize, @NotNull final Integer pageNum,
                                                      @Nullable final Long filterByMerchantId) {
+        PageRequest pageRequest = toPageRequest(searchRequest, pageSize, pageNum);
+        Specification<Transaction> specification = toSpecification(searchRequest, filterByMerchantId);
+        OptionalLong estimatedTotal = estimateTotal(specification);
+        Page<Transaction> searchResult = estimatedTotal.isPresent()
+                ? SearchPager.estimated(pageRequest, SEARCH_QUERY.find(entityManager, null, pageRequest, pageSize),
+                estimatedTotal.getAsLong())
+                : transactionRepository.findAll(specification, pageRequest);
+        return searchResult.map(this::toDto);
+    }
 
-        PageRequest pageRequest = PageRequest.of(pageNum, pageSize);
-        SpecificationBuilder<Transaction> specificationBuilder =
-                new SpecificationBuilder<>(TransactionSpecification::new, entityManager);
+    /**
+     * Find transactions by a combination of search criteria, counting the total number of results as requested by
+     * the count mode of the search request. Without an exact count, one more transaction than the page size is
+     * fetched to find out whether there is a next page.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the count mode.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A page of transactions if the total number of results is known, otherwise a slice.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TransactionDto> findSliceBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                           @NotNull final Integer pageSize,
+                                                           @NotNull final Integer pageNum,
+                                                           @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasExactCount()) {
+            return findBySearchCriteria(searchRequest, pageSize, pageNum, filterByMerchantId);
+        }
+        PageRequest pageRequest = toPageRequest(searchRequest, pageSize, pageNum);
+        Specification<Transaction> specification = toSpecification(searchRequest, filterByMerchantId);
+        return searchPager.find(pageRequest, searchRequest.getCountMode(),
+                        maxResults -> SEARCH_QUERY.find(entityManager, specification, pageRequest, maxResults),
+                        () -> transactionRepository.count(specification), estimateTotal(specification))
+                .map(this::toDto);
+    }
 
+    /**
+     * Find the requested fields of transactions by a combination of search criteria. Only the columns of the
+     * requested fields are selected and the merchant is joined only if its name is requested.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the requested fields.
+     * @param pageSize           Maximum number of results in a page.
+     * @param pageNum            The number of the page to return, starting from 0 (zero).
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A paged result of the requested fields of transactions.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> findFieldsBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                                 @NotNull final Integer pageSize,
+                                                                 @NotNull final Integer pageNum,
+                                                                 @Nullable final Long filterByMerchantId) {
+        Specification<Transaction> specification = toSpecification(searchRequest, filterByMerchantId);
+        return searchProjection.find(entityManager, searchRequest.getFields(), specification,
+                toPageRequest(searchRequest, pageSize, pageNum), searchPager, searchRequest.getCountMode(),
+                estimateTotal(specification));
+    }
+
+    /**
+     * Find transactions by a combination of search criteria using keyset pagination. The window after the position
+     * encoded in the cursor of the search request is selected by a predicate on the sort property and the ID,
+     * instead of skipping an offset, and no count query is executed.
+     *
+     * @param searchRequest      Contains the combination of search criteria and the cursor, empty for the first
+     *                           window.
+     * @param pageSize           Maximum number of results in a window.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return A window of transactions with the cursor of the next window.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetWindow<TransactionDto> scrollBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                                               @NotNull final Integer pageSize,
+                                                               @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasFields()) {
+            throw new SearchRequestException("Fields cannot be combined with a cursor.", null);
+        }
+        return KEYSET_PAGINATION.find(entityManager, toSpecification(searchRequest, filterByMerchantId),
+                toSortProperty(searchRequest), searchRequest.isAscending(), searchRequest.getCursor(), pageSize)
+                .map(this::toDto);
+    }
+
+    /**
+     * Export transactions by a combination of search criteria. The requested fields, all fields if none are
+     * requested, are streamed from a database cursor when the export is written, without counting the results.
+     *
+     * @param searchRequest      Contains the combination of search criteria, the sort and the requested fields.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID. This will overwrite any
+     *                           user-provided filters by merchant ID.
+     * @return The export of the requested fields of the transactions.
+     */
+    @Override
+    public SearchExport exportBySearchCriteria(@NotNull final SearchRequest searchRequest,
+                                               @Nullable final Long filterByMerchantId) {
+        if (searchRequest.hasCursor()) {
+            throw new SearchRequestException("A cursor cannot be combined with an export.", null);
+        }
+        return searchExporter.export(searchProjection, searchRequest.getFields(),
+                toSpecification(searchRequest, filterByMerchantId), toSort(searchRequest));
+    }
+
+    /**
+     * Create the specification of a transaction search. The list of search criteria, the group of search criteria and
+     * the mandatory filter by merchant ID are combined by AND.
+     *
+     * @param searchRequest      (optional) Contains the combination of search criteria.
+     * @param filterByMerchantId (optional) Enforce a mandatory filter by merchant ID.
+     * @return The specification, or {@literal null} if there are no search criteria.
+     */
+    private Specification<Transaction> toSpecification(@Nullable final SearchRequest searchRequest,
+                                                       @Nullable final Long filterByMerchantId) {
+        Specification<Transaction> specification = null;
         if (searchRequest != null) {
             List<SearchCriteria> criteriaList = searchRequest.getSearchCriteriaList();
-            if (filterByMerchantId != null) {
-                if (criteriaList == null) {
-                    criteriaList = new ArrayList<>(1);
-                } else {
+            if (criteriaList != null) {
+                if (filterByMerchantId != null) {
                     // Remove search criteria by merchantId if filterByMerchantId is provided
-                    criteriaList =
-                            criteriaList.stream().filter(it -> !it.getFilterKey().equals(DTO_PROPERTY_MERCHANT_ID))
-                                    .collect(Collectors.toList());
+                    criteriaList = criteriaList.stream()
+                            .filter(it -> !DTO_PROPERTY_MERCHANT_ID.equals(it.getFilterKey()))
+                            .collect(Collectors.toList());
                 }
-
-                SearchCriteria merchantSearchCriteria = new SearchCriteria();
-                merchantSearchCriteria.setFilterKey(DTO_PROPERTY_MERCHANT_ID);
-                merchantSearchCriteria.setOperation("eq");
-                merchantSearchCriteria.setValue(filterByMerchantId);
-                criteriaList.add(merchantSearchCriteria);
+                criteriaList.forEach(it -> it.setDataOption(searchRequest.getDataOption()));
+                specification = searchPlans.toSpecification(entityManager, criteriaList, maxListSize);
             }
 
-            if (criteriaList != null) {
-                criteriaList.forEach(it -> {
-                    it.setDataOption(searchRequest.getDataOption());
-                    specificationBuilder.with(it);
-                });
+            Specification<Transaction> groupSpecification =
+                    searchPlans.toGroupSpecification(entityManager, searchRequest.getCriteriaGroup(), maxListSize);
+            if (groupSpecification != null) {
+                specification = specification == null ? groupSpecification : specification.and(groupSpecification);
             }
+        }
 
-            if (searchRequest.getSort() != null && !searchRequest.getSort().isBlank()) {
-                String sortProperty = searchRequest.getSort();
-                if (sortProperty.equals("statusTypeId")) {
-                    sortProperty = "status";
-                }
-                Sort sort = Sort.by(sortProperty);
-                if (searchRequest.isAscending()) {
-                    sort = sort.ascending();
-                } else {
-                    sort = sort.descending();
-                }
-                pageRequest = pageRequest.withSort(sort);
-            }
+        if (filterByMerchantId == null) {
+            return specification;
+        }
+        // The mandatory filter is combined by AND at the root, whatever the data options of the search criteria
+        SearchCriteria merchantSearchCriteria = new SearchCriteria();
+        merchantSearchCriteria.setFilterKey(DTO_PROPERTY_MERCHANT_ID);
+        merchantSearchCriteria.setOperation("eq");
+        merchantSearchCriteria.setValue(filterByMerchantId);
+        Specification<Transaction> merchantSpecification =
+                searchPlans.toSpecification(entityManager, List.of(merchantSearchCriteria), maxListSize);
+        return specification == null ? merchantSpecification : merchantSpecification.and(specification);
+    }
+
+    /**
+     * Create the page request of a transaction search.
+     *
+     * @param searchRequest (optional) Contains the sort property and direction.
+     * @param pageSize      Maximum number of results in a page.
+     * @param pageNum       The number of the page to return, starting from 0 (zero).
+     * @return The page request.
+     */
+    private PageRequest toPageRequest(@Nullable final SearchRequest searchRequest, @NotNull final Integer pageSize,
+                                      @NotNull final Integer pageNum) {
+        return PageRequest.of(pageNum, pageSize, toSort(searchRequest));
+    }
+
+    /**
+     * Create the sort of a transaction search.
+     *
+     * @param searchRequest (optional) Contains the sort property and direction.
+     * @return The sort, unsorted if no sort property is requested.
+     */
+    private static Sort toSort(@Nullable final SearchRequest searchRequest) {
+        String sortProperty = toSortProperty(searchRequest);
+        if (sortProperty == null) {
+            return Sort.unsorted();
+        }
+        Sort sort = Sort.by(sortProperty);
+        return searchRequest.isAscending() ? sort.ascending() : sort.descending();
+    }
+
+    /**
+     * Estimate the total of a transaction search. Only the total of an unfiltered search is estimated.
+     *
+     * @param specification (optional) The specification of the search.
+     * @return The estimated total, empty if the results must be counted.
+     */
+    private OptionalLong estimateTotal(@Nullable final Specification<Transaction> specification) {
+        return specification == null ? searchCountEstimator.estimate(Transaction.class) : OptionalLong.empty();
+    }
+
+    /**
+     * Get the entity property to sort the results of a transaction search by. The status is sorted by its persisted
+     * code, which follows the alphabetical order of the status IDs.
+     *
+     * @param searchRequest (optional) Contains the sort property.
+     * @return The entity property, or {@literal null} if no sort property is requested.
+     */
+    private static String toSortProperty(@Nullable final SearchRequest searchRequest) {
+        if (searchRequest == null || searchRequest.getSort() == null || searchRequest.getSort().isBlank()) {
+            return null;
         }
-        Page<Transaction> searchResult = transactionRepository.findAll(specificationBuilder.build(), pageRequest);
-        return searchResult.map(TransactionDtoMapper::toDto);
+        return searchRequest.getSort().equals("statusTypeId") ? "status" : searchRequest.getSort();
     }
 
     /**
@@ -221,143 +499,439 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public TransactionDto add(@NotNull final TransactionCreateRequest transactionCreateRequest,
                               @NotNull final Long merchantId) {
+        rejectUsedReferenceId(transactionCreateRequest.getReferenceId());
         Merchant merchant = merchantRepository.findById(merchantId).orElseThrow(
                 () -> new TransactionValidationException("Merchant with ID [" + merchantId + "] does not exist"));
 
+        return toDto(createTransaction(transactionCreateRequest, merchant, null));
+    }
+
+    /**
+     * Create a new transaction within the shared database transaction of a batch of the
+     * {@link TransactionGroupCommitter}. All validations of a transaction are done before its first change to the
+     * database, so a transaction failing validation leaves the shared database transaction usable and does not mark
+     * it rollback-only.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param merchantId               The merchant to which to associate the created transaction.
+     * @return The created transaction.
+     * @throws TransactionValidationException If the transaction cannot be created using the provided data.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = TransactionValidationException.class)
+    public TransactionDto addToBatch(@NotNull final TransactionCreateRequest transactionCreateRequest,
+                                     @NotNull final Long merchantId) {
+        return add(transactionCreateRequest, merchantId);
+    }
+
+    /**
+     * Create a batch of new transactions of a single merchant. The merchant is locked once, the balance changes of
+     * all transactions are tracked in memory, and the inserts of the transactions and their ledger entries are sent
+     * using JDBC batching. A transaction failing validation does not affect the other transactions of the batch.
+     *
+     * @param transactionCreateRequests The data of the transactions in the order of creation.
+     * @param merchantId                The merchant to which to associate the created transactions.
+     * @return The result of each transaction in the order of the requests.
+     * @throws TransactionValidationException If the merchant does not exist.
+     */
+    @Override
+    @Transactional
+    public List<TransactionBatchItemResult> addBatch(
+            @NotNull final List<TransactionCreateRequest> transactionCreateRequests, @NotNull final Long merchantId) {
+        // Only the reference IDs possibly used according to the filter are looked up, before locking the merchant
+        Set<String> referenceIds = transactionCreateRequests.stream().map(TransactionCreateRequest::getReferenceId)
+                .filter(Objects::nonNull).filter(this::mightBeUsed).collect(Collectors.toSet());
+        Set<String> usedReferenceIds = referenceIds.isEmpty() ? new HashSet<>()
+                : new HashSet<>(transactionRepository.findExistingReferenceIds(referenceIds));
+
+        Merchant merchant = merchantRepository.lockById(merchantId, Duration.ofMillis(batchLockTimeoutMillis))
+                .orElseThrow(() -> new TransactionValidationException(
+                        "Merchant with ID [" + merchantId + "] does not exist"));
+        RunningBalance balance = new RunningBalance(
+                merchantBalanceService.getTotalTransactionSum(merchantId).orElse(BigDecimal.ZERO));
+
+        List<TransactionBatchItemResult> results = new ArrayList<>(transactionCreateRequests.size());
+        for (TransactionCreateRequest transactionCreateRequest : transactionCreateRequests) {
+            String referenceId = transactionCreateRequest.getReferenceId();
+            if (referenceId != null && !usedReferenceIds.add(referenceId)) {
+                results.add(TransactionBatchItemResult.failed(
+                        "Transaction with reference ID [" + referenceId + "] already exists."));
+                continue;
+            }
+            try {
+                results.add(TransactionBatchItemResult.created(toDto(
+                        createTransaction(transactionCreateRequest, merchant, balance))));
+            } catch (TransactionValidationException e) {
+                results.add(TransactionBatchItemResult.failed(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Convert a transaction to a DTO named by the {@link NomenclatureRegistry}.
+     *
+     * @param transaction The transaction.
+     * @return A new TransactionDto instance.
+     */
+    private TransactionDto toDto(final Transaction transaction) {
+        return TransactionDtoMapper.toDto(transaction, nomenclatureRegistry);
+    }
+
+    /**
+     * Create a new transaction of a merchant.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param merchant                 The merchant to which to associate the created transaction.
+     * @param balance                  (optional) In-memory balance of the merchant used within a batch. If empty,
+     *                                 the merchant's total transaction sum is read from the ledger.
+     * @return The saved transaction.
+     */
+    private Transaction createTransaction(final TransactionCreateRequest transactionCreateRequest,
+                                          final Merchant merchant, @Nullable final RunningBalance balance) {
         Transaction transaction = new Transaction();
         transaction.setCustomerEmail(transactionCreateRequest.getCustomerEmail());
         transaction.setReferenceId(transactionCreateRequest.getReferenceId());
         transaction.setCustomerPhone(transactionCreateRequest.getCustomerPhone());
         transaction.setAmount(transactionCreateRequest.getAmount());
-        transaction.setType(transactionTypeRepository.getReferenceById(transactionCreateRequest.getTypeId()));
+        transaction.setType(TransactionType.TYPE.findById(transactionCreateRequest.getTypeId()).orElseThrow(
+                () -> new TransactionValidationException(
+                        "Transaction type [" + transactionCreateRequest.getTypeId() + "] does not exist.")));
+        rejectMissingProperties(transactionCreateRequest, transaction.getType());
         transaction.setMerchant(merchant);
 
-        if (!MerchantStatusType.STATUS.ACTIVE.toString().equals(merchant.getStatus().getId())) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
+        if (merchant.getStatus() != MerchantStatusType.STATUS.ACTIVE) {
+            transaction.setStatus(ERROR);
             transaction.setErrorReason(ERROR_MESSAGE_MERCHANT_NOT_ACTIVE);
-            return TransactionDtoMapper.toDto(transactionRepository.saveAndFlush(transaction));
+            return saveTransaction(transaction, balance);
         }
-        if (TransactionType.TYPE.AUTHORIZE.toString().equals(transaction.getType().getId())) {
+        if (transaction.getType() == TransactionType.TYPE.AUTHORIZE) {
             processAuthTransaction(transactionCreateRequest, transaction);
-        } else if (TransactionType.TYPE.CHARGE.toString().equals(transaction.getType().getId())) {
-            processChargeTransaction(transactionCreateRequest, transaction);
-        } else if (TransactionType.TYPE.REFUND.toString().equals(transaction.getType().getId())) {
-            processRefundTransaction(transactionCreateRequest, transaction);
-        } else if (TransactionType.TYPE.REVERSAL.toString().equals(transaction.getType().getId())) {
+        } else if (transaction.getType() == TransactionType.TYPE.CHARGE) {
+            processChargeTransaction(transactionCreateRequest, transaction, balance);
+        } else if (transaction.getType() == TransactionType.TYPE.REFUND) {
+            processRefundTransaction(transactionCreateRequest, transaction, balance);
+        } else if (transaction.getType() == TransactionType.TYPE.REVERSAL) {
             processReversalTransaction(transactionCreateRequest, transaction);
         }
-        return TransactionDtoMapper.toDto(transactionRepository.saveAndFlush(transaction));
+        return saveTransaction(transaction, balance);
     }
 
-    private void processAuthTransaction(final TransactionCreateRequest transactionCreateRequest,
-                                        final Transaction transaction) {
-
-        transaction.setStatus(transactionStatusTypeRepository.getReferenceById(APPROVED.toString()));
+    /**
+     * Save a created transaction and append its change of the merchant's total transaction sum to the ledger. The
+     * ledger entry refers to the transaction ID, which is generated when the transaction is saved. Within a batch,
+     * either of {@link #addBatch} or of the {@link TransactionGroupCommitter}, the insert is not flushed immediately,
+     * so that the inserts of the batch are sent together using JDBC batching.
+     *
+     * @param transaction The transaction to save.
+     * @param balance     (optional) In-memory balance of the merchant, present within a batch.
+     * @return The saved transaction.
+     */
+    private Transaction saveTransaction(final Transaction transaction, @Nullable final RunningBalance balance) {
+        Transaction savedTransaction = balance != null || TransactionGroupCommitter.isInBatch()
+                ? transactionRepository.save(transaction) : transactionRepository.saveAndFlush(transaction);
+        merchantBalanceService.append(savedTransaction);
+        addAfterCommit(savedTransaction);
+        return savedTransaction;
     }
 
-    private void processChargeTransaction(final TransactionCreateRequest transactionCreateRequest,
-                                          final Transaction transaction) {
-
-        Merchant merchant = merchantRepository.lockById(transaction.getMerchant().getId()).orElseThrow(
-                () -> new TransactionValidationException(
-                        "Merchant with ID [" + transaction.getMerchant().getId() + "] does not exist"));
+    /**
+     * Find the IDs of the transactions whose customer contact detail contains a value.
+     *
+     * @param property The property of the customer contact detail.
+     * @param value    The searched value.
+     * @return The IDs of the matching transactions, empty if the search must be done in SQL.
+     */
+    private Optional<Set<UUID>> findContaining(final String property, final String value) {
+        return customerTextIndex.findContaining(property, value);
+    }
 
-        transaction.setStatus(transactionStatusTypeRepository.getReferenceById(APPROVED.toString()));
+    /**
+     * Reject a reference ID already used by an existing transaction. The database is queried only if the reference
+     * ID is possibly used according to the {@link ReferenceIdFilter}.
+     *
+     * @param referenceId (optional) The reference ID of a new transaction.
+     * @throws TransactionValidationException If the reference ID is already used.
+     */
+    private void rejectUsedReferenceId(@Nullable final String referenceId) {
+        if (referenceId != null && mightBeUsed(referenceId)
+                && transactionRepository.existsByReferenceId(referenceId)) {
+            throw new TransactionValidationException(
+                    "Transaction with reference ID [" + referenceId + "] already exists.");
+        }
+    }
 
-        merchant.setTotalTransactionSum(merchant.getTotalTransactionSum().add(transaction.getAmount()));
-        merchantRepository.save(merchant);
+    /**
+     * Check whether a reference ID is possibly used, either according to the {@link ReferenceIdFilter} or by a
+     * transaction saved in the current database transaction.
+     *
+     * @param referenceId The reference ID.
+     * @return {@literal false} if the reference ID is certainly not used.
+     */
+    private boolean mightBeUsed(final String referenceId) {
+        Object pending = TransactionSynchronizationManager.getResource(PENDING_COMMIT);
+        return referenceIdFilter.mightContain(referenceId)
+                || (pending instanceof PendingCommit pendingCommit
+                && pendingCommit.referenceIds().contains(referenceId));
     }
 
+    /**
+     * Add a saved transaction to the {@link ReferenceIdFilter} and the {@link CustomerTextIndex} when the current
+     * database transaction commits, so that a rolled back transaction leaves no trace in them. Until then the
+     * transaction is kept with the database transaction. Without a database transaction it is added immediately.
+     *
+     * @param transaction The saved transaction.
+     */
+    private void addAfterCommit(final Transaction transaction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addCommitted(transaction);
+            return;
+        }
+        PendingCommit pending = (PendingCommit) TransactionSynchronizationManager.getResource(PENDING_COMMIT);
+        if (pending == null) {
+            PendingCommit pendingCommit = new PendingCommit(new HashSet<>(), new ArrayList<>());
+            TransactionSynchronizationManager.bindResource(PENDING_COMMIT, pendingCommit);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(PENDING_COMMIT);
+                }
 
-    private void processRefundTransaction(final TransactionCreateRequest transactionCreateRequest,
-                                          final Transaction transaction) {
-        UUID chargeTransactionId = Objects.requireNonNull(transactionCreateRequest.getBelongsToTransactionId(),
-                "Property [belongsToTransactionId] is required for transaction type " + transaction.getType().getId());
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(PENDING_COMMIT, pendingCommit);
+                }
 
-        Transaction chargeTransaction = transactionRepository.lockById(chargeTransactionId).orElseThrow(
-                () -> new TransactionValidationException(
-                        "Transaction with ID [" + chargeTransactionId + "] does not exist."));
+                @Override
+                public void afterCommit() {
+                    pendingCommit.transactions().forEach(it -> addCommitted(it));
+                }
 
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_COMMIT);
+                }
+            });
+            pending = pendingCommit;
+        }
+        if (transaction.getReferenceId() != null) {
+            pending.referenceIds().add(transaction.getReferenceId());
+        }
+        pending.transactions().add(transaction);
+    }
 
-        if (!transaction.getMerchant().getId().equals(chargeTransaction.getMerchant().getId())) {
-            throw new TransactionValidationException(ERROR_MESSAGE_TRANSACTION_BELONGS_ANOTHER_MERCHANT);
+    /**
+     * Add a committed transaction to the {@link ReferenceIdFilter} and the {@link CustomerTextIndex}.
+     *
+     * @param transaction The committed transaction.
+     */
+    private void addCommitted(final Transaction transaction) {
+        if (transaction.getReferenceId() != null) {
+            referenceIdFilter.put(transaction.getReferenceId());
         }
-        if (!chargeTransaction.getType().getId().equals(TransactionType.TYPE.CHARGE.toString())) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
-            transaction.setErrorReason(ERROR_REASON_CANNOT_REFUND_TRANSACTION_OF_TYPE
-                    + chargeTransaction.getType().getId());
-            return;
+        customerTextIndex.put(transaction.getId(), transaction.getCreatedDate(), transaction.getCustomerEmail(),
+                transaction.getCustomerPhone());
+    }
+
+    /**
+     * Reject a transaction missing a property required by its type. Within a batch the transaction fails on its own
+     * instead of failing the whole batch.
+     *
+     * @param transactionCreateRequest The transaction data.
+     * @param type                     The transaction type.
+     * @throws TransactionValidationException If a required property is missing.
+     */
+    private static void rejectMissingProperties(final TransactionCreateRequest transactionCreateRequest,
+                                                final TransactionType.TYPE type) {
+        if ((type == TransactionType.TYPE.REFUND || type == TransactionType.TYPE.REVERSAL)
+                && transactionCreateRequest.getBelongsToTransactionId() == null) {
+            throw new TransactionValidationException(
+                    "Property [belongsToTransactionId] is required for transaction type " + type.name());
+        }
+        if ((type == TransactionType.TYPE.CHARGE || type == TransactionType.TYPE.REFUND)
+                && transactionCreateRequest.getAmount() == null) {
+            throw new TransactionValidationException(
+                    "Property [amount] is required for transaction type " + type.name());
         }
+    }
 
-        if (!chargeTransaction.getStatus().getId().equals(APPROVED.toString())) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
-            transaction.setErrorReason(
-                    ERROR_REASON_CANNOT_REFUND_CHARGE_TRANSACTION_IN_STATUS + chargeTransaction.getStatus().getId());
+    /**
+     * Check that the total transaction sum of the merchant of a transaction is not less than its amount. Outside of a
+     * batch the merchant is locked until the end of the database transaction, the amount is subtracted by the
+     * ledger entry appended when the transaction is saved.
+     *
+     * @param transaction The transaction.
+     * @param balance     (optional) In-memory balance of the merchant to use instead of the total transaction sum.
+     * @return {@literal true} if the total transaction sum is sufficient, {@literal false} otherwise.
+     */
+    private boolean debitMerchant(final Transaction transaction, @Nullable final RunningBalance balance) {
+        if (balance != null) {
+            return balance.debit(transaction.getAmount());
+        }
+        return merchantBalanceService.lockIfSufficient(transaction.getMerchant(), transaction.getAmount());
+    }
 
-            return;
+    /**
+     * Load the parent transaction of a REFUND or REVERSAL transaction to find out why its conditional status update
+     * failed. A parent already loaded in the persistence context is refreshed, as the status update bypasses it.
+     *
+     * @param id The ID of the parent transaction.
+     * @return The parent transaction, empty if it does not exist.
+     */
+    private Optional<Transaction> findParentTransaction(final UUID id) {
+        Optional<Transaction> parentTransaction = transactionRepository.findById(id);
+        parentTransaction.filter(entityManager::contains).ifPresent(entityManager::refresh);
+        return parentTransaction;
+    }
+
+    private void processAuthTransaction(final TransactionCreateRequest transactionCreateRequest,
+                                        final Transaction transaction) {
+
+        transaction.setStatus(APPROVED);
+    }
+
+    private void processChargeTransaction(final TransactionCreateRequest transactionCreateRequest,
+                                          final Transaction transaction, @Nullable final RunningBalance balance) {
+
+        if (balance != null) {
+            balance.credit(transaction.getAmount());
         }
 
-        if (chargeTransaction.getAmount().compareTo(transaction.getAmount()) < 0) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
-            transaction.setErrorReason(ERROR_REASON_REFUND_TRANSACTION_AMOUNT_GREATER_THAN_CHARGED);
+        transaction.setStatus(APPROVED);
+    }
 
+
+    private void processRefundTransaction(final TransactionCreateRequest transactionCreateRequest,
+                                          final Transaction transaction, @Nullable final RunningBalance balance) {
+        UUID chargeTransactionId = transactionCreateRequest.getBelongsToTransactionId();
+        Long merchantId = transaction.getMerchant().getId();
+
+        // The merchant, type, status and amount of the CHARGE transaction are checked by a conditional UPDATE
+        // statement, the CHARGE transaction is loaded only to find out why the update failed
+        if (transactionRepository.updateStatusIfAmountAtLeast(chargeTransactionId, merchantId,
+                TransactionType.TYPE.CHARGE, APPROVED, transaction.getAmount(), REFUNDED, ZonedDateTime.now()) == 0) {
+            rejectRefundTransaction(transaction, chargeTransactionId);
             return;
         }
 
-        Merchant merchant = merchantRepository.lockById(transaction.getMerchant().getId()).orElseThrow(
-                () -> new TransactionValidationException(
-                        "Merchant with ID [" + transaction.getMerchant().getId() + "] does not exist"));
-
-        if (merchant.getTotalTransactionSum().compareTo(transaction.getAmount()) < 0) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
+        if (!debitMerchant(transaction, balance)) {
+            transactionRepository.updateStatus(chargeTransactionId, merchantId, TransactionType.TYPE.CHARGE, REFUNDED,
+                    APPROVED, ZonedDateTime.now());
+            transaction.setStatus(ERROR);
             transaction.setErrorReason(ERROR_REASON_REFUND_TRANSACTION_AMOUNT_GREATER_THAN_MERCHANT_TOTAL_SUM);
 
             return;
         }
 
-        chargeTransaction.setStatus(transactionStatusTypeRepository.getReferenceById(REFUNDED.toString()));
-        transactionRepository.save(chargeTransaction);
+        transaction.setStatus(APPROVED);
+    }
 
-        transaction.setStatus(transactionStatusTypeRepository.getReferenceById(APPROVED.toString()));
-        transactionRepository.save(transaction);
+    private void rejectRefundTransaction(final Transaction transaction, final UUID chargeTransactionId) {
+        Transaction chargeTransaction = findParentTransaction(chargeTransactionId).orElseThrow(
+                () -> new TransactionValidationException(
+                        "Transaction with ID [" + chargeTransactionId + "] does not exist."));
 
-        merchant.setTotalTransactionSum(merchant.getTotalTransactionSum().subtract(transaction.getAmount()));
-        merchantRepository.save(merchant);
+        if (!transaction.getMerchant().getId().equals(chargeTransaction.getMerchant().getId())) {
+            throw new TransactionValidationException(ERROR_MESSAGE_TRANSACTION_BELONGS_ANOTHER_MERCHANT);
+        }
 
+        transaction.setStatus(ERROR);
+        if (chargeTransaction.getType() != TransactionType.TYPE.CHARGE) {
+            transaction.setErrorReason(ERROR_REASON_CANNOT_REFUND_TRANSACTION_OF_TYPE
+                    + chargeTransaction.getType().name());
+        } else if (chargeTransaction.getStatus() != APPROVED) {
+            transaction.setErrorReason(
+                    ERROR_REASON_CANNOT_REFUND_CHARGE_TRANSACTION_IN_STATUS + chargeTransaction.getStatus().name());
+        } else {
+            transaction.setErrorReason(ERROR_REASON_REFUND_TRANSACTION_AMOUNT_GREATER_THAN_CHARGED);
+        }
     }
 
     private void processReversalTransaction(final TransactionCreateRequest transactionCreateRequest,
                                             final Transaction transaction) {
 
-        UUID chargeTransactionId = Objects.requireNonNull(transactionCreateRequest.getBelongsToTransactionId(),
-                "Property [belongsToTransactionId] is required for transaction type " + transaction.getType().getId());
+        UUID authTransactionId = transactionCreateRequest.getBelongsToTransactionId();
+
+        // The merchant, type and status of the AUTHORIZE transaction are checked by a conditional UPDATE statement,
+        // the AUTHORIZE transaction is loaded only to find out why the update failed
+        if (transactionRepository.updateStatus(authTransactionId, transaction.getMerchant().getId(),
+                TransactionType.TYPE.AUTHORIZE, APPROVED, REVERSED, ZonedDateTime.now()) == 0) {
+            rejectReversalTransaction(transaction, authTransactionId);
+            return;
+        }
+
+        transaction.setAmount(null); // Reversals do not have amount
+        transaction.setStatus(APPROVED);
+    }
 
-        Transaction authTransaction = transactionRepository.lockById(chargeTransactionId).orElseThrow(
+    private void rejectReversalTransaction(final Transaction transaction, final UUID authTransactionId) {
+        Transaction authTransaction = findParentTransaction(authTransactionId).orElseThrow(
                 () -> new TransactionValidationException(
-                        "Transaction with ID [ " + chargeTransactionId + "] does not exist."));
+                        "Transaction with ID [ " + authTransactionId + "] does not exist."));
 
         if (!transaction.getMerchant().getId().equals(authTransaction.getMerchant().getId())) {
             throw new TransactionValidationException(ERROR_MESSAGE_TRANSACTION_BELONGS_ANOTHER_MERCHANT);
         }
 
-        if (!authTransaction.getType().getId().equals(TransactionType.TYPE.AUTHORIZE.toString())) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
+        transaction.setStatus(ERROR);
+        if (authTransaction.getType() != TransactionType.TYPE.AUTHORIZE) {
             transaction.setErrorReason(ERROR_REASON_CANNOT_REVERSE_TRANSACTION_OF_TYPE
-                    + authTransaction.getType().getId());
-            return;
+                    + authTransaction.getType().name());
+        } else {
+            transaction.setErrorReason(
+                    ERROR_REASON_CANNOT_REVERSE_AUTHORIZE_TRANSACTION_IN_STATUS + authTransaction.getStatus().name());
         }
+    }
 
-        if (!authTransaction.getStatus().getId().equals(APPROVED.toString())) {
-            transaction.setStatus(transactionStatusTypeRepository.getReferenceById(ERROR.toString()));
-            transaction.setErrorReason(
-                    ERROR_REASON_CANNOT_REVERSE_AUTHORIZE_TRANSACTION_IN_STATUS + authTransaction.getStatus().getId());
-            return;
+    /**
+     * Transactions saved in the current database transaction, waiting for it to commit.
+     *
+     * @param referenceIds The reference IDs of the transactions.
+     * @param transactions The transactions.
+     */
+    private record PendingCommit(Set<String> referenceIds, List<Transaction> transactions) {
+    }
+
+    /**
+     * In-memory balance of a merchant locked for the duration of a batch, so that the ledger is read only once per
+     * batch.
+     */
+    private static final class RunningBalance {
+
+        /**
+         * Current balance including the changes of the batch.
+         */
+        private BigDecimal balance;
+
+        /**
+         * Constructor with the balance at the start of the batch.
+         *
+         * @param balance The balance at the start of the batch.
+         */
+        RunningBalance(final BigDecimal balance) {
+            this.balance = balance;
         }
 
-        transaction.setAmount(null); // Reversals do not have amount
-        authTransaction.setStatus(transactionStatusTypeRepository.getReferenceById(REVERSED.toString()));
-        transactionRepository.save(authTransaction);
+        /**
+         * Add an amount to the balance.
+         *
+         * @param amount The amount to add.
+         */
+        void credit(final BigDecimal amount) {
+            balance = balance.add(amount);
+        }
 
-        transaction.setStatus(transactionStatusTypeRepository.getReferenceById(APPROVED.toString()));
+        /**
+         * Subtract an amount from the balance, provided the balance is not less than the amount.
+         *
+         * @param amount The amount to subtract.
+         * @return {@literal true} if the amount was subtracted, {@literal false} otherwise.
+         */
+        boolean debit(final BigDecimal amount) {
+            if (balance.compareTo(amount) < 0) {
+                return false;
+            }
+            balance = balance.subtract(amount);
+            return true;
+        }
     }
 }
@@ -0,0 +1,45 @@
+package com.example.empay.service.transaction.search;
+
+import com.example.empay.dto.mapper.TransactionStatusTypeDtoMapper;
+import com.example.empay.dto.mapper.TransactionTypeDtoMapper;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.service.search.SearchProjection;
+
+import java.util.function.Supplier;
+
+/**
+ * Projection of the transaction search results to a subset of the properties of
+ * {@link com.example.empay.dto.transaction.TransactionDto}. Only the merchant name requires a join, the merchant ID
+ * is read from the foreign key column.
+ */
+public class TransactionProjection extends SearchProjection<Transaction> {
+
+    /**
+     * Sole constructor.
+     *
+     * @param nomenclatureRegistry Supplies the registry naming the type and status when a result is read.
+     */
+    public TransactionProjection(final Supplier<NomenclatureRegistry> nomenclatureRegistry) {
+        super(Transaction.class);
+        property("id", (root, cb) -> root.get("id"));
+        property("typeId", (root, cb) -> root.get("type"), it -> ((TransactionType.TYPE) it).name());
+        property("type", (root, cb) -> root.get("type"),
+                it -> TransactionTypeDtoMapper.toDto((TransactionType.TYPE) it, nomenclatureRegistry.get()));
+        property("amount", (root, cb) -> root.get("amount"));
+        property("customerEmail", (root, cb) -> root.get("customerEmail"));
+        property("customerPhone", (root, cb) -> root.get("customerPhone"));
+        property("status", (root, cb) -> root.get("status"),
+                it -> TransactionStatusTypeDtoMapper.toDto((TransactionStatusType.TYPE) it,
+                        nomenclatureRegistry.get()));
+        property("referenceId", (root, cb) -> root.get("referenceId"));
+        property("merchantId", (root, cb) -> root.get("merchant").get("id"));
+        property("merchantName", (root, cb) -> root.join("merchant").get("name"));
+        property("errorReason", (root, cb) -> root.get("errorReason"));
+        property("createdDate", (root, cb) -> root.get("createdDate"));
+        property("lastModifiedDate", (root, cb) -> root.get("lastModifiedDate"));
+        property("version", (root, cb) -> root.get("version"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.empay.service.transaction.search;
+
+import com.example.empay.controller.search.SearchOperation;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.service.search.SearchPlanCompiler;
+import com.example.empay.util.SearchText;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiles the search criteria of transaction searches, including the properties of the associations of a
+ * transaction.
+ */
+public class TransactionSearchPlanCompiler extends SearchPlanCompiler<Transaction> {
+    /**
+     * Constant for the merchant ID property.
+     */
+    private static final String PROPERTY_MERCHANT_ID = "merchantId";
+    /**
+     * Constant for the merchant property.
+     */
+    private static final String PROPERTY_MERCHANT = "merchant";
+    /**
+     * Constant for the ID property of an association.
+     */
+    private static final String PROPERTY_ID = "id";
+    /**
+     * Constant for the status ID property.
+     */
+    private static final String PROPERTY_STATUS_TYPE_ID = "status.id";
+    /**
+     * Constant for the status property.
+     */
+    private static final String PROPERTY_STATUS = "status";
+    /**
+     * Constant for the transaction type ID property.
+     */
+    private static final String PROPERTY_TYPE_ID = "type.id";
+    /**
+     * Constant for the transaction type property.
+     */
+    private static final String PROPERTY_TYPE = "type";
+    /**
+     * Constant for the customer email property.
+     */
+    private static final String PROPERTY_CUSTOMER_EMAIL = "customerEmail";
+    /**
+     * Constant for the customer phone property.
+     */
+    private static final String PROPERTY_CUSTOMER_PHONE = "customerPhone";
+
+    /**
+     * Create a compiler searching the customer contact details by substring in SQL.
+     */
+    public TransactionSearchPlanCompiler() {
+        this((property, value) -> Optional.empty());
+    }
+
+    /**
+     * Create a compiler resolving a search of the customer contact details by substring to transaction IDs if
+     * possible.
+     *
+     * @param containing Finds the IDs of the transactions whose property, the first argument, contains a value, the
+     *                   second argument. Returns an empty optional if the search must be done in SQL.
+     */
+    public TransactionSearchPlanCompiler(final BiFunction<String, String, Optional<Set<UUID>>> containing) {
+        super(Transaction.class);
+
+        // The merchant is compared by its foreign key, without a join
+        Function<Object, Long> merchantId = value -> Long.valueOf(value.toString());
+        property(PROPERTY_MERCHANT_ID, SearchOperation.EQUAL, merchantId,
+                (root, cb, value, value2) -> cb.equal(root.get(PROPERTY_MERCHANT).get(PROPERTY_ID), value));
+        property(PROPERTY_MERCHANT_ID, SearchOperation.NOT_EQUAL, merchantId,
+                (root, cb, value, value2) -> cb.notEqual(root.get(PROPERTY_MERCHANT).get(PROPERTY_ID), value));
+        listProperty(PROPERTY_MERCHANT_ID, SearchOperation.IN, merchantId,
+                (root, cb, value, value2) -> root.get(PROPERTY_MERCHANT).get(PROPERTY_ID).in(value));
+        listProperty(PROPERTY_MERCHANT_ID, SearchOperation.NOT_IN, merchantId,
+                (root, cb, value, value2) -> cb.not(root.get(PROPERTY_MERCHANT).get(PROPERTY_ID).in(value)));
+
+        // A status or a type that does not exist matches no transaction
+        Function<Object, Optional<TransactionStatusType.TYPE>> status =
+                value -> TransactionStatusType.TYPE.findById(value.toString());
+        property(PROPERTY_STATUS_TYPE_ID, SearchOperation.EQUAL, status, (root, cb, value, value2) ->
+                value.map(it -> cb.equal(root.get(PROPERTY_STATUS), it)).orElseGet(cb::disjunction));
+        property(PROPERTY_STATUS_TYPE_ID, SearchOperation.NOT_EQUAL, status, (root, cb, value, value2) ->
+                value.map(it -> cb.notEqual(root.get(PROPERTY_STATUS), it)).orElseGet(cb::conjunction));
+        listProperty(PROPERTY_STATUS_TYPE_ID, SearchOperation.IN, status, (root, cb, value, value2) -> {
+            List<TransactionStatusType.TYPE> statuses = present(value);
+            return statuses.isEmpty() ? cb.disjunction() : root.get(PROPERTY_STATUS).in(statuses);
+        });
+        listProperty(PROPERTY_STATUS_TYPE_ID, SearchOperation.NOT_IN, status, (root, cb, value, value2) -> {
+            List<TransactionStatusType.TYPE> statuses = present(value);
+            return statuses.isEmpty() ? cb.conjunction() : cb.not(root.get(PROPERTY_STATUS).in(statuses));
+        });
+
+        Function<Object, Optional<TransactionType.TYPE>> type =
+                value -> TransactionType.TYPE.findById(value.toString());
+        property(PROPERTY_TYPE_ID, SearchOperation.EQUAL, type, (root, cb, value, value2) ->
+                value.map(it -> cb.equal(root.get(PROPERTY_TYPE), it)).orElseGet(cb::disjunction));
+        property(PROPERTY_TYPE_ID, SearchOperation.NOT_EQUAL, type, (root, cb, value, value2) ->
+                value.map(it -> cb.notEqual(root.get(PROPERTY_TYPE), it)).orElseGet(cb::conjunction));
+        listProperty(PROPERTY_TYPE_ID, SearchOperation.IN, type, (root, cb, value, value2) -> {
+            List<TransactionType.TYPE> types = present(value);
+            return types.isEmpty() ? cb.disjunction() : root.get(PROPERTY_TYPE).in(types);
+        });
+        listProperty(PROPERTY_TYPE_ID, SearchOperation.NOT_IN, type, (root, cb, value, value2) -> {
+            List<TransactionType.TYPE> types = present(value);
+            return types.isEmpty() ? cb.conjunction() : cb.not(root.get(PROPERTY_TYPE).in(types));
+        });
+
+        // A search by substring matching few transactions selects them by ID instead of scanning the table
+        for (String property : List.of(PROPERTY_CUSTOMER_EMAIL, PROPERTY_CUSTOMER_PHONE)) {
+            Function<Object, Containing> containingValue = value -> new Containing(
+                    SearchText.normalize(value.toString()), containing.apply(property, value.toString()));
+            property(property, SearchOperation.CONTAINS, containingValue, (root, cb, value, value2) ->
+                    value.ids().map(ids -> ids.isEmpty() ? cb.disjunction() : root.get(PROPERTY_ID).in(ids))
+                            .orElseGet(() -> cb.like(root.get(property + SearchText.SUFFIX_LOWER),
+                                    "%" + value.value() + "%")));
+        }
+    }
+
+    /**
+     * The parsed value of a search by substring.
+     *
+     * @param value The normalized search value.
+     * @param ids   The IDs of the matching transactions, empty if the search is done in SQL.
+     */
+    private record Containing(String value, Optional<Set<UUID>> ids) {
+    }
+}
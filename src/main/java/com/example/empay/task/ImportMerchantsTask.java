@@ -1,6 +1,7 @@
 package com.example.empay.task;
 
 import com.example.empay.dto.merchant.MerchantDto;
+import com.example.empay.exception.MerchantValidationException;
 import com.example.empay.service.merchant.MerchantsImportService;
 import com.example.empay.service.merchant.impl.MerchantImportException;
 import com.example.empay.util.Constants;
@@ -123,6 +124,10 @@ public class ImportMerchantsTask implements CommandLineRunner {
                         e.getDataRecordIndex() + 1);
 
                 log.error("Transaction has been rolled-back, no database changes were made.");
+            } else if (e.getCause() instanceof MerchantValidationException) {
+                log.error("Error while importing CSV line [{}]: {}", e.getDataRecordIndex() + 1,
+                        e.getCause().getMessage());
+                log.error("Transaction has been rolled-back, no database changes were made.");
             } else if (e.getCause() instanceof jakarta.validation.ConstraintViolationException) {
                 jakarta.validation.ConstraintViolationException cvEx =
                         (jakarta.validation.ConstraintViolationException) e.getCause();
@@ -159,11 +164,6 @@ public class ImportMerchantsTask implements CommandLineRunner {
         Objects.requireNonNull(merchantDto, "Argument [merchantDto] cannot be null.");
         if (e.getCause() instanceof org.hibernate.exception.ConstraintViolationException) {
             org.hibernate.exception.ConstraintViolationException cve = (ConstraintViolationException) e.getCause();
-            if (Constants.FK_MERCHANT_STATUS_ID.equals(cve.getConstraintName())) {
-                return "Invalid merchant status: "
-                        + (merchantDto.getStatus() != null ? merchantDto.getStatus().getId() : null);
-            }
-
             if (Constants.FK_MERCHANT_IDENT_TYPE_ID.equals(cve.getConstraintName())) {
                 return String.format("Identifier type [%s] is not valid.",
                         merchantDto.getIdentifierType() != null ? merchantDto.getIdentifierType().getId() : null);
@@ -19,10 +19,6 @@ public final class Constants {
      * Database index on table MERCHANT column EMAIL.
      */
     public static final String IDX_MERCHANT_EMAIL = "IDX_MERCHANT_EMAIL";
-    /**
-     * Database foreign key on table MERCHANT column STATUS_ID.
-     */
-    public static final String FK_MERCHANT_STATUS_ID = "FK_MERCHANT_STATUS_ID";
     /**
      * Database foreign key on table MERCHANT column IDENTITY_TYPE_ID.
      */
@@ -32,13 +28,13 @@ public final class Constants {
      */
     public static final String IDX_MERCHANT_IDENT = "IDX_MERCHANT_IDENT";
     /**
-     * Database index on table TRANSACTION column STATUS_ID.
+     * Database index on table MERCHANT_LEDGER_ENTRY columns MERCHANT_ID and SNAPSHOT_ID.
      */
-    public static final String FK_TRANSACTION_STATUS_ID = "FK_TRANS_STATUS_ID";
+    public static final String IDX_MERCHANT_LEDGER_ENTRY_MERCHANT_SNAPSHOT = "IDX_MERCH_LEDGER_MERCH_SNAP";
     /**
-     * Database index on table TRANSACTION column TYPE_ID.
+     * Database index on table MERCHANT_LEDGER_SNAPSHOT column MERCHANT_ID.
      */
-    public static final String FK_TRANSACTION_TYPE_ID = "FK_TRANS_TYPE_ID";
+    public static final String IDX_MERCHANT_LEDGER_SNAPSHOT_MERCHANT = "IDX_MERCH_LEDGER_SNAP_MERCH";
     /**
      * Database foreign key on table TRANSACTION column MERCHANT_ID.
      */
@@ -61,6 +57,31 @@ public final class Constants {
      */
     public static final String ROLE_MERCHANT = "ROLE_" + RoleType.TYPE.MERCHANT;
 
+    /**
+     * Second-level cache region of merchants.
+     */
+    public static final String CACHE_REGION_MERCHANT = "merchant";
+    /**
+     * Second-level cache region of user logins.
+     */
+    public static final String CACHE_REGION_USER_LOGIN = "userLogin";
+    /**
+     * Second-level cache region resolving usernames to user login IDs.
+     */
+    public static final String CACHE_REGION_USER_LOGIN_NATURAL_ID = "userLoginNaturalId";
+    /**
+     * Second-level cache region of the nomenclature entities.
+     */
+    public static final String CACHE_REGION_NOMENCLATURE = "nomenclature";
+    /**
+     * Second-level cache region of cacheable query results.
+     */
+    public static final String CACHE_REGION_QUERY = "default-query-results-region";
+    /**
+     * Second-level cache region of the last update timestamps of the tables, used to invalidate query results.
+     */
+    public static final String CACHE_REGION_UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
     /**
      * Constant for length of properties and columns containing a name.
      */
@@ -93,6 +114,10 @@ public final class Constants {
      * Constant for length of properties and columns containing an ID of a nomenclature entity/table.
      */
     public static final int LENGTH_NOMENCLATURE_ID = 10;
+    /**
+     * Constant for length of columns containing a code of a nomenclature entity/table.
+     */
+    public static final int LENGTH_NOMENCLATURE_CODE = 1;
     /**
      * Constant for length of properties and columns containing a name of a nomenclature entity..
      */
@@ -0,0 +1,43 @@
+package com.example.empay.util;
+
+import java.util.Locale;
+
+/**
+ * Normalization of searchable text properties. A searchable text property {@code x} of an entity can be shadowed by
+ * the persistent properties {@code xLower}, holding the normalized value, and {@code xReversed}, holding the reversed
+ * normalized value. The searches then compare the indexed shadow columns with a normalized pattern instead of
+ * applying {@code lower()} to every row, and search by suffix as a search by prefix of the reversed value.
+ */
+public final class SearchText {
+    private SearchText() {
+    }
+
+    /**
+     * Suffix of the name of the property holding the normalized value of a text property.
+     */
+    public static final String SUFFIX_LOWER = "Lower";
+    /**
+     * Suffix of the name of the property holding the reversed normalized value of a text property.
+     */
+    public static final String SUFFIX_REVERSED = "Reversed";
+
+    /**
+     * Normalize a text value for case-insensitive searches.
+     *
+     * @param value The value.
+     * @return The lower-cased value, {@literal null} for a {@literal null} value.
+     */
+    public static String normalize(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalize and reverse a text value for case-insensitive searches by suffix.
+     *
+     * @param value The value.
+     * @return The reversed lower-cased value, {@literal null} for a {@literal null} value.
+     */
+    public static String reverse(final String value) {
+        return value == null ? null : new StringBuilder(normalize(value)).reverse().toString();
+    }
+}
@@ -1,62 +1,62 @@
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (1, 'Demo Merchant 1', 'merchant1@test.com', 'ACTIVE', 'EIK_BG', '1234567890', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (1, 'Demo Merchant 1', 'merchant1@test.com', 'A', 'EIK_BG', '1234567890', 0, 1, CURRENT_TIMESTAMP, 'demo merchant 1', '1 tnahcrem omed', 'merchant1@test.com', 'moc.tset@1tnahcrem');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (2, 'merchant1', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 1, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (2, 'Nike', 'contact@nike.com', 'ACTIVE', 'CORPNUM_US', '2222222222', 7153.01, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (2, 'Nike', 'contact@nike.com', 'A', 'CORPNUM_US', '2222222222', 7153.01, 1, CURRENT_TIMESTAMP, 'nike', 'ekin', 'contact@nike.com', 'moc.ekin@tcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (3, 'nike', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 2, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 -- UUID: 6f683d71-dbcc-41ed-b552-51130c00852c
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('6F683D71DBCC41EDB55251130C00852C', 'CHARGE', '6631.56', 'APPROVED', 2, 'john.smith@yahoo.com', '+1235234234', 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('6F683D71DBCC41EDB55251130C00852C', 'C', '6631.56', 'A', 2, 'john.smith@yahoo.com', '+1235234234', 1, CURRENT_TIMESTAMP, 'john.smith@yahoo.com', 'moc.oohay@htims.nhoj', '+1235234234', '4324325321+');
 -- UUID: 0f81c8a6-0427-41bd-b126-3c7779a1f7eb
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('0F81C8A6042741BDB1263C7779A1F7EB', 'CHARGE', '100.23', 'APPROVED', 2, 'arnold.schwartzenegger@gmail.com', NULL, 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('0F81C8A6042741BDB1263C7779A1F7EB', 'C', '100.23', 'A', 2, 'arnold.schwartzenegger@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'arnold.schwartzenegger@gmail.com', 'moc.liamg@reggeneztrawhcs.dlonra', NULL, NULL);
 -- UUID: 76a80e9f-41a2-407e-969c-71de8cdc397f	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('76A80E9F41A2407E969C71DE8CDC397F', 'CHARGE', '421.22', 'APPROVED', 2, 'john.rambo@abv.bg', '08881223412345', 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('76A80E9F41A2407E969C71DE8CDC397F', 'C', '421.22', 'A', 2, 'john.rambo@abv.bg', '08881223412345', 1, CURRENT_TIMESTAMP, 'john.rambo@abv.bg', 'gb.vba@obmar.nhoj', '08881223412345', '54321432218880');
 -- UUID: cab88261-8e18-4e5e-9cd2-2ade7ec7be59	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('CAB882618E184E5E9CD22ADE7EC7BE59', 'AUTHORIZE', '7756.22', 'REVERSED', 2, 'missy_eliot@dir.bg', NULL, 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('CAB882618E184E5E9CD22ADE7EC7BE59', 'A', '7756.22', 'V', 2, 'missy_eliot@dir.bg', NULL, 1, CURRENT_TIMESTAMP, 'missy_eliot@dir.bg', 'gb.rid@toile_yssim', NULL, NULL);
 -- UUID: 527bbfa7-a279-43b5-a445-5902141a9ab8	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, BELONGS_TO_TRANSACTION_ID) VALUES ('527BBFA7A27943B5A4455902141A9AB8', 'REVERSAL', NULL, 'APPROVED', 2, 'donald_duck@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'CAB882618E184E5E9CD22ADE7EC7BE59');	
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, BELONGS_TO_TRANSACTION_ID, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('527BBFA7A27943B5A4455902141A9AB8', 'V', NULL, 'A', 2, 'donald_duck@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'CAB882618E184E5E9CD22ADE7EC7BE59', 'donald_duck@gmail.com', 'moc.liamg@kcud_dlanod', NULL, NULL);	
 
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (3, 'Puma', 'merchants@puma.com', 'ACTIVE', 'CORPNUM_US', '3333333333', '57433.95', 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (3, 'Puma', 'merchants@puma.com', 'A', 'CORPNUM_US', '3333333333', '57433.95', 1, CURRENT_TIMESTAMP, 'puma', 'amup', 'merchants@puma.com', 'moc.amup@stnahcrem');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (4, 'puma', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 3, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 -- UUID: 9f0ed62f-8744-4147-892a-e3a891e867bb
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('9F0ED62F87444147892AE3A891E867BB', 'CHARGE', '52346.22', 'APPROVED', 3, 'john.smith@yahoo.com', '+1235234234', 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('9F0ED62F87444147892AE3A891E867BB', 'C', '52346.22', 'A', 3, 'john.smith@yahoo.com', '+1235234234', 1, CURRENT_TIMESTAMP, 'john.smith@yahoo.com', 'moc.oohay@htims.nhoj', '+1235234234', '4324325321+');
 -- UUID: fce36baf-ebad-4c24-88fa-3bf9ef7e32f6
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('FCE36BAFEBAD4C2488FA3BF9EF7E32F6', 'CHARGE', '775.42', 'APPROVED', 3, 'arnold.schwartzenegger@gmail.com', NULL, 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('FCE36BAFEBAD4C2488FA3BF9EF7E32F6', 'C', '775.42', 'A', 3, 'arnold.schwartzenegger@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'arnold.schwartzenegger@gmail.com', 'moc.liamg@reggeneztrawhcs.dlonra', NULL, NULL);
 -- UUID: db16eb61-e93e-400c-892b-9359f69768b4	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('DB16EB61E93E400C892B9359F69768B4', 'CHARGE', '4312.31', 'APPROVED', 3, 'john.rambo@abv.bg', '08881223412345', 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('DB16EB61E93E400C892B9359F69768B4', 'C', '4312.31', 'A', 3, 'john.rambo@abv.bg', '08881223412345', 1, CURRENT_TIMESTAMP, 'john.rambo@abv.bg', 'gb.vba@obmar.nhoj', '08881223412345', '54321432218880');
 -- UUID: ad26e531-8c56-4194-86f4-fea0236f04ab	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE) VALUES ('AD26E5318C56419486F4FEA0236F04AB', 'CHARGE', '25321.21', 'REFUNDED', 3, 'missy_eliot@dir.bg', NULL, 1, CURRENT_TIMESTAMP);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('AD26E5318C56419486F4FEA0236F04AB', 'C', '25321.21', 'R', 3, 'missy_eliot@dir.bg', NULL, 1, CURRENT_TIMESTAMP, 'missy_eliot@dir.bg', 'gb.rid@toile_yssim', NULL, NULL);
 -- UUID: d4013fa9-2cd2-4ec8-8c38-3e0c92316759	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, BELONGS_TO_TRANSACTION_ID) VALUES ('D4013FA92CD24EC88C383E0C92316759', 'REFUND', '25321.21', 'APPROVED', 3, 'donald_duck@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'AD26E5318C56419486F4FEA0236F04AB');	
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, CUSTOMER_EMAIL, CUSTOMER_PHONE, VERSION, CREATED_DATE, BELONGS_TO_TRANSACTION_ID, CUSTOMER_EMAIL_LOWER, CUSTOMER_EMAIL_REVERSED, CUSTOMER_PHONE_LOWER, CUSTOMER_PHONE_REVERSED) VALUES ('D4013FA92CD24EC88C383E0C92316759', 'R', '25321.21', 'A', 3, 'donald_duck@gmail.com', NULL, 1, CURRENT_TIMESTAMP, 'AD26E5318C56419486F4FEA0236F04AB', 'donald_duck@gmail.com', 'moc.liamg@kcud_dlanod', NULL, NULL);	
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (4, 'Adidas', 'contact@adidas.com', 'ACTIVE', 'CORPNUM_US', '4444444444', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (4, 'Adidas', 'contact@adidas.com', 'A', 'CORPNUM_US', '4444444444', 0, 1, CURRENT_TIMESTAMP, 'adidas', 'sadida', 'contact@adidas.com', 'moc.sadida@tcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (5, 'adidas', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 4, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (5, 'Reebok', 'john@reebok.com', 'ACTIVE', 'CORPNUM_US', '5555555555', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (5, 'Reebok', 'john@reebok.com', 'A', 'CORPNUM_US', '5555555555', 0, 1, CURRENT_TIMESTAMP, 'reebok', 'kobeer', 'john@reebok.com', 'moc.kobeer@nhoj');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (6, 'reebok', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 5, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (6, 'Asics', 'contacts@asics.com', 'ACTIVE', 'CORPNUM_US', '6666666666', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (6, 'Asics', 'contacts@asics.com', 'A', 'CORPNUM_US', '6666666666', 0, 1, CURRENT_TIMESTAMP, 'asics', 'scisa', 'contacts@asics.com', 'moc.scisa@stcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (7, 'asics', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 6, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (7, 'Sketchers', 'contact@sketchers.com', 'ACTIVE', 'CORPNUM_US', '7777777777', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (7, 'Sketchers', 'contact@sketchers.com', 'A', 'CORPNUM_US', '7777777777', 0, 1, CURRENT_TIMESTAMP, 'sketchers', 'srehcteks', 'contact@sketchers.com', 'moc.srehcteks@tcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (8, 'sketchers', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 7, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (8, 'Brooks', 'payments@brooks.com', 'ACTIVE', 'CORPNUM_US', '8888888888', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (8, 'Brooks', 'payments@brooks.com', 'A', 'CORPNUM_US', '8888888888', 0, 1, CURRENT_TIMESTAMP, 'brooks', 'skoorb', 'payments@brooks.com', 'moc.skoorb@stnemyap');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (9, 'brooks', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 8, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (9, 'On Running', 'contacts@onrunning.com', 'ACTIVE', 'CORPNUM_US', '9999999999', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (9, 'On Running', 'contacts@onrunning.com', 'A', 'CORPNUM_US', '9999999999', 0, 1, CURRENT_TIMESTAMP, 'on running', 'gninnur no', 'contacts@onrunning.com', 'moc.gninnurno@stcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (10, 'onrunning', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 9, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (10, 'Fila', 'contact@fila.com', 'ACTIVE', 'CORPNUM_US', '10000000010', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (10, 'Fila', 'contact@fila.com', 'A', 'CORPNUM_US', '10000000010', 0, 1, CURRENT_TIMESTAMP, 'fila', 'alif', 'contact@fila.com', 'moc.alif@tcatnoc');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (11, 'fila', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 10, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (11, 'Altra', 'merchants@altra.com', 'ACTIVE', 'CORPNUM_US', '1000000011', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (11, 'Altra', 'merchants@altra.com', 'A', 'CORPNUM_US', '1000000011', 0, 1, CURRENT_TIMESTAMP, 'altra', 'artla', 'merchants@altra.com', 'moc.artla@stnahcrem');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (12, 'altra', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 11, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (12, 'Hoka', 'merchants@hoka.com', 'ACTIVE', 'CORPNUM_US', '1000000012', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (12, 'Hoka', 'merchants@hoka.com', 'A', 'CORPNUM_US', '1000000012', 0, 1, CURRENT_TIMESTAMP, 'hoka', 'akoh', 'merchants@hoka.com', 'moc.akoh@stnahcrem');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (13, 'hoka', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 12, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
 
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE)  VALUES (13, 'Inactive merchant', 'inactive@nosuchmail.com', 'INACTIVE', 0, 1, CURRENT_TIMESTAMP);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, TOTAL_TRANSACTION_SUM, VERSION, CREATED_DATE, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (13, 'Inactive merchant', 'inactive@nosuchmail.com', 'I', 0, 1, CURRENT_TIMESTAMP, 'inactive merchant', 'tnahcrem evitcani', 'inactive@nosuchmail.com', 'moc.liamhcuson@evitcani');
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (14, 'inactive', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 13, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 
 
@@ -64,8 +64,8 @@ insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, EN
 
 
 -- UUID: 3d7ae6ed-c794-47d4-ad11-7b0f53f09d6b
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('3D7AE6EDC79447D4AD117B0F53F09D6B', 'AUTHORIZE', '22.31', 'APPROVED', 5, 1);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('3D7AE6EDC79447D4AD117B0F53F09D6B', 'A', '22.31', 'A', 5, 1);
 
 -- UID: 0f45e032-a74f-434f-b00e-e392ab340ab9	
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('0F45E032A74F434FB00EE392AB340AB9', 'CHARGE', '22.31', 'ERROR', 5, 1);
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('0F45E032A74F434FB00EE392AB340AB9', 'C', '22.31', 'E', 5, 1);
 
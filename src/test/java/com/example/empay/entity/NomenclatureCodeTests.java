@@ -0,0 +1,30 @@
+package com.example.empay.entity;
+
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class NomenclatureCodeTests {
+
+    @DisplayName("Sorting by the persisted codes orders the same as sorting by the IDs")
+    @Test
+    public void codesFollowIdOrder() {
+        assertCodesFollowIdOrder(MerchantStatusType.STATUS.class);
+        assertCodesFollowIdOrder(TransactionStatusType.TYPE.class);
+        assertCodesFollowIdOrder(TransactionType.TYPE.class);
+    }
+
+    private static <E extends Enum<E> & NomenclatureCode> void assertCodesFollowIdOrder(final Class<E> enumClass) {
+        List<E> byId = Arrays.stream(enumClass.getEnumConstants()).sorted(Comparator.comparing(Enum::name)).toList();
+        List<E> byCode = Arrays.stream(enumClass.getEnumConstants())
+                .sorted(Comparator.comparing(NomenclatureCode::getCode)).toList();
+        Assertions.assertEquals(byId, byCode, enumClass.getName());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.empay.EmpayApplication;
 import com.example.empay.controller.merchant.MerchantController;
 import com.example.empay.entity.merchant.MerchantStatusType;
 import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +17,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -177,7 +179,7 @@ public class MerchantTests {
                 .andDo(print())
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.message").value(MerchantController.ERROR_NON_EXISTING_STATUS));
+                .andExpect(jsonPath("$.message").value("Merchant status [WRONG] does not exist."));
     }
 
     @Test
@@ -273,4 +275,88 @@ public class MerchantTests {
                 .andExpect(jsonPath("$.totalElements").value(1));
 
     }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_merchants_by_prefix_and_suffix_ignoring_case() throws Exception {
+        String createContent = """
+                { 
+                  "name" : "Shadow Search Merchant", 
+                  "email" : "Shadow.Search@Example.ORG", 
+                  "status" : {
+                    "id" : "ACTIVE"
+                  }, 
+                  "identifierType" : {
+                    "id" : "EIK_BG"
+                  }, 
+                  "identifierValue" : "998877665544"
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/merchant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createContent))
+                .andExpect(status().isCreated());
+
+        String jsonContent = """
+                {
+                	"dataOption":"all",
+                	"searchCriteriaList":[
+                		{
+                			"filterKey" : "email",
+                			"operation" : "bw",
+                            "value" : "SHADOW.search@"
+                		},
+                		{
+                			"filterKey" : "email",
+                			"operation" : "ew",
+                            "value" : "search@example.org"
+                		},
+                		{
+                			"filterKey" : "name",
+                			"operation" : "en",
+                            "value" : "MERCHANT 1"
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/merchant/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.data[0].email").value("Shadow.Search@Example.ORG"));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void export_merchants_as_csv() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["email", "name"],
+                	"searchCriteriaList":[
+                		{
+                			"filterKey" : "email",
+                			"operation" : "cn",
+                            "value" : "@test.com"
+                		}
+                	]
+                }
+                """;
+        MvcResult result = this.mockMvc.perform(post("/api/v1/merchant/export?format=CSV")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = this.mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", StringContains.containsString("merchants.csv")))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = content.split("\r\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals("email,name", lines[0]);
+        Assertions.assertTrue(lines[1].contains("@test.com,"), lines[1]);
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.empay.integration;
+
+import com.example.empay.EmpayApplication;
+import com.example.empay.entity.merchant.MerchantLedgerEntry;
+import com.example.empay.repository.merchant.MerchantLedgerEntryRepository;
+import com.example.empay.repository.merchant.MerchantRepository;
+import com.example.empay.repository.security.UserLoginRepository;
+import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.util.Constants;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {EmpayApplication.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "hibernateCache.statistics=true")
+@Sql(value = "/test-data-transaction.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@DirtiesContext
+public class SecondLevelCacheTests {
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private MerchantLedgerEntryRepository merchantLedgerEntryRepository;
+
+    @Autowired
+    private UserLoginRepository userLoginRepository;
+
+    @Autowired
+    private TransactionTypeRepository transactionTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void merchant_read_from_cache() {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Constants.CACHE_REGION_MERCHANT);
+        long hitsBefore = region.getHitCount();
+
+        merchantRepository.findById(4L).orElseThrow();
+        merchantRepository.findById(4L).orElseThrow();
+
+        Assertions.assertEquals(hitsBefore + 1, region.getHitCount());
+    }
+
+    @Test
+    public void user_login_resolved_by_natural_id_cache() {
+        long hitsBefore = statistics.getNaturalIdCacheHitCount();
+
+        Assertions.assertEquals("merchant4", userLoginRepository.findByUsername("merchant4").orElseThrow()
+                .getUsername());
+        Assertions.assertEquals("merchant4", userLoginRepository.findByUsername("merchant4").orElseThrow()
+                .getUsername());
+
+        Assertions.assertEquals(hitsBefore + 1, statistics.getNaturalIdCacheHitCount());
+        Assertions.assertTrue(userLoginRepository.findByUsername("nosuchuser").isEmpty());
+    }
+
+    @Test
+    public void balance_update_keeps_merchant_cached() {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Constants.CACHE_REGION_MERCHANT);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        BigDecimal totalTransactionSumBefore = transactionTemplate.execute(status ->
+                merchantRepository.findById(5L).orElseThrow().getTotalTransactionSum());
+
+        transactionTemplate.executeWithoutResult(status -> merchantLedgerEntryRepository.save(new MerchantLedgerEntry()
+                .setMerchantId(5L).setTransactionId(UUID.randomUUID()).setAmount(BigDecimal.TEN)));
+
+        long hitsBefore = region.getHitCount();
+        BigDecimal totalTransactionSumAfter = transactionTemplate.execute(status ->
+                merchantRepository.findById(5L).orElseThrow().getTotalTransactionSum());
+        Assertions.assertEquals(hitsBefore + 1, region.getHitCount());
+        Assertions.assertEquals(0, totalTransactionSumBefore.add(BigDecimal.TEN).compareTo(totalTransactionSumAfter));
+    }
+
+    @Test
+    public void nomenclature_read_from_query_cache() {
+        Assertions.assertFalse(transactionTypeRepository.findAll().isEmpty());
+        long hitsBefore = statistics.getQueryCacheHitCount();
+        Assertions.assertFalse(transactionTypeRepository.findAll().isEmpty());
+
+        Assertions.assertEquals(hitsBefore + 1, statistics.getQueryCacheHitCount());
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.empay.integration;
 
 import com.example.empay.EmpayApplication;
-import com.example.empay.entity.merchant.Merchant;
 import com.example.empay.entity.transaction.Transaction;
 import com.example.empay.entity.transaction.TransactionStatusType;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
+import com.example.empay.service.transaction.impl.CustomerTextIndex;
+import com.jayway.jsonpath.JsonPath;
 import org.hamcrest.core.StringStartsWith;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
@@ -24,6 +26,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -34,6 +38,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = {EmpayApplication.class})
 @WebAppConfiguration
+@TestPropertySource(properties = "transactions.customerTextIndex.enabled=true")
 @Sql(value = "/test-data-transaction.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
 @DirtiesContext
 public class TransactionCreateTests {
@@ -43,6 +48,9 @@ public class TransactionCreateTests {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private CustomerTextIndex customerTextIndex;
+
     @Autowired
     private WebApplicationContext webApplicationContext;
 
@@ -51,6 +59,8 @@ public class TransactionCreateTests {
     @BeforeEach
     public void setup() throws Exception {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext).build();
+        // The index is built on ApplicationReadyEvent, which is not published for this context
+        customerTextIndex.build();
     }
 
     @Test
@@ -95,21 +105,72 @@ public class TransactionCreateTests {
                 .andExpect(jsonPath("$.status.id").value(TransactionStatusType.TYPE.APPROVED.toString()))
                 .andExpect(jsonPath("$.amount").value(new BigDecimal("55.55")));
 
-        Merchant merchant = merchantRepository.findById(1L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
         // Assert that merchant's totalTransactionSum is not changed
-        Assertions.assertEquals(BigDecimal.ZERO, merchant.getTotalTransactionSum().stripTrailingZeros());
+        Assertions.assertEquals(BigDecimal.ZERO,
+                merchantRepository.findTotalTransactionSumById(1L).orElseThrow().stripTrailingZeros());
     }
 
 
+    @Test
+    @WithUserDetails("merchant5")
+    public void created_transaction_found_by_customer_substring() throws Exception {
+        String jsonContent = """
+                { 
+                  "typeId" : "AUTHORIZE", 
+                  "amount" : "12.34", 
+                  "customerEmail" : "Jane.Indexed@nosuchemail.com",
+                  "customerPhone" : "+359888777666"
+                }
+                """;
+        String created = this.mockMvc.perform(post("/api/v1/transaction")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonContent))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(JsonPath.read(created, "$.id"));
+
+        // Indexed when the creation committed
+        Assertions.assertEquals(Optional.of(Set.of(id)),
+                customerTextIndex.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "JANE.INDEXED"));
+        Assertions.assertEquals(Optional.of(Set.of(id)),
+                customerTextIndex.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_PHONE, "888777"));
+
+        // Changed behind the index, so that only a search resolved by the index still finds the transaction
+        Transaction transaction = transactionRepository.findById(id).orElseThrow();
+        transaction.setCustomerEmail("changed@nosuchemail.com");
+        transaction.setCustomerPhone("+100");
+        transactionRepository.saveAndFlush(transaction);
+
+        String searchContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey" : "customerEmail",
+                			"operation" : "cn",
+                            "value" : "JANE.INDEXED"
+                		},
+                		{
+                			"filterKey" : "customerPhone",
+                			"operation" : "cn",
+                            "value" : "888777"
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(searchContent))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.data[0].customerEmail").value("changed@nosuchemail.com"));
+    }
+
     @Test
     @WithUserDetails("merchant4")
     public void create_charge_transaction_success() throws Exception {
-        Merchant merchant = merchantRepository.findById(4L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
-        BigDecimal totalTransactionSumBefore = merchant.getTotalTransactionSum();
+        BigDecimal totalTransactionSumBefore = merchantRepository.findTotalTransactionSumById(4L).orElseThrow();
         String jsonContent = """
                 { 
                   "typeId" : "CHARGE", 
@@ -130,11 +191,8 @@ public class TransactionCreateTests {
                 .andExpect(jsonPath("$.status.id").value(TransactionStatusType.TYPE.APPROVED.toString()))
                 .andExpect(jsonPath("$.amount").value(transactionAmount));
 
-        merchant = merchantRepository.findById(4L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
         BigDecimal transactionAmountRecalculated =
-                merchant.getTotalTransactionSum().subtract(totalTransactionSumBefore);
+                merchantRepository.findTotalTransactionSumById(4L).orElseThrow().subtract(totalTransactionSumBefore);
         assertEquals(transactionAmount, transactionAmountRecalculated);
     }
 
@@ -159,25 +217,19 @@ public class TransactionCreateTests {
                 .andExpect(jsonPath("$.status.id").value(TransactionStatusType.TYPE.APPROVED.toString()))
                 .andExpect(jsonPath("$.amount").value(new BigDecimal("55")));
 
-        Merchant merchant = merchantRepository.findById(2L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
-        assertEquals(merchant.getTotalTransactionSum(), new BigDecimal("45.23"));
+        assertEquals(merchantRepository.findTotalTransactionSumById(2L).orElseThrow(), new BigDecimal("45.23"));
 
         Transaction chargeTransaction = transactionRepository.findById(
                 UUID.fromString("6f683d71-dbcc-41ed-b552-51130c00852c")).orElseThrow(() -> new IllegalStateException(
                 "Charge transaction not found"));
 
-        assertEquals(TransactionStatusType.TYPE.REFUNDED.toString(), chargeTransaction.getStatus().getId());
+        assertEquals(TransactionStatusType.TYPE.REFUNDED, chargeTransaction.getStatus());
     }
 
     @Test
     @WithUserDetails("merchant2")
     public void create_refund_transaction_fail_greater_amount() throws Exception {
-        Merchant merchant = merchantRepository.findById(2L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
-        BigDecimal totalTransactionSumBefore = merchant.getTotalTransactionSum();
+        BigDecimal totalTransactionSumBefore = merchantRepository.findTotalTransactionSumById(2L).orElseThrow();
         String jsonContent = """
                 { 
                   "typeId" : "REFUND", 
@@ -198,16 +250,13 @@ public class TransactionCreateTests {
                         .value("Amount of the REFUND transaction is greater than the amount of the CHARGE " +
                                 "transaction"));
 
-        merchant = merchantRepository.findById(2L).orElseThrow(() ->
-                new IllegalStateException("Merchant not found"));
-
-        assertEquals(merchant.getTotalTransactionSum(), totalTransactionSumBefore);
+        assertEquals(merchantRepository.findTotalTransactionSumById(2L).orElseThrow(), totalTransactionSumBefore);
 
         Transaction chargeTransaction = transactionRepository.findById(
                 UUID.fromString("6f683d71-dbcc-41ed-b552-51130c00852c")).orElseThrow(() -> new IllegalStateException(
                 "Charge transaction not found"));
 
-        assertEquals(TransactionStatusType.TYPE.APPROVED.toString(), chargeTransaction.getStatus().getId());
+        assertEquals(TransactionStatusType.TYPE.APPROVED, chargeTransaction.getStatus());
     }
 
     @Test
@@ -302,7 +351,7 @@ public class TransactionCreateTests {
                 UUID.fromString("3d7ae6ed-c794-47d4-ad11-7b0f53f09d6b")).orElseThrow(() -> new IllegalStateException(
                 "Charge transaction not found"));
 
-        assertEquals(TransactionStatusType.TYPE.REVERSED.toString(), authTransaction.getStatus().getId());
+        assertEquals(TransactionStatusType.TYPE.REVERSED, authTransaction.getStatus());
     }
 
     @Test
@@ -363,4 +412,61 @@ public class TransactionCreateTests {
 
     }
 
+    @Test
+    @WithUserDetails("merchant4")
+    public void create_transaction_batch_success() throws Exception {
+        BigDecimal totalTransactionSumBefore = merchantRepository.findTotalTransactionSumById(4L).orElseThrow();
+        String jsonContent = """
+                [
+                  {
+                    "typeId" : "CHARGE",
+                    "amount" : "11.11",
+                    "customerEmail" : "john@nosuchemail.com",
+                    "referenceId" : "BATCH000001"
+                  },
+                  {
+                    "typeId" : "CHARGE",
+                    "amount" : "-1",
+                    "customerEmail" : "john@nosuchemail.com",
+                    "referenceId" : "BATCH000002"
+                  },
+                  {
+                    "typeId" : "CHARGE",
+                    "amount" : "21.21",
+                    "customerEmail" : "john@nosuchemail.com",
+                    "referenceId" : "BATCH000003"
+                  }
+                ]
+                """;
+
+        this.mockMvc.perform(post("/api/v1/transaction/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonContent))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].transaction.status.id")
+                        .value(TransactionStatusType.TYPE.APPROVED.toString()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].transaction").doesNotExist())
+                .andExpect(jsonPath("$[1].error").exists())
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].transaction.amount").value(new BigDecimal("21.21")));
+
+        assertEquals(new BigDecimal("32.32"),
+                merchantRepository.findTotalTransactionSumById(4L).orElseThrow().subtract(totalTransactionSumBefore));
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void create_transaction_batch_not_array() throws Exception {
+        this.mockMvc.perform(post("/api/v1/transaction/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"typeId\" : \"CHARGE\" }"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
 }
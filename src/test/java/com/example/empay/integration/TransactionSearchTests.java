@@ -1,22 +1,42 @@
 package com.example.empay.integration;
 
 import com.example.empay.EmpayApplication;
+import com.example.empay.controller.search.SearchCriteria;
+import com.example.empay.controller.search.SearchRequest;
+import com.example.empay.controller.search.SearchRequestException;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.service.search.SearchPlanCompiler;
+import com.example.empay.service.transaction.TransactionService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.StringContains;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -25,7 +45,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = {EmpayApplication.class})
 @WebAppConfiguration
-@Sql(value = "/test-data-transaction.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@TestPropertySource(properties = {"search.count.parallelBudgetMillis=5000", "search.estimate.threshold=1",
+        "search.criteria.maxListSize=3"})
+@Sql(value = {"/test-data-transaction.sql", "/test-data-transaction-lineage.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
 @DirtiesContext
 
 public class TransactionSearchTests {
@@ -33,6 +56,12 @@ public class TransactionSearchTests {
     @Autowired
     private WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -168,5 +197,585 @@ public class TransactionSearchTests {
 
     }
 
+    @Test
+    public void search_transactions_fetches_lineage_with_constant_statement_count() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SearchRequest searchRequest = new SearchRequest();
+
+        statistics.clear();
+        Page<TransactionDto> page = transactionService.findBySearchCriteria(searchRequest, 2, 0, 4L);
+        Assertions.assertEquals(2, page.getNumberOfElements());
+        // The page query and the count query
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        page = transactionService.findBySearchCriteria(searchRequest, 10, 0, 4L);
+        Assertions.assertEquals(4, page.getNumberOfElements());
+        // The count is known from the last page, only the page query is executed
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        TransactionDto refund = page.stream()
+                .filter(it -> it.getId().equals(UUID.fromString("4b8e2d1a-6c3f-4a9b-8e72-1f0d3c5b7a64")))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(UUID.fromString("9a1c3f4e-2b7d-4e8a-9c61-0d2e5f7a8b90"),
+                refund.getBelongsToTransaction().getId());
+        Assertions.assertEquals(4L, refund.getBelongsToTransaction().getMerchantId());
+        Assertions.assertNull(refund.getBelongsToTransaction().getBelongsToTransaction());
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void get_transaction_lineage_from_child() throws Exception {
+        this.mockMvc.perform(get("/api/v1/transaction/4b8e2d1a-6c3f-4a9b-8e72-1f0d3c5b7a64/lineage"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("9a1c3f4e-2b7d-4e8a-9c61-0d2e5f7a8b90"))
+                .andExpect(jsonPath("$[1].id").value("4b8e2d1a-6c3f-4a9b-8e72-1f0d3c5b7a64"))
+                .andExpect(jsonPath("$[1].belongsToTransaction.id").value("9a1c3f4e-2b7d-4e8a-9c61-0d2e5f7a8b90"));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void get_transaction_lineage_from_root() throws Exception {
+        this.mockMvc.perform(get("/api/v1/transaction/7e5d9c2b-1a4f-4c8e-b3d6-2a9f0e7c5b18/lineage"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("7e5d9c2b-1a4f-4c8e-b3d6-2a9f0e7c5b18"))
+                .andExpect(jsonPath("$[1].id").value("1f3b5d7e-9a2c-4e6b-8d0f-3c5e7a9b1d24"));
+    }
+
+    @Test
+    @WithUserDetails("merchant5")
+    public void get_transaction_lineage_not_found_for_user() throws Exception {
+        this.mockMvc.perform(get("/api/v1/transaction/4b8e2d1a-6c3f-4a9b-8e72-1f0d3c5b7a64/lineage"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void get_transaction_lineage_not_found() throws Exception {
+        this.mockMvc.perform(get("/api/v1/transaction/" + UUID.randomUUID() + "/lineage"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithUserDetails("merchant2")
+    public void search_transactions_selected_fields() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["id", "amount", "status", "merchantName"]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.data[0].id").value("6f683d71-dbcc-41ed-b552-51130c00852c"))
+                .andExpect(jsonPath("$.data[0].amount").value(100.23))
+                .andExpect(jsonPath("$.data[0].status.id").value("APPROVED"))
+                .andExpect(jsonPath("$.data[0].merchantName").value("Demo Merchant 2"))
+                .andExpect(jsonPath("$.data[0].merchantId").doesNotExist())
+                .andExpect(jsonPath("$.data[0].customerEmail").doesNotExist());
+    }
+
+    @Test
+    @WithUserDetails("merchant2")
+    public void search_transactions_unsupported_field() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["id", "belongingTransaction"]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void search_transactions_by_cursor() throws Exception {
+        String firstWindow = this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(cursorSearchRequest(""))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value("7e5d9c2b-1a4f-4c8e-b3d6-2a9f0e7c5b18"))
+                .andExpect(jsonPath("$.data[0].amount").value(30.00))
+                .andExpect(jsonPath("$.data[1].amount").value(50.00))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstWindow, "$.nextCursor");
+
+        String secondWindow = this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(cursorSearchRequest(nextCursor))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].amount").value(50.00))
+                .andExpect(jsonPath("$.data[1].id").value("1f3b5d7e-9a2c-4e6b-8d0f-3c5e7a9b1d24"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertNotEquals((String) JsonPath.read(firstWindow, "$.data[1].id"),
+                JsonPath.read(secondWindow, "$.data[0].id"));
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void search_transactions_by_invalid_cursor() throws Exception {
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(cursorSearchRequest("not-a-cursor"))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void search_transactions_without_count() throws Exception {
+        String jsonContent = """
+                {
+                	"countMode":"NONE"
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        // The total is known on the last page without counting
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2&pageNum=1")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void search_transactions_with_parallel_count() throws Exception {
+        String jsonContent = """
+                {
+                	"countMode":"PARALLEL",
+                	"sort":"amount",
+                	"ascending":true
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].amount").value(30.00))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
+    @Test
+    @WithUserDetails("merchant4")
+    public void search_transactions_selected_fields_without_count() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["id"],
+                	"countMode":"NONE"
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=3")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_unfiltered_with_estimated_total() throws Exception {
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.approximateTotal").value(true))
+                .andExpect(jsonPath("$.totalElements").value(Matchers.greaterThanOrEqualTo(4)));
+
+        // Filtered searches are counted exactly
+        String jsonContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"merchantId",
+                			"operation":"eq",
+                			"value":4
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search?pageSize=2")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.approximateTotal").value(false))
+                .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_by_unknown_property() throws Exception {
+        String jsonContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"noSuchProperty",
+                			"operation":"eq",
+                			"value":"A"
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_in_statuses_and_merchants() throws Exception {
+        String jsonContent = """
+                {
+                	"dataOption":"all",
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"status.id",
+                			"operation":"in",
+                			"value":["APPROVED", "REFUNDED"]
+                		},
+                		{
+                			"filterKey":"merchantId",
+                			"operation":"in",
+                			"value":[4, 5]
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.data[*].status.id", Matchers.everyItem(Matchers.in(
+                        List.of("APPROVED", "REFUNDED")))))
+                .andExpect(jsonPath("$.data[*].merchantId", Matchers.everyItem(Matchers.in(List.of(4, 5)))));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_not_in_merchants() throws Exception {
+        String jsonContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"merchantId",
+                			"operation":"nin",
+                			"value":[4]
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_in_amounts() throws Exception {
+        String jsonContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"amount",
+                			"operation":"in",
+                			"value":["22.31", 100.23]
+                		}
+                	]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_in_invalid_lists() throws Exception {
+        for (String value : List.of("\"APPROVED\"", "[]", "[\"APPROVED\", \"ERROR\", \"REFUNDED\", \"REVERSED\"]")) {
+            String jsonContent = String.format("""
+                    {
+                    	"searchCriteriaList":[
+                    		{
+                    			"filterKey":"status.id",
+                    			"operation":"in",
+                    			"value":%s
+                    		}
+                    	]
+                    }
+                    """, value);
+            this.mockMvc.perform(post("/api/v1/transaction/search")
+                            .content(jsonContent)
+                            .contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_by_criteria_group() throws Exception {
+        String jsonContent = """
+                {
+                	"criteriaGroup":{
+                		"dataOption":"all",
+                		"searchCriteriaList":[
+                			{
+                				"filterKey":"merchantId",
+                				"operation":"eq",
+                				"value":4
+                			}
+                		],
+                		"groups":[
+                			{
+                				"dataOption":"any",
+                				"searchCriteriaList":[
+                					{
+                						"filterKey":"status.id",
+                						"operation":"eq",
+                						"value":"APPROVED"
+                					},
+                					{
+                						"filterKey":"status.id",
+                						"operation":"eq",
+                						"value":"REFUNDED"
+                					}
+                				]
+                			}
+                		]
+                	}
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.data[*].merchantId", Matchers.everyItem(Matchers.is(4))));
+    }
 
+    @Test
+    @WithUserDetails("merchant5")
+    public void search_transactions_any_criteria_keep_merchant_filter() throws Exception {
+        String jsonContent = """
+                {
+                	"dataOption":"any",
+                	"searchCriteriaList":[
+                		{
+                			"filterKey":"status.id",
+                			"operation":"eq",
+                			"value":"ERROR"
+                		},
+                		{
+                			"filterKey":"amount",
+                			"operation":"gt",
+                			"value":0
+                		}
+                	],
+                	"criteriaGroup":{
+                		"dataOption":"any",
+                		"searchCriteriaList":[
+                			{
+                				"filterKey":"merchantId",
+                				"operation":"eq",
+                				"value":4
+                			},
+                			{
+                				"filterKey":"merchantId",
+                				"operation":"eq",
+                				"value":5
+                			}
+                		]
+                	}
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/search")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.data[*].merchantId", Matchers.everyItem(Matchers.is(5))));
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void search_transactions_by_invalid_criteria_group() throws Exception {
+        String nested = "{\"searchCriteriaList\":[{\"filterKey\":\"amount\",\"operation\":\"nn\"}]}";
+        for (int depth = 0; depth < SearchPlanCompiler.MAX_GROUP_DEPTH; depth++) {
+            nested = "{\"groups\":[" + nested + "]}";
+        }
+        for (String group : List.of("{}", "{\"dataOption\":\"none\",\"groups\":[{}]}", nested)) {
+            this.mockMvc.perform(post("/api/v1/transaction/search")
+                            .content("{\"criteriaGroup\":" + group + "}")
+                            .contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andDo(print())
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void search_transactions_invalid_criteria_fail_without_query() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<SearchCriteria> invalidCriteria = List.of(
+                new SearchCriteria("amount", "eq", "not a number", null),
+                new SearchCriteria("amount", "bt", "1", null),
+                new SearchCriteria("amount", "cn", "1", null),
+                new SearchCriteria("customerEmail", "gt", "a", null),
+                new SearchCriteria("merchantId", "gt", 1, null),
+                new SearchCriteria("createdDate", "xx", "2024-01-01T00:00:00Z", null));
+        for (SearchCriteria criteria : invalidCriteria) {
+            SearchRequest searchRequest = new SearchRequest();
+            searchRequest.setSearchCriteriaList(new ArrayList<>(List.of(criteria)));
+
+            statistics.clear();
+            Assertions.assertThrows(SearchRequestException.class,
+                    () -> transactionService.findBySearchCriteria(searchRequest, 10, 0, null), criteria.toString());
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void export_transactions_as_ndjson() throws Exception {
+        String jsonContent = """
+                {
+                	"searchCriteriaList":[
+                		{
+                			"filterKey" : "status.id",
+                			"operation" : "eq",
+                            "value" : "ERROR"
+                		}
+                	]
+                }
+                """;
+        MvcResult result = this.mockMvc.perform(post("/api/v1/transaction/export")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = this.mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition",
+                        StringContains.containsString("transactions.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = content.split("\n");
+        Assertions.assertEquals(1, lines.length);
+        Assertions.assertEquals("ERROR", JsonPath.read(lines[0], "$.status.id"));
+    }
+
+    @Test
+    @WithUserDetails("merchant2")
+    public void export_transactions_as_csv() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["id", "amount", "status", "merchantName"]
+                }
+                """;
+        MvcResult result = this.mockMvc.perform(post("/api/v1/transaction/export?format=CSV")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = this.mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = content.split("\r\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals("id,amount,status,merchantName", lines[0]);
+        Assertions.assertTrue(lines[1].startsWith("6f683d71-dbcc-41ed-b552-51130c00852c,100.23,"), lines[1]);
+        Assertions.assertTrue(lines[1].endsWith(",Demo Merchant 2"), lines[1]);
+    }
+
+    @Test
+    @WithUserDetails("merchant2")
+    public void export_transactions_unsupported_field() throws Exception {
+        String jsonContent = """
+                {
+                	"fields":["id", "belongingTransaction"]
+                }
+                """;
+        this.mockMvc.perform(post("/api/v1/transaction/export")
+                        .content(jsonContent)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithUserDetails("merchant2")
+    public void export_transactions_with_cursor() throws Exception {
+        this.mockMvc.perform(post("/api/v1/transaction/export")
+                        .content(cursorSearchRequest("abc"))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String cursorSearchRequest(final String cursor) {
+        return String.format("""
+                {
+                	"sort":"amount",
+                	"ascending":true,
+                	"cursor":"%s"
+                }
+                """, cursor);
+    }
 }
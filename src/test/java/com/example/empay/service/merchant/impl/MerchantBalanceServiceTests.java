@@ -0,0 +1,178 @@
+package com.example.empay.service.merchant.impl;
+
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.merchant.MerchantLedgerEntry;
+import com.example.empay.entity.merchant.MerchantLedgerSnapshot;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.repository.merchant.MerchantLedgerEntryRepository;
+import com.example.empay.repository.merchant.MerchantLedgerSnapshotRepository;
+import com.example.empay.repository.merchant.MerchantRepository;
+import com.example.empay.util.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class MerchantBalanceServiceTests {
+
+    @Mock
+    MerchantRepository merchantRepository;
+
+    @Mock
+    MerchantLedgerEntryRepository merchantLedgerEntryRepository;
+
+    @Mock
+    MerchantLedgerSnapshotRepository merchantLedgerSnapshotRepository;
+
+    @InjectMocks
+    MerchantBalanceServiceImpl merchantBalanceService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @DisplayName("Approved CHARGE appends a positive ledger entry")
+    @Test
+    public void appendCharge() {
+        Transaction transaction = TestUtil.createTransactionInstance();
+
+        merchantBalanceService.append(transaction);
+
+        MerchantLedgerEntry entry = captureEntry();
+        Assertions.assertEquals(transaction.getMerchant().getId(), entry.getMerchantId());
+        Assertions.assertEquals(transaction.getId(), entry.getTransactionId());
+        Assertions.assertEquals(transaction.getAmount(), entry.getAmount());
+    }
+
+    @DisplayName("Approved REFUND appends a negative ledger entry")
+    @Test
+    public void appendRefund() {
+        Transaction transaction = TestUtil.createTransactionInstance().setType(TransactionType.TYPE.REFUND);
+
+        merchantBalanceService.append(transaction);
+
+        Assertions.assertEquals(transaction.getAmount().negate(), captureEntry().getAmount());
+    }
+
+    @DisplayName("Transactions not changing the balance append nothing")
+    @Test
+    public void appendNothing() {
+        merchantBalanceService.append(TestUtil.createTransactionInstance().setStatus(TransactionStatusType.TYPE.ERROR));
+        merchantBalanceService.append(TestUtil.createTransactionInstance().setType(TransactionType.TYPE.AUTHORIZE));
+
+        Mockito.verifyNoInteractions(merchantLedgerEntryRepository);
+    }
+
+    @DisplayName("Refund check flushes the pending entries and reads the balance under the merchant lock")
+    @Test
+    public void lockIfSufficient() {
+        Merchant merchant = TestUtil.createMerchantInstance();
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any(Duration.class)))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantRepository.findTotalTransactionSumById(merchant.getId()))
+                .thenReturn(Optional.of(new BigDecimal("10.00")));
+
+        Assertions.assertTrue(merchantBalanceService.lockIfSufficient(merchant, new BigDecimal("10.00")));
+        Assertions.assertFalse(merchantBalanceService.lockIfSufficient(merchant, new BigDecimal("10.01")));
+
+        Mockito.verify(merchantLedgerEntryRepository, Mockito.times(2)).flush();
+    }
+
+    @DisplayName("Refund check of a missing merchant fails")
+    @Test
+    public void lockIfSufficientMissingMerchant() {
+        Merchant merchant = TestUtil.createMerchantInstance();
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any(Duration.class)))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertFalse(merchantBalanceService.lockIfSufficient(merchant, BigDecimal.ONE));
+        Mockito.verify(merchantRepository, Mockito.never()).findTotalTransactionSumById(Mockito.any());
+    }
+
+    @DisplayName("First snapshot starts from the opening transaction sum")
+    @Test
+    public void firstSnapshot() {
+        Merchant merchant = TestUtil.createMerchantInstance().setOpeningTransactionSum(new BigDecimal("100.00"));
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any(Duration.class)))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantLedgerSnapshotRepository.findFirstByMerchantIdOrderByIdDesc(merchant.getId()))
+                .thenReturn(Optional.empty());
+        mockSavedSnapshot(10L);
+        Mockito.when(merchantLedgerEntryRepository.sumBySnapshotId(merchant.getId(), 10L))
+                .thenReturn(new BigDecimal("-25.50"));
+
+        merchantBalanceService.snapshot(merchant.getId());
+
+        MerchantLedgerSnapshot snapshot = captureSnapshot();
+        Mockito.verify(merchantLedgerEntryRepository).assignToSnapshot(merchant.getId(), 10L);
+        Assertions.assertEquals(merchant.getId(), snapshot.getMerchantId());
+        Assertions.assertEquals(new BigDecimal("74.50"), snapshot.getBalance());
+    }
+
+    @DisplayName("Snapshot continues from the latest snapshot")
+    @Test
+    public void nextSnapshot() {
+        Merchant merchant = TestUtil.createMerchantInstance().setOpeningTransactionSum(new BigDecimal("100.00"));
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any(Duration.class)))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantLedgerSnapshotRepository.findFirstByMerchantIdOrderByIdDesc(merchant.getId()))
+                .thenReturn(Optional.of(new MerchantLedgerSnapshot().setId(10L).setMerchantId(merchant.getId())
+                        .setBalance(new BigDecimal("74.50"))));
+        mockSavedSnapshot(11L);
+        Mockito.when(merchantLedgerEntryRepository.sumBySnapshotId(merchant.getId(), 11L))
+                .thenReturn(new BigDecimal("5.50"));
+
+        merchantBalanceService.snapshot(merchant.getId());
+
+        MerchantLedgerSnapshot snapshot = captureSnapshot();
+        Mockito.verify(merchantLedgerEntryRepository).assignToSnapshot(merchant.getId(), 11L);
+        Assertions.assertEquals(new BigDecimal("80.00"), snapshot.getBalance());
+    }
+
+    @DisplayName("Snapshot of a missing merchant does nothing")
+    @Test
+    public void snapshotMissingMerchant() {
+        Mockito.when(merchantRepository.lockById(Mockito.eq(1L), Mockito.any(Duration.class)))
+                .thenReturn(Optional.empty());
+
+        merchantBalanceService.snapshot(1L);
+
+        Mockito.verifyNoInteractions(merchantLedgerEntryRepository, merchantLedgerSnapshotRepository);
+    }
+
+    private MerchantLedgerEntry captureEntry() {
+        ArgumentCaptor<MerchantLedgerEntry> entry = ArgumentCaptor.forClass(MerchantLedgerEntry.class);
+        Mockito.verify(merchantLedgerEntryRepository).save(entry.capture());
+        return entry.getValue();
+    }
+
+    private void mockSavedSnapshot(final Long id) {
+        Mockito.when(merchantLedgerSnapshotRepository.saveAndFlush(Mockito.any(MerchantLedgerSnapshot.class)))
+                .thenAnswer(mock -> ((MerchantLedgerSnapshot) mock.getArguments()[0]).setId(id));
+    }
+
+    private MerchantLedgerSnapshot captureSnapshot() {
+        ArgumentCaptor<MerchantLedgerSnapshot> snapshot = ArgumentCaptor.forClass(MerchantLedgerSnapshot.class);
+        Mockito.verify(merchantLedgerSnapshotRepository).saveAndFlush(snapshot.capture());
+        return snapshot.getValue();
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.empay.service.merchant.impl;
 
+import com.example.empay.dto.mapper.MerchantIdentifierTypeDtoMapper;
 import com.example.empay.dto.merchant.MerchantIdentifierTypeDto;
 import com.example.empay.entity.merchant.MerchantIdentifierType;
-import com.example.empay.repository.merchant.MerchantIdentifierTypeRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,14 +16,13 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 public class MerchantIdentifierTypeServiceTests {
 
     @Mock
-    MerchantIdentifierTypeRepository merchantIdentifierTypeRepository;
+    NomenclatureRegistry nomenclatureRegistry;
 
     @InjectMocks
     MerchantIdentifierTypeServiceImpl merchantIdentifierTypeService;
@@ -39,9 +39,10 @@ public class MerchantIdentifierTypeServiceTests {
                 .setId("EIK_BG")
                 .setName("EIK (BG)");
 
-        List<MerchantIdentifierType> merchantIdentifierTypeList = Collections.singletonList(merchantIdentifierType);
+        List<MerchantIdentifierTypeDto> registryDtoList =
+                List.of(MerchantIdentifierTypeDtoMapper.toDto(merchantIdentifierType));
 
-        Mockito.when(merchantIdentifierTypeRepository.findAll()).thenReturn(merchantIdentifierTypeList);
+        Mockito.when(nomenclatureRegistry.getMerchantIdentifierTypes()).thenReturn(registryDtoList);
 
         Collection<MerchantIdentifierTypeDto> resultList = merchantIdentifierTypeService.findAll();
 
@@ -6,8 +6,8 @@ import com.example.empay.dto.mapper.MerchantDtoMapper;
 import com.example.empay.dto.merchant.MerchantDto;
 import com.example.empay.entity.merchant.Merchant;
 import com.example.empay.entity.merchant.MerchantIdentifierType;
-import com.example.empay.entity.merchant.MerchantStatusType;
 import com.example.empay.repository.merchant.MerchantRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
@@ -20,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -29,6 +30,7 @@ import org.springframework.data.jpa.domain.Specification;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +39,9 @@ public class MerchantServiceTests {
     @Mock
     MerchantRepository merchantRepository;
 
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
+
     @InjectMocks
     MerchantServiceImpl merchantService;
 
@@ -60,10 +65,12 @@ public class MerchantServiceTests {
         Assertions.assertTrue(merchantDto.isPresent());
         Assertions.assertEquals(merchant.getId(), merchantDto.get().getId());
         Assertions.assertEquals(merchant.getName(), merchantDto.get().getName());
-        Assertions.assertEquals(merchant.getStatus().getId(), merchantDto.get().getStatus().getId());
+        Assertions.assertEquals(merchant.getStatus().name(), merchantDto.get().getStatus().getId());
+        Assertions.assertEquals("Active", merchantDto.get().getStatus().getName());
         Assertions.assertEquals(merchant.getEmail(), merchantDto.get().getEmail());
         Assertions.assertEquals(merchant.getTotalTransactionSum(), merchantDto.get().getTotalTransactionSum());
         Assertions.assertEquals(merchant.getIdentifierType().getId(), merchantDto.get().getIdentifierType().getId());
+        Assertions.assertEquals("EIK (BG)", merchantDto.get().getIdentifierType().getName());
         Assertions.assertEquals(merchant.getIdentifierValue(), merchantDto.get().getIdentifierValue());
     }
 
@@ -93,6 +100,7 @@ public class MerchantServiceTests {
         searchRequest.setAscending(true);
         SearchCriteria searchCriteria = new SearchCriteria("email", "cn", "@nosuchemail", null);
         searchRequest.setSearchCriteriaList(Collections.singletonList(searchCriteria));
+        TestUtil.mockMetamodel(entityManager, Merchant.class, Map.of("id", Long.class, "email", String.class));
 
         Page<MerchantDto> pageResult = merchantService.findBySearchCriteria(searchRequest, 10, 0, 1L);
 
@@ -115,6 +123,7 @@ public class MerchantServiceTests {
         SearchRequest searchRequest = new SearchRequest();
         searchRequest.setSort("statusTypeId");
         searchRequest.setAscending(false);
+        TestUtil.mockMetamodel(entityManager, Merchant.class, Map.of("id", Long.class));
 
         Page<MerchantDto> pageResult = merchantService.findBySearchCriteria(searchRequest, 10, 0, 1L);
 
@@ -130,14 +139,11 @@ public class MerchantServiceTests {
         Merchant merchant = TestUtil.createMerchantInstance();
         merchant.setId(null);
 
-        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant);
+        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant, nomenclatureRegistry);
 
         Mockito.when(entityManager.getReference(Mockito.eq(MerchantIdentifierType.class), Mockito.any(Object.class)))
                 .thenAnswer(mock -> new MerchantIdentifierType().setId((String) mock.getArguments()[1]));
 
-        Mockito.when(entityManager.getReference(Mockito.eq(MerchantStatusType.class), Mockito.any(Object.class)))
-                .thenAnswer(mock -> new MerchantStatusType().setId((String) mock.getArguments()[1]));
-
         Mockito.when(merchantRepository.saveAndFlush(Mockito.any(Merchant.class)))
                 .thenAnswer(mock -> {
                     Merchant m = (Merchant) mock.getArguments()[0];
@@ -166,15 +172,12 @@ public class MerchantServiceTests {
         Merchant merchant = TestUtil.createMerchantInstance();
         merchant.setVersion(initialVersion);
 
-        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant);
+        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant, nomenclatureRegistry);
         merchantDto.setName("new name");
 
         Mockito.when(entityManager.getReference(Mockito.eq(MerchantIdentifierType.class), Mockito.any(Object.class)))
                 .thenAnswer(mock -> new MerchantIdentifierType().setId((String) mock.getArguments()[1]));
 
-        Mockito.when(entityManager.getReference(Mockito.eq(MerchantStatusType.class), Mockito.any(Object.class)))
-                .thenAnswer(mock -> new MerchantStatusType().setId((String) mock.getArguments()[1]));
-
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
         Mockito.when(merchantRepository.saveAndFlush(Mockito.any(Merchant.class)))
                 .thenAnswer(mock -> {
@@ -203,7 +206,7 @@ public class MerchantServiceTests {
     public void updateNonExistingMerchant() {
         Mockito.when(merchantRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.empty());
         Merchant merchant = TestUtil.createMerchantInstance();
-        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant);
+        MerchantDto merchantDto = MerchantDtoMapper.toDto(merchant, nomenclatureRegistry);
         merchantDto.setName("new name");
 
         EntityNotFoundException exception =
@@ -1,8 +1,9 @@
 package com.example.empay.service.merchant.impl;
 
+import com.example.empay.dto.mapper.MerchantStatusTypeDtoMapper;
 import com.example.empay.dto.merchant.MerchantStatusTypeDto;
 import com.example.empay.entity.merchant.MerchantStatusType;
-import com.example.empay.repository.merchant.MerchantStatusTypeRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,14 +16,13 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 public class MerchantStatusTypeServiceTests {
 
     @Mock
-    MerchantStatusTypeRepository merchantStatusTypeRepository;
+    NomenclatureRegistry nomenclatureRegistry;
 
     @InjectMocks
     MerchantStatusTypeServiceImpl merchantStatusTypeService;
@@ -39,9 +39,10 @@ public class MerchantStatusTypeServiceTests {
                 .setId(MerchantStatusType.STATUS.ACTIVE.name())
                 .setName("Active");
 
-        List<MerchantStatusType> merchantStatusTypeList = Collections.singletonList(merchantStatusType);
+        List<MerchantStatusTypeDto> registryDtoList =
+                List.of(MerchantStatusTypeDtoMapper.toDto(merchantStatusType));
 
-        Mockito.when(merchantStatusTypeRepository.findAll()).thenReturn(merchantStatusTypeList);
+        Mockito.when(nomenclatureRegistry.getMerchantStatusTypes()).thenReturn(registryDtoList);
 
         Collection<MerchantStatusTypeDto> resultList = merchantStatusTypeService.findAll();
 
@@ -0,0 +1,122 @@
+package com.example.empay.service.nomenclature;
+
+import com.example.empay.dto.mapper.TransactionStatusTypeDtoMapper;
+import com.example.empay.dto.mapper.TransactionTypeDtoMapper;
+import com.example.empay.dto.transaction.TransactionStatusTypeDto;
+import com.example.empay.dto.transaction.TransactionTypeDto;
+import com.example.empay.entity.merchant.MerchantIdentifierType;
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.repository.merchant.MerchantIdentifierTypeRepository;
+import com.example.empay.repository.merchant.MerchantStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionTypeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class NomenclatureRegistryTests {
+
+    @Mock
+    TransactionTypeRepository transactionTypeRepository;
+
+    @Mock
+    TransactionStatusTypeRepository transactionStatusTypeRepository;
+
+    @Mock
+    MerchantStatusTypeRepository merchantStatusTypeRepository;
+
+    @Mock
+    MerchantIdentifierTypeRepository merchantIdentifierTypeRepository;
+
+    NomenclatureRegistry nomenclatureRegistry;
+
+    @BeforeEach
+    public void setup() {
+        nomenclatureRegistry = new NomenclatureRegistry(transactionTypeRepository, transactionStatusTypeRepository,
+                merchantStatusTypeRepository, merchantIdentifierTypeRepository, 3600);
+
+        Mockito.when(transactionTypeRepository.findAll()).thenReturn(List.of(
+                new TransactionType().setId(TransactionType.TYPE.CHARGE.name()).setName("Charge"),
+                new TransactionType().setId(TransactionType.TYPE.REFUND.name()).setName("Refund")));
+        Mockito.when(merchantStatusTypeRepository.findAll()).thenReturn(List.of(
+                new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()).setName("Active")));
+        Mockito.when(merchantIdentifierTypeRepository.findAll()).thenReturn(List.of(
+                new MerchantIdentifierType().setId("EIK_BG").setName("EIK (BG)")));
+    }
+
+    @DisplayName("Nomenclature is served from memory as shared read-only DTO instances")
+    @Test
+    public void load_sharedDtos() {
+        Mockito.when(transactionStatusTypeRepository.findAll()).thenReturn(List.of(
+                new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.name()).setName("Approved")));
+        nomenclatureRegistry.load();
+
+        Assertions.assertEquals(2, nomenclatureRegistry.getTransactionTypes().size());
+        Assertions.assertEquals("Charge", nomenclatureRegistry.getTransactionTypes().get(0).getName());
+        Assertions.assertEquals(1, nomenclatureRegistry.getTransactionStatusTypes().size());
+        Assertions.assertEquals(1, nomenclatureRegistry.getMerchantStatusTypes().size());
+        Assertions.assertEquals(1, nomenclatureRegistry.getMerchantIdentifierTypes().size());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> nomenclatureRegistry.getTransactionTypes().clear());
+
+        Assertions.assertSame(nomenclatureRegistry.getTransactionTypes().get(1),
+                TransactionTypeDtoMapper.toDto(TransactionType.TYPE.REFUND, nomenclatureRegistry));
+        Assertions.assertSame(
+                TransactionStatusTypeDtoMapper.toDto(TransactionStatusType.TYPE.APPROVED, nomenclatureRegistry),
+                TransactionStatusTypeDtoMapper.toDto(TransactionStatusType.TYPE.APPROVED, nomenclatureRegistry));
+        Assertions.assertSame(nomenclatureRegistry.getMerchantIdentifierTypes().get(0),
+                nomenclatureRegistry.getMerchantIdentifierType("EIK_BG"));
+
+        TransactionTypeDto refund = nomenclatureRegistry.getTransactionType(TransactionType.TYPE.REFUND);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> refund.setName("Changed"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> refund.setId("CHANGED"));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> nomenclatureRegistry.getMerchantIdentifierType("EIK_BG").setName("Changed"));
+        Assertions.assertEquals("Refund",
+                nomenclatureRegistry.getTransactionType(TransactionType.TYPE.REFUND).getName());
+
+        Mockito.verify(transactionTypeRepository, Mockito.times(1)).findAll();
+    }
+
+    @DisplayName("Nomenclature missing from the database is named by its ID")
+    @Test
+    public void load_missingNomenclature() {
+        Mockito.when(transactionStatusTypeRepository.findAll()).thenReturn(List.of());
+        nomenclatureRegistry.load();
+
+        TransactionStatusTypeDto status = TransactionStatusTypeDtoMapper.toDto(TransactionStatusType.TYPE.ERROR,
+                nomenclatureRegistry);
+        Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), status.getId());
+        Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), status.getName());
+    }
+
+    @DisplayName("The entity tag changes only when the nomenclature changes")
+    @Test
+    public void load_eTag() {
+        Mockito.when(transactionStatusTypeRepository.findAll())
+                .thenReturn(List.of(
+                        new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()).setName("Error")))
+                .thenReturn(List.of(
+                        new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()).setName("Error")))
+                .thenReturn(List.of(
+                        new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()).setName("Failed")));
+
+        nomenclatureRegistry.load();
+        String eTag = nomenclatureRegistry.getETag();
+        nomenclatureRegistry.load();
+        Assertions.assertEquals(eTag, nomenclatureRegistry.getETag());
+        nomenclatureRegistry.load();
+        Assertions.assertNotEquals(eTag, nomenclatureRegistry.getETag());
+        Assertions.assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+}
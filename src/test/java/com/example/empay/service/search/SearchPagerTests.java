@@ -0,0 +1,135 @@
+package com.example.empay.service.search;
+
+import com.example.empay.controller.search.SearchCountMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class SearchPagerTests {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SearchPager searchPager;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchPager = new SearchPager(100, 1, 10, Mockito.mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        searchPager.shutdown();
+    }
+
+    @DisplayName("Exact count returns the total")
+    @Test
+    public void exactCount() {
+        Slice<Integer> slice = searchPager.find(PageRequest.of(0, 2), SearchCountMode.EXACT, this::results, () -> 5,
+                OptionalLong.empty());
+
+        Assertions.assertInstanceOf(Page.class, slice);
+        Assertions.assertEquals(5, ((Page<Integer>) slice).getTotalElements());
+        Assertions.assertEquals(List.of(0, 1), slice.getContent());
+    }
+
+    @DisplayName("Without count one more result is fetched to find the next page")
+    @Test
+    public void noCount() {
+        AtomicInteger counts = new AtomicInteger();
+        Slice<Integer> slice = searchPager.find(PageRequest.of(0, 2), SearchCountMode.NONE, this::results,
+                counts::incrementAndGet, OptionalLong.empty());
+
+        Assertions.assertFalse(slice instanceof Page);
+        Assertions.assertTrue(slice.hasNext());
+        Assertions.assertEquals(List.of(0, 1), slice.getContent());
+        Assertions.assertEquals(0, counts.get());
+    }
+
+    @DisplayName("Without count the total of the last page is known")
+    @Test
+    public void noCountLastPage() {
+        Slice<Integer> slice = searchPager.find(PageRequest.of(1, 2), SearchCountMode.NONE,
+                maxResults -> List.of(2), () -> 0, OptionalLong.empty());
+
+        Assertions.assertInstanceOf(Page.class, slice);
+        Assertions.assertFalse(slice.hasNext());
+        Assertions.assertEquals(3, ((Page<Integer>) slice).getTotalElements());
+    }
+
+    @DisplayName("Parallel count completed in time returns the total")
+    @Test
+    public void parallelCount() {
+        Slice<Integer> slice = searchPager.find(PageRequest.of(0, 2), SearchCountMode.PARALLEL, this::results,
+                () -> 7, OptionalLong.empty());
+
+        Assertions.assertInstanceOf(Page.class, slice);
+        Assertions.assertEquals(7, ((Page<Integer>) slice).getTotalElements());
+        Assertions.assertEquals(List.of(0, 1), slice.getContent());
+    }
+
+    @DisplayName("Parallel count not completed in time is omitted")
+    @Test
+    public void parallelCountTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Slice<Integer> slice = searchPager.find(PageRequest.of(0, 2), SearchCountMode.PARALLEL, this::results,
+                    () -> {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return 7;
+                    }, OptionalLong.empty());
+
+            Assertions.assertFalse(slice instanceof Page);
+            Assertions.assertTrue(slice.hasNext());
+            Assertions.assertEquals(1, meterRegistry.counter(SearchPager.METRIC_PARALLEL_COUNT_MISSED).count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @DisplayName("Estimated total is returned without counting")
+    @Test
+    public void estimatedTotal() {
+        AtomicInteger counts = new AtomicInteger();
+        Slice<Integer> slice = searchPager.find(PageRequest.of(0, 2), SearchCountMode.EXACT, this::results,
+                counts::incrementAndGet, OptionalLong.of(1000));
+
+        Assertions.assertInstanceOf(ApproximatePage.class, slice);
+        Assertions.assertEquals(1000, ((Page<Integer>) slice).getTotalElements());
+        Assertions.assertInstanceOf(ApproximatePage.class, slice.map(String::valueOf));
+        Assertions.assertEquals(0, counts.get());
+    }
+
+    @DisplayName("Estimated total is not returned on the last page")
+    @Test
+    public void estimatedTotalLastPage() {
+        Slice<Integer> slice = searchPager.find(PageRequest.of(0, 5), SearchCountMode.EXACT, maxResults -> List.of(1),
+                () -> 0, OptionalLong.of(1000));
+
+        Assertions.assertFalse(slice instanceof ApproximatePage);
+        Assertions.assertEquals(1, ((Page<Integer>) slice).getTotalElements());
+    }
+
+    private List<Integer> results(final int maxResults) {
+        return IntStream.range(0, maxResults).boxed().toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.repository.transaction.TransactionCustomerText;
+import com.example.empay.repository.transaction.TransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class CustomerTextIndexTests {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    @DisplayName("No search is resolved until the index is built")
+    @Test
+    public void notResolvedUntilBuilt() {
+        CustomerTextIndex index = newIndex(true, 10, Mockito.mock(TransactionRepository.class));
+        index.put(UUID.randomUUID(), NOW, "john@test.com", null);
+
+        Assertions.assertEquals(Optional.empty(),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "john"));
+    }
+
+    @DisplayName("Existing and added transactions are found by substring ignoring case")
+    @Test
+    public void existingAndAddedFound() {
+        UUID existing = UUID.randomUUID();
+        UUID added = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        TransactionCustomerText existingText = customerText(existing, "John.Smith@yahoo.com", "+1235234234");
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(transactionRepository.streamAllCustomerText()).thenReturn(Stream.of(existingText));
+        CustomerTextIndex index = newIndex(true, 10, transactionRepository);
+
+        index.build();
+        index.put(added, NOW, "johnny@abv.bg", null);
+        index.put(other, NOW, "jon.smith@gmail.com", "08881223412345");
+
+        Assertions.assertEquals(Optional.of(Set.of(existing, added)),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "JOHN"));
+        Assertions.assertEquals(Optional.of(Set.of(existing)),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "hn.smith"));
+        Assertions.assertEquals(Optional.of(Set.of(other)),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_PHONE, "1223"));
+        Assertions.assertEquals(Optional.of(Set.of()),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "nosuchcustomer"));
+    }
+
+    @DisplayName("Values shorter than a trigram and values matching too many transactions fall back to SQL")
+    @Test
+    public void fallBackToSql() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(transactionRepository.streamAllCustomerText()).thenReturn(Stream.empty());
+        CustomerTextIndex index = newIndex(true, 10, transactionRepository);
+
+        index.build();
+        IntStream.range(0, 20).forEach(i -> index.put(UUID.randomUUID(), NOW, "customer" + i + "@test.com", null));
+
+        Assertions.assertEquals(Optional.empty(),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "cu"));
+        Assertions.assertEquals(Optional.empty(),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "@test.com"));
+        Assertions.assertEquals(1, index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "customer15@")
+                .orElseThrow().size());
+    }
+
+    @DisplayName("Deleted transactions are removed")
+    @Test
+    public void removeDeleted() {
+        UUID old = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(transactionRepository.streamAllCustomerText()).thenReturn(Stream.empty());
+        CustomerTextIndex index = newIndex(true, 10, transactionRepository);
+
+        index.build();
+        index.put(old, NOW.minusHours(2), "john@test.com", null);
+        index.put(kept, NOW, "john@test.com", null);
+
+        Assertions.assertEquals(1, index.removeCreatedBefore(NOW.minusHours(1)));
+        Assertions.assertEquals(Optional.of(Set.of(kept)),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "john"));
+    }
+
+    @DisplayName("Disabled index resolves no search")
+    @Test
+    public void disabled() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        CustomerTextIndex index = newIndex(false, 10, transactionRepository);
+
+        index.build();
+        index.put(UUID.randomUUID(), NOW, "john@test.com", null);
+
+        Assertions.assertEquals(Optional.empty(),
+                index.findContaining(CustomerTextIndex.PROPERTY_CUSTOMER_EMAIL, "john"));
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @DisplayName("Index cannot be enabled with more than one instance")
+    @Test
+    public void multipleInstancesRejected() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new CustomerTextIndex(true, 10, 1000, 2, transactionRepository, transactionManager));
+        Assertions.assertDoesNotThrow(
+                () -> new CustomerTextIndex(false, 10, 1000, 2, transactionRepository, transactionManager));
+    }
+
+    private static TransactionCustomerText customerText(final UUID id, final String customerEmail,
+                                                        final String customerPhone) {
+        TransactionCustomerText customerText = Mockito.mock(TransactionCustomerText.class);
+        Mockito.when(customerText.getId()).thenReturn(id);
+        Mockito.when(customerText.getCreatedDate()).thenReturn(NOW);
+        Mockito.when(customerText.getCustomerEmail()).thenReturn(customerEmail);
+        Mockito.when(customerText.getCustomerPhone()).thenReturn(customerPhone);
+        return customerText;
+    }
+
+    private static CustomerTextIndex newIndex(final boolean enabled, final int maxCandidates,
+                                              final TransactionRepository transactionRepository) {
+        return new CustomerTextIndex(enabled, maxCandidates, 1000, 1, transactionRepository,
+                Mockito.mock(PlatformTransactionManager.class));
+    }
+}
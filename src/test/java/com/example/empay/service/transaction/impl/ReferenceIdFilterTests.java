@@ -0,0 +1,74 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.repository.transaction.TransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class ReferenceIdFilterTests {
+
+    @DisplayName("Every reference ID is possibly used until the filter is built")
+    @Test
+    public void possiblyUsedUntilBuilt() {
+        ReferenceIdFilter filter = newFilter(true, Mockito.mock(TransactionRepository.class));
+
+        Assertions.assertTrue(filter.mightContain("REF1"));
+    }
+
+    @DisplayName("Existing and added reference IDs are possibly used, new ones mostly not")
+    @Test
+    public void existingAndAddedContained() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(transactionRepository.streamAllReferenceIds())
+                .thenReturn(IntStream.range(0, 1000).mapToObj(i -> "EXISTING" + i));
+        ReferenceIdFilter filter = newFilter(true, transactionRepository);
+
+        filter.rebuild();
+        filter.put("ADDED");
+
+        Assertions.assertTrue(IntStream.range(0, 1000).allMatch(i -> filter.mightContain("EXISTING" + i)));
+        Assertions.assertTrue(filter.mightContain("ADDED"));
+        long falsePositives = IntStream.range(0, 1000).filter(i -> filter.mightContain("NEW" + i)).count();
+        Assertions.assertTrue(falsePositives < 50, "Too many false positives: " + falsePositives);
+    }
+
+    @DisplayName("Deleted reference IDs are removed by a rebuild")
+    @Test
+    public void rebuildRemovesDeleted() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(transactionRepository.streamAllReferenceIds())
+                .thenReturn(Stream.of("OLD"))
+                .thenReturn(Stream.of("KEPT"));
+        ReferenceIdFilter filter = newFilter(true, transactionRepository);
+
+        filter.rebuild();
+        Assertions.assertTrue(filter.mightContain("OLD"));
+
+        filter.rebuild();
+        Assertions.assertFalse(filter.mightContain("OLD"));
+        Assertions.assertTrue(filter.mightContain("KEPT"));
+    }
+
+    @DisplayName("Disabled filter considers every reference ID possibly used")
+    @Test
+    public void disabled() {
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+        ReferenceIdFilter filter = newFilter(false, transactionRepository);
+
+        filter.rebuild();
+
+        Assertions.assertTrue(filter.mightContain("REF1"));
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    private static ReferenceIdFilter newFilter(final boolean enabled,
+                                               final TransactionRepository transactionRepository) {
+        return new ReferenceIdFilter(enabled, 10000, 0.01, transactionRepository,
+                Mockito.mock(PlatformTransactionManager.class));
+    }
+}
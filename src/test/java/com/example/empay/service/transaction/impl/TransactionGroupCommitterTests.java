@@ -0,0 +1,214 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.exception.TransactionOverloadException;
+import com.example.empay.exception.TransactionValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+public class TransactionGroupCommitterTests {
+
+    private static final int BATCH_SIZE = 4;
+
+    TransactionServiceImpl transactionService;
+
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TransactionGroupCommitter groupCommitter;
+
+    @BeforeEach
+    public void setup() {
+        transactionService = Mockito.mock(TransactionServiceImpl.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(transactionManager.getTransaction(Mockito.any(TransactionDefinition.class)))
+                .thenAnswer(mock -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+
+        groupCommitter = new TransactionGroupCommitter();
+        ReflectionTestUtils.setField(groupCommitter, "enabled", true);
+        // A long window, so that all submitted transactions end up in a single batch
+        ReflectionTestUtils.setField(groupCommitter, "windowMillis", 5000L);
+        ReflectionTestUtils.setField(groupCommitter, "maxBatchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(groupCommitter, "queueCapacity", 100);
+        ReflectionTestUtils.setField(groupCommitter, "workerCount", 1);
+        ReflectionTestUtils.setField(groupCommitter, "timeoutMillis", 10000L);
+        ReflectionTestUtils.setField(groupCommitter, "transactionService", transactionService);
+        ReflectionTestUtils.setField(groupCommitter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(groupCommitter, "meterRegistry", meterRegistry);
+        groupCommitter.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        groupCommitter.stop();
+    }
+
+    @DisplayName("Concurrent transactions are created in a single database transaction")
+    @Test
+    public void batchCommittedOnce() throws Exception {
+        Mockito.when(transactionService.addToBatch(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong()))
+                .thenAnswer(mock -> {
+                    Assertions.assertTrue(TransactionGroupCommitter.isInBatch());
+                    return new TransactionDto().setId(UUID.randomUUID())
+                            .setReferenceId(((TransactionCreateRequest) mock.getArguments()[0]).getReferenceId());
+                });
+
+        List<CompletableFuture<TransactionDto>> results = submit(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Assertions.assertEquals("ref-" + i, results.get(i).get(10, TimeUnit.SECONDS).getReferenceId());
+        }
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(Mockito.any());
+        Assertions.assertEquals(1, meterRegistry.get(TransactionGroupCommitter.METRIC_BATCH_SIZE).summary().count());
+        Assertions.assertEquals(BATCH_SIZE,
+                meterRegistry.get(TransactionGroupCommitter.METRIC_BATCH_SIZE).summary().totalAmount());
+    }
+
+    @DisplayName("A transaction failing validation fails only its own request without rolling back the batch")
+    @Test
+    public void validationFailureIsolated() throws Exception {
+        Mockito.when(transactionService.addToBatch(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong()))
+                .thenAnswer(mock -> created(mock.getArgument(0), new TransactionValidationException("Invalid")));
+
+        List<CompletableFuture<TransactionDto>> results = submit(BATCH_SIZE);
+
+        assertFailedOnlyFirst(results, TransactionValidationException.class);
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(Mockito.any());
+        Mockito.verify(transactionManager, Mockito.never()).rollback(Mockito.any());
+        Mockito.verify(transactionService, Mockito.never())
+                .add(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong());
+        Assertions.assertEquals(0.0,
+                meterRegistry.get(TransactionGroupCommitter.METRIC_BATCH_FALLBACK).counter().count());
+    }
+
+    @DisplayName("A database failure rolls back the batch and fails only its own request")
+    @Test
+    public void databaseFailureIsolated() throws Exception {
+        Mockito.when(transactionService.addToBatch(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong()))
+                .thenAnswer(mock -> created(mock.getArgument(0), new IllegalStateException("Constraint violated")));
+        Mockito.when(transactionService.add(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong()))
+                .thenAnswer(mock -> created(mock.getArgument(0), new IllegalStateException("Constraint violated")));
+
+        List<CompletableFuture<TransactionDto>> results = submit(BATCH_SIZE);
+
+        assertFailedOnlyFirst(results, IllegalStateException.class);
+        Mockito.verify(transactionManager).rollback(Mockito.any());
+        Mockito.verify(transactionService, Mockito.times(BATCH_SIZE))
+                .add(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong());
+        Assertions.assertEquals(1.0,
+                meterRegistry.get(TransactionGroupCommitter.METRIC_BATCH_FALLBACK).counter().count());
+    }
+
+    @DisplayName("Transactions of a batch are created in the order of the merchant IDs")
+    @Test
+    public void sortedByMerchant() throws Exception {
+        List<Long> merchantIds = new ArrayList<>();
+        Mockito.when(transactionService.addToBatch(Mockito.any(TransactionCreateRequest.class), Mockito.anyLong()))
+                .thenAnswer(mock -> {
+                    merchantIds.add(mock.getArgument(1));
+                    return new TransactionDto().setId(UUID.randomUUID());
+                });
+
+        List<CompletableFuture<TransactionDto>> results = submit(BATCH_SIZE, i -> (long) (BATCH_SIZE - i));
+
+        for (CompletableFuture<TransactionDto> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L), merchantIds);
+    }
+
+    @DisplayName("Stopping fails the transactions waiting for a batch")
+    @Test
+    public void stopFailsPending() throws Exception {
+        // The worker waits for the window to close, so the submitted transactions stay pending
+        List<CompletableFuture<TransactionDto>> results = submit(BATCH_SIZE - 1);
+
+        groupCommitter.stop();
+
+        for (CompletableFuture<TransactionDto> result : results) {
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> result.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TransactionOverloadException.class, exception.getCause());
+        }
+        Mockito.verifyNoInteractions(transactionService);
+    }
+
+    @DisplayName("Waiting for the result of a transaction is bounded")
+    @Test
+    public void waitBounded() {
+        ReflectionTestUtils.setField(groupCommitter, "timeoutMillis", 50L);
+
+        Assertions.assertThrows(TransactionOverloadException.class,
+                () -> groupCommitter.add(new TransactionCreateRequest().setReferenceId("ref-0"), 1L));
+        Mockito.verifyNoInteractions(transactionService);
+    }
+
+    private static TransactionDto created(final TransactionCreateRequest request, final RuntimeException failure) {
+        if ("ref-1".equals(request.getReferenceId())) {
+            throw failure;
+        }
+        return new TransactionDto().setId(UUID.randomUUID()).setReferenceId(request.getReferenceId());
+    }
+
+    private static void assertFailedOnlyFirst(final List<CompletableFuture<TransactionDto>> results,
+                                              final Class<? extends RuntimeException> failure) throws Exception {
+        for (int i = 0; i < results.size(); i++) {
+            if (i == 1) {
+                int index = i;
+                ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                        () -> results.get(index).get(10, TimeUnit.SECONDS));
+                Assertions.assertInstanceOf(failure, exception.getCause());
+            } else {
+                Assertions.assertEquals("ref-" + i, results.get(i).get(10, TimeUnit.SECONDS).getReferenceId());
+            }
+        }
+    }
+
+    private List<CompletableFuture<TransactionDto>> submit(final int count) throws InterruptedException {
+        return submit(count, i -> 1L);
+    }
+
+    private List<CompletableFuture<TransactionDto>> submit(final int count, final IntFunction<Long> merchantIds)
+            throws InterruptedException {
+        CountDownLatch submitted = new CountDownLatch(count);
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TransactionCreateRequest request = new TransactionCreateRequest().setReferenceId("ref-" + i);
+            Long merchantId = merchantIds.apply(i);
+            CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                submitted.countDown();
+                try {
+                    result.complete(groupCommitter.add(request, merchantId));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            thread.start();
+            results.add(result);
+        }
+        Assertions.assertTrue(submitted.await(10, TimeUnit.SECONDS));
+        return results;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransactionIdempotencyRegistryTests {
+
+    @DisplayName("Repeated transaction is replayed from the cache")
+    @Test
+    public void replayedFromCache() {
+        TransactionServiceImpl transactionService = Mockito.mock(TransactionServiceImpl.class);
+        Mockito.when(transactionService.getByReferenceId(1L, "REF1")).thenReturn(Optional.empty());
+        TransactionIdempotencyRegistry registry =
+                new TransactionIdempotencyRegistry(true, 10, transactionService, new SimpleMeterRegistry());
+        AtomicInteger created = new AtomicInteger();
+
+        TransactionDto first = registry.execute(1L, "REF1", () -> newTransaction(created));
+        TransactionDto second = registry.execute(1L, "REF1", () -> newTransaction(created));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, created.get());
+        Mockito.verify(transactionService, Mockito.times(1)).getByReferenceId(1L, "REF1");
+    }
+
+    @DisplayName("Repeated transaction is replayed from the database")
+    @Test
+    public void replayedFromDatabase() {
+        TransactionDto existing = new TransactionDto().setId(UUID.randomUUID());
+        TransactionServiceImpl transactionService = Mockito.mock(TransactionServiceImpl.class);
+        Mockito.when(transactionService.getByReferenceId(1L, "REF1")).thenReturn(Optional.of(existing));
+        TransactionIdempotencyRegistry registry =
+                new TransactionIdempotencyRegistry(true, 10, transactionService, new SimpleMeterRegistry());
+        AtomicInteger created = new AtomicInteger();
+
+        Assertions.assertSame(existing, registry.execute(1L, "REF1", () -> newTransaction(created)));
+        Assertions.assertEquals(0, created.get());
+    }
+
+    @DisplayName("Transactions without reference ID or of another merchant are always created")
+    @Test
+    public void createdWithoutReferenceId() {
+        TransactionServiceImpl transactionService = Mockito.mock(TransactionServiceImpl.class);
+        Mockito.when(transactionService.getByReferenceId(Mockito.anyLong(), Mockito.anyString()))
+                .thenReturn(Optional.empty());
+        TransactionIdempotencyRegistry registry =
+                new TransactionIdempotencyRegistry(true, 10, transactionService, new SimpleMeterRegistry());
+        AtomicInteger created = new AtomicInteger();
+
+        registry.execute(1L, null, () -> newTransaction(created));
+        registry.execute(1L, null, () -> newTransaction(created));
+        registry.execute(1L, "REF1", () -> newTransaction(created));
+        registry.execute(2L, "REF1", () -> newTransaction(created));
+
+        Assertions.assertEquals(4, created.get());
+    }
+
+    @DisplayName("Concurrent repeated transactions are coalesced")
+    @Test
+    public void concurrentCoalesced() throws Exception {
+        TransactionServiceImpl transactionService = Mockito.mock(TransactionServiceImpl.class);
+        Mockito.when(transactionService.getByReferenceId(1L, "REF1")).thenReturn(Optional.empty());
+        TransactionIdempotencyRegistry registry =
+                new TransactionIdempotencyRegistry(true, 10, transactionService, new SimpleMeterRegistry());
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<TransactionDto> first = CompletableFuture.supplyAsync(() ->
+                registry.execute(1L, "REF1", () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return newTransaction(created);
+                }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<TransactionDto> second = CompletableFuture.supplyAsync(() ->
+                registry.execute(1L, "REF1", () -> newTransaction(created)));
+        release.countDown();
+
+        Assertions.assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, created.get());
+    }
+
+    @DisplayName("Failed transactions are not cached")
+    @Test
+    public void failureNotCached() {
+        TransactionServiceImpl transactionService = Mockito.mock(TransactionServiceImpl.class);
+        Mockito.when(transactionService.getByReferenceId(1L, "REF1")).thenReturn(Optional.empty());
+        TransactionIdempotencyRegistry registry =
+                new TransactionIdempotencyRegistry(true, 10, transactionService, new SimpleMeterRegistry());
+        AtomicInteger created = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> registry.execute(1L, "REF1", () -> {
+            throw new IllegalStateException("Failed");
+        }));
+        registry.execute(1L, "REF1", () -> newTransaction(created));
+
+        Assertions.assertEquals(1, created.get());
+    }
+
+    private static TransactionDto newTransaction(final AtomicInteger created) {
+        created.incrementAndGet();
+        return new TransactionDto().setId(UUID.randomUUID());
+    }
+}
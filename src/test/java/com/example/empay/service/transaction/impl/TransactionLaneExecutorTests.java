@@ -0,0 +1,234 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.dto.transaction.TransactionDto;
+import com.example.empay.exception.TransactionOverloadException;
+import com.example.empay.exception.TransactionValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionLaneExecutorTests {
+
+    TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    public void setup() {
+        transactionService = Mockito.mock(TransactionServiceImpl.class);
+    }
+
+    @DisplayName("Disabled lanes execute tasks on the calling thread")
+    @Test
+    public void disabledExecutesInline() {
+        TransactionLaneExecutor executor = newExecutor(false, 2, 10, new SimpleMeterRegistry());
+
+        Thread caller = Thread.currentThread();
+        Assertions.assertSame(caller, executor.execute(1L, Thread::currentThread));
+        Assertions.assertFalse(TransactionLaneExecutor.isLaneThread());
+    }
+
+    @DisplayName("Tasks of the same merchant are executed on the same lane thread")
+    @Test
+    public void sameMerchantSameLane() {
+        TransactionLaneExecutor executor = newExecutor(true, 4, 10, new SimpleMeterRegistry());
+        try {
+            Thread first = executor.execute(7L, Thread::currentThread);
+            Thread second = executor.execute(7L, Thread::currentThread);
+
+            Assertions.assertSame(first, second);
+            Assertions.assertNotSame(Thread.currentThread(), first);
+            Assertions.assertTrue(executor.execute(7L, TransactionLaneExecutor::isLaneThread));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Exceptions thrown on a lane are propagated to the caller")
+    @Test
+    public void exceptionPropagated() {
+        TransactionLaneExecutor executor = newExecutor(true, 1, 10, new SimpleMeterRegistry());
+        try {
+            TransactionValidationException exception = Assertions.assertThrows(TransactionValidationException.class,
+                    () -> executor.execute(1L, () -> {
+                        throw new TransactionValidationException("Invalid");
+                    }));
+            Assertions.assertEquals("Invalid", exception.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Tasks are rejected when the lane queue is full")
+    @Test
+    public void rejectedWhenQueueFull() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionLaneExecutor executor = newExecutor(true, 1, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.execute(2L, () -> true));
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (meterRegistry.get(TransactionLaneExecutor.METRIC_QUEUE_DEPTH).gauge().value() < 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertThrows(TransactionOverloadException.class, () -> executor.execute(3L, () -> true));
+            Assertions.assertEquals(1.0, meterRegistry.get(TransactionLaneExecutor.METRIC_REJECTED).counter().count());
+
+            release.countDown();
+            Assertions.assertTrue(running.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Queued transactions of a merchant are created in a single batch")
+    @Test
+    public void merchantTransactionsBatched() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionLaneExecutor executor = newExecutor(true, 1, 10, meterRegistry);
+        Mockito.when(transactionService.addBatch(Mockito.anyList(), Mockito.eq(1L))).thenReturn(List.of(
+                TransactionBatchItemResult.created(new TransactionDto().setReferenceId("ref-0")),
+                TransactionBatchItemResult.failed("Invalid")));
+        Mockito.when(transactionService.add(Mockito.any(TransactionCreateRequest.class), Mockito.eq(2L)))
+                .thenReturn(new TransactionDto().setReferenceId("ref-1"));
+        try {
+            List<CompletableFuture<TransactionDto>> results = submitWhileBlocked(executor, meterRegistry, 1L, 2L, 1L);
+
+            Assertions.assertEquals("ref-0", results.get(0).get(10, TimeUnit.SECONDS).getReferenceId());
+            Assertions.assertEquals("ref-1", results.get(1).get(10, TimeUnit.SECONDS).getReferenceId());
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> results.get(2).get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TransactionValidationException.class, exception.getCause());
+            Assertions.assertEquals("Invalid", exception.getCause().getMessage());
+
+            Mockito.verify(transactionService).addBatch(Mockito.argThat(requests -> requests.size() == 2
+                    && "ref-0".equals(requests.get(0).getReferenceId())
+                    && "ref-2".equals(requests.get(1).getReferenceId())), Mockito.eq(1L));
+            Mockito.verify(transactionService, Mockito.never())
+                    .add(Mockito.any(TransactionCreateRequest.class), Mockito.eq(1L));
+            Assertions.assertEquals(2, meterRegistry.get(TransactionLaneExecutor.METRIC_BATCH_SIZE).summary().count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Transactions of a failed batch are created one by one")
+    @Test
+    public void failedBatchCreatedIndividually() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionLaneExecutor executor = newExecutor(true, 1, 10, meterRegistry);
+        Mockito.when(transactionService.addBatch(Mockito.anyList(), Mockito.eq(1L)))
+                .thenThrow(new IllegalStateException("Deadlock"));
+        Mockito.when(transactionService.add(Mockito.any(TransactionCreateRequest.class), Mockito.eq(1L)))
+                .thenAnswer(mock -> new TransactionDto()
+                        .setReferenceId(((TransactionCreateRequest) mock.getArguments()[0]).getReferenceId()));
+        try {
+            List<CompletableFuture<TransactionDto>> results = submitWhileBlocked(executor, meterRegistry, 1L, 1L);
+
+            Assertions.assertEquals("ref-0", results.get(0).get(10, TimeUnit.SECONDS).getReferenceId());
+            Assertions.assertEquals("ref-1", results.get(1).get(10, TimeUnit.SECONDS).getReferenceId());
+            Mockito.verify(transactionService, Mockito.times(2))
+                    .add(Mockito.any(TransactionCreateRequest.class), Mockito.eq(1L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("Queued transactions fail when the lanes are stopped")
+    @Test
+    public void shutdownFailsQueued() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionLaneExecutor executor = newExecutor(true, 1, 10, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture.runAsync(() -> executor.execute(1L, () -> await(release)));
+            CompletableFuture<TransactionDto> queued = CompletableFuture.supplyAsync(
+                    () -> executor.add(new TransactionCreateRequest().setReferenceId("ref-0"), 1L));
+            awaitQueueDepth(meterRegistry, 1);
+
+            executor.shutdown();
+
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> queued.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TransactionOverloadException.class, exception.getCause());
+            Mockito.verifyNoInteractions(transactionService);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Submit a transaction of each merchant while the lane is blocked by a task, so that all of them are queued and
+     * taken by the lane together.
+     */
+    private List<CompletableFuture<TransactionDto>> submitWhileBlocked(final TransactionLaneExecutor executor,
+                                                                    final SimpleMeterRegistry meterRegistry,
+                                                                    final Long... merchantIds) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocking = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> {
+            started.countDown();
+            return await(release);
+        }));
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<TransactionDto>> results = new ArrayList<>();
+        for (int i = 0; i < merchantIds.length; i++) {
+            TransactionCreateRequest request = new TransactionCreateRequest().setReferenceId("ref-" + i);
+            Long merchantId = merchantIds[i];
+            results.add(CompletableFuture.supplyAsync(() -> executor.add(request, merchantId)));
+            // Wait for each transaction to be queued, so that the submission order is known
+            awaitQueueDepth(meterRegistry, i + 1);
+        }
+        release.countDown();
+        Assertions.assertTrue(blocking.get(10, TimeUnit.SECONDS));
+        return results;
+    }
+
+    private static void awaitQueueDepth(final SimpleMeterRegistry meterRegistry, final int depth)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (meterRegistry.get(TransactionLaneExecutor.METRIC_QUEUE_DEPTH).gauge().value() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean await(final CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionLaneExecutor newExecutor(final boolean enabled, final int laneCount, final int queueCapacity,
+                                                final SimpleMeterRegistry meterRegistry) {
+        return new TransactionLaneExecutor(enabled, laneCount, queueCapacity, 10, meterRegistry, transactionService);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.exception.TransactionOverloadException;
+import com.example.empay.exception.TransactionValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransactionRetryPolicyTests {
+
+    @DisplayName("Lock timeouts and deadlocks are retryable, other failures are not")
+    @Test
+    public void classification() {
+        Assertions.assertTrue(TransactionRetryPolicy.isRetryable(new CannotAcquireLockException("timeout")));
+        Assertions.assertTrue(TransactionRetryPolicy.isRetryable(
+                new DeadlockLoserDataAccessException("deadlock", null)));
+        Assertions.assertTrue(TransactionRetryPolicy.isRetryable(new IllegalStateException("wrapped",
+                new SQLException("deadlock", "40P01"))));
+        Assertions.assertFalse(TransactionRetryPolicy.isRetryable(new DataIntegrityViolationException("unique",
+                new SQLException("unique", "23505"))));
+        Assertions.assertFalse(TransactionRetryPolicy.isRetryable(new TransactionValidationException("Invalid")));
+        Assertions.assertFalse(TransactionRetryPolicy.isRetryable(new TransactionOverloadException("Rejected",
+                new CannotAcquireLockException("timeout"))));
+    }
+
+    @DisplayName("Failed attempts are retried until one succeeds")
+    @Test
+    public void retriedUntilSuccess() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionRetryPolicy retryPolicy = new TransactionRetryPolicy(3, 1, 2, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryPolicy.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("timeout");
+            }
+            return "done";
+        });
+
+        Assertions.assertEquals("done", result);
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(2, meterRegistry.counter(TransactionRetryPolicy.METRIC_RETRIES).count());
+        Assertions.assertEquals(0, meterRegistry.counter(TransactionRetryPolicy.METRIC_EXHAUSTED).count());
+    }
+
+    @DisplayName("Request is rejected when the attempts are exhausted")
+    @Test
+    public void rejectedWhenExhausted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionRetryPolicy retryPolicy = new TransactionRetryPolicy(2, 1, 2, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        TransactionOverloadException exception = Assertions.assertThrows(TransactionOverloadException.class,
+                () -> retryPolicy.execute(() -> {
+                    attempts.incrementAndGet();
+                    throw new DeadlockLoserDataAccessException("deadlock", null);
+                }));
+
+        Assertions.assertInstanceOf(DeadlockLoserDataAccessException.class, exception.getCause());
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertEquals(1, meterRegistry.counter(TransactionRetryPolicy.METRIC_RETRIES).count());
+        Assertions.assertEquals(1, meterRegistry.counter(TransactionRetryPolicy.METRIC_EXHAUSTED).count());
+    }
+
+    @DisplayName("Other failures are propagated without retrying")
+    @Test
+    public void otherFailuresNotRetried() {
+        TransactionRetryPolicy retryPolicy = new TransactionRetryPolicy(3, 1, 2, new SimpleMeterRegistry());
+        AtomicInteger attempts = new AtomicInteger();
+
+        Assertions.assertThrows(TransactionValidationException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new TransactionValidationException("Invalid");
+        }));
+
+        Assertions.assertEquals(1, attempts.get());
+    }
+}
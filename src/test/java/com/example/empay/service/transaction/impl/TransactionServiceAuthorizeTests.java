@@ -9,8 +9,9 @@ import com.example.empay.entity.transaction.TransactionStatusType;
 import com.example.empay.entity.transaction.TransactionType;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -38,10 +40,13 @@ public class TransactionServiceAuthorizeTests {
     MerchantRepository merchantRepository;
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    MerchantBalanceService merchantBalanceService;
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
 
     @InjectMocks
     TransactionServiceImpl transactionService;
@@ -60,7 +65,7 @@ public class TransactionServiceAuthorizeTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -69,11 +74,6 @@ public class TransactionServiceAuthorizeTests {
                 .setCustomerPhone("123123123");
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.APPROVED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.name()));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
                 .thenAnswer(mock -> {
@@ -0,0 +1,254 @@
+package com.example.empay.service.transaction.impl;
+
+import com.example.empay.dto.transaction.TransactionBatchItemResult;
+import com.example.empay.dto.transaction.TransactionCreateRequest;
+import com.example.empay.entity.merchant.Merchant;
+import com.example.empay.entity.merchant.MerchantStatusType;
+import com.example.empay.entity.transaction.Transaction;
+import com.example.empay.entity.transaction.TransactionStatusType;
+import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.exception.TransactionValidationException;
+import com.example.empay.repository.merchant.MerchantRepository;
+import com.example.empay.repository.transaction.TransactionRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import com.example.empay.util.TestUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionServiceBatchTests {
+
+    @Mock
+    TransactionRepository transactionRepository;
+
+    @Mock
+    MerchantRepository merchantRepository;
+
+    @Mock
+    MerchantBalanceService merchantBalanceService;
+
+    @Mock
+    ReferenceIdFilter referenceIdFilter;
+
+    @Mock
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
+
+    @InjectMocks
+    TransactionServiceImpl transactionService;
+
+    @Mock
+    EntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @DisplayName("Create batch of CHARGE transactions with a single balance read")
+    @Test
+    public void createChargeBatchSuccess() {
+        Merchant merchant = new Merchant()
+                .setId(1L)
+                .setName("Test Merchant")
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
+
+        List<TransactionCreateRequest> createRequests = List.of(
+                newChargeRequest("10.00", "REF1"),
+                newChargeRequest("20.00", "REF2"),
+                newChargeRequest("30.00", "REF3"),
+                newChargeRequest("40.00", "REF2"));
+
+        Mockito.when(referenceIdFilter.mightContain(Mockito.anyString())).thenReturn(true);
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any()))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantBalanceService.getTotalTransactionSum(merchant.getId()))
+                .thenReturn(Optional.of(BigDecimal.ZERO));
+        Mockito.when(transactionRepository.findExistingReferenceIds(Set.of("REF1", "REF2", "REF3")))
+                .thenReturn(List.of("REF3"));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(mock -> {
+                    Transaction t = (Transaction) mock.getArguments()[0];
+                    t.setId(UUID.randomUUID());
+                    t.setCreatedDate(ZonedDateTime.now());
+                    return t;
+                });
+
+        List<TransactionBatchItemResult> results = transactionService.addBatch(createRequests, merchant.getId());
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertEquals(new BigDecimal("10.00"), results.get(0).getTransaction().getAmount());
+        Assertions.assertEquals(new BigDecimal("20.00"), results.get(1).getTransaction().getAmount());
+        Assertions.assertNull(results.get(2).getTransaction());
+        Assertions.assertEquals("Transaction with reference ID [REF3] already exists.", results.get(2).getError());
+        Assertions.assertNull(results.get(3).getTransaction());
+        Assertions.assertEquals("Transaction with reference ID [REF2] already exists.", results.get(3).getError());
+        Mockito.verify(merchantBalanceService).getTotalTransactionSum(merchant.getId());
+        Mockito.verify(merchantBalanceService, Mockito.times(2)).append(Mockito.any(Transaction.class));
+        Mockito.verifyNoMoreInteractions(merchantBalanceService);
+        Mockito.verify(transactionRepository, Mockito.never()).saveAndFlush(Mockito.any());
+        Mockito.verify(referenceIdFilter).put("REF1");
+        Mockito.verify(referenceIdFilter).put("REF2");
+    }
+
+    @DisplayName("Reference IDs ruled out by the filter are not looked up in the database")
+    @Test
+    public void createBatchReferenceIdsFilteredOut() {
+        Merchant merchant = new Merchant()
+                .setId(1L)
+                .setName("Test Merchant")
+                .setStatus(MerchantStatusType.STATUS.INACTIVE);
+
+        Mockito.when(referenceIdFilter.mightContain("REF1")).thenReturn(false);
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any()))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantBalanceService.getTotalTransactionSum(merchant.getId()))
+                .thenReturn(Optional.of(BigDecimal.ZERO));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(mock -> mock.getArguments()[0]);
+
+        List<TransactionBatchItemResult> results =
+                transactionService.addBatch(List.of(newChargeRequest("10.00", "REF1")), merchant.getId());
+
+        Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(),
+                results.get(0).getTransaction().getStatus().getId());
+        Mockito.verify(transactionRepository, Mockito.never()).findExistingReferenceIds(Mockito.any());
+    }
+
+    @DisplayName("Transactions missing a required property fail on their own")
+    @Test
+    public void createBatchMissingRequiredProperty() {
+        Merchant merchant = new Merchant()
+                .setId(1L)
+                .setName("Test Merchant")
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any()))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantBalanceService.getTotalTransactionSum(merchant.getId()))
+                .thenReturn(Optional.of(BigDecimal.ZERO));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(mock -> mock.getArguments()[0]);
+
+        List<TransactionBatchItemResult> results = transactionService.addBatch(List.of(
+                new TransactionCreateRequest().setAmount(new BigDecimal("5.00"))
+                        .setTypeId(TransactionType.TYPE.REFUND.name()),
+                new TransactionCreateRequest().setTypeId(TransactionType.TYPE.REVERSAL.name()),
+                new TransactionCreateRequest().setTypeId(TransactionType.TYPE.CHARGE.name()),
+                newChargeRequest("10.00", null)), merchant.getId());
+
+        Assertions.assertEquals("Property [belongsToTransactionId] is required for transaction type REFUND",
+                results.get(0).getError());
+        Assertions.assertEquals("Property [belongsToTransactionId] is required for transaction type REVERSAL",
+                results.get(1).getError());
+        Assertions.assertEquals("Property [amount] is required for transaction type CHARGE",
+                results.get(2).getError());
+        Assertions.assertEquals(new BigDecimal("10.00"), results.get(3).getTransaction().getAmount());
+        Mockito.verify(transactionRepository, Mockito.times(1)).save(Mockito.any(Transaction.class));
+        Mockito.verify(merchantBalanceService).append(Mockito.any(Transaction.class));
+    }
+
+    @DisplayName("Failed batch due to merchant not found")
+    @Test
+    public void failedBatchMerchantNotFound() {
+        Mockito.when(merchantRepository.lockById(Mockito.eq(1L), Mockito.any())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(TransactionValidationException.class, () ->
+                transactionService.addBatch(List.of(newChargeRequest("10.00", null)), 1L));
+        Mockito.verifyNoInteractions(transactionRepository, merchantBalanceService);
+    }
+
+    @DisplayName("Saved transactions are added to the filter and the index only when the database transaction commits")
+    @Test
+    public void referenceIdsAddedAfterCommit() {
+        Merchant merchant = new Merchant()
+                .setId(1L)
+                .setName("Test Merchant")
+                .setStatus(MerchantStatusType.STATUS.INACTIVE);
+
+        Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
+        Mockito.when(transactionRepository.existsByReferenceId("REF1")).thenReturn(true);
+        Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
+                .thenAnswer(mock -> mock.getArguments()[0]);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactionService.add(newChargeRequest("10.00", "REF1"), merchant.getId());
+            Mockito.verify(referenceIdFilter, Mockito.never()).put(Mockito.anyString());
+            Mockito.verifyNoInteractions(customerTextIndex);
+
+            // The reference ID of a transaction saved in the same database transaction is looked up
+            Assertions.assertThrows(TransactionValidationException.class, () ->
+                    transactionService.add(newChargeRequest("20.00", "REF1"), merchant.getId()));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(referenceIdFilter).put("REF1");
+        Mockito.verify(customerTextIndex).put(Mockito.any(), Mockito.any(), Mockito.eq("test@nosuchemail.com"),
+                Mockito.isNull());
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(
+                TransactionServiceImpl.class.getName() + ".pendingCommit"));
+    }
+
+    @DisplayName("Transactions of a rolled back batch are not added to the filter and the index")
+    @Test
+    public void referenceIdsNotAddedAfterRollback() {
+        Merchant merchant = new Merchant()
+                .setId(1L)
+                .setName("Test Merchant")
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
+
+        Mockito.when(merchantRepository.lockById(Mockito.eq(merchant.getId()), Mockito.any()))
+                .thenReturn(Optional.of(merchant));
+        Mockito.when(merchantBalanceService.getTotalTransactionSum(merchant.getId()))
+                .thenReturn(Optional.of(BigDecimal.ZERO));
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
+                .thenAnswer(mock -> mock.getArguments()[0]);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transactionService.addBatch(List.of(newChargeRequest("10.00", "REF1")), merchant.getId());
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(referenceIdFilter, Mockito.never()).put(Mockito.anyString());
+        Mockito.verifyNoInteractions(customerTextIndex);
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(
+                TransactionServiceImpl.class.getName() + ".pendingCommit"));
+    }
+
+    private static TransactionCreateRequest newChargeRequest(final String amount, final String referenceId) {
+        return new TransactionCreateRequest()
+                .setAmount(new BigDecimal(amount))
+                .setTypeId(TransactionType.TYPE.CHARGE.name())
+                .setCustomerEmail("test@nosuchemail.com")
+                .setReferenceId(referenceId);
+    }
+}
@@ -7,11 +7,10 @@ import com.example.empay.entity.merchant.MerchantStatusType;
 import com.example.empay.entity.transaction.Transaction;
 import com.example.empay.entity.transaction.TransactionStatusType;
 import com.example.empay.entity.transaction.TransactionType;
-import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
@@ -19,10 +18,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -40,10 +41,13 @@ public class TransactionServiceChargeTests {
     MerchantRepository merchantRepository;
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    MerchantBalanceService merchantBalanceService;
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
 
     @InjectMocks
     TransactionServiceImpl transactionService;
@@ -62,7 +66,7 @@ public class TransactionServiceChargeTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -71,12 +75,6 @@ public class TransactionServiceChargeTests {
                 .setCustomerPhone("123123123");
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.lockById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.APPROVED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.name()));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
                 .thenAnswer(mock -> {
@@ -97,33 +95,11 @@ public class TransactionServiceChargeTests {
         Assertions.assertEquals(merchant.getId(), createdTransactionDto.getMerchantId());
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.APPROVED.name(), createdTransactionDto.getStatus().getId());
-    }
-
-    @DisplayName("Failed CHARGE due to pessimistic lock merchant not found")
-    @Test
-    public void failedChargePessimisticLockMerchantNotFound() {
-        Merchant merchant = new Merchant()
-                .setId(1L)
-                .setName("Test Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
-
-        Transaction chargeTransaction = TestUtil.createTransactionInstance();
-        TransactionCreateRequest createRequest = new TransactionCreateRequest()
-                .setAmount(new BigDecimal(10.12))
-                .setTypeId(TransactionType.TYPE.CHARGE.name())
-                .setBelongsToTransactionId(chargeTransaction.getId());
-
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.lockById(merchant.getId())).thenReturn(Optional.empty());
-
-        TransactionValidationException exception =
-                Assertions.assertThrows(TransactionValidationException.class, () ->
-                        transactionService.add(createRequest, merchant.getId()));
-
-        Assertions.assertTrue(exception.getMessage().contains("Merchant"));
-        Assertions.assertTrue(exception.getMessage().contains("does not exist"));
+        Assertions.assertEquals("Approved", createdTransactionDto.getStatus().getName());
+        Assertions.assertEquals("Charge", createdTransactionDto.getType().getName());
+        ArgumentCaptor<Transaction> appendedTransaction = ArgumentCaptor.forClass(Transaction.class);
+        Mockito.verify(merchantBalanceService).append(appendedTransaction.capture());
+        Assertions.assertEquals(createdTransactionDto.getId(), appendedTransaction.getValue().getId());
+        Mockito.verifyNoMoreInteractions(merchantBalanceService);
     }
 }
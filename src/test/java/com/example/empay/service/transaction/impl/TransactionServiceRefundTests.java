@@ -10,8 +10,8 @@ import com.example.empay.entity.transaction.TransactionType;
 import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
@@ -23,6 +23,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -40,10 +41,13 @@ public class TransactionServiceRefundTests {
     MerchantRepository merchantRepository;
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    MerchantBalanceService merchantBalanceService;
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
 
     @InjectMocks
     TransactionServiceImpl transactionService;
@@ -62,8 +66,8 @@ public class TransactionServiceRefundTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction chargeTransaction = TestUtil.createTransactionInstance();
 
@@ -74,11 +78,12 @@ public class TransactionServiceRefundTests {
                 .setCustomerPhone("123123123")
                 .setBelongsToTransactionId(chargeTransaction.getId());
 
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
-                .thenReturn(Optional.of(chargeTransaction));
+        Mockito.when(transactionRepository.updateStatusIfAmountAtLeast(Mockito.eq(chargeTransaction.getId()),
+                        Mockito.eq(merchant.getId()), Mockito.eq(TransactionType.TYPE.CHARGE),
+                        Mockito.eq(TransactionStatusType.TYPE.APPROVED), Mockito.eq(createRequest.getAmount()),
+                        Mockito.any(TransactionStatusType.TYPE.class), Mockito.any(ZonedDateTime.class)))
+                .thenReturn(1);
 
-        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
-                .thenAnswer(mock -> mock.getArguments()[0]);
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
                 .thenAnswer(mock -> {
                     Transaction t = (Transaction) mock.getArguments()[0];
@@ -88,16 +93,7 @@ public class TransactionServiceRefundTests {
                 });
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.lockById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.save(Mockito.any(Merchant.class))).thenAnswer(mock -> mock.getArguments()[0]);
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.APPROVED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.name()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.REFUNDED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.REFUNDED.name()));
+        Mockito.when(merchantBalanceService.lockIfSufficient(merchant, createRequest.getAmount())).thenReturn(true);
 
         TransactionDto createdTransactionDto = transactionService.add(createRequest, merchant.getId());
 
@@ -110,6 +106,15 @@ public class TransactionServiceRefundTests {
         Assertions.assertEquals(merchant.getId(), createdTransactionDto.getMerchantId());
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.APPROVED.name(), createdTransactionDto.getStatus().getId());
+        Mockito.verify(transactionRepository).updateStatusIfAmountAtLeast(Mockito.eq(chargeTransaction.getId()),
+                Mockito.eq(merchant.getId()), Mockito.eq(TransactionType.TYPE.CHARGE),
+                Mockito.eq(TransactionStatusType.TYPE.APPROVED), Mockito.eq(createRequest.getAmount()),
+                Mockito.eq(TransactionStatusType.TYPE.REFUNDED),
+                Mockito.any(ZonedDateTime.class));
+        Mockito.verify(transactionRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(merchantBalanceService).lockIfSufficient(merchant, createRequest.getAmount());
+        Mockito.verify(merchantBalanceService).append(Mockito.any(Transaction.class));
+        Mockito.verifyNoMoreInteractions(merchantBalanceService);
     }
 
     @DisplayName("Create REFUND of a non-existing CHARGE transaction")
@@ -118,8 +123,8 @@ public class TransactionServiceRefundTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         UUID chargeTransactionId = UUID.randomUUID();
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
@@ -130,9 +135,7 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(chargeTransactionId);
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionRepository.lockById(chargeTransactionId)).thenReturn(Optional.empty());
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
+        Mockito.when(transactionRepository.findById(chargeTransactionId)).thenReturn(Optional.empty());
 
         TransactionValidationException exception =
                 Assertions.assertThrows(TransactionValidationException.class, () ->
@@ -148,7 +151,7 @@ public class TransactionServiceRefundTests {
         Merchant otherMerchant = new Merchant()
                 .setId(2L)
                 .setName("Other Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction chargeTransaction = TestUtil.createTransactionInstance();
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
@@ -157,12 +160,9 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(chargeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(otherMerchant.getId())).thenReturn(Optional.of(otherMerchant));
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(chargeTransaction.getId()))
                 .thenReturn(Optional.of(chargeTransaction));
 
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
         TransactionValidationException exception =
                 Assertions.assertThrows(TransactionValidationException.class, () ->
                         transactionService.add(createRequest, otherMerchant.getId()));
@@ -171,48 +171,17 @@ public class TransactionServiceRefundTests {
                 exception.getMessage());
     }
 
-    @DisplayName("Failed REFUND due to pessimistic lock merchant not found")
-    @Test
-    public void failedRefundPessimisticLockMerchantNotFound() {
-        Merchant merchant = new Merchant()
-                .setId(1L)
-                .setName("Test Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
-
-        Transaction chargeTransaction = TestUtil.createTransactionInstance();
-        TransactionCreateRequest createRequest = new TransactionCreateRequest()
-                .setAmount(new BigDecimal(10.12))
-                .setTypeId(TransactionType.TYPE.REFUND.name())
-                .setBelongsToTransactionId(chargeTransaction.getId());
-
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
-                .thenReturn(Optional.of(chargeTransaction));
-
-        Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.lockById(merchant.getId())).thenReturn(Optional.empty());
-
-        TransactionValidationException exception =
-                Assertions.assertThrows(TransactionValidationException.class, () ->
-                        transactionService.add(createRequest, merchant.getId()));
-
-        Assertions.assertTrue(exception.getMessage().contains("Merchant"));
-        Assertions.assertTrue(exception.getMessage().contains("does not exist"));
-    }
-
     @DisplayName("Create REFUND of a transaction of a wrong type")
     @Test
     public void createRefundOfTransactionWrongType() {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction nonChargeTransaction = TestUtil.createTransactionInstance();
-        nonChargeTransaction.setType(new TransactionType().setId(TransactionType.TYPE.AUTHORIZE.name()));
+        nonChargeTransaction.setType(TransactionType.TYPE.AUTHORIZE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -220,13 +189,8 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(nonChargeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
-        Mockito.when(transactionRepository.lockById(nonChargeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(nonChargeTransaction.getId()))
                 .thenReturn(Optional.of(nonChargeTransaction));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
@@ -236,7 +200,6 @@ public class TransactionServiceRefundTests {
             return t;
         });
 
-
         TransactionDto createdTransactionDto = transactionService.add(createRequest, merchant.getId());
 
         Assertions.assertNotNull(createdTransactionDto.getId());
@@ -250,7 +213,7 @@ public class TransactionServiceRefundTests {
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), createdTransactionDto.getStatus().getId());
         Assertions.assertEquals(TransactionServiceImpl.ERROR_REASON_CANNOT_REFUND_TRANSACTION_OF_TYPE
-                        + nonChargeTransaction.getType().getId(),
+                        + nonChargeTransaction.getType().name(),
                 createdTransactionDto.getErrorReason());
     }
 
@@ -260,11 +223,11 @@ public class TransactionServiceRefundTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction chargeTransaction = TestUtil.createTransactionInstance();
-        chargeTransaction.setStatus(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
+        chargeTransaction.setStatus(TransactionStatusType.TYPE.ERROR);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -272,13 +235,8 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(chargeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(chargeTransaction.getId()))
                 .thenReturn(Optional.of(chargeTransaction));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
@@ -288,7 +246,6 @@ public class TransactionServiceRefundTests {
             return t;
         });
 
-
         TransactionDto createdTransactionDto = transactionService.add(createRequest, merchant.getId());
 
         Assertions.assertNotNull(createdTransactionDto.getId());
@@ -302,7 +259,7 @@ public class TransactionServiceRefundTests {
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), createdTransactionDto.getStatus().getId());
         Assertions.assertEquals(TransactionServiceImpl.ERROR_REASON_CANNOT_REFUND_CHARGE_TRANSACTION_IN_STATUS
-                        + chargeTransaction.getStatus().getId(),
+                        + chargeTransaction.getStatus().name(),
                 createdTransactionDto.getErrorReason());
     }
 
@@ -312,8 +269,8 @@ public class TransactionServiceRefundTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction chargeTransaction = TestUtil.createTransactionInstance();
         chargeTransaction.setAmount(new BigDecimal(10));
@@ -324,13 +281,8 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(chargeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(chargeTransaction.getId()))
                 .thenReturn(Optional.of(chargeTransaction));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
@@ -362,8 +314,8 @@ public class TransactionServiceRefundTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(10.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(10.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction chargeTransaction = TestUtil.createTransactionInstance();
         chargeTransaction.setAmount(new BigDecimal(100));
@@ -374,15 +326,13 @@ public class TransactionServiceRefundTests {
                 .setBelongsToTransactionId(chargeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(merchantRepository.lockById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
+        Mockito.when(merchantBalanceService.lockIfSufficient(merchant, createRequest.getAmount())).thenReturn(false);
 
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
-
-        Mockito.when(transactionRepository.lockById(chargeTransaction.getId()))
-                .thenReturn(Optional.of(chargeTransaction));
+        Mockito.when(transactionRepository.updateStatusIfAmountAtLeast(Mockito.eq(chargeTransaction.getId()),
+                        Mockito.eq(merchant.getId()), Mockito.eq(TransactionType.TYPE.CHARGE),
+                        Mockito.eq(TransactionStatusType.TYPE.APPROVED), Mockito.eq(createRequest.getAmount()),
+                        Mockito.any(), Mockito.any(ZonedDateTime.class)))
+                .thenReturn(1);
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
             Transaction t = (Transaction) mock.getArguments()[0];
@@ -406,5 +356,10 @@ public class TransactionServiceRefundTests {
         Assertions.assertEquals(
                 TransactionServiceImpl.ERROR_REASON_REFUND_TRANSACTION_AMOUNT_GREATER_THAN_MERCHANT_TOTAL_SUM,
                 createdTransactionDto.getErrorReason());
+        // The status of the CHARGE transaction is changed back
+        Mockito.verify(transactionRepository).updateStatus(Mockito.eq(chargeTransaction.getId()),
+                Mockito.eq(merchant.getId()), Mockito.eq(TransactionType.TYPE.CHARGE),
+                Mockito.eq(TransactionStatusType.TYPE.REFUNDED), Mockito.any(),
+                Mockito.any(ZonedDateTime.class));
     }
 }
@@ -10,8 +10,8 @@ import com.example.empay.entity.transaction.TransactionType;
 import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
@@ -23,6 +23,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -40,10 +41,13 @@ public class TransactionServiceReversalTests {
     MerchantRepository merchantRepository;
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    MerchantBalanceService merchantBalanceService;
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
 
     @InjectMocks
     TransactionServiceImpl transactionService;
@@ -62,11 +66,11 @@ public class TransactionServiceReversalTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction authorizeTransaction = TestUtil.createTransactionInstance();
-        authorizeTransaction.setType(new TransactionType().setId(TransactionType.TYPE.AUTHORIZE.name()));
+        authorizeTransaction.setType(TransactionType.TYPE.AUTHORIZE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(null)
@@ -75,11 +79,12 @@ public class TransactionServiceReversalTests {
                 .setCustomerPhone("123123123")
                 .setBelongsToTransactionId(authorizeTransaction.getId());
 
-        Mockito.when(transactionRepository.lockById(authorizeTransaction.getId()))
-                .thenReturn(Optional.of(authorizeTransaction));
-
-        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class)))
-                .thenAnswer(mock -> mock.getArguments()[0]);
+        Mockito.when(transactionRepository.updateStatus(Mockito.eq(authorizeTransaction.getId()),
+                        Mockito.eq(merchant.getId()), Mockito.eq(TransactionType.TYPE.AUTHORIZE),
+                        Mockito.eq(TransactionStatusType.TYPE.APPROVED),
+                        Mockito.eq(TransactionStatusType.TYPE.REVERSED),
+                        Mockito.any(ZonedDateTime.class)))
+                .thenReturn(1);
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
                 .thenAnswer(mock -> {
@@ -90,14 +95,6 @@ public class TransactionServiceReversalTests {
                 });
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.APPROVED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.name()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.REVERSED.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.REVERSED.name()));
 
         TransactionDto createdTransactionDto = transactionService.add(createRequest, merchant.getId());
 
@@ -110,6 +107,7 @@ public class TransactionServiceReversalTests {
         Assertions.assertEquals(merchant.getId(), createdTransactionDto.getMerchantId());
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.APPROVED.name(), createdTransactionDto.getStatus().getId());
+        Mockito.verify(transactionRepository, Mockito.never()).findById(Mockito.any());
     }
 
     @DisplayName("Create REVERSAL of a non-existing transaction")
@@ -118,8 +116,8 @@ public class TransactionServiceReversalTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         UUID chargeTransactionId = UUID.randomUUID();
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
@@ -130,9 +128,7 @@ public class TransactionServiceReversalTests {
                 .setBelongsToTransactionId(chargeTransactionId);
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionRepository.lockById(chargeTransactionId)).thenReturn(Optional.empty());
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
+        Mockito.when(transactionRepository.findById(chargeTransactionId)).thenReturn(Optional.empty());
 
         TransactionValidationException exception =
                 Assertions.assertThrows(TransactionValidationException.class, () ->
@@ -148,7 +144,7 @@ public class TransactionServiceReversalTests {
         Merchant otherMerchant = new Merchant()
                 .setId(2L)
                 .setName("Other Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction authorizeTransaction = TestUtil.createTransactionInstance();
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
@@ -157,12 +153,9 @@ public class TransactionServiceReversalTests {
                 .setBelongsToTransactionId(authorizeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(otherMerchant.getId())).thenReturn(Optional.of(otherMerchant));
-        Mockito.when(transactionRepository.lockById(authorizeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(authorizeTransaction.getId()))
                 .thenReturn(Optional.of(authorizeTransaction));
 
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
         TransactionValidationException exception =
                 Assertions.assertThrows(TransactionValidationException.class, () ->
                         transactionService.add(createRequest, otherMerchant.getId()));
@@ -177,11 +170,11 @@ public class TransactionServiceReversalTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction nonAuthTransaction = TestUtil.createTransactionInstance();
-        nonAuthTransaction.setType(new TransactionType().setId(TransactionType.TYPE.CHARGE.name()));
+        nonAuthTransaction.setType(TransactionType.TYPE.CHARGE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -189,13 +182,8 @@ public class TransactionServiceReversalTests {
                 .setBelongsToTransactionId(nonAuthTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
-        Mockito.when(transactionRepository.lockById(nonAuthTransaction.getId()))
+        Mockito.when(transactionRepository.findById(nonAuthTransaction.getId()))
                 .thenReturn(Optional.of(nonAuthTransaction));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
@@ -205,7 +193,6 @@ public class TransactionServiceReversalTests {
             return t;
         });
 
-
         TransactionDto createdTransactionDto = transactionService.add(createRequest, merchant.getId());
 
         Assertions.assertNotNull(createdTransactionDto.getId());
@@ -219,7 +206,7 @@ public class TransactionServiceReversalTests {
         Assertions.assertEquals(merchant.getName(), createdTransactionDto.getMerchantName());
         Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), createdTransactionDto.getStatus().getId());
         Assertions.assertEquals(TransactionServiceImpl.ERROR_REASON_CANNOT_REVERSE_TRANSACTION_OF_TYPE
-                        + nonAuthTransaction.getType().getId(),
+                        + nonAuthTransaction.getType().name(),
                 createdTransactionDto.getErrorReason());
     }
 
@@ -229,12 +216,12 @@ public class TransactionServiceReversalTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setTotalTransactionSum(new BigDecimal(1000.00))
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()));
+                .setOpeningTransactionSum(new BigDecimal(1000.00))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE);
 
         Transaction authorizeTransaction = TestUtil.createTransactionInstance();
-        authorizeTransaction.setType(new TransactionType().setId(TransactionType.TYPE.AUTHORIZE.name()));
-        authorizeTransaction.setStatus(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
+        authorizeTransaction.setType(TransactionType.TYPE.AUTHORIZE);
+        authorizeTransaction.setStatus(TransactionStatusType.TYPE.ERROR);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -242,13 +229,8 @@ public class TransactionServiceReversalTests {
                 .setBelongsToTransactionId(authorizeTransaction.getId());
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
-        Mockito.when(transactionRepository.lockById(authorizeTransaction.getId()))
+        Mockito.when(transactionRepository.findById(authorizeTransaction.getId()))
                 .thenReturn(Optional.of(authorizeTransaction));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenAnswer(mock -> {
@@ -272,7 +254,7 @@ public class TransactionServiceReversalTests {
         Assertions.assertEquals(TransactionStatusType.TYPE.ERROR.name(), createdTransactionDto.getStatus().getId());
         Assertions.assertEquals(
                 TransactionServiceImpl.ERROR_REASON_CANNOT_REVERSE_AUTHORIZE_TRANSACTION_IN_STATUS
-                        + authorizeTransaction.getStatus().getId(),
+                        + authorizeTransaction.getStatus().name(),
                 createdTransactionDto.getErrorReason());
     }
 }
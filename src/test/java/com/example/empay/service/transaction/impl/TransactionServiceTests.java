@@ -12,8 +12,8 @@ import com.example.empay.entity.transaction.TransactionType;
 import com.example.empay.exception.TransactionValidationException;
 import com.example.empay.repository.merchant.MerchantRepository;
 import com.example.empay.repository.transaction.TransactionRepository;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.merchant.MerchantBalanceService;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import com.example.empay.util.TestUtil;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
@@ -25,6 +25,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -35,6 +36,7 @@ import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -48,10 +50,13 @@ public class TransactionServiceTests {
     MerchantRepository merchantRepository;
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    MerchantBalanceService merchantBalanceService;
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    CustomerTextIndex customerTextIndex;
+
+    @Spy
+    NomenclatureRegistry nomenclatureRegistry = TestUtil.createNomenclatureRegistry();
 
     @InjectMocks
     TransactionServiceImpl transactionService;
@@ -76,8 +81,8 @@ public class TransactionServiceTests {
 
         Assertions.assertTrue(transactionDto.isPresent());
         Assertions.assertEquals(transaction.getId(), transactionDto.get().getId());
-        Assertions.assertEquals(transaction.getType().getId(), transactionDto.get().getTypeId());
-        Assertions.assertEquals(transaction.getStatus().getId(), transactionDto.get().getStatus().getId());
+        Assertions.assertEquals(transaction.getType().name(), transactionDto.get().getTypeId());
+        Assertions.assertEquals(transaction.getStatus().name(), transactionDto.get().getStatus().getId());
         Assertions.assertEquals(transaction.getMerchant().getId(), transactionDto.get().getMerchantId());
         Assertions.assertEquals(transaction.getMerchant().getName(), transactionDto.get().getMerchantName());
         Assertions.assertEquals(transaction.getAmount(), transactionDto.get().getAmount());
@@ -99,6 +104,36 @@ public class TransactionServiceTests {
         Assertions.assertFalse(transactionDto.isPresent());
     }
 
+    @DisplayName("Get lineage ordered from the root")
+    @Test
+    public void getLineageSuccess() {
+        Transaction charge = TestUtil.createTransactionInstance();
+        Transaction refund = TestUtil.createTransactionInstance().setType(TransactionType.TYPE.REFUND)
+                .setBelongsToTransaction(charge);
+
+        Mockito.when(transactionRepository.findLineageIds(refund.getId()))
+                .thenReturn(List.of(charge.getId(), refund.getId()));
+        Mockito.when(transactionRepository.findAllFetchedByIdIn(List.of(charge.getId(), refund.getId())))
+                .thenReturn(List.of(refund, charge));
+
+        List<TransactionDto> lineage = transactionService.getLineage(refund.getId());
+
+        Assertions.assertEquals(2, lineage.size());
+        Assertions.assertEquals(charge.getId(), lineage.get(0).getId());
+        Assertions.assertNull(lineage.get(0).getBelongsToTransaction());
+        Assertions.assertEquals(refund.getId(), lineage.get(1).getId());
+        Assertions.assertEquals(charge.getId(), lineage.get(1).getBelongsToTransaction().getId());
+    }
+
+    @DisplayName("Get lineage not found")
+    @Test
+    public void getLineageNotFound() {
+        Mockito.when(transactionRepository.findLineageIds(Mockito.any(UUID.class))).thenReturn(List.of());
+
+        Assertions.assertTrue(transactionService.getLineage(UUID.randomUUID()).isEmpty());
+        Mockito.verify(transactionRepository, Mockito.never()).findAllFetchedByIdIn(Mockito.anyCollection());
+    }
+
     @DisplayName("Search by amount between 10 and 20")
     @Test
     public void searchByAmountBetween() {
@@ -115,6 +150,7 @@ public class TransactionServiceTests {
         searchRequest.setAscending(true);
         SearchCriteria searchCriteria = new SearchCriteria("amount", "bt", new BigDecimal(10), new BigDecimal(20));
         searchRequest.setSearchCriteriaList(Collections.singletonList(searchCriteria));
+        TestUtil.mockMetamodel(entityManager, Transaction.class, Map.of("amount", BigDecimal.class));
 
         Page<TransactionDto> pageResult = transactionService.findBySearchCriteria(searchRequest, 10, 0, 1L);
 
@@ -152,7 +188,7 @@ public class TransactionServiceTests {
         Merchant merchant = new Merchant()
                 .setId(1L)
                 .setName("Test Merchant")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.INACTIVE.name()));
+                .setStatus(MerchantStatusType.STATUS.INACTIVE);
 
         TransactionCreateRequest createRequest = new TransactionCreateRequest()
                 .setAmount(new BigDecimal(10.12))
@@ -161,11 +197,6 @@ public class TransactionServiceTests {
                 .setCustomerPhone("123123123");
 
         Mockito.when(merchantRepository.findById(merchant.getId())).thenReturn(Optional.of(merchant));
-        Mockito.when(transactionTypeRepository.getReferenceById(createRequest.getTypeId()))
-                .thenReturn(new TransactionType().setId(createRequest.getTypeId()));
-
-        Mockito.when(transactionStatusTypeRepository.getReferenceById(TransactionStatusType.TYPE.ERROR.name()))
-                .thenReturn(new TransactionStatusType().setId(TransactionStatusType.TYPE.ERROR.name()));
 
         Mockito.when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
                 .thenAnswer(mock -> {
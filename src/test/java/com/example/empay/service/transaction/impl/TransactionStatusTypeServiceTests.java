@@ -1,8 +1,9 @@
 package com.example.empay.service.transaction.impl;
 
+import com.example.empay.dto.mapper.TransactionStatusTypeDtoMapper;
 import com.example.empay.dto.transaction.TransactionStatusTypeDto;
 import com.example.empay.entity.transaction.TransactionStatusType;
-import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,14 +16,13 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 public class TransactionStatusTypeServiceTests {
 
     @Mock
-    TransactionStatusTypeRepository transactionStatusTypeRepository;
+    NomenclatureRegistry nomenclatureRegistry;
 
     @InjectMocks
     TransactionStatusTypeServiceImpl transactionStatusTypeService;
@@ -39,9 +39,10 @@ public class TransactionStatusTypeServiceTests {
                 .setId(TransactionStatusType.TYPE.APPROVED.name())
                 .setName("Approved");
 
-        List<TransactionStatusType> transactionStatusTypeList = Collections.singletonList(transactionStatusType);
+        List<TransactionStatusTypeDto> registryDtoList =
+                List.of(TransactionStatusTypeDtoMapper.toDto(transactionStatusType));
 
-        Mockito.when(transactionStatusTypeRepository.findAll()).thenReturn(transactionStatusTypeList);
+        Mockito.when(nomenclatureRegistry.getTransactionStatusTypes()).thenReturn(registryDtoList);
 
         Collection<TransactionStatusTypeDto> transactionStatusTypeDtoList = transactionStatusTypeService.findAll();
 
@@ -1,8 +1,9 @@
 package com.example.empay.service.transaction.impl;
 
+import com.example.empay.dto.mapper.TransactionTypeDtoMapper;
 import com.example.empay.dto.transaction.TransactionTypeDto;
 import com.example.empay.entity.transaction.TransactionType;
-import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,14 +16,13 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 public class TransactionTypeServiceTests {
 
     @Mock
-    TransactionTypeRepository transactionTypeRepository;
+    NomenclatureRegistry nomenclatureRegistry;
 
     @InjectMocks
     TransactionTypeServiceImpl transactionTypeService;
@@ -39,9 +39,10 @@ public class TransactionTypeServiceTests {
                 .setId(TransactionType.TYPE.CHARGE.name())
                 .setName("Charge");
 
-        List<TransactionType> transactionTypeList = Collections.singletonList(transactionType);
+        List<TransactionTypeDto> registryDtoList =
+                List.of(TransactionTypeDtoMapper.toDto(transactionType));
 
-        Mockito.when(transactionTypeRepository.findAll()).thenReturn(transactionTypeList);
+        Mockito.when(nomenclatureRegistry.getTransactionTypes()).thenReturn(registryDtoList);
 
         Collection<TransactionTypeDto> transactionTypeDtoList = transactionTypeService.findAll();
 
@@ -3,6 +3,7 @@ package com.example.empay.task;
 import com.example.empay.dto.merchant.MerchantDto;
 import com.example.empay.dto.merchant.MerchantIdentifierTypeDto;
 import com.example.empay.dto.merchant.MerchantStatusTypeDto;
+import com.example.empay.exception.MerchantValidationException;
 import com.example.empay.service.merchant.MerchantsImportService;
 import com.example.empay.service.merchant.impl.MerchantImportException;
 import com.example.empay.util.Constants;
@@ -67,15 +68,12 @@ public class ImportMerchantsTaskTests {
         Assertions.assertEquals(0, numberOfImportedMerchants);
     }
 
-    @DisplayName("Failed import of CSV file due to DataIntegrityViolationException for status ID")
+    @DisplayName("Failed import of CSV file due to MerchantValidationException for status ID")
     @Test
-    public void importCsvFileThrowsDataIntegrityViolationForStatusId() throws IOException, MerchantImportException {
-        org.hibernate.exception.ConstraintViolationException cve =
-                new org.hibernate.exception.ConstraintViolationException("error message", null,
-                        Constants.FK_MERCHANT_STATUS_ID);
-        DataIntegrityViolationException dEx = new DataIntegrityViolationException("error message", cve);
+    public void importCsvFileThrowsMerchantValidationForStatusId() throws IOException, MerchantImportException {
+        MerchantValidationException vEx = new MerchantValidationException("Merchant status [WRONG ID] does not exist.");
         MerchantDto failedMerchant = new MerchantDto().setStatus(new MerchantStatusTypeDto().setId("WRONG ID"));
-        MerchantImportException mEx = new MerchantImportException("error", 1, failedMerchant, dEx);
+        MerchantImportException mEx = new MerchantImportException("error", 1, failedMerchant, vEx);
         Mockito.when(merchantsImportService.importMerchants(Mockito.any(Reader.class))).thenThrow(mEx);
         int numberOfImportedMerchants = importMerchantsTask.importMerchants(Mockito.mock(Reader.class));
         Mockito.verify(merchantsImportService).importMerchants(Mockito.any(Reader.class));
@@ -6,14 +6,30 @@ import com.example.empay.entity.merchant.MerchantStatusType;
 import com.example.empay.entity.transaction.Transaction;
 import com.example.empay.entity.transaction.TransactionStatusType;
 import com.example.empay.entity.transaction.TransactionType;
+import com.example.empay.repository.merchant.MerchantIdentifierTypeRepository;
+import com.example.empay.repository.merchant.MerchantStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionStatusTypeRepository;
+import com.example.empay.repository.transaction.TransactionTypeRepository;
+import com.example.empay.service.nomenclature.NomenclatureRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Path;
 import jakarta.validation.metadata.ConstraintDescriptor;
 import org.hibernate.validator.internal.engine.path.PathImpl;
+import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Utilities for testing.
@@ -96,8 +112,8 @@ public class TestUtil {
     public static Transaction createTransactionInstance() {
         return (Transaction) new Transaction()
                 .setId(UUID.randomUUID())
-                .setType(new TransactionType().setId(TransactionType.TYPE.CHARGE.toString()))
-                .setStatus(new TransactionStatusType().setId(TransactionStatusType.TYPE.APPROVED.toString()))
+                .setType(TransactionType.TYPE.CHARGE)
+                .setStatus(TransactionStatusType.TYPE.APPROVED)
                 .setAmount(new BigDecimal(10.23))
                 .setMerchant(new Merchant().setId(1L).setName("Test Merchant"))
                 .setReferenceId("123123")
@@ -112,8 +128,66 @@ public class TestUtil {
                 .setId(1L)
                 .setName("Test merchant")
                 .setEmail("merchant@nosuchemail.com")
-                .setStatus(new MerchantStatusType().setId(MerchantStatusType.STATUS.ACTIVE.name()))
+                .setStatus(MerchantStatusType.STATUS.ACTIVE)
                 .setIdentifierType(new MerchantIdentifierType().setId("EIK_BG"))
                 .setIdentifierValue("123");
     }
+
+    /**
+     * Create a nomenclature registry loaded from mocked repositories returning the nomenclature of the data scripts.
+     *
+     * @return A loaded {@link NomenclatureRegistry}.
+     */
+    public static NomenclatureRegistry createNomenclatureRegistry() {
+        TransactionTypeRepository transactionTypeRepository = Mockito.mock(TransactionTypeRepository.class);
+        Mockito.when(transactionTypeRepository.findAll()).thenReturn(Arrays.stream(TransactionType.TYPE.values())
+                .map(it -> new TransactionType().setId(it.name()).setName(toName(it.name()))).toList());
+        TransactionStatusTypeRepository transactionStatusTypeRepository =
+                Mockito.mock(TransactionStatusTypeRepository.class);
+        Mockito.when(transactionStatusTypeRepository.findAll()).thenReturn(
+                Arrays.stream(TransactionStatusType.TYPE.values())
+                        .map(it -> new TransactionStatusType().setId(it.name()).setName(toName(it.name()))).toList());
+        MerchantStatusTypeRepository merchantStatusTypeRepository = Mockito.mock(MerchantStatusTypeRepository.class);
+        Mockito.when(merchantStatusTypeRepository.findAll()).thenReturn(
+                Arrays.stream(MerchantStatusType.STATUS.values())
+                        .map(it -> new MerchantStatusType().setId(it.name()).setName(toName(it.name()))).toList());
+        MerchantIdentifierTypeRepository merchantIdentifierTypeRepository =
+                Mockito.mock(MerchantIdentifierTypeRepository.class);
+        Mockito.when(merchantIdentifierTypeRepository.findAll()).thenReturn(List.of(
+                new MerchantIdentifierType().setId("EIK_BG").setName("EIK (BG)"),
+                new MerchantIdentifierType().setId("BTBSNUM_DE").setName("Betriebsnummer (DE)"),
+                new MerchantIdentifierType().setId("CORPNUM_US").setName("Corporate Number (USA)")));
+
+        NomenclatureRegistry nomenclatureRegistry = new NomenclatureRegistry(transactionTypeRepository,
+                transactionStatusTypeRepository, merchantStatusTypeRepository, merchantIdentifierTypeRepository, 3600);
+        nomenclatureRegistry.load();
+        return nomenclatureRegistry;
+    }
+
+    private static String toName(final String id) {
+        return id.charAt(0) + id.substring(1).toLowerCase();
+    }
+
+    /**
+     * Stub the metamodel of a mocked EntityManager with the basic attributes of an entity.
+     *
+     * @param entityManager The mocked EntityManager.
+     * @param entityClass   The class of the entity.
+     * @param attributes    The Java types of the basic attributes by name.
+     */
+    public static void mockMetamodel(final EntityManager entityManager, final Class<?> entityClass,
+                                     final Map<String, Class<?>> attributes) {
+        Set<SingularAttribute> singularAttributes = attributes.entrySet().stream().map(it -> {
+            SingularAttribute attribute = Mockito.mock(SingularAttribute.class);
+            Mockito.when(attribute.getName()).thenReturn(it.getKey());
+            Mockito.when(attribute.getJavaType()).thenReturn(it.getValue());
+            Mockito.when(attribute.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+            return attribute;
+        }).collect(Collectors.toSet());
+        EntityType entityType = Mockito.mock(EntityType.class);
+        Mockito.when(entityType.getSingularAttributes()).thenReturn(singularAttributes);
+        Metamodel metamodel = Mockito.mock(Metamodel.class);
+        Mockito.when(metamodel.entity(entityClass)).thenReturn(entityType);
+        Mockito.when(entityManager.getMetamodel()).thenReturn(metamodel);
+    }
 }
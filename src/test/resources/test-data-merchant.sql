@@ -1,6 +1,6 @@
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION)  VALUES (1, 'Demo Merchant 1', 'merchant1@test.com', 'ACTIVE', 'EIK_BG', '1234567890', 0, 1);
-insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION)  VALUES (2, 'Merchant with transactions', 'merchant2@test.com', 'ACTIVE', 'EIK_BG', '1111111111', 100.23, 1);
-insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('6F683D71DBCC41EDB55251130C00852C', 'CHARGE', '100.23', 'APPROVED', 2, 1);
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (1, 'Demo Merchant 1', 'merchant1@test.com', 'A', 'EIK_BG', '1234567890', 0, 1, 'demo merchant 1', '1 tnahcrem omed', 'merchant1@test.com', 'moc.tset@1tnahcrem');
+insert into MERCHANT (ID, NAME, EMAIL, STATUS_ID, IDENTIFIER_TYPE_ID, IDENTIFIER_VALUE, TOTAL_TRANSACTION_SUM, VERSION, NAME_LOWER, NAME_REVERSED, EMAIL_LOWER, EMAIL_REVERSED)  VALUES (2, 'Merchant with transactions', 'merchant2@test.com', 'A', 'EIK_BG', '1111111111', 100.23, 1, 'merchant with transactions', 'snoitcasnart htiw tnahcrem', 'merchant2@test.com', 'moc.tset@2tnahcrem');
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('6F683D71DBCC41EDB55251130C00852C', 'C', '100.23', 'A', 2, 1);
 
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (2, 'merchant1', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 1, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
 insert into USER_LOGIN (ID, USERNAME, CURRENT_PASSWORD, MERCHANT_ID, ROLE_ID, ENABLED, EXPIRED, LOCKED, HAS_LOGGED_OUT, REQUIRE_PASSWORD_CHANGE, VERSION) VALUES (3, 'merchant2', '{bcrypt}$2a$10$tIB8U.qNvLgtiRByQWM/m.m3kqu0acLGSp4r/vhjZY9B2G.orPSri', 2, 'MERCHANT', 'TRUE', 'FALSE', 'FALSE', 'FALSE', 'FALSE', 1);
@@ -0,0 +1,8 @@
+-- UUID: 9a1c3f4e-2b7d-4e8a-9c61-0d2e5f7a8b90
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('9A1C3F4E2B7D4E8A9C610D2E5F7A8B90', 'C', '50.00', 'R', 4, 1);
+-- UUID: 4b8e2d1a-6c3f-4a9b-8e72-1f0d3c5b7a64
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION, BELONGS_TO_TRANSACTION_ID) VALUES ('4B8E2D1A6C3F4A9B8E721F0D3C5B7A64', 'R', '50.00', 'A', 4, 1, '9A1C3F4E2B7D4E8A9C610D2E5F7A8B90');
+-- UUID: 7e5d9c2b-1a4f-4c8e-b3d6-2a9f0e7c5b18
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION) VALUES ('7E5D9C2B1A4F4C8EB3D62A9F0E7C5B18', 'A', '30.00', 'V', 4, 1);
+-- UUID: 1f3b5d7e-9a2c-4e6b-8d0f-3c5e7a9b1d24
+insert into TRANSACTION (ID, TYPE_ID, AMOUNT, STATUS_ID, MERCHANT_ID, VERSION, BELONGS_TO_TRANSACTION_ID) VALUES ('1F3B5D7E9A2C4E6B8D0F3C5E7A9B1D24', 'V', NULL, 'A', 4, 1, '7E5D9C2B1A4F4C8EB3D62A9F0E7C5B18');